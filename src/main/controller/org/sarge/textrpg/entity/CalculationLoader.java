@@ -77,11 +77,11 @@ public class CalculationLoader {
 		case "value":
 			final EntityValue entityValue = xml.attribute("value").toValue(EntityValue.CONVERTER);
 			final EntityValue.Key.Type type = xml.attribute("type").toValue(Key.Type.DEFAULT, KEY);
-			return src -> src.modifier(entityValue.key(type)).get();
+			return Calculation.modifier(entityValue.key(type));
 
 		case "attribute":
 			final Attribute attr = xml.attribute("attribute").toValue(Attribute.CONVERTER);
-			return src -> src.modifier(attr).get();
+			return Calculation.modifier(attr);
 
 		default:
 			throw xml.exception("Invalid integer-value type: " + xml.name());
@@ -9,6 +9,9 @@ import org.sarge.textrpg.util.ValueModifier;
 
 /**
  * Entity-value calculator.
+ * <p>
+ * Note that the calculations are compiled when added to the calculator, see {@link Calculation#compile(Calculation)}.
+ * <p>
  * @author Sarge
  */
 public class EntityValueCalculator extends AbstractObject {
@@ -50,7 +53,7 @@ public class EntityValueCalculator extends AbstractObject {
 		 */
 		public Builder add(EntityValue key, Calculation value) {
 			if(!key.isPrimary()) throw new IllegalArgumentException("Only primary entity-values can be calculated: " + key);
-			map.put(key, value);
+			map.put(key, Calculation.compile(value));
 			return this;
 		}
 
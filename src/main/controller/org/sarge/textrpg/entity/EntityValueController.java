@@ -4,14 +4,15 @@ import static org.sarge.lib.util.Check.notNull;
 import static org.sarge.lib.util.Check.oneOrMore;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.function.Function;
 
+import org.sarge.textrpg.entity.EntityValueIntegerMap.CumulativeEntry;
 import org.sarge.textrpg.object.Light;
-import org.sarge.textrpg.runner.SessionManager;
+import org.sarge.textrpg.util.Clock;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.DurationConverter;
 import org.sarge.textrpg.util.Event;
-import org.sarge.textrpg.util.MutableIntegerMap;
 import org.sarge.textrpg.util.Percentile;
 import org.sarge.textrpg.util.TextHelper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,12 +22,18 @@ import org.springframework.stereotype.Controller;
 
 /**
  * Controller for initialising and updating transient entity values.
+ * <p>
+ * If an {@link EntityValueStore} is configured the values of <b>all</b> initialised entities (not just players) are held in the store.
+ * Regeneration is then applied in bulk to the store rather than per entity, see {@link #setStore(EntityValueStore, Duration)}.
+ * <p>
+ * Hunger and thirst are {@link EntityValueIntegerMap.CumulativeEntry} values that are derived on access, i.e. no periodic work is required.
+ * Alerts are scheduled as one-shot events at the predicted time that a value exceeds the warning threshold or reaches the maximum, and are re-scheduled whenever the value is modified, e.g. when the entity eats or drinks.
+ * <p>
  * @author Sarge
  */
 @Controller
 public class EntityValueController {
 	private final Event.Queue queue;
-	private final SessionManager manager;
 	private final EntityValueCalculator init;
 	private final EntityValueCalculator update;
 
@@ -36,24 +43,25 @@ public class EntityValueController {
 	private long tick = Duration.ofSeconds(1).toMillis();
 	private float camp = 1;
 
+	private EntityValueStore store;
+	private float[][] amounts = new float[EntityValue.PRIMARY_VALUES.size()][0];
+	private long regenerated;
+
 	/**
 	 * Constructor.
 	 * @param queue			Event queue
-	 * @param manager		Session manager for entity updates
 	 * @param init			Initialiser
 	 * @param update		Updater
 	 */
-	public EntityValueController(Event.Queue queue, SessionManager manager, @Qualifier("calc.init") EntityValueCalculator init, @Qualifier("calc.update") EntityValueCalculator update) {
+	public EntityValueController(Event.Queue queue, @Qualifier("calc.init") EntityValueCalculator init, @Qualifier("calc.update") EntityValueCalculator update) {
 		this.queue = notNull(queue);
-		this.manager = notNull(manager);
 		this.init = notNull(init);
 		this.update = notNull(update);
-		queue.add(this::increment, period);
 	}
 
 	/**
-	 * Sets the iteration period for transient value increments.
-	 * @param period Iteration period
+	 * Sets the accumulation period for hunger and thirst, i.e. the duration for each increment.
+	 * @param period Accumulation period
 	 */
 	@Autowired
 	public void setPeriod(@Value("${entity.iteration.period}") Duration period) {
@@ -96,56 +104,152 @@ public class EntityValueController {
 		this.camp = oneOrMore(camp);
 	}
 
+	/**
+	 * Sets the columnar store for entity-values.
+	 * @param store			Entity-value store
+	 * @param period		Regeneration period
+	 */
+	@Autowired(required=false)
+	public void setStore(EntityValueStore store, @Value("${entity.store.period}") Duration period) {
+		this.store = notNull(store);
+		this.regenerated = queue.manager().now();
+		queue.add(this::regenerate, DurationConverter.oneOrMore(period));
+	}
+
 	/**
 	 * Initialises the entity-values of the given entity.
 	 * @param entity Entity
 	 */
 	public void init(Entity entity) {
+		// Attach to store
 		final EntityValueIntegerMap map = entity.model().values();
+		if((store != null) && !map.isAttached()) {
+			store.add(entity);
+		}
+
+		// Init values
 		for(EntityValue key : EntityValue.PRIMARY_VALUES) {
 			final int value = (int) init.calculate(key, entity.model());
 			if(value == 0) throw new IllegalStateException("Calculated entity-value is zero: " + key);
 			map.get(key.key()).set(value);
 		}
+
+		// Init hunger and thirst
+		accumulate(entity, EntityValue.THIRST);
+		accumulate(entity, EntityValue.HUNGER);
 	}
 
 	/**
-	 * Increments cumulative entity-values for <b>all</b> active players.
+	 * Initialises a cumulative value and schedules the first alert.
+	 * @param entity		Entity
+	 * @param value			Cumulative value
 	 */
-	protected boolean increment() {
-		manager.players().forEach(this::increment);
-		return true;
+	private void accumulate(Entity entity, EntityValue value) {
+		final Clock clock = entity.manager().queue().manager();
+		final CumulativeEntry entry = entity.model().values().accumulate(value, clock, period.toMillis());
+		entry.listener(() -> schedule(entity, value, entry));
+		schedule(entity, value, entry);
 	}
 
 	/**
-	 * Increments cumulative values for the given player.
-	 * @param player Player
+	 * Schedules the next alert for a cumulative value.
+	 * <p>
+	 * An alert is generated when the value first exceeds the warning threshold and a critical alert when it reaches the maximum.
+	 * No further alerts are generated until the value is next modified.
+	 * <p>
+	 * @param entity		Entity
+	 * @param value			Cumulative value
+	 * @param entry			Entry
 	 */
-	private void increment(Entity player) {
-		increment(player, EntityValue.THIRST);
-		increment(player, EntityValue.HUNGER);
+	private void schedule(Entity entity, EntityValue value, CumulativeEntry entry) {
+		// Determine next alert
+		final int current = entry.get();
+		final int next;
+		if(current <= threshold) {
+			next = Math.min(threshold + 1, Percentile.MAX);
+		}
+		else
+		if(current < Percentile.MAX) {
+			next = Percentile.MAX;
+		}
+		else {
+			entry.alert().cancel();
+			return;
+		}
+
+		// Schedule alert at predicted time
+		final Event.Queue q = entity.manager().queue();
+		final long delay = Math.max(1, entry.time(next) - q.manager().now());
+		final Event event = () -> {
+			alert(entity, value, entry.get() >= Percentile.MAX);
+			schedule(entity, value, entry);
+			return false;
+		};
+		entry.alert().set(q.add(event, Duration.ofMillis(delay)));
 	}
 
 	/**
-	 * Increments a transient value and generates notifications accordingly.
+	 * Generates a hunger/thirst alert.
 	 * @param entity		Entity
-	 * @param value			Value to increment
+	 * @param value			Value
+	 * @param critical		Whether the value has reached the maximum
 	 */
-	private void increment(Entity entity, EntityValue value) {
-		// Check for maximum
-		final MutableIntegerMap.MutableEntry entry = entity.model().values().get(value.key());
-		if(entry.get() >= Percentile.MAX) {
-			entity.alert(new Description(TextHelper.join("entity.critical", value.name())));
-			return;
+	private static void alert(Entity entity, EntityValue value, boolean critical) {
+		final String key = critical ? "entity.critical" : "entity.alert";
+		entity.alert(new Description(TextHelper.join(key, value.name())));
+	}
+
+	/**
+	 * Regenerates the primary values of <b>all</b> entities in the store.
+	 * <p>
+	 * The regeneration amount for each entity is first calculated for the number of elapsed ticks.
+	 * The amounts are then applied to the store for each primary value.
+	 * <p>
+	 * @return Whether to repeat
+	 */
+	protected boolean regenerate() {
+		// Determine number of elapsed ticks
+		final long now = queue.manager().now();
+		final long num = (now - regenerated) / tick;
+		if(num < 1) {
+			return true;
+		}
+		regenerated += num * tick;
+
+		// Allocate regeneration amounts
+		final int limit = store.limit();
+		if(amounts[0].length < limit) {
+			for(int n = 0; n < amounts.length; ++n) {
+				amounts[n] = new float[limit];
+			}
+		}
+		else {
+			for(float[] array : amounts) {
+				Arrays.fill(array, 0);
+			}
 		}
 
-		// Increment value
-		final int result = entry.modify(1);
+		// Calculate regeneration amounts
+		store.forEach((entity, slot) -> {
+			// Ignore if swimming
+			if(entity.model().stance() == Stance.SWIMMING) {
+				return;
+			}
 
-		// Notify if threshold exceeded
-		if(result > threshold) {
-			entity.alert(new Description(TextHelper.join("entity.alert", value.name())));
+			// Calculate amounts
+			final float mod = num * modifier(entity);
+			for(int n = 0; n < amounts.length; ++n) {
+				final EntityValue key = EntityValue.PRIMARY_VALUES.get(n);
+				amounts[n][slot] = mod * (float) update.calculate(key, entity.model());
+			}
+		});
+
+		// Apply to store
+		for(int n = 0; n < amounts.length; ++n) {
+			store.regenerate(EntityValue.PRIMARY_VALUES.get(n), amounts[n]);
 		}
+
+		return true;
 	}
 
 	/**
@@ -154,6 +258,11 @@ public class EntityValueController {
 	 * @see EntityManager#update(long)
 	 */
 	public void update(Entity entity) {
+		// Ignore if updated in bulk
+		if(entity.model().values().isAttached()) {
+			return;
+		}
+
 		// Calculate time difference between updates
 		final long now = queue.manager().now();
 		final long last = entity.manager().updated();
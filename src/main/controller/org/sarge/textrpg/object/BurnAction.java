@@ -13,6 +13,7 @@ import org.sarge.textrpg.common.Induction;
 import org.sarge.textrpg.common.RequiredObject;
 import org.sarge.textrpg.common.RequiresActor;
 import org.sarge.textrpg.common.Response;
+import org.sarge.textrpg.contents.ContentStateChange;
 import org.sarge.textrpg.contents.Contents;
 import org.sarge.textrpg.contents.Parent;
 import org.sarge.textrpg.contents.Thing;
@@ -147,6 +148,7 @@ public class BurnAction extends AbstractAction {
 			final Event expiry = () -> {
 				// Extinguish pyre
 				pyre.active = false;
+				pyre.raise(ContentStateChange.LIGHT_MODIFIED);
 
 				// Add corpse contents
 				// TODO - helper
@@ -113,6 +113,7 @@ public class LightController {
 		// Register expiry event
 		final Event expiry = () -> {
 			light.expire();
+			notify(light);
 			raise(light, "light.expired");
 			if(light.type() != Light.Type.LANTERN) {
 				controller.decay(light);
@@ -68,7 +68,7 @@ public class ActionParser {
 		if(!cursor.capacity(size + 1)) throw new IllegalStateException(String.format("Insufficient capacity: size=%d cursor=%s", size, cursor));
 
 		// Init parsers for this action
-		group.add(() -> action.action().parsers(actor));
+		final ArgumentParserGroup local = group.with(() -> action.action().parsers(actor));
 
 		// Find matching arguments
 		for(int n = 0; n < size; ++n) {
@@ -78,7 +78,7 @@ public class ActionParser {
 			// Lookup parsers for the next parameter
 			LOG.debug("{} Parsing: index={} param={}", id, n, params.get(n));
 			final Class<?> type = params.get(n).type();
-			final Iterator<ArgumentParser<?>> iterator = group.iterator(type);
+			final Iterator<ArgumentParser<?>> iterator = local.iterator(type);
 			if(!iterator.hasNext()) throw new UnsupportedOperationException("Unsupported argument type: " + type);
 
 			// Apply candidate parsers
@@ -12,11 +12,26 @@ import org.sarge.textrpg.common.ArgumentParser;
 
 /**
  * Iterator over a group of argument parsers.
+ * <p>
+ * A group can be re-used across commands, parsers that are specific to a given command are added to a transient copy using {@link #with(Supplier)}.
+ * <p>
  * @author Sarge
  */
 public class ArgumentParserGroup {
 	private final List<Supplier<ArgumentParser.Registry>> group = new StrictList<>();
 
+	/**
+	 * Creates a copy of this group with the given additional registry.
+	 * @param registry Registry
+	 * @return New group
+	 */
+	public ArgumentParserGroup with(Supplier<ArgumentParser.Registry> registry) {
+		final ArgumentParserGroup copy = new ArgumentParserGroup();
+		copy.group.addAll(group);
+		copy.add(registry);
+		return copy;
+	}
+
 	/**
 	 * Adds a registry.
 	 * @param registry Registry
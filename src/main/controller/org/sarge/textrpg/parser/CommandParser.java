@@ -1,12 +1,9 @@
 package org.sarge.textrpg.parser;
 
-import static java.util.stream.Collectors.toList;
 import static org.sarge.lib.util.Check.notNull;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.sarge.lib.collection.StrictList;
@@ -18,6 +15,7 @@ import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.entity.PlayerCharacter;
 import org.sarge.textrpg.parser.ParserResult.Reason;
 import org.sarge.textrpg.runner.ActionDescriptor;
+import org.sarge.textrpg.util.LatencyHistogram;
 import org.sarge.textrpg.util.NameStore;
 import org.sarge.textrpg.util.WordCursor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,19 +32,24 @@ import org.springframework.stereotype.Component;
  * <li>Match command words against the action arguments</li>
  * <li>Match the optional effort argument</li>
  * </ol>
+ * <p>
+ * Candidate actions are looked up from a {@link VerbTable} that is rebuilt whenever actions are registered, i.e. parsing a command does not modify the state of this parser.
+ * The argument parsers for a given player are created once by {@link #group(PlayerCharacter, ArgumentParser)} and re-used for subsequent commands.
+ * <p>
+ * The parser records a {@link #latency()} histogram of the duration of each command (ns).
+ * <p>
  * @author Sarge
  */
 @Component
 public class CommandParser {
-	@Autowired
 	private final List<ActionDescriptor> actions = new StrictList<>();
-
 	private final ArgumentParser.Registry registry;
 	private final ActionParser parser;
 	private final NameStore store;
-	private final Set<String> stop;
+	private final WordCursor.StopWords stop;
+	private final LatencyHistogram latency = new LatencyHistogram();
 
-	private transient final Map<String, List<ActionDescriptor>> cache = new HashMap<>();
+	private volatile VerbTable table = VerbTable.EMPTY;
 
 	/**
 	 * Constructor.
@@ -59,39 +62,47 @@ public class CommandParser {
 		this.parser = notNull(parser);
 		this.registry = notNull(registry);
 		this.store = notNull(store);
-		this.stop = Set.copyOf(stop);
+		this.stop = new WordCursor.StopWords(stop);
+	}
+
+	/**
+	 * Registers actions.
+	 * @param actions Actions to add
+	 */
+	@Autowired
+	public synchronized void setActions(List<ActionDescriptor> actions) {
+		this.actions.addAll(actions);
+		table = VerbTable.build(this.actions, store);
 	}
 
 	/**
 	 * Registers an action.
 	 * @param action Action to add
 	 */
-	public void add(ActionDescriptor action) {
+	public synchronized void add(ActionDescriptor action) {
 		actions.add(action);
+		table = VerbTable.build(actions, store);
 	}
 
 	/**
-	 * Parses the given command.
+	 * @return Parse latency histogram (ns)
+	 */
+	public LatencyHistogram latency() {
+		return latency;
+	}
+
+	/**
+	 * Creates the group of argument parsers for the given actor.
 	 * @param actor			Actor
-	 * @param line			Command line
-	 * @param store			Name-store for the given actor
 	 * @param def			Thing argument parser for the given actor
-	 * @return Result
-	 * @throws IllegalArgumentException if the command is empty
+	 * @return Parser group
 	 */
-	public ParserResult parse(PlayerCharacter actor, String line, NameStore store, ArgumentParser<?> def) {
-		// Create cursor
-		final WordCursor cursor = new WordCursor(line.trim().toLowerCase(), store, stop);
-
-		// Extract verb
-		if(!cursor.remaining(1)) throw new IllegalArgumentException("Empty command line");
-		final String verb = cursor.next();
-
+	public ArgumentParserGroup group(PlayerCharacter actor, ArgumentParser<?> def) {
 		// Init parsers for the actor
+		final List<ArgumentParser<?>> things = List.of(def, new PreviousObjectArgumentParser(actor));
 		final ArgumentParser.Registry local = type -> {
-			final ArgumentParser<?> prev = new PreviousObjectArgumentParser(actor);
 			if(isThingType(type)) {
-				return List.of(def, prev);
+				return things;
 			}
 			else {
 				return List.of();
@@ -102,10 +113,42 @@ public class CommandParser {
 		final ArgumentParserGroup group = new ArgumentParserGroup();
 		group.add(() -> registry);
 		group.add(() -> local);
+		return group;
+	}
+
+	/**
+	 * Parses the given command.
+	 * @param actor			Actor
+	 * @param line			Command line
+	 * @param store			Name-store for the given actor
+	 * @param group			Argument parsers for the given actor
+	 * @return Result
+	 * @throws IllegalArgumentException if the command is empty
+	 * @see #group(PlayerCharacter, ArgumentParser)
+	 */
+	public ParserResult parse(PlayerCharacter actor, String line, NameStore store, ArgumentParserGroup group) {
+		final long start = System.nanoTime();
+		try {
+			return parseCommand(actor, line, store, group);
+		}
+		finally {
+			latency.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Parses the given command.
+	 */
+	private ParserResult parseCommand(PlayerCharacter actor, String line, NameStore store, ArgumentParserGroup group) {
+		// Create cursor
+		final WordCursor cursor = new WordCursor(line.trim().toLowerCase(), store, stop);
+
+		// Extract verb
+		if(!cursor.remaining(1)) throw new IllegalArgumentException("Empty command line");
+		final CharSequence verb = cursor.nextWord();
 
 		// Enumerate matching actions
-		// TODO - will get cluttered with empty lists for cobblers commands
-		final List<ActionDescriptor> matched = cache.computeIfAbsent(verb, this::actions);
+		final List<ActionDescriptor> matched = table.actions(verb);
 		if(matched.isEmpty()) return ParserResult.FAILED;
 
 		// Parse candidate actions (and accumulate reasons as a nasty side-effect)
@@ -118,13 +161,6 @@ public class CommandParser {
 			.orElseGet(() -> ParserResult.merge(reasons));
 	}
 
-	/**
-	 * Finds actions matching the given verb.
-	 */
-	private List<ActionDescriptor> actions(String verb) {
-		return actions.stream().filter(action -> this.store.matches(action.name(), verb)).collect(toList());
-	}
-
 	/**
 	 * @param type Parameter type
 	 * @return Whether the given type is-a <i>thing</i>
@@ -0,0 +1,161 @@
+package org.sarge.textrpg.parser;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.sarge.textrpg.runner.ActionDescriptor;
+import org.sarge.textrpg.util.NameStore;
+
+/**
+ * The <i>verb table</i> is an immutable prefix trie that maps command verbs to the candidate actions for that verb.
+ * <p>
+ * The table is indexed by <b>all</b> the names of each action in the actions name-store, i.e. including synonyms and abbreviations such as <tt>look | l</tt>.
+ * Candidate actions for each verb are listed in the order in which they were registered.
+ * <p>
+ * Looking up a verb walks the trie and does not allocate, unknown verbs are therefore rejected without polluting a cache.
+ * <p>
+ * @author Sarge
+ */
+final class VerbTable {
+	/**
+	 * Empty table.
+	 */
+	static final VerbTable EMPTY = new VerbTable(new Node(new char[0], new Node[0], List.of()), 0);
+
+	/**
+	 * Trie node.
+	 */
+	private static final class Node {
+		private final char[] keys;
+		private final Node[] children;
+		private final List<ActionDescriptor> actions;
+
+		private Node(char[] keys, Node[] children, List<ActionDescriptor> actions) {
+			this.keys = keys;
+			this.children = children;
+			this.actions = actions;
+		}
+
+		/**
+		 * Looks up a child node.
+		 * @param ch Character
+		 * @return Child node or <tt>null</tt> if not present
+		 */
+		private Node child(char ch) {
+			final int index = Arrays.binarySearch(keys, ch);
+			if(index < 0) {
+				return null;
+			}
+			else {
+				return children[index];
+			}
+		}
+	}
+
+	/**
+	 * Mutable node used while building the table.
+	 */
+	private static final class Builder {
+		private final Map<Character, Builder> children = new TreeMap<>();
+		private final List<ActionDescriptor> actions = new ArrayList<>();
+
+		/**
+		 * Adds an action to this node.
+		 */
+		private void add(ActionDescriptor action) {
+			if(!actions.contains(action)) {
+				actions.add(action);
+			}
+		}
+
+		/**
+		 * Builds the immutable node.
+		 */
+		private Node build() {
+			final char[] keys = new char[children.size()];
+			final Node[] nodes = new Node[children.size()];
+			int n = 0;
+			for(Map.Entry<Character, Builder> entry : children.entrySet()) {
+				keys[n] = entry.getKey();
+				nodes[n] = entry.getValue().build();
+				++n;
+			}
+			return new Node(keys, nodes, List.copyOf(actions));
+		}
+	}
+
+	/**
+	 * Builds a verb table.
+	 * @param actions		Actions
+	 * @param store			Actions name-store
+	 * @return New verb table
+	 */
+	static VerbTable build(List<ActionDescriptor> actions, NameStore store) {
+		notNull(store);
+		final Builder root = new Builder();
+		final int[] count = {0};
+		for(ActionDescriptor action : actions) {
+			store.names(action.name()).forEach(name -> {
+				// Walk to node for this name
+				Builder node = root;
+				for(int n = 0; n < name.length(); ++n) {
+					node = node.children.computeIfAbsent(name.charAt(n), ignore -> new Builder());
+				}
+
+				// Register action
+				if(node.actions.isEmpty()) {
+					++count[0];
+				}
+				node.add(action);
+			});
+		}
+		return new VerbTable(root.build(), count[0]);
+	}
+
+	private final Node root;
+	private final int size;
+
+	/**
+	 * Constructor.
+	 * @param root		Root node
+	 * @param size		Number of verbs
+	 */
+	private VerbTable(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * @return Number of verbs in this table
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Looks up the candidate actions for the given verb.
+	 * @param verb Verb
+	 * @return Actions or an empty list if none
+	 */
+	List<ActionDescriptor> actions(CharSequence verb) {
+		Node node = root;
+		for(int n = 0; n < verb.length(); ++n) {
+			node = node.child(verb.charAt(n));
+			if(node == null) {
+				return List.of();
+			}
+		}
+		return node.actions;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).append("verbs", size).toString();
+	}
+}
@@ -4,6 +4,7 @@ import static org.sarge.lib.util.Check.notNull;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.concurrent.ThreadFactory;
 
 import org.sarge.textrpg.util.Runner;
 import org.slf4j.Logger;
@@ -28,9 +29,13 @@ public abstract class AbstractConnection implements Connection {
 	}
 
 	private final CommandReader reader;
-
 	private final Runner runner;
 
+	/**
+	 * Outbound statistics.
+	 */
+	protected final ConnectionStatistics stats = new ConnectionStatistics();
+
 	private Listener listener;
 
 	/**
@@ -50,6 +55,14 @@ public abstract class AbstractConnection implements Connection {
 		runner = Runner.of(this::read);
 	}
 
+	/**
+	 * Sets the factory for the command listener thread.
+	 * @param factory Thread factory
+	 */
+	public void setThreadFactory(ThreadFactory factory) {
+		runner.setThreadFactory(factory);
+	}
+
 	@Override
 	public void start(Listener listener) {
 		if(this.listener != null) throw new IllegalStateException("Connection listener has already been started: " + this);
@@ -57,10 +70,27 @@ public abstract class AbstractConnection implements Connection {
 		runner.start();
 	}
 
+	@Override
+	public ConnectionStatistics statistics() {
+		return stats;
+	}
+
 	@Override
 	public void close() {
+		stop();
+	}
+
+	/**
+	 * Stops the command listener.
+	 * @return Whether the listener was running
+	 */
+	private synchronized boolean stop() {
 		if(runner.isRunning()) {
 			runner.stop();
+			return true;
+		}
+		else {
+			return false;
 		}
 	}
 
@@ -74,13 +104,22 @@ public abstract class AbstractConnection implements Connection {
 			command = reader.read();
 		}
 		catch(IOException e) {
-			if(runner.isRunning()) {
+			if(stop()) {
 				LOG.info("Socket closed by client: " + this, e);
 				listener.closed();
 			}
 			return;
 		}
 
+		// Stop at end-of-stream
+		if(command == null) {
+			if(stop()) {
+				LOG.info("End of client stream: " + this);
+				listener.closed();
+			}
+			return;
+		}
+
 		// Delegate to handler
 		try {
 			listener.handle(command);
@@ -3,10 +3,14 @@ package org.sarge.textrpg.runner;
 import static java.util.stream.Collectors.joining;
 import static org.sarge.lib.util.Check.notNull;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.sarge.textrpg.entity.PlayerCharacter;
 import org.sarge.textrpg.runner.Account.PlayerSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
@@ -16,9 +20,12 @@ import org.springframework.stereotype.Component;
  */
 @Component("screen.account")
 public class AccountManagementScreen implements Screen {
+	private static final Logger LOG = LoggerFactory.getLogger(AccountManagementScreen.class);
+
 	private final AccountRepository repository;
 
-	private Screen play;
+	private PlayScreen play;
+	private PlayerLoader loader;
 
 	/**
 	 * Constructor.
@@ -33,10 +40,19 @@ public class AccountManagementScreen implements Screen {
 	 * Sets the play screen.
 	 * @param play Play screen
 	 */
-	public void setPlay(@Qualifier("screen.play") Screen play) {
+	public void setPlay(@Qualifier("screen.play") PlayScreen play) {
 		this.play = play;
 	}
 
+	/**
+	 * Sets the loader used to restore players on login.
+	 * @param loader Player loader
+	 */
+	@Autowired(required=false)
+	public void setPlayerLoader(PlayerLoader loader) {
+		this.loader = notNull(loader);
+	}
+
 	@Override
 	public void init(Session session) {
 		list(session);
@@ -144,10 +160,9 @@ public class AccountManagementScreen implements Screen {
 		switch(command) {
 		case "play":
 			// Start playing
-			final PlayerCharacter pc = repository.load(player.name());
+			final PlayerCharacter pc = load(player.name(), session);
 			// TODO
 			// - init(EVC)
-			// - set location to last save-point
 			session.set(pc);
 			return play;
 
@@ -160,4 +175,28 @@ public class AccountManagementScreen implements Screen {
 			throw new ScreenException("Unknown player command: " + name);
 		}
 	}
+
+	/**
+	 * Loads a player on login.
+	 * @param name			Player name
+	 * @param session		Session
+	 * @return Player
+	 * @throws ScreenException if the player cannot be loaded or restored
+	 */
+	private PlayerCharacter load(String name, Session session) {
+		// Load directly if not restoring
+		if(loader == null) {
+			return repository.load(name);
+		}
+
+		// Load or restore player
+		try {
+			return loader.load(name, response -> play.display(session, response));
+		}
+		catch(IOException | IllegalStateException e) {
+			// Unreadable snapshot, unknown player or no starting location
+			LOG.error("Error restoring player: " + name, e);
+			throw new ScreenException("Cannot load player: " + name);
+		}
+	}
 }
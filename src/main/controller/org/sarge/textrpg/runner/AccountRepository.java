@@ -22,6 +22,12 @@ public interface AccountRepository {
 	 */
 	void create(Account account);
 
+	/**
+	 * @param name Character name
+	 * @return Whether the given player character is loaded
+	 */
+	boolean exists(String name);
+
 	/**
 	 * Loads a player character.
 	 * @param name Character name
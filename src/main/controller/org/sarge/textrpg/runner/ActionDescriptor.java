@@ -14,6 +14,7 @@ import java.util.StringJoiner;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.sarge.lib.collection.StrictList;
@@ -182,6 +183,7 @@ public class ActionDescriptor extends AbstractEqualsObject {
 	private final String name;
 	private final AbstractAction action;
 	private final Method method;
+	private final ActionInvoker invoker;
 	private final Optional<Object> constant;
 	private final List<RequiredDescriptor> required;
 	private final boolean actor;
@@ -193,16 +195,18 @@ public class ActionDescriptor extends AbstractEqualsObject {
 	 * Constructor.
 	 * @param action		Action instance
 	 * @param method		Method
+	 * @param invoker		Compiled invoker for the action method
 	 * @param constant		Optional constant for an enumerated action
 	 * @param actor			Whether the actor is injected as a method argument
 	 * @param required		Objects required to perform this action
 	 * @param effort		Whether the optional action-effort is injected
 	 * @param order			Method order
 	 */
-	private ActionDescriptor(AbstractAction action, Method method, Object constant, boolean actor, List<RequiredDescriptor> required, boolean effort, int order) {
+	private ActionDescriptor(AbstractAction action, Method method, ActionInvoker invoker, Object constant, boolean actor, List<RequiredDescriptor> required, boolean effort, int order) {
 		this.name = name(action, method, constant);
 		this.action = notNull(action);
 		this.method = notNull(method);
+		this.invoker = notNull(invoker);
 		this.constant = Optional.ofNullable(constant);
 		this.actor = actor;
 		this.required = List.copyOf(required);
@@ -362,16 +366,33 @@ public class ActionDescriptor extends AbstractEqualsObject {
 		return required;
 	}
 
+	/**
+	 * @return Number of arguments of the action method (including injected arguments)
+	 */
+	public int arity() {
+		return method.getParameterCount();
+	}
+
 	/**
 	 * Invokes the action method with the given arguments.
 	 * @param args Arguments
 	 * @return Response
-	 * @throws Exception if the invocation fails
 	 * @throws ActionException for an invalid action
+	 * @see ActionInvoker
 	 */
-	public Response invoke(List<Object> args) throws Exception {
-		assert args.size() == method.getParameterCount();
-		return (Response) method.invoke(action, args.toArray());
+	public Response invoke(Object[] args) throws ActionException {
+		assert args.length == method.getParameterCount();
+		return invoker.invoke(args);
+	}
+
+	@Override
+	public boolean equals(Object that) {
+		return EqualsBuilder.reflectionEquals(this, that, "invoker");
+	}
+
+	@Override
+	public int hashCode() {
+		return HashCodeBuilder.reflectionHashCode(this, "invoker");
 	}
 
 	@Override
@@ -390,6 +411,7 @@ public class ActionDescriptor extends AbstractEqualsObject {
 	public static class Builder {
 		private final AbstractAction action;
 		private final Method method;
+		private ActionInvoker invoker;
 		private Object constant;
 		private final List<RequiredDescriptor> required = new StrictList<>();
 		private boolean actor;
@@ -406,6 +428,17 @@ public class ActionDescriptor extends AbstractEqualsObject {
 			this.method = method;
 		}
 
+		/**
+		 * Sets the compiled invoker for the action method.
+		 * If not specified the invoker is compiled when this descriptor is constructed.
+		 * @param invoker Invoker
+		 * @see ActionInvoker#of(Object, Method)
+		 */
+		public Builder invoker(ActionInvoker invoker) {
+			this.invoker = invoker;
+			return this;
+		}
+
 		/**
 		 * Sets the constant for an enumerated action.
 		 * @param constant Enumeration constant
@@ -454,7 +487,10 @@ public class ActionDescriptor extends AbstractEqualsObject {
 		 * @return New descriptor
 		 */
 		public ActionDescriptor build() {
-			return new ActionDescriptor(action, method, constant, actor, required, effort, order);
+			if(invoker == null) {
+				invoker = ActionInvoker.of(action, method);
+			}
+			return new ActionDescriptor(action, method, invoker, constant, actor, required, effort, order);
 		}
 	}
 }
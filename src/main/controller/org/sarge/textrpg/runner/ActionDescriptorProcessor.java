@@ -91,6 +91,9 @@ public class ActionDescriptorProcessor {
 		// Start builder
 		final ActionDescriptor.Builder builder = new ActionDescriptor.Builder(action, method);
 
+		// Compile invoker (shared by enumerated actions)
+		builder.invoker(ActionInvoker.of(action, method));
+
 		// Check for injected actor argument
 		if(isAnnotation(RequiresActor.class, method)) {
 			builder.requiresActorArgument();
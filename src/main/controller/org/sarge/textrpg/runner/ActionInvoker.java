@@ -0,0 +1,71 @@
+package org.sarge.textrpg.runner;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import org.sarge.textrpg.common.Response;
+import org.sarge.textrpg.util.ActionException;
+
+/**
+ * An <i>action invoker</i> is a compiled call-site for an action method.
+ * <p>
+ * Invokers are generated once per action method when the actions are loaded.
+ * The underlying method handle is bound to the action instance and accepts a fixed-arity argument array, avoiding the per-command overhead of reflective invocation.
+ * <p>
+ * @see ActionDescriptor
+ * @author Sarge
+ */
+@FunctionalInterface
+public interface ActionInvoker {
+	/**
+	 * Invokes the action method.
+	 * @param args Arguments
+	 * @return Response
+	 * @throws ActionException if the action fails
+	 */
+	Response invoke(Object[] args) throws ActionException;
+
+	/**
+	 * Compiles an invoker for the given action method.
+	 * @param instance		Action instance
+	 * @param method		Action method
+	 * @return Invoker
+	 * @throws IllegalArgumentException if the method cannot be accessed or does not return a response
+	 */
+	static ActionInvoker of(Object instance, Method method) {
+		// Verify method
+		notNull(instance);
+		if(method.getReturnType() != Response.class) throw new IllegalArgumentException("Action method must return a response: " + method);
+
+		// Build method handle bound to the action
+		final MethodHandle handle;
+		try {
+			method.setAccessible(true);
+			handle = MethodHandles.lookup()
+				.unreflect(method)
+				.bindTo(instance)
+				.asSpreader(Object[].class, method.getParameterCount())
+				.asType(MethodType.methodType(Response.class, Object[].class));
+		}
+		catch(IllegalAccessException | RuntimeException e) {
+			throw new IllegalArgumentException("Cannot access action method: " + method, e);
+		}
+
+		// Create invoker
+		return args -> {
+			try {
+				return (Response) handle.invokeExact(args);
+			}
+			catch(ActionException | RuntimeException | Error e) {
+				throw e;
+			}
+			catch(Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+}
@@ -17,6 +17,7 @@ import org.sarge.textrpg.entity.Attribute;
 import org.sarge.textrpg.entity.CalculationLoader;
 import org.sarge.textrpg.entity.EntityValue;
 import org.sarge.textrpg.entity.EntityValueCalculator;
+import org.sarge.textrpg.entity.EntityValueStore;
 import org.sarge.textrpg.entity.StarterArea;
 import org.sarge.textrpg.entity.StarterAreaLoader;
 import org.sarge.textrpg.util.Calculation;
@@ -49,6 +50,12 @@ public class ApplicationComponents {
 		return manager.queue("global");
 	}
 
+	@Bean
+	@ConditionalOnProperty("entity.store.capacity")
+	public EntityValueStore entityValueStore(@Value("${entity.store.capacity}") int capacity) {
+		return new EntityValueStore(capacity);
+	}
+
 	@Bean
 	public DataSource dataSource(@Value("${data.source}") Path root) {
 		return new DataSource(root);
@@ -85,7 +92,7 @@ public class ApplicationComponents {
 		// Create entry loader
 		final Function<Element, Calculation> loader = e -> {
 			final Attribute attr = e.attribute("attribute").toValue(Attribute.CONVERTER);
-			final Calculation calc = actor -> actor.modifier(attr).get();
+			final Calculation calc = Calculation.modifier(attr);
 			final float mod = e.attribute("mod").toFloat();
 			return Calculation.scaled(calc, mod);
 		};
@@ -1,9 +1,8 @@
 package org.sarge.textrpg.runner;
 
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.sarge.lib.collection.StrictMap;
 import org.sarge.textrpg.common.AbstractAction.Flag;
@@ -28,7 +27,7 @@ import org.springframework.stereotype.Component;
  * <li>Check whether the actor possesses the required skill (if any)</li>
  * <li>Check that the actor has sufficient power (if the action requires a skill)</li>
  * <li>Build the command arguments</li>
- * <li>Invoke the action method</li>
+ * <li>Invoke the action method via its compiled {@link ActionInvoker}</li>
  * <li>Consume power</li>
  * <li>Apply wear to tools</li>
  * <li>Optionally reveal the actor</li>
@@ -57,29 +56,45 @@ public class CommandExecutor {
 		// Init power transaction
 		final Transaction power = power(actor, action);
 
+		// Lookup required objects
+		final var required = find(actor, action);
+
+		// Build fixed-arity argument array
+		final List<Object> cmd = command.arguments();
+		final Object[] args = new Object[action.arity()];
+		int index = 0;
+
 		// Inject actor argument
-		final List<Object> args = new ArrayList<>();
 		if(action.isActorRequired()) {
-			args.add(actor);
+			args[index++] = actor;
 		}
 
 		// Inject enumeration constant
-		action.constant().ifPresent(args::add);
+		final Optional<Object> constant = action.constant();
+		if(constant.isPresent()) {
+			args[index++] = constant.get();
+		}
 
 		// Add command arguments
-		args.addAll(command.arguments());
+		for(Object arg : cmd) {
+			args[index++] = arg;
+		}
 
-		// Lookup and inject required object arguments
-		final var required = find(actor, action);
-		required.entrySet().stream().filter(e -> e.getKey().isInjected()).map(Map.Entry::getValue).forEach(args::add);
+		// Inject required object arguments
+		for(Map.Entry<RequiredDescriptor, WorldObject> entry : required.entrySet()) {
+			if(entry.getKey().isInjected()) {
+				args[index++] = entry.getValue();
+			}
+		}
 
 		// Add optional effort argument
 		if(action.isEffortAction()) {
-			args.add(command.effort());
+			args[index++] = command.effort();
 		}
+		assert index == args.length;
 
 		// Invoke action
-		final Response response = invoke(action, args);
+		final Response response = action.invoke(args);
 
 		// Consume power
 		if(power != null) {
@@ -124,8 +139,15 @@ public class CommandExecutor {
 	 * @throws ActionException if an object is not present or is broken
 	 */
 	private static Map<RequiredDescriptor, WorldObject> find(Entity actor, ActionDescriptor action) throws ActionException {
+		// Ignore if no required objects
+		final List<RequiredDescriptor> list = action.required();
+		if(list.isEmpty()) {
+			return Map.of();
+		}
+
+		// Find required objects
 		final Map<RequiredDescriptor, WorldObject> args = new StrictMap<>();
-		for(RequiredDescriptor required : action.required()) {
+		for(RequiredDescriptor required : list) {
 			// Find required object in actors inventory
 			final WorldObject obj = actor.contents().select(WorldObject.class)
 				.filter(required.filter()) // TODO - from cat
@@ -144,30 +166,6 @@ public class CommandExecutor {
 		return args;
 	}
 
-	/**
-	 * Invokes an action.
-	 * @param action		Action descriptor
-	 * @param args			Arguments
-	 * @return Response
-	 * @throws ActionException if the action fails
-	 */
-	private static Response invoke(ActionDescriptor action, List<Object> args) throws ActionException {
-		try {
-			return action.invoke(args);
-		}
-		catch(InvocationTargetException e) {
-			if(e.getCause() instanceof ActionException) {
-				throw (ActionException) e.getCause();
-			}
-			else {
-				throw new RuntimeException(e);
-			}
-		}
-		catch(Exception e) {
-			throw new RuntimeException(e);
-		}
-	}
-
 	/**
 	 * Reveals a sneaking or hidden actor.
 	 * @param actor Actor
@@ -2,6 +2,11 @@ package org.sarge.textrpg.runner;
 
 /**
  * A <i>connection</i> is the I/O link to a remote client.
+ * <p>
+ * Messages written to a connection can be buffered until the connection is flushed, generally at the end of each world tick.
+ * This coalesces the messages generated during a tick into a single socket write.
+ * <p>
+ * @see SessionManager#flush()
  * @author Sarge
  */
 public interface Connection {
@@ -33,6 +38,18 @@ public interface Connection {
 	 */
 	void write(String str);
 
+	/**
+	 * Flushes buffered messages to the client.
+	 */
+	default void flush() {
+		// Unbuffered by default
+	}
+
+	/**
+	 * @return Outbound statistics for this connection
+	 */
+	ConnectionStatistics statistics();
+
 	/**
 	 * Closes this connection.
 	 */
@@ -5,20 +5,29 @@ import static org.sarge.lib.util.Check.notNull;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.concurrent.ThreadFactory;
 
 import org.sarge.textrpg.util.Runner;
 import org.sarge.textrpg.util.ServiceComponent;
+import org.sarge.textrpg.util.ThreadMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 /**
  * The <i>connection server</i> listens for remote socket connections.
+ * <p>
+ * This implementation uses a blocking thread per connection, see {@link SelectorConnectionServer} for a non-blocking alternative.
+ * Connection threads can optionally be virtual threads, see {@link #setThreadMode(ThreadMode)}.
+ * <p>
  * @see Connection
  * @author Sarge
  */
 @Component
+@ConditionalOnProperty(name="server.mode", havingValue="blocking", matchIfMissing=true)
 public class ConnectionServer extends Runner implements ServiceComponent {
 	private static final Logger LOG = LoggerFactory.getLogger(ConnectionServer.class);
 
@@ -37,6 +46,9 @@ public class ConnectionServer extends Runner implements ServiceComponent {
 	private final ServerSocket server;
 	private final Handler handler;
 
+	private ThreadFactory factory = ThreadMode.PLATFORM.factory();
+	private boolean compression;
+
 	/**
 	 * Constructor.
 	 * @param port 			Port number
@@ -48,6 +60,25 @@ public class ConnectionServer extends Runner implements ServiceComponent {
 		this.handler = notNull(handler);
 	}
 
+	/**
+	 * Sets the thread mode for new connections.
+	 * @param mode Thread mode
+	 * @throws UnsupportedOperationException if the given mode is not supported by the JVM
+	 */
+	@Autowired
+	public void setThreadMode(@Value("${server.threads}") ThreadMode mode) {
+		this.factory = mode.factory();
+	}
+
+	/**
+	 * Sets whether to offer MCCP compression to new connections.
+	 * @param compression Whether to offer compression
+	 */
+	@Autowired
+	public void setCompression(@Value("${server.compression}") boolean compression) {
+		this.compression = compression;
+	}
+
 	@Override
 	public void start() {
 		LOG.info("Starting connection server on port " + server.getLocalPort());
@@ -102,7 +133,8 @@ public class ConnectionServer extends Runner implements ServiceComponent {
 
 		// Create new connection
 		try {
-			final DefaultConnection con = new DefaultConnection(client);
+			final DefaultConnection con = new DefaultConnection(client, compression);
+			con.setThreadFactory(factory);
 			final Connection.Listener listener = handler.handle(con);
 			con.start(listener);
 		}
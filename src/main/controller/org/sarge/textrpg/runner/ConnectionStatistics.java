@@ -0,0 +1,106 @@
+package org.sarge.textrpg.runner;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Outbound statistics for a connection.
+ * <p>
+ * The statistics record the following:
+ * <ul>
+ * <li>messages - number of messages written to the connection</li>
+ * <li>raw - number of bytes written before compression</li>
+ * <li>bytes - number of bytes actually written to the socket</li>
+ * <li>writes - number of socket writes, i.e. approximately the number of system calls</li>
+ * </ul>
+ * @author Sarge
+ */
+public class ConnectionStatistics {
+	private final LongAdder messages = new LongAdder();
+	private final LongAdder raw = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	private final LongAdder writes = new LongAdder();
+
+	/**
+	 * @return Number of messages
+	 */
+	public long messages() {
+		return messages.sum();
+	}
+
+	/**
+	 * @return Number of bytes before compression
+	 */
+	public long raw() {
+		return raw.sum();
+	}
+
+	/**
+	 * @return Number of bytes written to the socket
+	 */
+	public long bytes() {
+		return bytes.sum();
+	}
+
+	/**
+	 * @return Number of socket writes
+	 */
+	public long writes() {
+		return writes.sum();
+	}
+
+	/**
+	 * Records a message.
+	 * @param len Message length (bytes)
+	 */
+	void message(int len) {
+		messages.increment();
+		raw.add(len);
+	}
+
+	/**
+	 * Records a socket write.
+	 * @param len Number of bytes written
+	 */
+	void write(int len) {
+		writes.increment();
+		bytes.add(len);
+	}
+
+	/**
+	 * Creates an output stream adapter that records socket writes.
+	 * @param out Socket output stream
+	 * @return Counting output stream
+	 */
+	OutputStream counter(OutputStream out) {
+		return new FilterOutputStream(notNull(out)) {
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				ConnectionStatistics.this.write(1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				ConnectionStatistics.this.write(len);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("messages", messages())
+			.append("raw", raw())
+			.append("bytes", bytes())
+			.append("writes", writes())
+			.toString();
+	}
+}
@@ -21,6 +21,7 @@ public class ConsoleConnection extends AbstractConnection {
 
 	@Override
 	public void write(String str) {
+		stats.message(str.length());
 		out.println(str);
 		out.flush();
 	}
@@ -27,6 +27,11 @@ public class DefaultAccountRepository implements AccountRepository {
 		accounts.put(account.name(), account);
 	}
 
+	@Override
+	public boolean exists(String name) {
+		return players.containsKey(name);
+	}
+
 	@Override
 	public PlayerCharacter load(String name) {
 		final PlayerCharacter pc = players.get(name);
@@ -3,10 +3,15 @@ package org.sarge.textrpg.runner;
 import static org.sarge.lib.util.Check.notNull;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.slf4j.Logger;
@@ -14,13 +19,30 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Socket-based connection implemented using a blocking thread for incoming client commands.
+ * <p>
+ * Outgoing messages are buffered and written to the socket when the connection is flushed, see {@link #flush()}.
+ * <p>
+ * The connection can optionally offer MCCP (version 2) compression to the client.
+ * If the client accepts the offer the output stream is compressed using <tt>zlib</tt> and is synchronously flushed at the end of each tick.
+ * <p>
  * @author Sarge
  */
 public class DefaultConnection extends AbstractConnection {
 	private static final Logger LOG = LoggerFactory.getLogger(DefaultConnection.class);
 
+	private static final Charset CHARSET = StandardCharsets.UTF_8;
+	private static final byte[] EOL = System.lineSeparator().getBytes(CHARSET);
+	private static final int OUTBOUND = 8 * 1024;
+
+	private static final byte[] OFFER = {(byte) TelnetInputStream.IAC, (byte) TelnetInputStream.WILL, TelnetInputStream.COMPRESS2};
+	private static final byte[] START = {(byte) TelnetInputStream.IAC, (byte) TelnetInputStream.SB, TelnetInputStream.COMPRESS2, (byte) TelnetInputStream.IAC, (byte) TelnetInputStream.SE};
+
 	private final Socket socket;
-	private final PrintWriter out;
+	private final OutputStream socketOut;
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(OUTBOUND);
+	private final boolean compression;
+
+	private DeflaterOutputStream deflater;
 
 	/**
 	 * Constructor.
@@ -28,18 +50,133 @@ public class DefaultConnection extends AbstractConnection {
 	 * @throws IOException if the connection cannot be created
 	 */
 	public DefaultConnection(Socket socket) throws IOException {
-		super(new BufferedReader(new InputStreamReader(socket.getInputStream())));
+		this(socket, false);
+	}
+
+	/**
+	 * Constructor.
+	 * @param socket			Underlying socket
+	 * @param compression		Whether to offer compression to the client
+	 * @throws IOException if the connection cannot be created
+	 */
+	public DefaultConnection(Socket socket, boolean compression) throws IOException {
+		this(socket, new TelnetInputStream(socket.getInputStream()), compression);
+	}
+
+	/**
+	 * Constructor.
+	 * @param socket			Underlying socket
+	 * @param in				Client input stream
+	 * @param compression		Whether to offer compression to the client
+	 * @throws IOException if the connection cannot be created
+	 */
+	private DefaultConnection(Socket socket, TelnetInputStream in, boolean compression) throws IOException {
+		super(new BufferedReader(new InputStreamReader(in, CHARSET)));
 		this.socket = notNull(socket);
-		this.out = new PrintWriter(socket.getOutputStream(), true);
+		this.socketOut = stats.counter(socket.getOutputStream());
+		this.compression = compression;
+		in.listener(this::option);
+		if(compression) {
+			offer();
+		}
+	}
+
+	/**
+	 * Offers compression to the client.
+	 * @throws IOException if the offer cannot be written
+	 */
+	private void offer() throws IOException {
+		socketOut.write(OFFER);
+		socketOut.flush();
+	}
+
+	/**
+	 * Handles a telnet option negotiation command.
+	 * @param command		Command
+	 * @param option		Option
+	 */
+	private void option(int command, int option) {
+		if(compression && (command == TelnetInputStream.DO) && (option == TelnetInputStream.COMPRESS2)) {
+			try {
+				compress();
+			}
+			catch(IOException e) {
+				LOG.error("Error starting compression: " + this, e);
+			}
+		}
+	}
+
+	/**
+	 * Starts compression.
+	 * Note that pending messages are flushed before the compressed stream is started.
+	 * @throws IOException if the compressed stream cannot be started
+	 */
+	private synchronized void compress() throws IOException {
+		// Ignore if already compressed
+		if(deflater != null) {
+			return;
+		}
+
+		// Flush pending messages
+		flush();
+
+		// Start compressed stream
+		socketOut.write(START);
+		socketOut.flush();
+		deflater = new DeflaterOutputStream(socketOut, new Deflater(Deflater.BEST_SPEED), OUTBOUND, true);
+		LOG.info("Started compression: " + this);
+	}
+
+	/**
+	 * @return Whether the output stream is compressed
+	 */
+	public synchronized boolean isCompressed() {
+		return deflater != null;
 	}
 
 	@Override
 	public void write(String str) {
-		out.println(str);
+		final byte[] bytes = str.getBytes(CHARSET);
+		stats.message(bytes.length + EOL.length);
+		synchronized(this) {
+			buffer.writeBytes(bytes);
+			buffer.writeBytes(EOL);
+		}
+	}
+
+	@Override
+	public synchronized void flush() {
+		// Ignore if nothing to write
+		if(buffer.size() == 0) {
+			return;
+		}
+
+		// Write buffered messages
+		try {
+			if(deflater == null) {
+				buffer.writeTo(socketOut);
+				socketOut.flush();
+			}
+			else {
+				buffer.writeTo(deflater);
+				deflater.flush();
+			}
+		}
+		catch(IOException e) {
+			LOG.info("Error writing to socket: " + this, e);
+		}
+		finally {
+			buffer.reset();
+		}
 	}
 
 	@Override
 	public synchronized void close() {
+		// Write pending messages
+		if(!socket.isClosed()) {
+			flush();
+		}
+
 		// Stop command listener
 		super.close();
 
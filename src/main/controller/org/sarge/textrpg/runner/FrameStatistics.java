@@ -0,0 +1,169 @@
+package org.sarge.textrpg.runner;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.sarge.textrpg.util.LatencyHistogram;
+import org.sarge.textrpg.util.Percentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Telemetry for the frames executed by the {@link WorldThread}.
+ * <p>
+ * The statistics record the distribution of frame durations and the number of events executed per frame, and the number of frames that overran the frame duration.
+ * The statistics can be published as an MX bean, see {@link #register()}.
+ * <p>
+ * @author Sarge
+ */
+public class FrameStatistics implements FrameStatisticsMXBean {
+	private static final Logger LOG = LoggerFactory.getLogger(FrameStatistics.class);
+
+	/**
+	 * MX bean name.
+	 */
+	public static final String NAME = "org.sarge.textrpg:type=WorldThread";
+
+	private static final Percentile P99 = Percentile.of(99);
+
+	private final LatencyHistogram duration = new LatencyHistogram();
+	private final LatencyHistogram events = new LatencyHistogram();
+	private final LongAdder overruns = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * Records a frame.
+	 * @param nanos			Frame duration (ns)
+	 * @param count			Number of executed events
+	 */
+	void record(long nanos, int count) {
+		duration.record(nanos);
+		events.record(count);
+	}
+
+	/**
+	 * Records a frame that exceeded the frame duration.
+	 */
+	void overrun() {
+		overruns.increment();
+	}
+
+	/**
+	 * Records frames dropped when the catch-up limit is exceeded.
+	 * @param frames Number of dropped frames
+	 */
+	void drop(long frames) {
+		dropped.add(frames);
+	}
+
+	@Override
+	public long getFrames() {
+		return duration.count();
+	}
+
+	@Override
+	public long getOverruns() {
+		return overruns.sum();
+	}
+
+	@Override
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * @param p Percentile
+	 * @return Frame duration (ms)
+	 */
+	private double duration(Percentile p) {
+		return duration.percentile(p) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public double getDurationMedian() {
+		return duration(Percentile.HALF);
+	}
+
+	@Override
+	public double getDuration99() {
+		return duration(P99);
+	}
+
+	@Override
+	public double getDurationMax() {
+		return duration(Percentile.ONE);
+	}
+
+	@Override
+	public long getEventsMedian() {
+		return events.percentile(Percentile.HALF);
+	}
+
+	@Override
+	public long getEvents99() {
+		return events.percentile(P99);
+	}
+
+	@Override
+	public long getEventsMax() {
+		return events.percentile(Percentile.ONE);
+	}
+
+	@Override
+	public void reset() {
+		duration.reset();
+		events.reset();
+		overruns.reset();
+		dropped.reset();
+	}
+
+	/**
+	 * Registers these statistics with the platform MBean server.
+	 * Note that registration errors are logged and ignored.
+	 */
+	void register() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(NAME);
+			if(!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		}
+		catch(JMException e) {
+			LOG.error("Error registering frame statistics", e);
+		}
+	}
+
+	/**
+	 * Un-registers these statistics.
+	 */
+	void unregister() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(NAME);
+			if(server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		}
+		catch(JMException e) {
+			LOG.error("Error un-registering frame statistics", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("frames", getFrames())
+			.append("overruns", getOverruns())
+			.append("dropped", getDropped())
+			.append("duration", duration)
+			.append("events", events)
+			.toString();
+	}
+}
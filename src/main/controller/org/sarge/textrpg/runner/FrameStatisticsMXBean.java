@@ -0,0 +1,58 @@
+package org.sarge.textrpg.runner;
+
+/**
+ * Management interface for the world thread frame statistics.
+ * @see FrameStatistics
+ * @author Sarge
+ */
+public interface FrameStatisticsMXBean {
+	/**
+	 * @return Number of frames
+	 */
+	long getFrames();
+
+	/**
+	 * @return Number of frames that exceeded the frame duration
+	 */
+	long getOverruns();
+
+	/**
+	 * @return Number of frames dropped when the catch-up limit was exceeded
+	 */
+	long getDropped();
+
+	/**
+	 * @return Median frame duration (ms)
+	 */
+	double getDurationMedian();
+
+	/**
+	 * @return 99th percentile frame duration (ms)
+	 */
+	double getDuration99();
+
+	/**
+	 * @return Maximum frame duration (ms)
+	 */
+	double getDurationMax();
+
+	/**
+	 * @return Median number of events executed per frame
+	 */
+	long getEventsMedian();
+
+	/**
+	 * @return 99th percentile number of events executed per frame
+	 */
+	long getEvents99();
+
+	/**
+	 * @return Maximum number of events executed per frame
+	 */
+	long getEventsMax();
+
+	/**
+	 * Resets these statistics.
+	 */
+	void reset();
+}
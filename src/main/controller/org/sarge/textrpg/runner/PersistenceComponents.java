@@ -0,0 +1,146 @@
+package org.sarge.textrpg.runner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.sarge.textrpg.common.Skill;
+import org.sarge.textrpg.entity.PlayerJournal;
+import org.sarge.textrpg.entity.Race;
+import org.sarge.textrpg.object.LocationContents;
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.util.Event;
+import org.sarge.textrpg.util.Journal;
+import org.sarge.textrpg.util.JournalCommitter;
+import org.sarge.textrpg.util.Registry;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotRepository;
+import org.sarge.textrpg.util.ThreadMode;
+import org.sarge.textrpg.world.Faction;
+import org.sarge.textrpg.world.Location;
+import org.sarge.textrpg.world.WorldLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Persistence components.
+ * @author Sarge
+ */
+@Configuration
+public class PersistenceComponents {
+	private static final Logger LOG = LoggerFactory.getLogger(PersistenceComponents.class);
+	private static final String LOCATIONS = "world.locations";
+
+	@Bean(destroyMethod="close")
+	public Journal journal(@Value("${database.location}") Path dir, @Value("${journal.segment.size}") int size) throws IOException {
+		return new Journal(dir.resolve("journal"), size);
+	}
+
+	@Bean
+	public JournalCommitter committer(Journal journal, @Value("${journal.commit.interval}") Duration interval) {
+		return new JournalCommitter(journal, interval);
+	}
+
+	/**
+	 * @return Background thread for journal compaction
+	 */
+	@Bean(destroyMethod="shutdown")
+	public ExecutorService compactor() {
+		return Executors.newSingleThreadExecutor(ThreadMode.PLATFORM.factory());
+	}
+
+	@Bean
+	public PlayerJournal playerJournal(Journal journal, Registry<Skill> skills, Registry<ObjectDescriptor> descriptors, Registry<Race> races, Registry<Faction> factions, SnapshotRepository repository, Event.Queue queue, ExecutorService compactor, @Value("${journal.compaction.period}") Duration period) {
+		// Create player journal
+		final PlayerJournal players = new PlayerJournal(journal, skills::get, descriptors::get, races::get, factions::get);
+
+		// Register periodic compaction: players are copied on the world thread and the snapshots are written in the background
+		final Event compaction = () -> {
+			try {
+				players.prepare(repository).ifPresent(task -> compactor.execute(() -> compact(task, journal)));
+			}
+			catch(IOException | RuntimeException e) {
+				LOG.error("Error preparing journal compaction: " + journal, e);
+			}
+			return true;
+		};
+		queue.add(compaction, period);
+
+		return players;
+	}
+
+	/**
+	 * Executes a journal compaction.
+	 * @param task			Compaction
+	 * @param journal		Journal
+	 */
+	private static void compact(PlayerJournal.Compaction task, Journal journal) {
+		try {
+			task.execute();
+			LOG.info("Compacted journal: {}", journal);
+		}
+		catch(IOException | RuntimeException e) {
+			// Log and retry on the next period (the journal is only discarded on success)
+			LOG.error("Error compacting journal: " + journal, e);
+		}
+	}
+
+	/**
+	 * Restores the contents of the world locations and registers periodic snapshots of those contents.
+	 * <p>
+	 * The contents are copied on the world thread and the snapshot is written in the background.
+	 * Note that the world loader is injected to ensure the contents are restored <b>after</b> the world has been loaded.
+	 * <p>
+	 * @see LocationContents
+	 */
+	@Bean
+	@ConditionalOnBean(WorldLoader.class)
+	public Event locationContents(WorldLoader world, Location.Linker linker, Registry<ObjectDescriptor> descriptors, SnapshotRepository repository, Event.Queue queue, ExecutorService compactor, @Value("${journal.compaction.period}") Duration period) throws IOException {
+		// Restore location contents
+		if(repository.exists(LOCATIONS)) {
+			try(final SnapshotReader in = repository.open(LOCATIONS)) {
+				in.resolver(ObjectDescriptor.class, descriptors::get);
+				final LocationContents contents = LocationContents.read(in);
+				final int count = contents.restore(linker);
+				LOG.info("Restored contents of {}/{} locations", count, contents.size());
+			}
+		}
+
+		// Register periodic snapshot
+		final Event snapshot = () -> {
+			try {
+				final byte[] bytes = SnapshotRepository.serialise(LocationContents.of(linker.connectors()));
+				compactor.execute(() -> store(repository, bytes));
+			}
+			catch(IOException | RuntimeException e) {
+				LOG.error("Error serialising location contents", e);
+			}
+			return true;
+		};
+		queue.add(snapshot, period);
+
+		return snapshot;
+	}
+
+	/**
+	 * Stores a snapshot of the location contents.
+	 * @param repository		Snapshot repository
+	 * @param snapshot			Serialised snapshot
+	 */
+	private static void store(SnapshotRepository repository, byte[] snapshot) {
+		try {
+			final long size = repository.store(LOCATIONS, snapshot);
+			LOG.info("Stored location contents ({} bytes)", size);
+		}
+		catch(IOException | RuntimeException e) {
+			// Log and retry on the next period
+			LOG.error("Error storing location contents", e);
+		}
+	}
+}
@@ -8,6 +8,8 @@ import org.sarge.textrpg.common.ResponseFormatter;
 import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.entity.EntityValueController;
 import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.entity.PlayerJournal;
+import org.sarge.textrpg.parser.ArgumentParserGroup;
 import org.sarge.textrpg.parser.Command;
 import org.sarge.textrpg.parser.CommandParser;
 import org.sarge.textrpg.parser.ParserResult;
@@ -38,18 +40,30 @@ public class PlayScreen implements Screen {
 		@Autowired private CommandParser parser;
 		@Autowired private CommandExecutor executor;
 		@Autowired private LightLevelProvider light;
+		@Autowired private PlayerJournal journal;
+
+		/**
+		 * Creates the argument parsers for the given actor.
+		 * @param actor Actor
+		 * @return Parser group
+		 */
+		public ArgumentParserGroup group(PlayerCharacter actor) {
+			final ArgumentParser<?> def = new ThingArgumentParser(actor, light);
+			return parser.group(actor, def);
+		}
 
 		/**
 		 * Processes a command.
 		 * @param line			Command string
 		 * @param actor			Actor
+		 * @param store			Name-store
+		 * @param group			Argument parsers for the actor
 		 * @return Response
 		 * @throws ActionException if the command cannot be processed
 		 */
-		public Response process(String line, PlayerCharacter actor, NameStore store) throws ActionException {
+		public Response process(String line, PlayerCharacter actor, NameStore store, ArgumentParserGroup group) throws ActionException {
 			// Parse command
-			final ArgumentParser<?> def = new ThingArgumentParser(actor, light); // TODO - cache this in session/player?
-			final ParserResult result = parser.parse(actor, line, store, def);
+			final ParserResult result = parser.parse(actor, line, store, group);
 
 			// Display failed result
 			if(!result.isParsed()) {
@@ -74,8 +88,27 @@ public class PlayScreen implements Screen {
 			// Start inductions
 			response.induction().ifPresent(induction -> actor.manager().induction().start(induction));
 
+			// Journal modifications
+			journal.record(actor);
+
 			return response;
 		}
+
+		/**
+		 * Starts journalling the given player.
+		 * @param actor Actor
+		 */
+		public void track(PlayerCharacter actor) {
+			journal.track(actor);
+		}
+
+		/**
+		 * Journals modifications to the given player, e.g. on completion of an induction.
+		 * @param actor Actor
+		 */
+		public void record(PlayerCharacter actor) {
+			journal.record(actor);
+		}
 	}
 
 	private final CommandProcessor proc;
@@ -115,6 +148,12 @@ public class PlayScreen implements Screen {
 		final Area area = player.location().area();
 		final NameStore store = session.init(area, this.store);
 
+		// Start journalling player so that the first command is recorded
+		proc.track(player);
+
+		// Init argument parsers
+		session.set(proc.group(player));
+
 		// Display location
 		final String description = formatter.format(player, store, Response.DISPLAY_LOCATION);
 		session.write(description);
@@ -137,7 +176,7 @@ public class PlayScreen implements Screen {
 		// Process command
 		final NameStore store = session.store();
 		try {
-			final Response response = proc.process(command, player, store);
+			final Response response = proc.process(command, player, store, session.parsers());
 			final String result = formatter.format(player, store, response);
 			session.write(result);
 		}
@@ -166,6 +205,7 @@ public class PlayScreen implements Screen {
 
 	// TODO - temporary
 	public void display(Session session, Response response) {
+		proc.record(session.player());
 		final String result = formatter.format(session.player(), session.store(), response);
 		session.write(result);
 	}
@@ -0,0 +1,109 @@
+package org.sarge.textrpg.runner;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.sarge.textrpg.common.Response;
+import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.entity.PlayerJournal;
+import org.sarge.textrpg.entity.StarterArea;
+import org.sarge.textrpg.util.Event;
+import org.sarge.textrpg.util.SnapshotRepository;
+import org.sarge.textrpg.world.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * The <i>player loader</i> loads a player-character on login.
+ * <p>
+ * A player held by the {@link AccountRepository} is already up-to-date and is returned as-is.
+ * Otherwise (e.g. after a restart) the player is restored from its snapshot and the journalled modifications are replayed, see {@link PlayerJournal#restore(String, SnapshotRepository)}.
+ * <p>
+ * The restored player is placed at its last journalled location if that location is a known connector, otherwise at the starting location for its race.
+ * <p>
+ * @author Sarge
+ */
+@Component
+public class PlayerLoader {
+	private static final Logger LOG = LoggerFactory.getLogger(PlayerLoader.class);
+
+	private final AccountRepository repository;
+	private final PlayerJournal journal;
+	private final SnapshotRepository snapshots;
+	private final Event.Queue queue;
+	private final Location.Linker linker;
+	private final Set<StarterArea> starters;
+
+	/**
+	 * Constructor.
+	 * @param repository		Account repository
+	 * @param journal			Player journal
+	 * @param snapshots			Snapshot repository
+	 * @param manager			Queue manager for player events
+	 * @param linker			Location look-up
+	 * @param starters			Starting areas
+	 */
+	public PlayerLoader(AccountRepository repository, PlayerJournal journal, SnapshotRepository snapshots, Event.Queue.Manager manager, Location.Linker linker, Set<StarterArea> starters) {
+		this.repository = notNull(repository);
+		this.journal = notNull(journal);
+		this.snapshots = notNull(snapshots);
+		this.queue = manager.queue("player");
+		this.linker = notNull(linker);
+		this.starters = notNull(starters);
+	}
+
+	/**
+	 * Loads a player-character.
+	 * @param name			Player name
+	 * @param listener		Listener for induction responses of a restored player
+	 * @return Player
+	 * @throws IOException if the player cannot be restored
+	 * @throws IllegalStateException if the player is unknown
+	 */
+	public PlayerCharacter load(String name, Consumer<Response> listener) throws IOException {
+		// Use loaded player
+		if(repository.exists(name)) {
+			return repository.load(name);
+		}
+
+		// Restore from snapshot and journal
+		final PlayerJournal.Restored restored = journal.restore(name, snapshots).orElseThrow(() -> new IllegalStateException("Unknown player: " + name));
+		final PlayerCharacter player = new PlayerCharacter(restored.descriptor(), queue, listener, restored.model());
+		player.parent(location(restored));
+
+		// Register restored player
+		repository.create(player);
+		LOG.info("Restored player: {}", player);
+		return player;
+	}
+
+	/**
+	 * Determines the location of a restored player.
+	 * @param restored Restored player
+	 * @return Location
+	 */
+	private Location location(PlayerJournal.Restored restored) {
+		// Use last journalled location
+		final Optional<String> last = restored.location();
+		if(last.isPresent()) {
+			try {
+				return linker.connector(last.get());
+			}
+			catch(IllegalArgumentException e) {
+				LOG.warn("Unknown location for restored player: {}", last.get());
+			}
+		}
+
+		// Otherwise use starting location
+		return starters.stream()
+			.filter(starter -> starter.race() == restored.descriptor().race())
+			.findAny()
+			.map(StarterArea::location)
+			.orElseThrow(() -> new IllegalStateException("No starting area for restored player: " + restored.descriptor().name()));
+	}
+}
@@ -0,0 +1,266 @@
+package org.sarge.textrpg.runner;
+
+import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.oneOrMore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking socket connection serviced by a {@link SelectorConnectionServer}.
+ * <p>
+ * Incoming data is read into a re-usable buffer and framed into command lines.
+ * A line that exceeds the buffer is discarded up to the next line terminator.
+ * <p>
+ * Outgoing messages are appended to an outbound buffer.
+ * When the connection is flushed (generally at the end of each world tick) the connection is registered for writing and the buffer is sent when the socket is writable, see {@link #send()}.
+ * The outbound buffer grows as required up to a maximum size, a client that does not consume its output (e.g. a stalled or malicious client) is disconnected when the maximum is exceeded.
+ * <p>
+ * @author Sarge
+ */
+class SelectorConnection implements Connection {
+	private static final Logger LOG = LoggerFactory.getLogger(SelectorConnection.class);
+
+	private static final Charset CHARSET = StandardCharsets.UTF_8;
+	private static final byte[] EOL = System.lineSeparator().getBytes(CHARSET);
+	private static final int MAX_LINE = 1024;
+	private static final int OUTBOUND = 8 * 1024;
+
+	private final SocketChannel channel;
+	private final SelectionKey key;
+	private final int max;
+	private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+
+	private final ConnectionStatistics stats = new ConnectionStatistics();
+
+	private ByteBuffer out;
+	private boolean overflow;
+	private boolean discard;
+	private Listener listener;
+
+	/**
+	 * Constructor.
+	 * @param channel		Socket channel
+	 * @param key			Selection key for this connection
+	 * @param max			Maximum size of the outbound buffer (bytes)
+	 */
+	SelectorConnection(SocketChannel channel, SelectionKey key, int max) {
+		this.channel = notNull(channel);
+		this.key = notNull(key);
+		this.max = oneOrMore(max);
+		this.out = ByteBuffer.allocate(Math.min(OUTBOUND, max));
+	}
+
+	@Override
+	public void start(Listener listener) {
+		if(this.listener != null) throw new IllegalStateException("Connection listener has already been started: " + this);
+		this.listener = notNull(listener);
+	}
+
+	/**
+	 * Reads available data from the socket and delegates complete command lines to the listener.
+	 * @throws IOException if the socket cannot be read
+	 */
+	void read() throws IOException {
+		// Read available data
+		final int len = channel.read(in);
+		if(len == -1) {
+			LOG.info("Socket closed by client: " + this);
+			disconnect();
+			return;
+		}
+
+		// Delegate commands
+		final boolean prev = discard;
+		discard = frame(in, discard, this::handle);
+		if(discard && !prev) {
+			LOG.warn("Discarding over-long command line: " + this);
+		}
+	}
+
+	/**
+	 * Delegates a command to the listener.
+	 * @param command Command
+	 */
+	private void handle(String command) {
+		try {
+			listener.handle(command);
+		}
+		catch(Exception e) {
+			LOG.error("Uncaught exception in command handler: " + this, e);
+		}
+	}
+
+	/**
+	 * Frames the given buffer into command lines terminated by a line-feed (with an optional preceding carriage-return).
+	 * <p>
+	 * The buffer is assumed to be in <i>write</i> mode, any trailing partial line is retained.
+	 * <p>
+	 * If the buffer is full without a line terminator the line is <i>discarded</i> up to the next terminator.
+	 * Note that over-long lines are never delegated to the consumer since the line could be truncated mid-way through a multi-byte character.
+	 * <p>
+	 * @param buffer		Input buffer
+	 * @param discard		Whether the start of the buffer is the remainder of a discarded line
+	 * @param consumer		Command consumer
+	 * @return Whether the remainder of the current line should be discarded
+	 */
+	static boolean frame(ByteBuffer buffer, boolean discard, Consumer<String> consumer) {
+		buffer.flip();
+		final int end = buffer.limit();
+		int start = buffer.position();
+		for(int n = start; n < end; ++n) {
+			if(buffer.get(n) == '\n') {
+				if(discard) {
+					// Skip remainder of discarded line
+					discard = false;
+				}
+				else {
+					consumer.accept(decode(buffer, start, n));
+				}
+				start = n + 1;
+			}
+		}
+
+		if(discard || ((start == 0) && (end == buffer.capacity()))) {
+			// Discard overflowing line
+			buffer.clear();
+			return true;
+		}
+		else {
+			// Retain partial line
+			buffer.position(start);
+			buffer.compact();
+			return false;
+		}
+	}
+
+	/**
+	 * Decodes a command line.
+	 * @param buffer		Buffer
+	 * @param start			Start index
+	 * @param end			End index (exclusive)
+	 * @return Command
+	 */
+	private static String decode(ByteBuffer buffer, int start, int end) {
+		final int len = (end > start) && (buffer.get(end - 1) == '\r') ? end - start - 1 : end - start;
+		final byte[] bytes = new byte[len];
+		buffer.duplicate().position(start).get(bytes);
+		return new String(bytes, CHARSET);
+	}
+
+	@Override
+	public ConnectionStatistics statistics() {
+		return stats;
+	}
+
+	@Override
+	public void write(String str) {
+		final byte[] bytes = str.getBytes(CHARSET);
+		stats.message(bytes.length + EOL.length);
+		synchronized(this) {
+			// Ignore if overflowed
+			if(overflow) {
+				return;
+			}
+
+			// Grow outbound buffer as required
+			final int required = bytes.length + EOL.length;
+			if(out.remaining() < required) {
+				// Disconnect if the maximum size is exceeded (by the next send)
+				if(out.position() + required > max) {
+					LOG.warn("Outbound buffer overflow: " + this);
+					overflow = true;
+					out.clear();
+					return;
+				}
+
+				// Grow buffer
+				final ByteBuffer prev = out;
+				out = ByteBuffer.allocate(Math.min(max, Math.max(prev.capacity() * 2, prev.position() + required)));
+				prev.flip();
+				out.put(prev);
+			}
+
+			// Append message
+			out.put(bytes);
+			out.put(EOL);
+		}
+	}
+
+	@Override
+	public void flush() {
+		// Ignore if nothing to write
+		synchronized(this) {
+			if((out.position() == 0) && !overflow) {
+				return;
+			}
+		}
+
+		// Register for write
+		if(key.isValid()) {
+			key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			key.selector().wakeup();
+		}
+	}
+
+	/**
+	 * Writes pending outbound data to the socket.
+	 * The connection is disconnected if the outbound buffer has overflowed.
+	 * @throws IOException if the socket cannot be written
+	 */
+	void send() throws IOException {
+		// Write pending data
+		synchronized(this) {
+			if(!overflow) {
+				out.flip();
+				final int len = channel.write(out);
+				stats.write(len);
+				out.compact();
+				if(out.position() == 0) {
+					key.interestOps(SelectionKey.OP_READ);
+				}
+				return;
+			}
+		}
+
+		// Otherwise disconnect on overflow
+		disconnect();
+	}
+
+	/**
+	 * Closes this connection and notifies the listener.
+	 */
+	void disconnect() {
+		close();
+		if(listener != null) {
+			listener.closed();
+		}
+	}
+
+	@Override
+	public void close() {
+		key.cancel();
+		if(channel.isOpen()) {
+			try {
+				channel.close();
+			}
+			catch(IOException e) {
+				LOG.error("Error closing socket channel: " + this, e);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).append("channel", channel).toString();
+	}
+}
@@ -0,0 +1,193 @@
+package org.sarge.textrpg.runner;
+
+import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.oneOrMore;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import org.sarge.textrpg.util.Runner;
+import org.sarge.textrpg.util.ServiceComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection server implemented using a non-blocking {@link Selector}.
+ * <p>
+ * All client connections are serviced by a single I/O thread, as opposed to the thread-per-connection model of the {@link ConnectionServer}.
+ * <p>
+ * @see SelectorConnection
+ * @author Sarge
+ */
+@Component
+@ConditionalOnProperty(name="server.mode", havingValue="selector")
+public class SelectorConnectionServer extends Runner implements ServiceComponent {
+	private static final Logger LOG = LoggerFactory.getLogger(SelectorConnectionServer.class);
+
+	private final ServerSocketChannel server;
+	private final Selector selector;
+	private final ConnectionServer.Handler handler;
+
+	private int max = 256 * 1024;
+
+	/**
+	 * Constructor.
+	 * @param port 			Port number
+	 * @param handler		Handler for new connections
+	 * @throws IOException if this server cannot be created
+	 */
+	public SelectorConnectionServer(@Value("${server.port}") int port, ConnectionServer.Handler handler) throws IOException {
+		this.handler = notNull(handler);
+		this.selector = Selector.open();
+		this.server = ServerSocketChannel.open();
+		server.bind(new InetSocketAddress(port));
+		server.configureBlocking(false);
+		server.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * Sets the maximum size of the outbound buffer of each connection.
+	 * A connection that exceeds this limit is disconnected.
+	 * @param max Maximum outbound buffer size (bytes)
+	 */
+	@Autowired
+	public void setOutboundLimit(@Value("${server.outbound.max}") int max) {
+		this.max = oneOrMore(max);
+	}
+
+	@Override
+	public void start() {
+		LOG.info("Starting selector connection server on port " + server.socket().getLocalPort());
+		super.start();
+	}
+
+	/**
+	 * Stops this server.
+	 */
+	@Override
+	public void stop() {
+		LOG.info("Stopping selector connection server...");
+
+		// Ignore if already stopped
+		if(!isRunning()) {
+			return;
+		}
+
+		// Stop thread
+		super.stop();
+		selector.wakeup();
+
+		// Stop server
+		try {
+			server.close();
+			selector.close();
+		}
+		catch(IOException e) {
+			LOG.error("Error closing server", e);
+		}
+
+		LOG.info("Stopped selector connection server");
+	}
+
+	@Override
+	protected void execute() {
+		// Wait for I/O
+		try {
+			selector.select();
+		}
+		catch(Exception e) {
+			if(isRunning()) {
+				LOG.error("Error waiting for client I/O", e);
+			}
+			return;
+		}
+
+		// Ignore wake-up during shutdown
+		if(!selector.isOpen()) {
+			return;
+		}
+
+		// Service selected keys
+		final Iterator<SelectionKey> itr = selector.selectedKeys().iterator();
+		while(itr.hasNext()) {
+			final SelectionKey key = itr.next();
+			itr.remove();
+			try {
+				service(key);
+			}
+			catch(CancelledKeyException e) {
+				// Ignore closed connections
+			}
+			catch(Exception e) {
+				LOG.error("Error servicing connection: " + key.attachment(), e);
+			}
+		}
+	}
+
+	/**
+	 * Services a selected key.
+	 * @param key Selection key
+	 * @throws IOException if the key cannot be serviced
+	 */
+	private void service(SelectionKey key) throws IOException {
+		// Accept new connections
+		if(key.isAcceptable()) {
+			accept();
+			return;
+		}
+
+		// Otherwise service connection
+		final SelectorConnection con = (SelectorConnection) key.attachment();
+		try {
+			if(key.isReadable()) {
+				con.read();
+			}
+			if(key.isValid() && key.isWritable()) {
+				con.send();
+			}
+		}
+		catch(IOException e) {
+			LOG.info("Connection error: " + con, e);
+			con.disconnect();
+		}
+	}
+
+	/**
+	 * Accepts a new connection.
+	 * @throws IOException if the connection cannot be accepted
+	 */
+	private void accept() throws IOException {
+		// Accept connection
+		final SocketChannel channel = server.accept();
+		if(channel == null) {
+			return;
+		}
+		LOG.info("New connection: " + channel.getRemoteAddress());
+
+		// Register connection
+		channel.configureBlocking(false);
+		final SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+		final SelectorConnection con = new SelectorConnection(channel, key, max);
+		key.attach(con);
+
+		// Start connection
+		try {
+			final Connection.Listener listener = handler.handle(con);
+			con.start(listener);
+		}
+		catch(Exception e) {
+			LOG.error("Error creating new connection", e);
+			con.close();
+		}
+	}
+}
@@ -4,6 +4,7 @@ import static org.sarge.lib.util.Check.notNull;
 
 import org.sarge.lib.util.AbstractObject;
 import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.parser.ArgumentParserGroup;
 import org.sarge.textrpg.runner.Screen.ScreenException;
 import org.sarge.textrpg.util.NameStore;
 import org.sarge.textrpg.world.Area;
@@ -23,6 +24,7 @@ public class Session extends AbstractObject {
 	private Account account;
 	private PlayerCharacter player;
 	private NameStore store;
+	private ArgumentParserGroup parsers;
 
 	/**
 	 * Constructor.
@@ -70,6 +72,20 @@ public class Session extends AbstractObject {
 		connection.write(message);
 	}
 
+	/**
+	 * Flushes buffered messages to the client.
+	 */
+	public void flush() {
+		connection.flush();
+	}
+
+	/**
+	 * @return Outbound statistics for this session
+	 */
+	public ConnectionStatistics statistics() {
+		return connection.statistics();
+	}
+
 	/**
 	 * Closes the underlying connection.
 	 */
@@ -107,6 +123,21 @@ public class Session extends AbstractObject {
 		this.player = player;
 	}
 
+	/**
+	 * @return Argument parsers for the active player
+	 */
+	public ArgumentParserGroup parsers() {
+		return parsers;
+	}
+
+	/**
+	 * Sets the argument parsers for the active player.
+	 * @param parsers Argument parsers
+	 */
+	public void set(ArgumentParserGroup parsers) {
+		this.parsers = parsers;
+	}
+
 	/**
 	 * @return Name-store for this session
 	 */
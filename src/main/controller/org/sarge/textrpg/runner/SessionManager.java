@@ -11,13 +11,18 @@ import java.util.stream.Stream;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.entity.PlayerJournal;
 import org.sarge.textrpg.runner.Connection.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
  * The <i>session manager</i> maintains the currently active sessions.
+ * <p>
+ * Client commands are submitted to the {@link WorldExecutor} rather than being handled on the connection thread.
+ * <p>
  * @see Session
  * @author Sarge
  */
@@ -27,14 +32,28 @@ public class SessionManager implements ConnectionServer.Handler {
 
 	private final Set<Session> sessions = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
+	private final WorldExecutor executor;
+
 	private Screen start;
+	private PlayerJournal journal;
 
 	/**
 	 * Constructor.
-	 * @param start Starting screen for new sessions
+	 * @param start 		Starting screen for new sessions
+	 * @param executor		World executor for client commands
 	 */
-	public SessionManager(Screen start) {
+	public SessionManager(Screen start, WorldExecutor executor) {
 		this.start = notNull(start);
+		this.executor = notNull(executor);
+	}
+
+	/**
+	 * Sets the journal that records the final state of players when a session is closed.
+	 * @param journal Player journal
+	 */
+	@Autowired(required=false)
+	public void setPlayerJournal(PlayerJournal journal) {
+		this.journal = notNull(journal);
 	}
 
 	/**
@@ -71,25 +90,41 @@ public class SessionManager implements ConnectionServer.Handler {
 		return new Listener() {
 			@Override
 			public void handle(String command) {
-				session.handle(command);
+				executor.submit(() -> session.handle(command));
 			}
 
 			@Override
 			public void closed() {
 				LOG.info("Session closed by client: " + session);
-				close(session);
+				executor.submit(() -> close(session));
 			}
 		};
 	}
 
+	/**
+	 * Flushes buffered messages for <b>all</b> sessions.
+	 * Note that this method is intended to be invoked by the world thread at the end of each tick.
+	 */
+	public void flush() {
+		for(Session session : sessions) {
+			session.flush();
+		}
+	}
+
 	/**
 	 * Closes the given session.
 	 * @param session Session to remove
 	 */
 	protected void close(Session session) {
-		LOG.info("Closing session: " + session);
+		LOG.info("Closing session: " + session + " " + session.statistics());
 		sessions.remove(session);
 		session.close();
+
+		// Stop journalling player
+		final PlayerCharacter player = session.player();
+		if((journal != null) && (player != null)) {
+			journal.remove(player);
+		}
 	}
 
 	/**
@@ -0,0 +1,165 @@
+package org.sarge.textrpg.runner;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that strips telnet commands from client input.
+ * <p>
+ * Option negotiation commands (<tt>WILL</tt>, <tt>WONT</tt>, <tt>DO</tt> and <tt>DONT</tt>) are delegated to a listener, sub-negotiations and other commands are discarded.
+ * An escaped <tt>IAC</tt> is passed through as a data byte.
+ * <p>
+ * @author Sarge
+ */
+class TelnetInputStream extends FilterInputStream {
+	static final int IAC = 255;
+	static final int DONT = 254;
+	static final int DO = 253;
+	static final int WONT = 252;
+	static final int WILL = 251;
+	static final int SB = 250;
+	static final int SE = 240;
+
+	/**
+	 * MCCP version 2 compression option.
+	 */
+	static final int COMPRESS2 = 86;
+
+	/**
+	 * Listener for option negotiation commands.
+	 */
+	@FunctionalInterface
+	interface Listener {
+		/**
+		 * Notifies an option negotiation command.
+		 * @param command		Command
+		 * @param option		Option
+		 */
+		void option(int command, int option);
+	}
+
+	private Listener listener = (command, option) -> {
+		// Ignored
+	};
+
+	/**
+	 * Constructor.
+	 * @param in Client input stream
+	 */
+	TelnetInputStream(InputStream in) {
+		super(notNull(in));
+	}
+
+	/**
+	 * Sets the listener for option negotiation commands.
+	 * @param listener Listener
+	 */
+	void listener(Listener listener) {
+		this.listener = notNull(listener);
+	}
+
+	@Override
+	public int read() throws IOException {
+		while(true) {
+			// Pass through data
+			final int b = in.read();
+			if(b != IAC) {
+				return b;
+			}
+
+			// Handle command
+			final int cmd = in.read();
+			switch(cmd) {
+			case -1:
+				return -1;
+
+			case IAC:
+				return IAC;
+
+			case WILL:
+			case WONT:
+			case DO:
+			case DONT:
+				final int option = in.read();
+				if(option == -1) {
+					return -1;
+				}
+				listener.option(cmd, option);
+				break;
+
+			case SB:
+				if(!skip()) {
+					return -1;
+				}
+				break;
+
+			default:
+				// Ignore other commands
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Skips a sub-negotiation.
+	 * @return Whether the end of the sub-negotiation was found before the end of the stream
+	 * @throws IOException if the stream cannot be read
+	 */
+	private boolean skip() throws IOException {
+		boolean cmd = false;
+		while(true) {
+			final int b = in.read();
+			if(b == -1) {
+				return false;
+			}
+			if(cmd && (b == SE)) {
+				return true;
+			}
+			cmd = (b == IAC) && !cmd;
+		}
+	}
+
+	@Override
+	public int read(byte[] buffer, int off, int len) throws IOException {
+		if(len == 0) {
+			return 0;
+		}
+
+		// Block for first byte
+		int b = read();
+		if(b == -1) {
+			return -1;
+		}
+		buffer[off] = (byte) b;
+
+		// Read remaining available data
+		int count = 1;
+		while((count < len) && (in.available() > 0)) {
+			b = read();
+			if(b == -1) {
+				break;
+			}
+			buffer[off + count] = (byte) b;
+			++count;
+		}
+
+		return count;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long count = 0;
+		while((count < n) && (read() != -1)) {
+			++count;
+		}
+		return count;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+}
@@ -0,0 +1,154 @@
+package org.sarge.textrpg.runner;
+
+import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.oneOrMore;
+
+import java.util.LongSummaryStatistics;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The <i>world executor</i> is a queue of tasks that mutate the state of the world.
+ * <p>
+ * Tasks (generally client commands) are submitted by connection threads and are executed in batches by the {@link WorldThread} between event ticks.
+ * This ensures that the world has a single writer, i.e. locations, contents and entity values are never modified concurrently.
+ * <p>
+ * The executor also records the following statistics (in nanoseconds):
+ * <ul>
+ * <li>latency - the delay between a task being submitted and being executed</li>
+ * <li>duration - the execution time of each task</li>
+ * </ul>
+ * <p>
+ * Usage:
+ * <pre>
+ *   // Submit a task from any thread
+ *   executor.submit(() -> ...);
+ *
+ *   // Execute pending tasks on the world thread
+ *   executor.execute();
+ * </pre>
+ * @author Sarge
+ */
+@Component
+public class WorldExecutor {
+	private static final Logger LOG = LoggerFactory.getLogger(WorldExecutor.class);
+
+	/**
+	 * Pending task.
+	 */
+	private static class Task {
+		private final Runnable runnable;
+		private final long submitted = System.nanoTime();
+
+		private Task(Runnable runnable) {
+			this.runnable = notNull(runnable);
+		}
+	}
+
+	private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+	private final LongSummaryStatistics latency = new LongSummaryStatistics();
+	private final LongSummaryStatistics duration = new LongSummaryStatistics();
+
+	private int batch = 256;
+
+	/**
+	 * Sets the maximum number of tasks executed per batch.
+	 * @param batch Batch size
+	 */
+	@Autowired
+	public void setBatchSize(@Value("${frame.batch}") int batch) {
+		this.batch = oneOrMore(batch);
+	}
+
+	/**
+	 * @return Number of pending tasks
+	 */
+	public int size() {
+		return queue.size();
+	}
+
+	/**
+	 * Submits a task to be executed by the world thread.
+	 * @param runnable Task
+	 */
+	public void submit(Runnable runnable) {
+		queue.add(new Task(runnable));
+	}
+
+	/**
+	 * Executes the next batch of pending tasks.
+	 * <p>
+	 * Note that this method is intended to be invoked by a single thread.
+	 * <p>
+	 * @return Number of executed tasks
+	 */
+	public int execute() {
+		int count = 0;
+		while(count < batch) {
+			// Get next task
+			final Task task = queue.poll();
+			if(task == null) {
+				break;
+			}
+			++count;
+
+			// Execute task
+			final long start = System.nanoTime();
+			try {
+				task.runnable.run();
+			}
+			catch(Exception e) {
+				LOG.error("Uncaught exception in world task", e);
+			}
+			final long end = System.nanoTime();
+
+			// Record statistics
+			synchronized(this) {
+				latency.accept(start - task.submitted);
+				duration.accept(end - start);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return Task latency statistics (ns)
+	 */
+	public synchronized LongSummaryStatistics latency() {
+		return copy(latency);
+	}
+
+	/**
+	 * @return Task duration statistics (ns)
+	 */
+	public synchronized LongSummaryStatistics duration() {
+		return copy(duration);
+	}
+
+	/**
+	 * Copies the given statistics.
+	 */
+	private static LongSummaryStatistics copy(LongSummaryStatistics stats) {
+		if(stats.getCount() == 0) {
+			return new LongSummaryStatistics();
+		}
+		else {
+			return new LongSummaryStatistics(stats.getCount(), stats.getMin(), stats.getMax(), stats.getSum());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("pending", size())
+			.append("batch", batch)
+			.toString();
+	}
+}
@@ -3,8 +3,10 @@ package org.sarge.textrpg.runner;
 import static org.sarge.lib.util.Check.notNull;
 import static org.sarge.lib.util.Check.oneOrMore;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 import org.sarge.lib.util.Check;
-import org.sarge.lib.util.Util;
 import org.sarge.textrpg.util.Event;
 import org.sarge.textrpg.util.Runner;
 import org.sarge.textrpg.util.ServiceComponent;
@@ -16,6 +18,14 @@ import org.springframework.stereotype.Component;
 
 /**
  * World event loop.
+ * <p>
+ * Each frame executes pending tasks submitted to the {@link WorldExecutor}, advances the event queues and then flushes the messages generated during that frame to the clients.
+ * <p>
+ * Frames are scheduled at a fixed rate, i.e. the thread only sleeps for the remainder of each frame.
+ * If a frame overruns the following frames are executed immediately to catch up, up to a configured limit after which the pending frames are dropped.
+ * <p>
+ * The duration of each frame, the number of executed events and overruns are recorded by the {@link FrameStatistics} which is published as an MX bean while the thread is running.
+ * <p>
  * @author Sarge
  */
 @Component
@@ -23,19 +33,37 @@ public class WorldThread extends Runner implements ServiceComponent {
 	private static final Logger LOG = LoggerFactory.getLogger(WorldThread.class);
 
 	private final Event.Queue.Manager manager;
+	private final WorldExecutor executor;
+
+	private final FrameStatistics stats = new FrameStatistics();
+
+	private SessionManager sessions;
 
 	private long inc;
 	private long frame = 50;
+	private int catchup = 5;
+	private long next;
 
 	/**
 	 * Constructor.
-	 * @param manager Queue manager
+	 * @param manager 		Queue manager
+	 * @param executor		World executor
 	 */
-	public WorldThread(Event.Queue.Manager manager) {
+	public WorldThread(Event.Queue.Manager manager, WorldExecutor executor) {
 		this.manager = notNull(manager);
+		this.executor = notNull(executor);
 		setFrameScale(5);
 	}
 
+	/**
+	 * Sets the session manager used to flush client messages at the end of each frame.
+	 * @param sessions Session manager
+	 */
+	@Autowired
+	public void setSessionManager(SessionManager sessions) {
+		this.sessions = notNull(sessions);
+	}
+
 	/**
 	 * Sets the duration of a <i>frame</i>.
 	 * @param frame Frame duration (ms)
@@ -45,6 +73,15 @@ public class WorldThread extends Runner implements ServiceComponent {
 		this.frame = oneOrMore(frame);
 	}
 
+	/**
+	 * Sets the maximum number of frames that are executed immediately to catch up after an overrun.
+	 * @param catchup Catch-up limit
+	 */
+	@Autowired
+	public void setCatchUpLimit(@Value("${frame.catchup}") int catchup) {
+		this.catchup = oneOrMore(catchup);
+	}
+
 	/**
 	 * Sets the game-time scale.
 	 * @param scale Scale
@@ -55,9 +92,18 @@ public class WorldThread extends Runner implements ServiceComponent {
 		this.inc = 1000 / frame * scale;
 	}
 
+	/**
+	 * @return Frame statistics
+	 */
+	public FrameStatistics statistics() {
+		return stats;
+	}
+
 	@Override
 	public void start() {
 		LOG.info("Starting world thread...");
+		next = 0;
+		stats.register();
 		super.start();
 	}
 
@@ -65,18 +111,61 @@ public class WorldThread extends Runner implements ServiceComponent {
 	public void stop() {
 		LOG.info("Stopping world thread...");
 		super.stop();
+		stats.unregister();
+		LOG.info("Frame statistics: " + stats);
 	}
 
 	@Override
 	protected void execute() {
+		// Init schedule
+		final long start = System.nanoTime();
+		if(next == 0) {
+			next = start;
+		}
+
+		// Execute pending commands
+		executor.execute();
+
 		// Advance clock
-		final long start = System.currentTimeMillis();
-		manager.advance(inc);
+		final int count = manager.advance(inc);
+
+		// Flush client messages
+		if(sessions != null) {
+			sessions.flush();
+		}
 
+		// Record telemetry
+		final long end = System.nanoTime();
+		final long period = TimeUnit.MILLISECONDS.toNanos(frame);
+		stats.record(end - start, count);
+		if(end - start > period) {
+			stats.overrun();
+		}
+
+		// Schedule next frame
+		schedule(end, period);
+	}
+
+	/**
+	 * Schedules the next frame.
+	 * @param now			Current time (ns)
+	 * @param period		Frame period (ns)
+	 */
+	private void schedule(long now, long period) {
 		// Sleep for remainder of frame
-		final long duration = System.currentTimeMillis() - start;
-		if(duration < frame) {
-			Util.kip(frame);
+		next += period;
+		final long remaining = next - now;
+		if(remaining > 0) {
+			LockSupport.parkNanos(remaining);
+			return;
+		}
+
+		// Otherwise drop frames that exceed the catch-up limit
+		final long behind = -remaining / period;
+		if(behind > catchup) {
+			LOG.warn("World thread dropped {} frames", behind);
+			stats.drop(behind);
+			next = now;
 		}
 	}
 }
@@ -1,8 +1,9 @@
 package org.sarge.textrpg.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.sarge.lib.collection.StrictMap;
@@ -13,6 +14,14 @@ import org.springframework.stereotype.Component;
 
 /**
  * The <i>description formatter</i> renders a {@link Description}.
+ * <p>
+ * Description templates contain argument tokens of the form <tt>{name}</tt> that are replaced by the formatted arguments of the description.
+ * A formatted argument can itself contain tokens (e.g. an argument that is looked up from the name-store) which are resolved against the same description.
+ * Unknown or invalid arguments are left in place, empty arguments are removed, and finally any double-spaces are collapsed.
+ * <p>
+ * Templates are compiled once into a sequence of literal segments and argument slots and cached by template text.
+ * Note that templates are cached by text rather than by name-store since the name-store of a session is a compound view that is re-created as the player moves between areas.
+ * <p>
  * @author Sarge
  */
 @Component
@@ -20,29 +29,117 @@ public class DescriptionFormatter {
 	private static final Logger LOG = LoggerFactory.getLogger(DescriptionFormatter.class);
 
 	/**
-	 * Token-replacement pattern.
+	 * Maximum number of cached templates.
 	 */
-	private static final Pattern PATTERN = Pattern.compile("\\{[\\w\\.]+\\}");
+	private static final int MAX_CACHE = 4096;
 
 	/**
-	 * Looks up a description template.
-	 * @param key Description key
-	 * @return Template
+	 * Maximum depth of nested argument tokens.
 	 */
-	private static String lookup(String key, NameStore store) {
-		final String template = store.get(key);
-		if(template == null) {
-			LOG.warn("Unknown description key: {}", key);
-			return StringUtils.EMPTY;
+	private static final int MAX_DEPTH = 8;
+
+	/**
+	 * Re-usable output buffer.
+	 */
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+	/**
+	 * A <i>template</i> is a compiled description template comprising alternating literal segments and argument slots.
+	 */
+	static final class Template {
+		private static final Template EMPTY = new Template(new String[]{StringUtils.EMPTY}, new String[0]);
+
+		private final String[] literals;
+		private final String[] slots;
+
+		/**
+		 * Constructor.
+		 * @param literals		Literal segments (one more than the number of slots)
+		 * @param slots			Argument slots
+		 */
+		private Template(String[] literals, String[] slots) {
+			assert literals.length == slots.length + 1;
+			this.literals = literals;
+			this.slots = slots;
 		}
-		else {
-			return template;
+
+		/**
+		 * @return Argument slots
+		 */
+		String[] slots() {
+			return slots;
+		}
+
+		/**
+		 * Compiles a template.
+		 * @param template Template text
+		 * @return Compiled template
+		 */
+		static Template compile(String template) {
+			final List<String> literals = new ArrayList<>();
+			final List<String> slots = new ArrayList<>();
+			final int len = template.length();
+			int prev = 0;
+			int n = 0;
+			while(n < len) {
+				// Find next token
+				final int end = token(template, n);
+				if(end == -1) {
+					++n;
+					continue;
+				}
+
+				// Add literal and slot
+				literals.add(template.substring(prev, n));
+				slots.add(template.substring(n + 1, end - 1));
+				prev = end;
+				n = end;
+			}
+			literals.add(template.substring(prev));
+			return new Template(literals.toArray(String[]::new), slots.toArray(String[]::new));
+		}
+
+		/**
+		 * Matches an argument token, i.e. an opening brace followed by one-or-more word or period characters and a closing brace.
+		 * @param str		String
+		 * @param start		Start index
+		 * @return End index of the token (exclusive) or <tt>-1</tt> if not a token
+		 */
+		private static int token(String str, int start) {
+			if(str.charAt(start) != '{') {
+				return -1;
+			}
+			final int len = str.length();
+			for(int n = start + 1; n < len; ++n) {
+				final char ch = str.charAt(n);
+				if(ch == '}') {
+					return n == start + 1 ? -1 : n + 1;
+				}
+				if(!isTokenCharacter(ch)) {
+					return -1;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * @return Whether the given character is a valid token character
+		 */
+		private static boolean isTokenCharacter(char ch) {
+			return
+				((ch >= 'a') && (ch <= 'z')) ||
+				((ch >= 'A') && (ch <= 'Z')) ||
+				((ch >= '0') && (ch <= '9')) ||
+				(ch == '_') ||
+				(ch == '.');
 		}
 	}
 
 	@Autowired
 	private final Map<Class<?>, ArgumentFormatter> formatters = new StrictMap<>();
 
+	private final Map<String, Template> cache = new ConcurrentHashMap<>();
+
 	/**
 	 * Registers a formatter for a class of arguments.
 	 * @param type			Argument type
@@ -52,6 +149,40 @@ public class DescriptionFormatter {
 		formatters.put(type, formatter);
 	}
 
+	/**
+	 * Looks up a description template.
+	 * @param key 			Description key
+	 * @param store			Name-store
+	 * @return Template
+	 */
+	private Template lookup(String key, NameStore store) {
+		final String template = store.get(key);
+		if(template == null) {
+			LOG.warn("Unknown description key: {}", key);
+			return Template.EMPTY;
+		}
+		else {
+			return compile(template);
+		}
+	}
+
+	/**
+	 * Looks up or compiles the given template.
+	 * @param template Template text
+	 * @return Compiled template
+	 */
+	private Template compile(String template) {
+		final Template compiled = cache.get(template);
+		if(compiled != null) {
+			return compiled;
+		}
+		final Template result = Template.compile(template);
+		if(cache.size() < MAX_CACHE) {
+			cache.putIfAbsent(template, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Formats the given description.
 	 * @param description 		Description to format
@@ -60,23 +191,42 @@ public class DescriptionFormatter {
 	 */
 	public String format(Description description, NameStore store) {
 		// Lookup description template
-		final String template = lookup(description.key(), store);
-
-		// Replace tokens
-		final StringBuilder text = new StringBuilder(template);
-		final Matcher matcher = PATTERN.matcher(text);
-		int current = 0;
-		while(matcher.find(current)) {
-			// Extract token
-			final int start = matcher.start();
-			final int end = matcher.end();
-			final String token = text.substring(start + 1, end - 1);
+		final Template template = lookup(description.key(), store);
+
+		// Render template (appending to the buffer in case an argument formatter is re-entrant)
+		final StringBuilder text = BUFFER.get();
+		final int mark = text.length();
+		try {
+			render(template, description, store, text, 0);
+
+			// Remove excess spaces
+			return collapse(text, mark);
+		}
+		finally {
+			text.setLength(mark);
+		}
+	}
+
+	/**
+	 * Renders a template.
+	 * @param template			Template
+	 * @param description		Description
+	 * @param store				Name-store
+	 * @param text				Output buffer
+	 * @param depth				Nesting depth
+	 */
+	private void render(Template template, Description description, NameStore store, StringBuilder text, int depth) {
+		final String[] slots = template.slots;
+		for(int n = 0; n < slots.length; ++n) {
+			// Append literal
+			text.append(template.literals[n]);
 
 			// Lookup argument
+			final String token = slots[n];
 			final Object arg = description.get(token);
 			if(arg == null) {
 				LOG.warn("Unknown description argument: {}", token);
-				current = end;
+				text.append('{').append(token).append('}');
 				continue;
 			}
 
@@ -87,25 +237,50 @@ public class DescriptionFormatter {
 			// Check for invalid arguments
 			if(value == null) {
 				LOG.warn("NULL formatted argument: {} using {}", token, formatter);
-				current = end;
+				text.append('{').append(token).append('}');
 				continue;
 			}
 
-			// Ignore empty arguments
-			if(value.isEmpty()) {
-				text.delete(start, end);
-				current = start;
-				continue;
+			// Replace token with argument and resolve any nested tokens
+			if((value.indexOf('{') == -1) || (depth >= MAX_DEPTH)) {
+				text.append(value);
 			}
+			else {
+				render(compile(value), description, store, text, depth + 1);
+			}
+		}
+		text.append(template.literals[slots.length]);
+	}
 
-			// Replace token with argument
-			text.replace(start, end, value);
-
-			// Recurse to start of replaced token
-			current = start;
+	/**
+	 * Collapses double-spaces in the given text.
+	 * @param text		Text
+	 * @param start		Start index
+	 * @return Collapsed text
+	 */
+	private static String collapse(StringBuilder text, int start) {
+		// Skip if no double-spaces
+		final int first = text.indexOf("  ", start);
+		if(first == -1) {
+			return text.substring(start);
 		}
 
-		// Remove excess spaces
-		return text.toString().replace("  ", " ");
+		// Replace each pair of spaces with a single space
+		final int len = text.length();
+		final char[] result = new char[len - start];
+		text.getChars(start, first, result, 0);
+		int count = first - start;
+		int n = first;
+		while(n < len) {
+			final char ch = text.charAt(n);
+			result[count++] = ch;
+			if((ch == ' ') && (n + 1 < len) && (text.charAt(n + 1) == ' ')) {
+				n += 2;
+			}
+			else {
+				++n;
+			}
+		}
+		return new String(result, 0, count);
 	}
 }
@@ -15,6 +15,9 @@ import org.sarge.textrpg.common.Response;
 
 /**
  * Controller for an activity with intermittent results, e.g. search hidden, recover arrows, etc.
+ * <p>
+ * The discovery events for each induction are scheduled as an {@link Event.Group} on a shared queue and are cancelled in bulk when the induction is completed or interrupted.
+ * <p>
  * @author Sarge
  */
 public class DiscoverController<T> {
@@ -26,7 +29,7 @@ public class DiscoverController<T> {
 	 * Constructor.
 	 * @param name			Induction identifier
 	 * @param mapper		Extracts score from a candidate result
-	 * @param queue			Queue for discover events
+	 * @param queue			Shared queue for discover events
 	 */
 	public DiscoverController(String name, Function<T, Percentile> mapper, Event.Queue queue) {
 		this.name = notEmpty(name);
@@ -43,6 +46,7 @@ public class DiscoverController<T> {
 	 */
 	public Induction induction(Duration duration, Stream<? extends T> stream, Consumer<T> consumer) {
 		Check.notNull(consumer);
+		final Event.Group group = new Event.Group(queue);
 
 		/**
 		 * Discovery event.
@@ -66,7 +70,7 @@ public class DiscoverController<T> {
 			private void schedule() {
 				final float when = duration.toMillis() * diff.invert().floatValue();
 				final long duration = Math.max(1, (long) when);
-				queue.add(this, Duration.ofMillis(duration));
+				group.add(this, Duration.ofMillis(duration));
 			}
 
 			@Override
@@ -87,7 +91,7 @@ public class DiscoverController<T> {
 			@Override
 			public Response complete() throws ActionException {
 				// Cleanup
-				queue.remove();
+				group.cancel();
 
 				// Build response
 				if(results.isEmpty()) {
@@ -101,7 +105,7 @@ public class DiscoverController<T> {
 
 			@Override
 			public void interrupt() {
-				queue.remove();
+				group.cancel();
 			}
 		};
 	}
@@ -0,0 +1,61 @@
+package org.sarge.textrpg.util;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically commits a {@link Journal} such that records appended by the world thread are forced to storage as a group.
+ * <p>
+ * After each commit the committer pre-allocates the next journal segment, see {@link Journal#preallocate()}.
+ * <p>
+ * @author Sarge
+ */
+public class JournalCommitter extends Runner implements ServiceComponent {
+	private static final Logger LOG = LoggerFactory.getLogger(JournalCommitter.class);
+
+	private final Journal journal;
+	private final long interval;
+
+	/**
+	 * Constructor.
+	 * @param journal		Journal
+	 * @param interval		Commit interval
+	 */
+	public JournalCommitter(Journal journal, Duration interval) {
+		this.journal = notNull(journal);
+		this.interval = interval.toMillis();
+	}
+
+	@Override
+	public void start() {
+		LOG.info("Starting journal committer...");
+		super.start();
+	}
+
+	@Override
+	protected void execute() {
+		// Wait for next commit
+		try {
+			Thread.sleep(interval);
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		// Commit journal and pre-allocate next segment
+		try {
+			journal.commit();
+			journal.preallocate();
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -1,5 +1,9 @@
 package org.sarge.textrpg.util;
 
+import static org.sarge.lib.util.Check.notNull;
+
+import java.util.concurrent.ThreadFactory;
+
 import org.sarge.lib.util.AbstractObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,7 +29,8 @@ public abstract class Runner extends AbstractObject {
 		};
 	}
 
-	private boolean running;
+	private ThreadFactory factory = ThreadMode.PLATFORM.factory();
+	private volatile boolean running;
 
 	/**
 	 * @return Whether running
@@ -34,6 +39,15 @@ public abstract class Runner extends AbstractObject {
 		return running;
 	}
 
+	/**
+	 * Sets the factory for the thread created by this runner.
+	 * @param factory Thread factory
+	 * @see ThreadMode
+	 */
+	public void setThreadFactory(ThreadFactory factory) {
+		this.factory = notNull(factory);
+	}
+
 	/**
 	 * Starts running the given repeating code.
 	 * @param runnable Repeating code
@@ -57,7 +71,7 @@ public abstract class Runner extends AbstractObject {
 		};
 
 		// Start loop
-		final Thread thread = new Thread(wrapper);
+		final Thread thread = factory.newThread(wrapper);
 		thread.start();
 	}
 
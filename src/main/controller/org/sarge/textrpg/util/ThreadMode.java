@@ -0,0 +1,51 @@
+package org.sarge.textrpg.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Mode for threads created by a {@link Runner}.
+ * <p>
+ * Virtual threads are only available on a JVM that supports <tt>Thread.ofVirtual()</tt>.
+ * Since the application is compiled against an earlier release the virtual thread factory is looked up reflectively.
+ * <p>
+ * @author Sarge
+ */
+public enum ThreadMode {
+	/**
+	 * Standard platform threads.
+	 */
+	PLATFORM {
+		@Override
+		public ThreadFactory factory() {
+			return Thread::new;
+		}
+	},
+
+	/**
+	 * Light-weight virtual threads.
+	 */
+	VIRTUAL {
+		@Override
+		public ThreadFactory factory() {
+			try {
+				final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+				final Class<?> builder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+				final MethodHandle of = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(builder));
+				final MethodHandle factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+				return (ThreadFactory) factory.invoke(of.invoke());
+			}
+			catch(Throwable e) {
+				throw new UnsupportedOperationException("Virtual threads are not supported by this JVM: " + Runtime.version(), e);
+			}
+		}
+	};
+
+	/**
+	 * @return Thread factory for this mode
+	 * @throws UnsupportedOperationException if this mode is not supported by the JVM
+	 */
+	public abstract ThreadFactory factory();
+}
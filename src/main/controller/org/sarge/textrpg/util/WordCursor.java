@@ -3,9 +3,6 @@ package org.sarge.textrpg.util;
 import static org.sarge.lib.util.Check.notEmpty;
 import static org.sarge.lib.util.Check.notNull;
 
-import java.text.BreakIterator;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -16,10 +13,16 @@ import org.sarge.lib.util.Check;
 /**
  * A <i>word cursor</i> is used to traverse a command line.
  * <p>
+ * The command line is tokenized once on construction into an array of word offsets, excluding stop-words.
+ * Words are comprised of letters, digits and underscores, with an embedded apostrophe or period treated as part of the word (e.g. <tt>can't</tt>), any other characters are separators.
+ * <p>
+ * Words can be retrieved as strings via {@link #next()} or as character sequence views of the command line via {@link #nextWord()}.
+ * The string and view for each word are created on first access and re-used when the cursor is reset, i.e. re-walking the cursor does not allocate.
+ * <p>
  * Example usage:
  * <pre>
  *  // Create cursor
- *  final WordCursor cursor = new WordCursor(line, stop);
+ *  final WordCursor cursor = new WordCursor(line, store, stop);
  *
  *  // Extract next word
  *  final String next = cursor.next();
@@ -37,32 +40,213 @@ import org.sarge.lib.util.Check;
  * @author Sarge
  */
 public class WordCursor extends AbstractObject {
+	/**
+	 * A <i>stop-words</i> set is a pre-computed hash set that matches ranges of a command line without extracting the word.
+	 */
+	public static final class StopWords {
+		private final String[] table;
+		private final int mask;
+
+		/**
+		 * Constructor.
+		 * @param words Stop-words
+		 */
+		public StopWords(Set<String> words) {
+			// Allocate open-addressing table with a load factor of at most 0.5
+			int size = 2;
+			while(size < words.size() * 2) {
+				size <<= 1;
+			}
+			this.table = new String[size];
+			this.mask = size - 1;
+
+			// Populate table
+			for(String word : words) {
+				int index = hash(word, 0, word.length()) & mask;
+				while(table[index] != null) {
+					index = (index + 1) & mask;
+				}
+				table[index] = word;
+			}
+		}
+
+		/**
+		 * Tests whether the given range of a string is a stop-word.
+		 * @param str		String
+		 * @param start		Start index
+		 * @param end		End index (exclusive)
+		 * @return Whether a stop-word
+		 */
+		public boolean contains(String str, int start, int end) {
+			final int len = end - start;
+			int index = hash(str, start, end) & mask;
+			while(true) {
+				final String word = table[index];
+				if(word == null) {
+					return false;
+				}
+				if((word.length() == len) && str.regionMatches(start, word, 0, len)) {
+					return true;
+				}
+				index = (index + 1) & mask;
+			}
+		}
+
+		/**
+		 * Hashes a range of a string.
+		 */
+		private static int hash(String str, int start, int end) {
+			int hash = 0;
+			for(int n = start; n < end; ++n) {
+				hash = 31 * hash + str.charAt(n);
+			}
+			return hash ^ (hash >>> 16);
+		}
+	}
+
+	/**
+	 * Character sequence view of a word in the command line.
+	 */
+	private final class Word implements CharSequence {
+		private final int start;
+		private final int end;
+		private String str;
+
+		private Word(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return line.charAt(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return line.subSequence(start + from, start + to);
+		}
+
+		@Override
+		public String toString() {
+			if(str == null) {
+				str = line.substring(start, end);
+			}
+			return str;
+		}
+	}
+
 	// Configuration
 	private final String line;
 	private final NameStore store;
-	private final Set<String> stop;
-
-	// Word iterator
-	private final BreakIterator itr = BreakIterator.getWordInstance();
-	private int start;
 
 	// Words
-	private final List<String> words = new ArrayList<>();
+	private final int[] offsets;
+	private final int count;
+	private final Word[] words;
 	private int index;
-	private Integer mark;
+	private int mark = -1;
 
 	/**
 	 * Constructor.
 	 * @param line			Command line
 	 * @param store			Name-store
-	 * @param stop			Tests whether a word is a stop-word
+	 * @param stop			Stop-words
 	 */
-	public WordCursor(String line, NameStore store, Set<String> stop) {
-		this.stop = notNull(stop);
-		this.store = notNull(store);
+	public WordCursor(String line, NameStore store, StopWords stop) {
 		this.line = notEmpty(line);
-		itr.setText(line);
-		start = itr.first();
+		this.store = notNull(store);
+		this.offsets = tokenize(line, notNull(stop));
+		this.count = offsets.length / 2;
+		this.words = new Word[count];
+	}
+
+	/**
+	 * Convenience constructor.
+	 * @param line			Command line
+	 * @param store			Name-store
+	 * @param stop			Stop-words
+	 */
+	public WordCursor(String line, NameStore store, Set<String> stop) {
+		this(line, store, new StopWords(stop));
+	}
+
+	/**
+	 * Tokenizes the given command line.
+	 * @param line		Command line
+	 * @param stop		Stop-words
+	 * @return Start and end offsets of each word
+	 */
+	private static int[] tokenize(String line, StopWords stop) {
+		final int len = line.length();
+		int[] offsets = new int[8];
+		int size = 0;
+		int n = 0;
+		while(n < len) {
+			// Skip separators
+			if(!isWordCharacter(line.charAt(n))) {
+				++n;
+				continue;
+			}
+
+			// Find end of word
+			final int start = n;
+			while((n < len) && isWordCharacter(line, n, start)) {
+				++n;
+			}
+
+			// Ignore stop-words
+			if(stop.contains(line, start, n)) {
+				continue;
+			}
+
+			// Record word
+			if(size == offsets.length) {
+				final int[] prev = offsets;
+				offsets = new int[prev.length * 2];
+				System.arraycopy(prev, 0, offsets, 0, size);
+			}
+			offsets[size++] = start;
+			offsets[size++] = n;
+		}
+
+		// Truncate
+		final int[] result = new int[size];
+		System.arraycopy(offsets, 0, result, 0, size);
+		return result;
+	}
+
+	/**
+	 * @return Whether the given character is a word character
+	 */
+	private static boolean isWordCharacter(char ch) {
+		return Character.isLetterOrDigit(ch) || (ch == '_');
+	}
+
+	/**
+	 * Tests whether the character at the given index is part of the current word.
+	 * @param line		Command line
+	 * @param index		Index
+	 * @param start		Start of the current word
+	 * @return Whether word character
+	 */
+	private static boolean isWordCharacter(String line, int index, int start) {
+		final char ch = line.charAt(index);
+		if(isWordCharacter(ch)) {
+			return true;
+		}
+
+		// Check for embedded punctuation
+		if((ch == '\'') || (ch == '.')) {
+			return (index > start) && (index + 1 < line.length()) && isWordCharacter(line.charAt(index + 1));
+		}
+
+		return false;
 	}
 
 	/**
@@ -76,12 +260,7 @@ public class WordCursor extends AbstractObject {
 	 * @return Whether all words have been consumed
 	 */
 	public boolean isExhausted() {
-		if(index < words.size()) {
-			return false;
-		}
-		else {
-			return start == BreakIterator.DONE;
-		}
+		return index >= count;
 	}
 
 	/**
@@ -91,8 +270,7 @@ public class WordCursor extends AbstractObject {
 	 */
 	public boolean capacity(int num) {
 		Check.zeroOrMore(num);
-		if(num == 0) return true;
-		return ensure(num - words.size());
+		return num <= count;
 	}
 
 	/**
@@ -102,46 +280,27 @@ public class WordCursor extends AbstractObject {
 	 */
 	public boolean remaining(int num) {
 		Check.zeroOrMore(num);
-		if(num == 0) return true;
-		final int required = num - (words.size() - index);
-		return ensure(required);
+		return num <= count - index;
 	}
 
 	/**
-	 * Ensures this cursor has at least the given number of words in addition to those already extracted from the command line.
-	 * @param num Number of additional words
-	 * @return Whether has sufficient number of words
+	 * Gets the next word as a view of the command line.
+	 * @return Next word
+	 * @throws NoSuchElementException if this cursor does not have sufficient capacity
+	 * @see #remaining(int)
 	 */
-	private boolean ensure(int num) {
-		// Short-cut test
-		if(num <= 0) return true;
-
-		// Extract additional words
-		for(int n = 0; n < num; ++n) {
-			while(true) {
-				// Stop if insufficient words
-				final int end = itr.next();
-				if(end == BreakIterator.DONE) {
-					return false;
-				}
-
-				// Extract next word
-				final String word = line.substring(start, end);
-				start = itr.next();
+	public CharSequence nextWord() {
+		if(index >= count) throw new NoSuchElementException();
 
-				// Ignore stop words
-				if(stop.contains(word)) {
-					continue;
-				}
-
-				// Add extracted word
-				words.add(word);
-				break;
-			}
+		// Lookup or create view
+		Word word = words[index];
+		if(word == null) {
+			word = new Word(offsets[index * 2], offsets[index * 2 + 1]);
+			words[index] = word;
 		}
+		++index;
 
-		// Sufficient capacity
-		return true;
+		return word;
 	}
 
 	/**
@@ -151,11 +310,7 @@ public class WordCursor extends AbstractObject {
 	 * @see #remaining(int)
 	 */
 	public String next() {
-		if(index >= words.size()) {
-			if(!ensure(1)) throw new NoSuchElementException();
-		}
-
-		return words.get(index++);
+		return nextWord().toString();
 	}
 
 	/**
@@ -183,9 +338,9 @@ public class WordCursor extends AbstractObject {
 	 * @see #mark()
 	 */
 	public void back() {
-		if(mark == null) throw new IllegalStateException("No mark to restore: " + this);
+		if(mark == -1) throw new IllegalStateException("No mark to restore: " + this);
 		index = mark;
-		mark = null;
+		mark = -1;
 	}
 
 	/**
@@ -193,15 +348,14 @@ public class WordCursor extends AbstractObject {
 	 */
 	public void reset() {
 		index = 0;
-		mark = null;
+		mark = -1;
 	}
 
 	@Override
 	public String toString() {
 		return new ToStringBuilder(this)
-			.append("words", words)
+			.append("words", count)
 			.append("index", index)
-			.append("start", start)
 			.append("mark", mark)
 			.append("line", TextHelper.wrap(line, '[', ']'))
 			.toString();
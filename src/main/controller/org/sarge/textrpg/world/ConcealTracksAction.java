@@ -14,7 +14,7 @@ import org.springframework.stereotype.Component;
 /**
  * Action to cover tracks.
  * @author Sarge
- * @see Tracks#conceal(Percentile)
+ * @see Location#conceal(Percentile)
  */
 @Component
 public class ConcealTracksAction extends SkillAction {
@@ -45,7 +45,7 @@ public class ConcealTracksAction extends SkillAction {
 		final Induction induction = () -> {
 			if(super.isSuccess(actor, skill, tracks.visibility())) {
 				final Percentile mod = skill.score();
-				actor.location().tracks().forEach(t -> t.conceal(mod));
+				actor.location().conceal(mod);
 				return Response.of("tracks.cover.finished");
 			}
 			else {
@@ -2,11 +2,11 @@ package org.sarge.textrpg.world;
 
 import static org.sarge.lib.util.Check.oneOrMore;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * A <i>location broadcaster</i> applies a {@link Visitor} to neighbouring locations.
+ * <p>
+ * The neighbours of each location are pre-computed and cached, i.e. broadcasting is an allocation-free iteration over the {@link Neighbourhood} of the start location.
+ * <p>
  * @author Sarge
  */
 public class LocationBroadcaster {
@@ -41,45 +41,24 @@ public class LocationBroadcaster {
 
 	/**
 	 * Visits the neighbours of the given location.
-	 * @param start Start location
+	 * <p>
+	 * Each neighbour is visited once at the depth of the shortest route from the start location.
+	 * Neighbours are visited in order of depth.
+	 * <p>
+	 * @param start			Start location
+	 * @param visitor		Visitor
+	 * @see Neighbourhood
 	 */
 	public void visit(Location start, Visitor visitor) {
-		// Traversal instance
-		class Instance {
-			private final Set<Location> visited = new HashSet<>();
-
-			/**
-			 * Visits the neighbours of the given location.
-			 * @param loc			Location
-			 * @param depth			Depth
-			 */
-			private void visit(Location loc, int depth) {
-				loc.exits().stream()
-					.filter(exit -> !visited.contains(exit.destination()))
-					.forEach(exit -> visit(exit, depth));
-			}
-
-			/**
-			 * Visits the destination of the given exit and recurses to its neighbours.
-			 * @param exit			Exit
-			 * @param depth			Depth
-			 */
-			private void visit(Exit exit, int depth) {
-				// Visit location
-				final Location loc = exit.destination();
-				visited.add(loc);
-				visitor.visit(exit, depth);
-
-				// Recurse to neighbours
-				if(depth < max) {
-					visit(loc, depth + 1);
-				}
+		final Neighbourhood neighbourhood = Neighbourhood.of(start, max);
+		final int levels = Math.min(max, neighbourhood.levels());
+		int index = 0;
+		for(int depth = 1; depth <= levels; ++depth) {
+			final int end = neighbourhood.end(depth);
+			while(index < end) {
+				visitor.visit(neighbourhood.exit(index), depth);
+				++index;
 			}
 		}
-
-		// Traverse neighbours
-		final Instance instance = new Instance();
-		instance.visited.add(start);
-		instance.visit(start, 1);
 	}
 }
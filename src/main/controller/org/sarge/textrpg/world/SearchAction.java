@@ -34,7 +34,7 @@ import org.springframework.stereotype.Component;
 public class SearchAction extends AbstractAction {
 	private final LightLevelProvider light;
 	private final PerceptionCalculator perception;
-	private final Event.Queue.Manager manager;
+	private final DiscoverController<Thing> discover;
 
 	private Function<Effort, Percentile> modifier = effort -> Percentile.ONE;
 	private Duration base = Duration.ofMinutes(1);
@@ -44,13 +44,13 @@ public class SearchAction extends AbstractAction {
 	 * Constructor.
 	 * @param light			Light-level provider
 	 * @param perception	Perception controller
-	 * @param manager		Queue manager for search instances
+	 * @param manager		Queue manager for search events
 	 */
 	public SearchAction(LightLevelProvider light, PerceptionCalculator perception, Event.Queue.Manager manager) {
 		super(Flag.LIGHT, Flag.INDUCTION);
 		this.light = notNull(light);
 		this.perception = notNull(perception);
-		this.manager = notNull(manager);
+		this.discover = new DiscoverController<>("search", Thing::visibility, manager.queue("queue.search"));
 	}
 
 	/**
@@ -113,8 +113,7 @@ public class SearchAction extends AbstractAction {
 		final Duration duration = base.multipliedBy(effort.ordinal() + 1);
 
 		// Create search induction
-		final DiscoverController<Thing> controller = new DiscoverController<>("search", Thing::visibility, manager.queue("search", true));
-		final Induction induction = controller.induction(duration, stream, listener);
+		final Induction induction = discover.induction(duration, stream, listener);
 
 		// Build response
 		return Response.of(new Induction.Instance(induction, duration));
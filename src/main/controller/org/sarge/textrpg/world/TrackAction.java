@@ -39,7 +39,6 @@ public class TrackAction extends SkillAction {
 		this.controller = notNull(controller);
 		this.forget = notNull(forget);
 //		this.discover = new DiscoverController<>("track", controller::visibility);
-		// TODO - tracks pruning
 		this.helper = notNull(helper);
 	}
 
@@ -14,6 +14,7 @@ import org.sarge.textrpg.entity.MovementMode;
 import org.sarge.textrpg.object.Rope;
 import org.sarge.textrpg.util.Clock;
 import org.sarge.textrpg.util.DurationConverter;
+import org.sarge.textrpg.util.Event;
 import org.sarge.textrpg.util.Percentile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,12 +24,16 @@ import org.springframework.stereotype.Controller;
 
 /**
  * Controller for {@link Tracks} generation and detection.
+ * <p>
+ * Tracks are stored in a bounded ring per location and are expired in bulk by a periodic sweep on the world clock, see {@link TracksExpiry}.
+ * <p>
  * @author Sarge
  */
 @Controller
 public class TracksController {
 	private final Map<Area, Percentile> weathering = new ConcurrentHashMap<>();
 	private final Clock clock;
+	private final TracksExpiry expiry;
 
 	private long lifetime = Duration.ofDays(1).toMillis();
 	private Function<Terrain, Percentile> terrain = t -> Percentile.ONE;
@@ -38,10 +43,14 @@ public class TracksController {
 
 	/**
 	 * Constructor.
-	 * @param clock Game clock
+	 * @param manager		Queue manager
+	 * @param period		Expiry period
 	 */
-	public TracksController(Clock clock) {
-		this.clock = notNull(clock);
+	public TracksController(Event.Queue.Manager manager, @Value("${tracks.expiry.period}") Duration period) {
+		DurationConverter.oneOrMore(period);
+		this.clock = notNull(manager);
+		this.expiry = new TracksExpiry(period.toMillis());
+		manager.queue("queue.tracks").add(this::expire, period);
 	}
 
 	/**
@@ -141,19 +150,28 @@ public class TracksController {
 		final Percentile base = movement.tracks();
 		final Percentile vis = visibility(prev, exit).scale(base);
 
-		// Lookup trail for this actor
-		final Trail trail = actor.movement().trail();
-		trail.prune(lifetime);
-
 		// Add tracks
 		if(!vis.isZero()) {
 			final String name = movement.mover().name();
-			final Tracks tracks = new Tracks(prev, name, exit.direction(), vis, clock.now(), trail.previous());
-			trail.add(tracks);
+			final Tracks tracks = new Tracks(name, exit.direction(), vis, clock.now());
+			movement.trail().add(tracks);
 			prev.add(tracks);
+			expiry.add(prev, tracks.created());
 		}
 	}
 
+	/**
+	 * Expires tracks older than the configured lifetime.
+	 * @return Whether to repeat
+	 */
+	boolean expire() {
+		final long now = clock.now();
+		if(now > lifetime) {
+			expiry.sweep(now - lifetime);
+		}
+		return true;
+	}
+
 	/**
 	 * Calculates the <i>initial</i> tracks visibility modifier for the given location.
 	 * @param prev 		Previous location
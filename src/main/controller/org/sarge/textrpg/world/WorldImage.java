@@ -0,0 +1,461 @@
+package org.sarge.textrpg.world;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toList;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.sarge.lib.xml.Element;
+import org.sarge.textrpg.util.NameStore;
+import org.sarge.textrpg.util.NameStoreLoader;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
+
+/**
+ * The <i>world image</i> is a pre-compiled binary representation of the world map source files used to avoid parsing the XML on start-up.
+ * <p>
+ * The image contains an entry for each area XML file comprising the XML tree and the text of the corresponding name-store (if any).
+ * Each entry is stored as a separate snapshot within the image.
+ * <p>
+ * The image file is memory-mapped and entries are only decoded when loaded, see {@link Entry#load(BiFunction)}.
+ * <p>
+ * An image is <i>stale</i> (and is ignored) if the image version has changed, if the set of source files is different, or if any source file has been modified since the image was compiled.
+ * A truncated or corrupt image is also ignored.
+ * <p>
+ * Notes:
+ * <ul>
+ * <li>The image is compiled from the XML trees parsed from the source files, i.e. the loaded elements are identical to the parsed elements</li>
+ * <li>The image is written to a temporary file that replaces the previous image on completion</li>
+ * </ul>
+ * <p>
+ * @author Sarge
+ */
+public class WorldImage {
+	/**
+	 * World image version (incremented when the format changes).
+	 */
+	public static final int VERSION = 2;
+
+	private static final int MAGIC = 0x54525749;
+
+	/**
+	 * Image entry.
+	 */
+	public static final class Entry {
+		private final Path file;
+		private final ByteBuffer data;
+
+		/**
+		 * Constructor.
+		 * @param file		Area file-path
+		 * @param data		Entry data
+		 */
+		private Entry(Path file, ByteBuffer data) {
+			this.file = file;
+			this.data = data;
+		}
+
+		/**
+		 * @return Area file-path
+		 */
+		public Path file() {
+			return file;
+		}
+
+		/**
+		 * Decodes this entry.
+		 * @param mapper		Mapper for the area XML and name-store
+		 * @return Result
+		 * @throws IOException if this entry cannot be decoded
+		 * @param <T> Result type
+		 */
+		public <T> T load(BiFunction<Element, NameStore, T> mapper) throws IOException {
+			try(final SnapshotReader in = new SnapshotReader(new BufferChannel(data.duplicate()))) {
+				final NameStore store = readStore(in);
+				final Element xml = readElement(in);
+				return mapper.apply(xml, store);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return file.toString();
+		}
+	}
+
+	/**
+	 * Read-only channel over an entry buffer.
+	 */
+	private static class BufferChannel implements ReadableByteChannel {
+		private final ByteBuffer buffer;
+
+		/**
+		 * Constructor.
+		 * @param buffer Buffer
+		 */
+		private BufferChannel(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read(ByteBuffer dest) {
+			if(!buffer.hasRemaining()) {
+				return -1;
+			}
+			final int len = Math.min(buffer.remaining(), dest.remaining());
+			dest.put(buffer.slice().limit(len));
+			buffer.position(buffer.position() + len);
+			return len;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+			// Ignored
+		}
+	}
+
+	private final List<Entry> entries;
+
+	/**
+	 * Constructor.
+	 * @param entries Image entries
+	 */
+	private WorldImage(List<Entry> entries) {
+		this.entries = List.copyOf(entries);
+	}
+
+	/**
+	 * @return Image entries in source order
+	 */
+	public List<Entry> entries() {
+		return entries;
+	}
+
+	/**
+	 * Opens a world image.
+	 * @param image		Image file-path
+	 * @param files		Expected area source files
+	 * @return World image or empty if the image does not exist, is stale or is corrupt
+	 * @throws IOException if the image cannot be opened
+	 */
+	public static Optional<WorldImage> open(Path image, List<Path> files) throws IOException {
+		// Ignore missing image
+		if(!Files.exists(image)) {
+			return Optional.empty();
+		}
+
+		// Map image
+		final ByteBuffer buffer;
+		try(final FileChannel channel = FileChannel.open(image, READ)) {
+			buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		// Check header
+		if((buffer.remaining() < 3 * Integer.BYTES) || (buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION)) {
+			return Optional.empty();
+		}
+
+		// Check source files
+		final int count = buffer.getInt();
+		if(count != files.size()) {
+			return Optional.empty();
+		}
+
+		// Load index
+		try {
+			return index(buffer, files);
+		}
+		catch(BufferUnderflowException | IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Loads the image index.
+	 * @param buffer		Image positioned at the start of the index
+	 * @param files			Expected area source files
+	 * @return World image or empty if the image is stale
+	 * @throws IOException if the modified time of a source file cannot be determined
+	 * @throws BufferUnderflowException if the index is truncated
+	 * @throws IllegalArgumentException if an index entry is invalid
+	 */
+	private static Optional<WorldImage> index(ByteBuffer buffer, List<Path> files) throws IOException {
+		final int count = files.size();
+		final List<Entry> entries = new ArrayList<>(count);
+		for(int n = 0; n < count; ++n) {
+			// Load index entry
+			final byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+			buffer.get(name);
+			final long modified = buffer.getLong();
+			final int offset = buffer.getInt();
+			final int len = buffer.getInt();
+
+			// Check source file is unchanged
+			final Path file = files.get(n);
+			if(!file.toString().equals(new String(name, StandardCharsets.UTF_8)) || (modified(file) != modified)) {
+				return Optional.empty();
+			}
+
+			// Add entry
+			final ByteBuffer data = buffer.duplicate().position(offset).limit(offset + len).slice();
+			entries.add(new Entry(file, data));
+		}
+
+		return Optional.of(new WorldImage(entries));
+	}
+
+	/**
+	 * Determines the last modified time of the given area file and the corresponding name-store.
+	 * @param file Area file
+	 * @return Last modified time
+	 * @throws IOException if the modified time cannot be determined
+	 */
+	static long modified(Path file) throws IOException {
+		final long xml = Files.getLastModifiedTime(file).toMillis();
+		final Path store = store(file);
+		if(Files.exists(store)) {
+			return Math.max(xml, Files.getLastModifiedTime(store).toMillis());
+		}
+		else {
+			return xml;
+		}
+	}
+
+	/**
+	 * @param file Area file
+	 * @return Name-store file-path corresponding to the given area file
+	 */
+	static Path store(Path file) {
+		final String filename = file.getFileName().toString();
+		final int index = filename.indexOf('.');
+		return file.resolveSibling(filename.substring(0, index) + ".properties");
+	}
+
+	/**
+	 * Compiles a world image.
+	 * <p>
+	 * Note that source files are compiled in parallel.
+	 * <p>
+	 * The modified times of the source files must be recorded <b>before</b> the files are parsed, see {@link #modified(Path)}.
+	 * A source file that is modified after it has been recorded therefore results in a stale image rather than an image that does not match the file.
+	 * <p>
+	 * @param image			Image file-path
+	 * @param files			Area source files
+	 * @param modified		Modified time of each source file
+	 * @param trees			XML parsed from each source file
+	 * @return Image size (bytes)
+	 * @throws IOException if the image cannot be compiled or written
+	 * @throws IllegalArgumentException if the number of modified times or XML trees does not match the source files
+	 */
+	public static long write(Path image, List<Path> files, long[] modified, List<Element> trees) throws IOException {
+		// Compile entries
+		if(modified.length != files.size()) throw new IllegalArgumentException("Expected modified time for each source file");
+		if(trees.size() != files.size()) throw new IllegalArgumentException("Expected XML for each source file");
+		final List<byte[]> data;
+		try {
+			data = IntStream.range(0, files.size()).parallel().mapToObj(n -> compile(files.get(n), trees.get(n))).collect(toList());
+		}
+		catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		// Determine index size
+		final List<byte[]> names = new ArrayList<>();
+		int size = 3 * Integer.BYTES;
+		for(Path file : files) {
+			final byte[] name = file.toString().getBytes(StandardCharsets.UTF_8);
+			names.add(name);
+			size += Short.BYTES + name.length + Long.BYTES + 2 * Integer.BYTES;
+		}
+
+		// Write header
+		final ByteBuffer header = ByteBuffer.allocate(size);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(files.size());
+
+		// Write index
+		int offset = size;
+		for(int n = 0; n < files.size(); ++n) {
+			final byte[] name = names.get(n);
+			final int len = data.get(n).length;
+			header.putShort((short) name.length);
+			header.put(name);
+			header.putLong(modified[n]);
+			header.putInt(offset);
+			header.putInt(len);
+			offset += len;
+		}
+
+		// Write image to temporary file
+		final Path tmp = image.resolveSibling(image.getFileName() + ".tmp");
+		if(image.getParent() != null) {
+			Files.createDirectories(image.getParent());
+		}
+		try(final FileChannel channel = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+			write(channel, header.flip());
+			for(byte[] entry : data) {
+				write(channel, ByteBuffer.wrap(entry));
+			}
+			channel.force(false);
+		}
+
+		// Replace previous image
+		Files.move(tmp, image, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return offset;
+	}
+
+	/**
+	 * Writes a buffer to the given channel.
+	 */
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Compiles an image entry.
+	 * @param file		Area file
+	 * @param xml		Area XML
+	 * @return Entry data
+	 * @throws UncheckedIOException if the name-store cannot be compiled
+	 */
+	private static byte[] compile(Path file, Element xml) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(final SnapshotWriter out = new SnapshotWriter(Channels.newChannel(bytes))) {
+			// Write name-store
+			final Path store = store(file);
+			final boolean present = Files.exists(store);
+			out.writeBoolean(present);
+			if(present) {
+				out.writeString(Files.readString(store));
+			}
+
+			// Write XML
+			write(xml, out);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(new IOException(e.getMessage() + " in " + file, e));
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes an XML element.
+	 * @param xml		Element
+	 * @param out		Snapshot
+	 * @throws IOException if the element cannot be written
+	 */
+	private static void write(Element xml, SnapshotWriter out) throws IOException {
+		// Write name and attributes
+		out.writeString(xml.name());
+		final Map<String, String> attrs = xml.attributes();
+		out.writeSize(attrs.size());
+		for(Map.Entry<String, String> entry : attrs.entrySet()) {
+			out.writeString(entry.getKey());
+			out.writeString(entry.getValue());
+		}
+
+		// Write text
+		final String text = xml.text();
+		out.writeString(text == null ? "" : text);
+
+		// Write children
+		final List<Element> children = xml.children().collect(toList());
+		out.writeSize(children.size());
+		for(Element child : children) {
+			write(child, out);
+		}
+	}
+
+	/**
+	 * Reads a name-store.
+	 * @param in Snapshot
+	 * @return Name-store
+	 * @throws IOException if the name-store cannot be read
+	 */
+	private static NameStore readStore(SnapshotReader in) throws IOException {
+		if(!in.readBoolean()) {
+			return NameStore.EMPTY;
+		}
+		final NameStoreLoader loader = new NameStoreLoader();
+		loader.load(new StringReader(in.readString()));
+		return loader.build();
+	}
+
+	/**
+	 * Reads an XML element.
+	 * @param in Snapshot
+	 * @return Element
+	 * @throws IOException if the element cannot be read
+	 */
+	private static Element readElement(SnapshotReader in) throws IOException {
+		final Element.Builder builder = new Element.Builder(in.readString());
+		readContents(in, builder);
+		return builder.build();
+	}
+
+	/**
+	 * Reads the attributes, text and children of an XML element.
+	 * @param in			Snapshot
+	 * @param builder		Element builder
+	 * @throws IOException if the element cannot be read
+	 */
+	private static void readContents(SnapshotReader in, Element.Builder builder) throws IOException {
+		// Read attributes
+		final int attrs = in.readSize();
+		for(int n = 0; n < attrs; ++n) {
+			builder.attribute(in.readString(), in.readString());
+		}
+
+		// Read text
+		final String text = in.readString();
+		if(!text.isEmpty()) {
+			builder.text(text);
+		}
+
+		// Read children
+		final int children = in.readSize();
+		for(int n = 0; n < children; ++n) {
+			builder.child(in.readString());
+			readContents(in, builder);
+			builder.end();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("entries", entries.size())
+			.toString();
+	}
+}
@@ -2,11 +2,17 @@ package org.sarge.textrpg.world;
 
 import static java.util.stream.Collectors.toList;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 
@@ -41,6 +47,18 @@ import org.springframework.stereotype.Component;
  * <ul>
  * <li>Other files in a folder are ignored (and logged as warnings)</li>
  * <li>Default area properties are inherited by sub-areas (terrain, route, etc)</li>
+ * </ul>
+ * <p>
+ * The world is loaded in two phases:
+ * <ol>
+ * <li>The area XML files and name-stores are <i>parsed</i> in parallel on the common fork-join pool</li>
+ * <li>The areas and locations are then <i>built</i> from the parsed files in directory order on the calling thread, followed by linking of all locations</li>
+ * </ol>
+ * Only the first phase is parallel since areas inherit properties from their parents and the various loaders and the {@link Location.Linker} are not thread-safe.
+ * <p>
+ * The parsed area files are cached in a pre-compiled {@link WorldImage} which replaces the first phase on subsequent start-ups.
+ * The image is re-compiled from the parsed area files if it is stale, i.e. if the world map has been modified.
+ * A failure to compile the image is logged and does not prevent the world being loaded.
  * <p>
  * @author Sarge
  */
@@ -59,6 +77,7 @@ public class WorldLoader {
 	}
 
 	@Value("${data.source}") private Path root;			// TODO - should be from config?
+	@Value("${world.image}") private Path image;
 
 	@Autowired private AreaLoader areaLoader;
 	@Autowired private LocationLoaders loaders;
@@ -73,32 +92,188 @@ public class WorldLoader {
 		return factions.build();
 	}
 
+	/**
+	 * Parsed area file.
+	 */
+	private static final class AreaFile {
+		private final Path file;
+		private final boolean root;
+		private final Element xml;
+		private final NameStore store;
+
+		/**
+		 * Constructor.
+		 * @param file		File-path
+		 * @param root		Whether this is the root area of a directory
+		 * @param xml		Area XML
+		 * @param store		Name-store
+		 */
+		private AreaFile(Path file, boolean root, Element xml, NameStore store) {
+			this.file = file;
+			this.root = root;
+			this.xml = xml;
+			this.store = store;
+		}
+	}
+
 	/**
 	 * Loads the world.
 	 * @throws IOException if the world cannot be loaded
 	 */
 	@PostConstruct
 	public void load() throws IOException {
-		// Load world map
+		// Enumerate area files
 		LOG.info("Loading world map...");
 		final Path path = root.resolve("world");
+		long start = System.currentTimeMillis();
+		final List<Path> files = new ArrayList<>();
+		try(final Stream<Path> dirs = Files.walk(path)) {
+			dirs.filter(Files::isDirectory).forEach(dir -> enumerate(dir, files));
+		}
+
+		// Record modified times before parsing, i.e. a file modified during loading results in a stale image
+		final long[] modified = new long[files.size()];
+		for(int n = 0; n < modified.length; ++n) {
+			modified[n] = WorldImage.modified(files.get(n));
+		}
+
+		// Load world image or parse area files
+		final Optional<WorldImage> compiled = WorldImage.open(image, files);
+		final List<AreaFile> areas;
+		try {
+			if(compiled.isPresent()) {
+				areas = compiled.get().entries().parallelStream().map(WorldLoader::load).collect(toList());
+			}
+			else {
+				areas = files.parallelStream().map(WorldLoader::parse).collect(toList());
+			}
+		}
+		catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+		LOG.info(String.format("%s %d area files in %dms", compiled.isPresent() ? "Loaded image of" : "Parsed", areas.size(), System.currentTimeMillis() - start));
+
+		// Compile world image from the parsed areas
+		if(compiled.isEmpty()) {
+			start = System.currentTimeMillis();
+			try {
+				final long size = WorldImage.write(image, files, modified, areas.stream().map(area -> area.xml).collect(toList()));
+				LOG.info(String.format("Compiled world image %s (%d bytes) in %dms", image, size, System.currentTimeMillis() - start));
+			}
+			catch(IOException | RuntimeException e) {
+				LOG.error("Error compiling world image: " + image, e);
+			}
+		}
+
+		// Build areas and locations
+		start = System.currentTimeMillis();
 		final Loader loader = new Loader(path);
-		Files.walk(path).filter(Files::isDirectory).forEach(loader::load);
+		areas.forEach(loader::load);
 		loader.stack.pop();
+		LOG.info(String.format("Built world in %dms", System.currentTimeMillis() - start));
 
 		// Link locations
 		LOG.info("Linking locations...");
+		start = System.currentTimeMillis();
 		linker.link();
+		LOG.info(String.format("Linked locations in %dms", System.currentTimeMillis() - start));
+	}
+
+	/**
+	 * Enumerates the area files in the given directory, the root area descriptor is the first file.
+	 * @param dir		Directory
+	 * @param files		Area files
+	 */
+	private static void enumerate(Path dir, List<Path> files) {
+		// Add root area
+		final Path root = root(dir);
+		files.add(root);
+
+		// Add other areas
+		Arrays.stream(dir.toFile().listFiles())
+			.filter(f -> f.getName().endsWith(".xml"))
+			.map(File::toPath)
+			.filter(p -> !p.equals(root))
+			.forEach(files::add);
+	}
+
+	/**
+	 * @param dir Directory
+	 * @return Root area descriptor of the given directory
+	 */
+	private static Path root(Path dir) {
+		return dir.resolve(dir.getFileName() + ".xml");
+	}
+
+	/**
+	 * Parses an area file and the corresponding name-store.
+	 * @param file File-path
+	 * @return Parsed area
+	 * @throws UncheckedIOException if the area cannot be parsed
+	 * @throws ElementException if the area XML is invalid
+	 */
+	private static AreaFile parse(Path file) {
+		LOG.info("Parsing " + file);
+		try(final BufferedReader in = Files.newBufferedReader(file)) {
+			final NameStore store = loadStore(file);
+			final Element xml = new ElementLoader().load(in);
+			return new AreaFile(file, file.equals(root(file.getParent())), xml, store);
+		}
+		catch(ElementException e) {
+			e.setFile(file.toString());
+			throw e;
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(new IOException(e.getMessage() + " in " + file, e));
+		}
+	}
+
+	/**
+	 * Loads a pre-compiled area file.
+	 * @param entry World image entry
+	 * @return Parsed area
+	 * @throws UncheckedIOException if the entry cannot be loaded
+	 */
+	private static AreaFile load(WorldImage.Entry entry) {
+		final Path file = entry.file();
+		try {
+			return entry.load((xml, store) -> new AreaFile(file, file.equals(root(file.getParent())), xml, store));
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(new IOException(e.getMessage() + " in " + file, e));
+		}
+	}
+
+	/**
+	 * Loads a name-store.
+	 * @param path File-path
+	 * @return Name-store
+	 * @throws IOException if the name-store cannot be loaded
+	 */
+	private static NameStore loadStore(Path path) throws IOException {
+		final Path file = WorldImage.store(path);
+		if(file.toFile().exists()) {
+			LOG.info("Loading " + file);
+			final NameStoreLoader loader = new NameStoreLoader();
+			try(final BufferedReader in = Files.newBufferedReader(file)) {
+				loader.load(in);
+			}
+			return loader.build();
+		}
+		else {
+			return NameStore.EMPTY;
+		}
 	}
 
 	/**
-	 * Directory walker.
+	 * Builds areas and locations from parsed area files.
 	 */
 	private class Loader {
-		private final ElementLoader loader = new ElementLoader();
 		private final LoaderContext.Stack stack = new LoaderContext.Stack();
 		private final int prefix;
 
+		private LoaderContext parent;
+
 		/**
 		 * Constructor.
 		 * @param root Root directory
@@ -109,13 +284,25 @@ public class WorldLoader {
 		}
 
 		/**
-		 * Loads areas and locations from the given directory.
-		 * @param dir Directory
+		 * Builds an area and its locations.
+		 * @param file Parsed area file
 		 */
-		private void load(Path dir) {
-			LOG.info("Loading " + dir);
+		private void load(AreaFile file) {
+			// Load other areas in this directory
+			if(!file.root) {
+				try {
+					loadArea(file, parent);
+				}
+				catch(ElementException e) {
+					e.setFile(file.file.toString());
+					throw e;
+				}
+				return;
+			}
 
 			// Trim stack to this directory level
+			final Path dir = file.file.getParent();
+			LOG.info("Loading " + dir);
 			final int diff = (stack.size() - 1) - (dir.getNameCount() - prefix);
 			assert diff >= 0;
 			if(diff > 0) {
@@ -124,33 +311,26 @@ public class WorldLoader {
 				}
 			}
 
-			// Load area
-			final Path root = dir.resolve(dir.getFileName() + ".xml");
+			// Load root area
 			try {
-				final LoaderContext area = loadArea(root, stack.parent());
-				stack.push(area);
-				loadChildAreas(dir, area, root);
+				parent = loadArea(file, stack.parent());
+				stack.push(parent);
 			}
 			catch(Exception e) {
-				throw new RuntimeException(e.getMessage() + " in " + root.toString(), e);
+				throw new RuntimeException(e.getMessage() + " in " + file.file.toString(), e);
 			}
 		}
 
 		/**
-		 * Loads an area, locations and any corresponding name-store.
-		 * @param file File-path
-		 * @throws IOException if the area cannot be loaded
+		 * Builds an area and its locations.
+		 * @param file		Parsed area file
+		 * @param ctx		Parent context
+		 * @return Area context
 		 */
-		private LoaderContext loadArea(Path file, LoaderContext ctx) throws IOException {
-			// Load name-store for this area
-			LOG.info("Loading " + file);
-			final NameStore store = loadStore(file);
-
-			// Load XML
-			final Element xml = loader.load(Files.newBufferedReader(file));
-
+		private LoaderContext loadArea(AreaFile file, LoaderContext ctx) {
 			// Load area
-			final Area area = areaLoader.load(xml, ctx.area(), store);
+			final Element xml = file.xml;
+			final Area area = areaLoader.load(xml, ctx.area(), file.store);
 
 			// Load area defaults
 			final Terrain terrain = xml.attribute("terrain").toValue(ctx.terrain(), Terrain.CONVERTER);
@@ -172,54 +352,6 @@ public class WorldLoader {
 			return wrapper;
 		}
 
-		/**
-		 * Loads other areas in the given directory.
-		 * @param dir Directory
-		 * @throws IOException if the areas cannot be loaded
-		 */
-		private void loadChildAreas(Path dir, LoaderContext parent, Path root) throws IOException {
-			// Enumerate other areas
-			final var files = Arrays.stream(dir.toFile().listFiles())
-				.filter(f -> f.getName().endsWith(".xml"))
-				.map(File::toPath)
-				.collect(toList());
-
-			// Skip root area
-			files.remove(root);
-
-			// Load areas
-			for(Path p : files) {
-				try {
-					loadArea(p, parent);
-				}
-				catch(ElementException e) {
-					e.setFile(p.toString());
-					throw e;
-				}
-			}
-		}
-
-		/**
-		 * Loads a name-store.
-		 * @param path File-path
-		 * @return Name-store
-		 * @throws IOException if the name-store cannot be loaded
-		 */
-		private NameStore loadStore(Path path) throws IOException {
-			final String filename = path.getFileName().toString();
-			final int index = filename.indexOf('.');
-			final Path file = path.resolveSibling(filename.substring(0, index) + ".properties");
-			if(file.toFile().exists()) {
-				LOG.info("Loading " + file);
-				final NameStoreLoader loader = new NameStoreLoader();
-				loader.load(Files.newBufferedReader(file));
-				return loader.build();
-			}
-			else {
-				return NameStore.EMPTY;
-			}
-		}
-
 		/**
 		 * Loads contents of an area.
 		 * @param xml XML
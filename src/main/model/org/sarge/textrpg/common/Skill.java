@@ -6,6 +6,7 @@ import static org.sarge.lib.util.Check.zeroOrMore;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -31,16 +32,50 @@ import org.sarge.textrpg.util.Percentile;
  * <ul>
  * <li>A skill can only have one previous skill (and therefore is a member of a single group)</li>
  * <li>Only stand-alone skills or the first skill in a group can be declared as optional</li>
+ * <li>Each skill is allocated a dense <i>ordinal</i> on construction which is used to index skill-sets, see {@link #ordinal()}</li>
  * </ul>
  * <p>
  * @author Sarge
  */
 public final class Skill extends AbstractEqualsObject implements CommandArgument {
+	private static final Object LOCK = new Object();
+	private static volatile Skill[] SKILLS = new Skill[64];
+	private static int count;
+
 	/**
 	 * Empty skill.
 	 */
 	public static final Skill NONE = new Skill.Builder().name("none").build();
 
+	/**
+	 * Allocates the ordinal of a new skill.
+	 * @param skill Skill
+	 * @return Ordinal
+	 */
+	private static int allocate(Skill skill) {
+		synchronized(LOCK) {
+			Skill[] array = SKILLS;
+			if(count == array.length) {
+				array = Arrays.copyOf(array, count * 2);
+			}
+			array[count] = skill;
+			SKILLS = array;
+			return count++;
+		}
+	}
+
+	/**
+	 * Looks up a skill by ordinal.
+	 * @param ordinal Ordinal
+	 * @return Skill
+	 * @throws ArrayIndexOutOfBoundsException if the ordinal has not been allocated
+	 */
+	static Skill skill(int ordinal) {
+		return SKILLS[ordinal];
+	}
+
+	private final int ordinal;
+	private final int level;
 	private final String name;
 	private final int power;
 	private final Percentile score;
@@ -80,6 +115,7 @@ public final class Skill extends AbstractEqualsObject implements CommandArgument
 		// Link skill group
 		if(prev == null) {
 			this.group = this;
+			this.level = 0;
 			this.required = List.copyOf(required);
 
 			// Init proxy for default skill
@@ -99,6 +135,7 @@ public final class Skill extends AbstractEqualsObject implements CommandArgument
 			if(prev.next.isPresent()) throw new IllegalArgumentException(String.format("Invalid previous skill: prev=%s this=%s", prev.name, name));
 			if(required.contains(prev)) throw new IllegalArgumentException(String.format("Previous skill cannot be a requirement: prev=%s this=%s", prev.name, name));
 			this.group = prev.group;
+			this.level = prev.level + 1;
 			prev.next = Optional.of(this);
 
 			// Build required skills
@@ -106,6 +143,9 @@ public final class Skill extends AbstractEqualsObject implements CommandArgument
 			req.add(prev);
 			this.required = List.copyOf(req);
 		}
+
+		// Allocate ordinal
+		this.ordinal = allocate(this);
 	}
 
 	private Skill(String name, int power, Percentile score, Calculation mod, Duration duration, int scale, Skill group) {
@@ -118,7 +158,23 @@ public final class Skill extends AbstractEqualsObject implements CommandArgument
 		this.xp = 0;
 		this.required = List.of();
 		this.group = notNull(group);
+		this.level = 0;
 		this.def = null;
+		this.ordinal = allocate(this);
+	}
+
+	/**
+	 * @return Ordinal of this skill
+	 */
+	public int ordinal() {
+		return ordinal;
+	}
+
+	/**
+	 * @return Position of this skill in its group (zero for the initial skill)
+	 */
+	public int level() {
+		return level;
 	}
 
 	/**
@@ -1,13 +1,11 @@
 package org.sarge.textrpg.common;
 
-import static java.util.stream.Collectors.toSet;
-
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Stream;
 
-import org.sarge.lib.collection.StrictSet;
 import org.sarge.lib.util.AbstractEqualsObject;
 
 /**
@@ -36,15 +34,26 @@ public interface SkillSet {
 
 	/**
 	 * Mutable implementation.
+	 * <p>
+	 * The skills in this set are stored as a bit-set indexed by the {@link Skill#ordinal()} of each skill.
+	 * The most advanced skill of each group is recorded as skills are added, i.e. {@link #find(Skill)} does not walk the group.
+	 * <p>
+	 * A copy of a skill-set shares the underlying data (copy-on-write) until either set is modified, e.g. the base skills of a race can be shared by many entities.
 	 */
 	public class MutableSkillSet extends AbstractEqualsObject implements SkillSet {
-		private final Set<Skill> skills;
+		private static final long[] EMPTY = new long[0];
+		private static final Skill[] NONE = new Skill[0];
+
+		private long[] bits;
+		private Skill[] top;
+		private transient boolean shared;
 
 		/**
 		 * Default constructor for an empty skills-set.
 		 */
 		public MutableSkillSet() {
-			this(new HashSet<>());
+			this.bits = EMPTY;
+			this.top = NONE;
 		}
 
 		/**
@@ -52,25 +61,40 @@ public interface SkillSet {
 		 * @param skills Skill-set to copy
 		 */
 		public MutableSkillSet(SkillSet skills) {
-			this(skills.stream().collect(toSet()));
-		}
-
-		/**
-		 * Constructor.
-		 * @param skills Skill-set
-		 */
-		private MutableSkillSet(Set<Skill> skills) {
-			this.skills = new StrictSet<>(skills);
+			if(skills instanceof MutableSkillSet) {
+				// Share data until modified
+				final MutableSkillSet that = (MutableSkillSet) skills;
+				this.bits = that.bits;
+				this.top = that.top;
+				this.shared = true;
+				that.shared = true;
+			}
+			else {
+				// Copy skills
+				this.bits = EMPTY;
+				this.top = NONE;
+				skills.stream().forEach(this::set);
+			}
 		}
 
 		@Override
 		public Stream<Skill> stream() {
-			return skills.stream();
+			final Stream.Builder<Skill> builder = Stream.builder();
+			for(int n = 0; n < bits.length; ++n) {
+				long word = bits[n];
+				while(word != 0) {
+					final int bit = Long.numberOfTrailingZeros(word);
+					builder.add(Skill.skill((n << 6) + bit));
+					word &= word - 1;
+				}
+			}
+			return builder.build();
 		}
 
 		@Override
 		public boolean contains(Skill skill) {
-			return skills.contains(skill);
+			final int index = skill.ordinal() >>> 6;
+			return (index < bits.length) && ((bits[index] & (1L << skill.ordinal())) != 0);
 		}
 
 		@Override
@@ -81,7 +105,31 @@ public interface SkillSet {
 				return skill.defaultSkill();
 			}
 
-			// Otherwise find most advanced skill in the group
+			// Lookup most advanced skill in the group
+			final Skill result = top(skill.group());
+			if((result != null) && (skill.level() <= result.level())) {
+				return result;
+			}
+
+			// Otherwise skill is not contiguous with the start of the group
+			return walk(skill);
+		}
+
+		/**
+		 * @param group Skill group
+		 * @return Most advanced skill of the given group or <tt>null</tt> if the initial skill of the group is not present
+		 */
+		private Skill top(Skill group) {
+			final int ordinal = group.ordinal();
+			return ordinal < top.length ? top[ordinal] : null;
+		}
+
+		/**
+		 * Walks the given skill group to find the most advanced skill in this set.
+		 * @param skill Starting skill
+		 * @return Most advanced skill
+		 */
+		private Skill walk(Skill skill) {
 			Skill result = skill;
 			while(true) {
 				// Stop if no more skills in this group
@@ -109,7 +157,7 @@ public interface SkillSet {
 		public Collection<Skill> validate(Skill skill) {
 			final Set<Skill> required = new HashSet<>();
 			build(skill, required);
-			required.removeAll(skills);
+			required.removeIf(this::contains);
 			return required;
 		}
 
@@ -125,6 +173,41 @@ public interface SkillSet {
 			}
 		}
 
+		/**
+		 * Adds a skill to this set.
+		 * @param skill Skill to add
+		 * @throws IllegalArgumentException if the skill has already been added
+		 */
+		private void set(Skill skill) {
+			// Check for duplicates
+			if(contains(skill)) throw new IllegalArgumentException("Duplicate skill: " + skill.name());
+
+			// Copy shared data
+			final int ordinal = skill.ordinal();
+			final int index = ordinal >>> 6;
+			if(shared) {
+				bits = Arrays.copyOf(bits, Math.max(bits.length, index + 1));
+				top = top.clone();
+				shared = false;
+			}
+			else
+			if(index >= bits.length) {
+				bits = Arrays.copyOf(bits, index + 1);
+			}
+
+			// Add skill
+			bits[index] |= 1L << ordinal;
+
+			// Update most advanced skill in the group
+			final Skill group = skill.group();
+			if(contains(group)) {
+				if(group.ordinal() >= top.length) {
+					top = Arrays.copyOf(top, group.ordinal() + 1);
+				}
+				top[group.ordinal()] = walk(group);
+			}
+		}
+
 		/**
 		 * Adds a skill to this set.
 		 * @param skill Skill to add
@@ -134,7 +217,7 @@ public interface SkillSet {
 		 */
 		public void add(Skill skill) {
 			if(!validate(skill).isEmpty()) throw new IllegalStateException("Skill requirements not met: " + skill.name());
-			skills.add(skill);
+			set(skill);
 		}
 	}
 }
@@ -1,30 +1,52 @@
 package org.sarge.textrpg.common;
 
 import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.oneOrMore;
 
 import java.time.Duration;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
-import org.sarge.lib.collection.StrictSet;
 import org.sarge.lib.util.AbstractEqualsObject;
 import org.sarge.textrpg.util.Event;
 
 /**
  * Model for a set of transient information known by an actor.
- * @param <T> Data-type
+ * <p>
+ * Each item is stored with an expiry time that is checked lazily when the model is queried, i.e. an item is forgotten as soon as it expires.
+ * Expired items are removed in bulk by a single coarse <i>sweep</i> event that is only active while this model is not empty.
+ * <p>
  * @author Sarge
  */
 public class TransientModel extends AbstractEqualsObject {
-	private final Set<Object> data = new StrictSet<>();
+	/**
+	 * Default sweep period.
+	 */
+	public static final Duration SWEEP = Duration.ofMinutes(1);
+
+	private final Map<Object, Long> data = new HashMap<>();
 	private final Event.Queue queue;
+	private final Duration sweep;
+
+	private boolean active;
 
 	/**
 	 * Constructor.
-	 * @param queue Queue for forget events
+	 * @param queue Queue for sweep events
+	 * @param sweep Sweep period
 	 */
-	public TransientModel(Event.Queue queue) {
+	public TransientModel(Event.Queue queue, Duration sweep) {
 		this.queue = notNull(queue);
+		this.sweep = notNull(sweep);
+	}
+
+	/**
+	 * Constructor using the default sweep period.
+	 * @param queue Queue for sweep events
+	 */
+	public TransientModel(Event.Queue queue) {
+		this(queue, SWEEP);
 	}
 
 	/**
@@ -33,14 +55,25 @@ public class TransientModel extends AbstractEqualsObject {
 	 * @return Whether this model contains the given item
 	 */
 	public boolean contains(Object item) {
-		return data.contains(item);
+		final Long expiry = data.get(item);
+		if(expiry == null) {
+			return false;
+		}
+		if(expiry <= queue.manager().now()) {
+			data.remove(item);
+			return false;
+		}
+		return true;
 	}
 
 	/**
 	 * @return Known items
 	 */
 	public Stream<?> stream() {
-		return data.stream();
+		final long now = queue.manager().now();
+		return data.entrySet().stream()
+			.filter(entry -> entry.getValue() > now)
+			.map(Map.Entry::getKey);
 	}
 
 	/**
@@ -50,11 +83,26 @@ public class TransientModel extends AbstractEqualsObject {
 	 * @throws IllegalArgumentException if the item is already known
 	 */
 	public void add(Object item, Duration forget) {
-		// Mark item as known
-		data.add(item);
+		// Mark item as known until expiry
+		if(contains(item)) throw new IllegalArgumentException("Item already known: " + item);
+		final long expiry = queue.manager().now() + oneOrMore(forget.toMillis());
+		data.put(notNull(item), expiry);
 
-		// Register forget event
-		final Event remove = () -> data.remove(item);
-		queue.add(remove, forget);
+		// Start sweep event
+		if(!active) {
+			queue.add(this::sweep, sweep);
+			active = true;
+		}
+	}
+
+	/**
+	 * Removes expired items.
+	 * @return Whether this model is still active, i.e. whether to repeat the sweep
+	 */
+	private boolean sweep() {
+		final long now = queue.manager().now();
+		data.values().removeIf(expiry -> expiry <= now);
+		active = !data.isEmpty();
+		return active;
 	}
 }
@@ -16,10 +16,15 @@ public final class ContentStateChange extends AbstractEqualsObject {
 	 */
 	public enum Type {
 		/**
-		 * Notifies that a light has been activated.
+		 * Notifies that a light has been activated, extinguished or has expired.
 		 */
 		LIGHT,
 
+		/**
+		 * Notifies that the emissions of an object have changed, e.g. equipment.
+		 */
+		EMISSION,
+
 		/**
 		 * Contents have changed, e.g. a decay event.
 		 */
@@ -36,6 +41,11 @@ public final class ContentStateChange extends AbstractEqualsObject {
 	 */
 	public static final ContentStateChange LIGHT_MODIFIED = new ContentStateChange(Type.LIGHT, null);
 
+	/**
+	 * Notifies an emission change.
+	 */
+	public static final ContentStateChange EMISSION_MODIFIED = new ContentStateChange(Type.EMISSION, null);
+
 	/**
 	 * Creates a state-change notification.
 	 * @param type				Type
@@ -43,7 +53,8 @@ public final class ContentStateChange extends AbstractEqualsObject {
 	 * @return Notification
 	 */
 	public static ContentStateChange of(Type type, Description description) {
-		if(type == Type.LIGHT) throw new IllegalArgumentException("Cannot create a custom light-level notification, use LIGHT_ACTIVATED instead");
+		if(type == Type.LIGHT) throw new IllegalArgumentException("Cannot create a custom light-level notification, use LIGHT_MODIFIED instead");
+		if(type == Type.EMISSION) throw new IllegalArgumentException("Cannot create a custom emission notification, use EMISSION_MODIFIED instead");
 		return new ContentStateChange(type, notNull(description));
 	}
 
@@ -72,7 +83,7 @@ public final class ContentStateChange extends AbstractEqualsObject {
 	 * @return Description
 	 */
 	public Description describe() {
-		if(type == Type.LIGHT) throw new UnsupportedOperationException();
+		if(description == null) throw new UnsupportedOperationException();
 		return description;
 	}
 }
@@ -0,0 +1,132 @@
+package org.sarge.textrpg.contents;
+
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.sarge.textrpg.common.Emission;
+import org.sarge.textrpg.util.Percentile;
+
+/**
+ * Set of contents that tracks the maximum intensity of each {@link Emission} generated by its contents.
+ * <p>
+ * The emissions of each object are recorded when it is added and counted in a multiset keyed by intensity per type of emission.
+ * Only objects that generate an emission are recorded, i.e. the cost of adding or removing other objects is negligible.
+ * The maximum intensity of each emission is therefore available in constant time regardless of the number of contents.
+ * <p>
+ * Since the emissions of an object can change while it is a member of these contents (e.g. a light being lit) the aggregates are re-calculated on the next query after an {@link #update()}.
+ * <p>
+ * @author Sarge
+ */
+public class EmissionContents extends Contents {
+	private static final Emission[] EMISSIONS = Emission.values();
+
+	private final Map<Thing, Percentile[]> emitters = new IdentityHashMap<>();
+	private final Map<Emission, TreeMap<Percentile, Integer>> counts = new EnumMap<>(Emission.class);
+	private final Percentile[] max = new Percentile[EMISSIONS.length];
+
+	private boolean dirty;
+
+	/**
+	 * Constructor.
+	 */
+	public EmissionContents() {
+		for(Emission e : EMISSIONS) {
+			counts.put(e, new TreeMap<>(Percentile.COMPARATOR));
+			max[e.ordinal()] = Percentile.ZERO;
+		}
+	}
+
+	/**
+	 * Determines the maximum intensity of the given emission generated by these contents.
+	 * @param emission Type of emission
+	 * @return Maximum intensity
+	 */
+	public Percentile emission(Emission emission) {
+		if(dirty) {
+			refresh();
+		}
+		return max[emission.ordinal()];
+	}
+
+	@Override
+	protected void add(Thing thing) {
+		super.add(thing);
+		if(!dirty) {
+			record(thing);
+		}
+	}
+
+	@Override
+	protected void remove(Thing thing) {
+		super.remove(thing);
+		if(!dirty) {
+			final Percentile[] values = emitters.remove(thing);
+			if(values != null) {
+				for(Emission e : EMISSIONS) {
+					decrement(e, values[e.ordinal()]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks the emission aggregates as invalid, e.g. when a light-source in these contents has been lit.
+	 */
+	@Override
+	public void update() {
+		dirty = true;
+	}
+
+	/**
+	 * Re-calculates the emission aggregates.
+	 */
+	private void refresh() {
+		emitters.clear();
+		for(Emission e : EMISSIONS) {
+			counts.get(e).clear();
+			max[e.ordinal()] = Percentile.ZERO;
+		}
+		super.stream().forEach(this::record);
+		dirty = false;
+	}
+
+	/**
+	 * Records the emissions of the given object.
+	 * @param thing Object
+	 */
+	private void record(Thing thing) {
+		Percentile[] values = null;
+		for(Emission e : EMISSIONS) {
+			// Ignore if no emission
+			final Percentile p = thing.emission(e);
+			if(p.isZero()) {
+				continue;
+			}
+
+			// Record emission
+			if(values == null) {
+				values = new Percentile[EMISSIONS.length];
+				emitters.put(thing, values);
+			}
+			values[e.ordinal()] = p;
+			counts.get(e).merge(p, 1, Integer::sum);
+			max[e.ordinal()] = max[e.ordinal()].max(p);
+		}
+	}
+
+	/**
+	 * Removes an emission from the aggregates.
+	 * @param emission		Type of emission
+	 * @param p				Intensity or <tt>null</tt> if none
+	 */
+	private void decrement(Emission emission, Percentile p) {
+		if(p == null) {
+			return;
+		}
+		final TreeMap<Percentile, Integer> map = counts.get(emission);
+		map.computeIfPresent(p, (key, count) -> count == 1 ? null : count - 1);
+		max[emission.ordinal()] = map.isEmpty() ? Percentile.ZERO : map.lastKey();
+	}
+}
@@ -373,6 +373,7 @@ public class Entity extends Thing implements Actor, Parent {
 	@Override
 	protected void destroy() {
 		model.trail().clear();
+		model.values().detach();
 		manager.queue().remove();
 		super.destroy();
 	}
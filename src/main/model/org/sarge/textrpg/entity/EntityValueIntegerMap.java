@@ -2,15 +2,22 @@ package org.sarge.textrpg.entity;
 
 import static org.sarge.lib.util.Check.notNull;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.sarge.lib.util.Check;
 import org.sarge.lib.util.Util;
 import org.sarge.textrpg.entity.EntityValue.Key;
+import org.sarge.textrpg.util.Clock;
+import org.sarge.textrpg.util.Event;
 import org.sarge.textrpg.util.MutableIntegerMap;
 import org.sarge.textrpg.util.Percentile;
 import org.sarge.textrpg.util.ValueModifier;
 
 /**
  * Set of entity-values that also enforces maximum and minimum values.
+ * <p>
+ * The primary values can optionally be backed by an {@link EntityValueStore}, see {@link #attach(EntityValueStore, int)}.
  */
 public class EntityValueIntegerMap extends MutableIntegerMap<EntityValue.Key> {
 	/**
@@ -68,6 +75,103 @@ public class EntityValueIntegerMap extends MutableIntegerMap<EntityValue.Key> {
 		}
 	}
 
+	/**
+	 * Cumulative entry.
+	 * <p>
+	 * A <i>cumulative</i> entry is a percentile value that increases by one for each elapsed period, e.g. hunger and thirst.
+	 * The value is derived on access from a base value and the time at which that base was last updated, i.e. no periodic work is required to accumulate the value.
+	 * <p>
+	 * The listener is notified when this value is explicitly set or modified, e.g. to re-schedule alerts based on the predicted crossing time, see {@link #time(int)}.
+	 */
+	public static class CumulativeEntry implements MutableEntry {
+		private final Clock clock;
+		private final long period;
+		private final Event.Holder alert = new Event.Holder();
+
+		private int base;
+		private long since;
+		private Runnable listener = () -> {
+			// Ignored
+		};
+
+		/**
+		 * Constructor.
+		 * @param clock			Clock
+		 * @param period		Accumulation period (ms)
+		 * @param value			Initial value
+		 */
+		public CumulativeEntry(Clock clock, long period, int value) {
+			this.clock = notNull(clock);
+			this.period = Check.oneOrMore(period);
+			this.base = Math.min(Check.zeroOrMore(value), Percentile.MAX);
+			this.since = clock.now();
+		}
+
+		/**
+		 * Sets the modification listener.
+		 * @param listener Listener
+		 */
+		public void listener(Runnable listener) {
+			this.listener = notNull(listener);
+		}
+
+		/**
+		 * @return Pending alert for this value
+		 */
+		public Event.Holder alert() {
+			return alert;
+		}
+
+		/**
+		 * @param now Current time
+		 * @return Number of whole periods since the base value was updated
+		 */
+		private long ticks(long now) {
+			return (now - since) / period;
+		}
+
+		@Override
+		public int get() {
+			return (int) Math.min(base + ticks(clock.now()), Percentile.MAX);
+		}
+
+		@Override
+		public void set(int value) {
+			if(value < 0) throw new IllegalArgumentException("Value must be positive");
+			base = Math.min(value, Percentile.MAX);
+			since = clock.now();
+			listener.run();
+		}
+
+		@Override
+		public int modify(float inc) {
+			// Accumulate elapsed periods (retaining any partial period)
+			final long ticks = ticks(clock.now());
+			since += ticks * period;
+			final int value = (int) Math.min(base + ticks, Percentile.MAX);
+
+			// Modify value
+			final int result = (int) (value + inc);
+			if(result < 0) throw new IllegalArgumentException("Value must be positive");
+			base = Math.min(result, Percentile.MAX);
+			listener.run();
+			return base;
+		}
+
+		/**
+		 * Predicts the time at which this value will reach the given value.
+		 * @param value Value
+		 * @return Predicted time or the current time if the value has already been reached
+		 * @throws IllegalArgumentException if the given value is larger than {@link Percentile#MAX}
+		 */
+		public long time(int value) {
+			if(value > Percentile.MAX) throw new IllegalArgumentException("Invalid cumulative value: " + value);
+			final long now = clock.now();
+			final long when = since + (value - base) * period;
+			return Math.max(when, now);
+		}
+	}
+
 	/**
 	 * Visibility entry.
 	 */
@@ -136,6 +240,9 @@ public class EntityValueIntegerMap extends MutableIntegerMap<EntityValue.Key> {
 
 	private final VisibilityEntry vis = new VisibilityEntry();
 
+	private transient EntityValueStore store;
+	private transient int slot;
+
 	/**
 	 * Constructor.
 	 */
@@ -167,6 +274,134 @@ public class EntityValueIntegerMap extends MutableIntegerMap<EntityValue.Key> {
 		}
 	}
 
+	/**
+	 * @return Whether these values are backed by an entity-value store
+	 */
+	public boolean isAttached() {
+		return store != null;
+	}
+
+	/**
+	 * Attaches these values to the given slot of an entity-value store.
+	 * The current values are copied to the store and replaced by views of that slot.
+	 * @param store		Entity-value store
+	 * @param slot		Slot
+	 * @throws IllegalStateException if these values are already attached
+	 */
+	void attach(EntityValueStore store, int slot) {
+		if(this.store != null) throw new IllegalStateException("Entity-values already attached");
+		this.store = notNull(store);
+		this.slot = slot;
+		for(Key key : keys()) {
+			final MutableEntry view = store.view(key, slot);
+			if(view != null) {
+				final int value = get(key).get();
+				replace(key, view);
+				restore(key, view, value);
+			}
+		}
+	}
+
+	/**
+	 * Detaches these values from the entity-value store and releases the slot.
+	 * The current values are copied to new entries.
+	 */
+	public void detach() {
+		// Ignore if not attached
+		if(store == null) {
+			return;
+		}
+
+		// Copy values from the store
+		for(Key key : keys()) {
+			final int value = get(key).get();
+			final MutableEntry entry = entry(key);
+			replace(key, entry);
+			restore(key, entry, value);
+		}
+
+		// Release slot
+		store.release(slot);
+		store = null;
+	}
+
+	/**
+	 * Replaces the given percentile value with a {@link CumulativeEntry} initialised to the current value.
+	 * @param value			Value
+	 * @param clock			Clock
+	 * @param period		Accumulation period (ms)
+	 * @return Cumulative entry
+	 * @throws IllegalArgumentException if the given value is not a percentile
+	 */
+	public CumulativeEntry accumulate(EntityValue value, Clock clock, long period) {
+		if(value.type() != EntityValue.Type.PERCENTILE) throw new IllegalArgumentException("Not a percentile value: " + value);
+		final Key key = value.key();
+		final MutableEntry prev = get(key);
+		if(prev instanceof CumulativeEntry) {
+			return (CumulativeEntry) prev;
+		}
+		final CumulativeEntry entry = new CumulativeEntry(clock, period, prev.get());
+		replace(key, entry);
+		return entry;
+	}
+
+	/**
+	 * @return Keys of the values that can be backed by an entity-value store
+	 */
+	private List<Key> keys() {
+		final List<Key> keys = new ArrayList<>();
+		for(EntityValue value : EntityValue.PRIMARY_VALUES) {
+			keys.add(value.key(Key.Type.MAXIMUM));
+			keys.add(value.key());
+			keys.add(value.key(Key.Type.REGENERATION));
+		}
+		return keys;
+	}
+
+	/**
+	 * Replaces an entry.
+	 * @param key		Key
+	 * @param entry		New entry
+	 */
+	private void replace(Key key, MutableEntry entry) {
+		map.remove(key);
+		map.put(key, entry);
+	}
+
+	/**
+	 * Creates a detached entry.
+	 * @param key Key
+	 * @return New entry
+	 */
+	private MutableEntry entry(Key key) {
+		switch(key.type()) {
+		case DEFAULT:
+			if(key.value().isPrimary()) {
+				return new PrimaryEntry((DefaultEntry) map.get(key.value().key(Key.Type.MAXIMUM)));
+			}
+			return create(key);
+
+		default:
+			return new PositiveEntry();
+		}
+	}
+
+	/**
+	 * Restores a value without enforcing the relationship between primary values and the associated maximum.
+	 * @param key		Key
+	 * @param entry		Entry
+	 * @param value		Value
+	 */
+	private static void restore(Key key, MutableEntry entry, int value) {
+		if((key.type() == Key.Type.DEFAULT) && key.value().isPrimary()) {
+			// Primary value is clamped to the maximum which has already been restored
+			entry.modify(value - entry.get());
+		}
+		else {
+			entry.set(value);
+		}
+	}
+
 	/**
 	 * @return Visibility model
 	 */
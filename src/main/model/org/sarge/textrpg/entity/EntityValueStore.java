@@ -0,0 +1,273 @@
+package org.sarge.textrpg.entity;
+
+import static org.sarge.lib.util.Check.oneOrMore;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.sarge.lib.util.Check;
+import org.sarge.textrpg.entity.EntityValue.Key;
+import org.sarge.textrpg.util.MutableIntegerMap.MutableEntry;
+
+/**
+ * The <i>entity-value store</i> is a columnar store for the transient values of <b>all</b> live entities.
+ * <p>
+ * The primary values (and associated maximum and regeneration values) are stored in primitive arrays indexed by an entity <i>slot</i>.
+ * Periodic regeneration is therefore applied as a simple loop over the arrays, see {@link #regenerate(EntityValue, float[])}.
+ * Note that the cumulative values ({@link EntityValue#THIRST} and {@link EntityValue#HUNGER}) are derived on access and are not stored, see {@link EntityValueIntegerMap.CumulativeEntry}.
+ * <p>
+ * An entity is allocated a slot when it is added to the store.
+ * The {@link EntityValueIntegerMap} of that entity is then backed by <i>views</i> of the slot, i.e. the per-entity entry API is unchanged.
+ * <p>
+ * Notes:
+ * <ul>
+ * <li>Slots are recycled when an entity is removed, see {@link EntityValueIntegerMap#detach()}</li>
+ * <li>The store is grown as required</li>
+ * <li>This class is intended to be used by the world thread only</li>
+ * </ul>
+ * @author Sarge
+ */
+public class EntityValueStore {
+	private static final int PRIMARY = EntityValue.PRIMARY_VALUES.size();
+
+	// Primary columns
+	private final float[][] values = new float[PRIMARY][];
+	private final int[][] max = new int[PRIMARY][];
+	private final int[][] regen = new int[PRIMARY][];
+
+	// Slots
+	private Entity[] entities;
+	private int[] free;
+	private int count;
+	private int high;
+
+	/**
+	 * Constructor.
+	 * @param capacity Initial capacity
+	 */
+	public EntityValueStore(int capacity) {
+		oneOrMore(capacity);
+		for(int n = 0; n < PRIMARY; ++n) {
+			values[n] = new float[capacity];
+			max[n] = new int[capacity];
+			regen[n] = new int[capacity];
+		}
+		entities = new Entity[capacity];
+		free = new int[capacity];
+	}
+
+	/**
+	 * @return Number of entities in this store
+	 */
+	public int size() {
+		return high - count;
+	}
+
+	/**
+	 * @return Upper bound of the allocated slots
+	 */
+	public int limit() {
+		return high;
+	}
+
+	/**
+	 * @param value Primary value
+	 * @return Primary column index
+	 * @throws IllegalArgumentException if the given value is not a primary value
+	 */
+	private static int primary(EntityValue value) {
+		final int index = EntityValue.PRIMARY_VALUES.indexOf(value);
+		if(index == -1) throw new IllegalArgumentException("Not a primary value: " + value);
+		return index;
+	}
+
+	/**
+	 * Adds an entity to this store.
+	 * The values of the entity are copied to the allocated slot and its values are then backed by this store.
+	 * @param entity Entity
+	 * @throws IllegalStateException if the entity has already been added to a store
+	 */
+	public void add(Entity entity) {
+		final EntityValueIntegerMap map = entity.model().values();
+		if(map.isAttached()) throw new IllegalStateException("Entity already added to a store: " + entity);
+		final int slot = allocate();
+		entities[slot] = entity;
+		map.attach(this, slot);
+	}
+
+	/**
+	 * Allocates a slot.
+	 * @return Slot
+	 */
+	private int allocate() {
+		// Recycle slot
+		if(count > 0) {
+			return free[--count];
+		}
+
+		// Grow store as required
+		if(high == entities.length) {
+			grow(high * 2);
+		}
+
+		return high++;
+	}
+
+	/**
+	 * Grows this store.
+	 * @param capacity New capacity
+	 */
+	private void grow(int capacity) {
+		for(int n = 0; n < PRIMARY; ++n) {
+			values[n] = Arrays.copyOf(values[n], capacity);
+			max[n] = Arrays.copyOf(max[n], capacity);
+			regen[n] = Arrays.copyOf(regen[n], capacity);
+		}
+		entities = Arrays.copyOf(entities, capacity);
+		free = Arrays.copyOf(free, capacity);
+	}
+
+	/**
+	 * Releases a slot.
+	 * @param slot Slot
+	 */
+	void release(int slot) {
+		// Clear slot
+		entities[slot] = null;
+		for(int n = 0; n < PRIMARY; ++n) {
+			values[n][slot] = 0;
+			max[n][slot] = 0;
+			regen[n][slot] = 0;
+		}
+
+		// Recycle slot
+		free[count++] = slot;
+	}
+
+	/**
+	 * Iterates the entities in this store.
+	 * @param consumer Consumer for each entity and its slot
+	 */
+	public void forEach(ObjIntConsumer<Entity> consumer) {
+		for(int n = 0; n < high; ++n) {
+			final Entity entity = entities[n];
+			if(entity != null) {
+				consumer.accept(entity, n);
+			}
+		}
+	}
+
+	/**
+	 * Regenerates a primary value for <b>all</b> entities.
+	 * The value is clamped to zero and the associated maximum.
+	 * @param value			Primary value
+	 * @param amounts		Regeneration amount indexed by slot
+	 * @throws IllegalArgumentException if the given value is not a primary value or the amounts array is smaller than the {@link #limit()}
+	 */
+	public void regenerate(EntityValue value, float[] amounts) {
+		if(amounts.length < high) throw new IllegalArgumentException("Invalid regeneration amounts");
+		final int index = primary(value);
+		final float[] col = values[index];
+		final int[] limit = max[index];
+		for(int n = 0; n < high; ++n) {
+			col[n] = Math.min(Math.max(col[n] + amounts[n], 0), limit[n]);
+		}
+	}
+
+	/**
+	 * Creates a view of the given value.
+	 * @param key		Key
+	 * @param slot		Slot
+	 * @return View or <tt>null</tt> if the value is not stored by this store
+	 */
+	MutableEntry view(Key key, int slot) {
+		final EntityValue value = key.value();
+		if(!value.isPrimary()) {
+			return null;
+		}
+
+		final int index = primary(value);
+		switch(key.type()) {
+		case DEFAULT:		return new PrimaryView(index, slot);
+		case MAXIMUM:		return new PositiveView(max, index, slot);
+		case REGENERATION:	return new PositiveView(regen, index, slot);
+		default:			return null;
+		}
+	}
+
+	/**
+	 * View of a primary value.
+	 * @see EntityValueIntegerMap.PrimaryEntry
+	 */
+	private class PrimaryView implements MutableEntry {
+		private final int index;
+		private final int slot;
+
+		private PrimaryView(int index, int slot) {
+			this.index = index;
+			this.slot = slot;
+		}
+
+		@Override
+		public int get() {
+			return (int) values[index][slot];
+		}
+
+		@Override
+		public void set(int value) {
+			Check.zeroOrMore(value);
+			max[index][slot] = value;
+			values[index][slot] = value;
+		}
+
+		@Override
+		public int modify(float inc) {
+			final float result = Math.min(Math.max(values[index][slot] + inc, 0), max[index][slot]);
+			values[index][slot] = result;
+			return (int) result;
+		}
+	}
+
+	/**
+	 * View of a positive integer value.
+	 * @see EntityValueIntegerMap.PositiveEntry
+	 */
+	private class PositiveView implements MutableEntry {
+		private final int[][] columns;
+		private final int index;
+		private final int slot;
+
+		private PositiveView(int[][] columns, int index, int slot) {
+			this.columns = columns;
+			this.index = index;
+			this.slot = slot;
+		}
+
+		@Override
+		public int get() {
+			return columns[index][slot];
+		}
+
+		@Override
+		public void set(int value) {
+			if(value < 0) throw new IllegalArgumentException("Value must be positive");
+			columns[index][slot] = value;
+		}
+
+		@Override
+		public int modify(float inc) {
+			if(get() + inc < 0) throw new IllegalArgumentException("Value must be positive");
+			columns[index][slot] += inc;
+			return get();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("size", size())
+			.append("capacity", entities.length)
+			.toString();
+	}
+}
@@ -1,5 +1,7 @@
 package org.sarge.textrpg.entity;
 
+import static org.sarge.lib.util.Check.notNull;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -23,6 +25,15 @@ public class Equipment extends AbstractEqualsObject {
 	private final Map<Slot, WorldObject> equipment = new HashMap<>();
 	private final Map<Emission, Percentile> emissions = new HashMap<>();
 	private Optional<Weapon> weapon = Optional.empty();
+	private transient Runnable listener = () -> { /* Ignored */ };
+
+	/**
+	 * Sets the listener notified when this equipment is modified.
+	 * @param listener Listener
+	 */
+	public void listener(Runnable listener) {
+		this.listener = notNull(listener);
+	}
 
 	/**
 	 * @return Equipment as a map indexed by deployment slot
@@ -134,6 +145,7 @@ public class Equipment extends AbstractEqualsObject {
 		equipment.clear();
 		emissions.clear();
 		weapon = Optional.empty();
+		listener.run();
 	}
 
 	/**
@@ -151,6 +163,7 @@ public class Equipment extends AbstractEqualsObject {
 	protected void update() {
 		updateEmissions();
 		weapon = Optional.ofNullable(findWeapon());
+		listener.run();
 	}
 
 	/**
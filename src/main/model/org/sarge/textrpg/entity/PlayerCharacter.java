@@ -1,10 +1,16 @@
 
 package org.sarge.textrpg.entity;
 
+import static java.util.stream.Collectors.toList;
 import static org.sarge.lib.util.Check.notEmpty;
 import static org.sarge.lib.util.Check.notNull;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -16,18 +22,22 @@ import org.sarge.textrpg.common.Gender;
 import org.sarge.textrpg.common.Hidden;
 import org.sarge.textrpg.common.Relationship;
 import org.sarge.textrpg.common.Response;
+import org.sarge.textrpg.common.Skill;
 import org.sarge.textrpg.common.SkillSet;
 import org.sarge.textrpg.common.SkillSet.MutableSkillSet;
 import org.sarge.textrpg.common.TransientModel;
 import org.sarge.textrpg.contents.ContentStateChange;
 import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.entity.PlayerSettings.Setting;
+import org.sarge.textrpg.object.WorldObject;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.EnumerationIntegerMap;
 import org.sarge.textrpg.util.Event;
 import org.sarge.textrpg.util.IntegerMap;
 import org.sarge.textrpg.util.Percentile;
 import org.sarge.textrpg.util.Persistent;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 import org.sarge.textrpg.world.Faction;
 import org.sarge.textrpg.world.Faction.Association;
 
@@ -81,6 +91,55 @@ public class PlayerCharacter extends CharacterEntity {
 			return alignment;
 		}
 
+		@Override
+		public void write(SnapshotWriter out) throws IOException {
+			// Write properties
+			out.writeString(name);
+			out.writeString(race().name());
+			out.writeEnum(gender);
+			out.writeEnum(alignment);
+
+			// Write faction
+			final Optional<Faction> faction = faction();
+			out.writeBoolean(faction.isPresent());
+			if(faction.isPresent()) {
+				out.writeString(faction.get().name());
+			}
+
+			// Write attributes
+			final List<Attribute> keys = attrs.keys().collect(toList());
+			out.writeSize(keys.size());
+			for(Attribute attr : keys) {
+				out.writeEnum(attr);
+				out.writeInt(attrs.get(attr).get());
+			}
+		}
+
+		/**
+		 * Restores a player descriptor from a snapshot.
+		 * @param in Snapshot reader
+		 * @return Player descriptor
+		 * @throws IOException if the descriptor cannot be read
+		 */
+		public static PlayerEntityDescriptor read(SnapshotReader in) throws IOException {
+			// Read properties
+			final String name = in.readString();
+			final Race race = in.readReference(Race.class);
+			final Gender gender = in.readEnum(Gender.class);
+			final Alignment alignment = in.readEnum(Alignment.class);
+			final Faction faction = in.readBoolean() ? in.readReference(Faction.class) : null;
+
+			// Read attributes
+			final EnumerationIntegerMap<Attribute> attrs = new EnumerationIntegerMap<>(Attribute.class);
+			final int size = in.readSize();
+			for(int n = 0; n < size; ++n) {
+				final Attribute attr = in.readEnum(Attribute.class);
+				attrs.get(attr).set(in.readInt());
+			}
+
+			return new PlayerEntityDescriptor(race, name, attrs, gender, alignment, faction);
+		}
+
 		/**
 		 * Builder for a player descriptor.
 		 */
@@ -168,6 +227,7 @@ public class PlayerCharacter extends CharacterEntity {
 		private final Trophy trophy;
 		private final PlayerSettings settings;
 		private final RecipeModel recipes;
+		private final List<WorldObject> restored = new ArrayList<>();
 
 		/**
 		 * Constructor.
@@ -231,6 +291,141 @@ public class PlayerCharacter extends CharacterEntity {
 		public RecipeModel recipes() {
 			return recipes;
 		}
+
+		/**
+		 * @return Player settings
+		 */
+		PlayerSettings settings() {
+			return settings;
+		}
+
+		/**
+		 * Adds an object to be restored to the inventory when this model is attached to a player.
+		 * @param obj Object
+		 */
+		void restore(WorldObject obj) {
+			restored.add(notNull(obj));
+		}
+
+		/**
+		 * Discards an object that is pending restoration.
+		 * @param descriptor Object descriptor name
+		 * @return Whether an object was discarded
+		 */
+		boolean discard(String descriptor) {
+			for(int n = restored.size() - 1; n >= 0; --n) {
+				if(restored.get(n).descriptor().name().equals(descriptor)) {
+					restored.remove(n);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Writes this model to a snapshot.
+		 * <p>
+		 * Notes:
+		 * <ul>
+		 * <li>inventory objects are written with their instance state and contents and are re-created when the snapshot is restored, see {@link WorldObject#write(WorldObject, SnapshotWriter)}</li>
+		 * <li>objects pending restoration are also written, i.e. a restored model can be written before it is attached to a player</li>
+		 * <li>known recipes are not currently persisted</li>
+		 * </ul>
+		 * @param out Snapshot writer
+		 * @throws IOException if this model cannot be written
+		 */
+		@Override
+		public void write(SnapshotWriter out) throws IOException {
+			// Write inventory including objects pending restoration
+			final List<WorldObject> objects = Stream.concat(inv.select(WorldObject.class), restored.stream()).collect(toList());
+			out.writeSize(objects.size());
+			for(WorldObject obj : objects) {
+				WorldObject.write(obj, out);
+			}
+
+			// Write skills
+			final List<Skill> list = skills.stream().collect(toList());
+			out.writeSize(list.size());
+			for(Skill skill : list) {
+				out.writeString(skill.name());
+			}
+
+			// Write faction associations
+			out.writeSize(associations.size());
+			for(Map.Entry<Faction, Relationship> entry : associations.entrySet()) {
+				out.writeString(entry.getKey().name());
+				out.writeEnum(entry.getValue());
+			}
+
+			// Write trophy and settings
+			out.write(trophy);
+			out.write(settings);
+		}
+
+		/**
+		 * Restores a player model from a snapshot.
+		 * <p>
+		 * Note that the restored inventory is populated when the model is attached to a {@link PlayerCharacter}.
+		 * <p>
+		 * @param in Snapshot reader
+		 * @return Player model
+		 * @throws IOException if the model cannot be read
+		 */
+		public static PlayerModel read(SnapshotReader in) throws IOException {
+			// Read inventory
+			final int count = in.readSize();
+			final List<WorldObject> objects = new ArrayList<>(count);
+			for(int n = 0; n < count; ++n) {
+				objects.add(WorldObject.read(in));
+			}
+
+			// Read skills
+			final int num = in.readSize();
+			final List<Skill> list = new ArrayList<>(num);
+			for(int n = 0; n < num; ++n) {
+				list.add(in.readReference(Skill.class));
+			}
+			final MutableSkillSet skills = restore(list);
+
+			// Read faction associations
+			final Map<Faction, Relationship> associations = new StrictMap<>();
+			final int size = in.readSize();
+			for(int n = 0; n < size; ++n) {
+				final Faction faction = in.readReference(Faction.class);
+				associations.put(faction, in.readEnum(Relationship.class));
+			}
+
+			// Read trophy and settings
+			final Trophy trophy = Trophy.read(in);
+			final PlayerSettings settings = PlayerSettings.read(in);
+
+			// Create model
+			final PlayerModel model = new PlayerModel(new Inventory(), skills, associations, trophy, settings, new RecipeModel());
+			objects.forEach(model::restore);
+			return model;
+		}
+
+		/**
+		 * Restores a skill-set such that required skills are added before the skills that depend on them.
+		 * @param skills Skills
+		 * @return Skill-set
+		 * @throws IOException if the requirements of a skill are not present
+		 */
+		private static MutableSkillSet restore(Collection<Skill> skills) throws IOException {
+			final MutableSkillSet set = new MutableSkillSet();
+			final List<Skill> pending = new ArrayList<>(skills);
+			while(!pending.isEmpty()) {
+				final boolean added = pending.removeIf(skill -> {
+					if(!set.validate(skill).isEmpty()) {
+						return false;
+					}
+					set.add(skill);
+					return true;
+				});
+				if(!added) throw new IOException("Skill requirements not met: " + pending);
+			}
+			return set;
+		}
 	}
 
 	/**
@@ -289,6 +484,15 @@ public class PlayerCharacter extends CharacterEntity {
 		super(descriptor, new EntityManager(queue, new PlayerNotificationHandler(), listener));
 		this.model = notNull(model);
 		this.hidden = new TransientModel(queue);
+
+		// Notify location when equipped emissions change
+		model.inv.equipment().listener(() -> raise(ContentStateChange.EMISSION_MODIFIED));
+
+		// Populate restored inventory
+		for(WorldObject obj : model.restored) {
+			obj.parent(this);
+		}
+		model.restored.clear();
 	}
 
 	@Override
@@ -396,8 +600,13 @@ public class PlayerCharacter extends CharacterEntity {
 	public boolean notify(ContentStateChange notification) {
 		switch(notification.type()) {
 		case LIGHT:
+			// Update equipment and propagate to the location
 			contents().equipment().update();
-			return false;
+			return true;
+
+		case EMISSION:
+			// Propagate to the location
+			return true;
 
 		default:
 			this.alert(notification.describe());
@@ -0,0 +1,629 @@
+package org.sarge.textrpg.entity;
+
+import static java.util.stream.Collectors.toSet;
+import static org.sarge.lib.util.Check.notEmpty;
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.sarge.textrpg.common.Skill;
+import org.sarge.textrpg.entity.PlayerCharacter.PlayerEntityDescriptor;
+import org.sarge.textrpg.entity.PlayerCharacter.PlayerModel;
+import org.sarge.textrpg.entity.PlayerSettings.Setting;
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.object.WorldObject;
+import org.sarge.textrpg.util.Journal;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotRepository;
+import org.sarge.textrpg.world.Faction;
+import org.sarge.textrpg.world.Location;
+
+/**
+ * The <i>player journal</i> records modifications to the persistent state of players between snapshots.
+ * <p>
+ * Tracking of a player starts when it enters the game, see {@link #track(PlayerCharacter)}.
+ * The state of a player is then recorded after each command and on completion of an induction.
+ * Modifications since the previously recorded state are appended to the {@link Journal} as a single record comprising a list of <i>deltas</i>:
+ * <ul>
+ * <li>skills learned</li>
+ * <li>objects gained or lost (by descriptor)</li>
+ * <li>experience earned</li>
+ * <li>current location</li>
+ * </ul>
+ * <p>
+ * The journal is periodically <i>compacted</i> by writing a snapshot of each tracked player and discarding the journalled records.
+ * Compaction is split into two phases so that the world thread is not blocked on I/O:
+ * <ol>
+ * <li>{@link #prepare(SnapshotRepository)} is invoked on the world thread to serialise the tracked players in memory and mark the journal</li>
+ * <li>the resultant {@link Compaction} is executed on a background thread to write the snapshots, update the snapshots of untracked players and discard the journal before the mark</li>
+ * </ol>
+ * A player restored from a snapshot is brought up-to-date by replaying the journal, see {@link #restore(String, SnapshotRepository)}.
+ * <p>
+ * A player that logs out is tracked until the next compaction, see {@link #remove(PlayerCharacter)}.
+ * <p>
+ * Notes:
+ * <ul>
+ * <li>only objects carried directly by the player are tracked, i.e. not the contents of containers</li>
+ * <li>the first recorded state of a player is the baseline for subsequent deltas and is not itself journalled</li>
+ * </ul>
+ * <p>
+ * @author Sarge
+ */
+public class PlayerJournal {
+	/**
+	 * Delta types.
+	 */
+	private enum Type {
+		SKILL,
+		GAINED,
+		LOST,
+		EXPERIENCE,
+		LOCATION
+	}
+
+	private static final Type[] TYPES = Type.values();
+
+	/**
+	 * Recorded player state.
+	 */
+	private static final class State {
+		private final Set<String> skills;
+		private final Map<String, Integer> objects = new HashMap<>();
+		private final int xp;
+		private final String location;
+
+		/**
+		 * Constructor.
+		 * @param player Player
+		 */
+		private State(PlayerCharacter player) {
+			this.skills = player.skills().stream().map(Skill::name).collect(toSet());
+			player.contents().select(WorldObject.class).forEach(obj -> objects.merge(obj.descriptor().name(), 1, Integer::sum));
+			this.xp = player.settings().toInteger(Setting.EXPERIENCE);
+			final Location loc = player.location();
+			this.location = loc == null ? null : loc.name();
+		}
+	}
+
+	/**
+	 * Player restored from a snapshot and the journal.
+	 */
+	public static final class Restored {
+		private final PlayerEntityDescriptor descriptor;
+		private final PlayerModel model;
+		private final Optional<String> location;
+
+		/**
+		 * Constructor.
+		 * @param descriptor		Player descriptor
+		 * @param model				Restored model
+		 * @param location			Last recorded location
+		 */
+		private Restored(PlayerEntityDescriptor descriptor, PlayerModel model, Optional<String> location) {
+			this.descriptor = descriptor;
+			this.model = model;
+			this.location = location;
+		}
+
+		/**
+		 * @return Player descriptor
+		 */
+		public PlayerEntityDescriptor descriptor() {
+			return descriptor;
+		}
+
+		/**
+		 * @return Restored model (not attached)
+		 */
+		public PlayerModel model() {
+			return model;
+		}
+
+		/**
+		 * @return Last recorded location of the player
+		 */
+		public Optional<String> location() {
+			return location;
+		}
+	}
+
+	/**
+	 * Tracked player.
+	 */
+	private static final class Entry {
+		private final PlayerCharacter player;
+		private State state;
+		private boolean removed;
+
+		private Entry(PlayerCharacter player) {
+			this.player = player;
+			this.state = new State(player);
+		}
+	}
+
+	/**
+	 * A <i>compaction</i> is the background phase of compacting the journal, see {@link PlayerJournal#prepare(SnapshotRepository)}.
+	 */
+	public final class Compaction {
+		private final SnapshotRepository repository;
+		private final Map<String, byte[]> snapshots;
+		private final long mark;
+
+		/**
+		 * Constructor.
+		 * @param repository		Snapshot repository
+		 * @param snapshots			Serialised snapshots of the tracked players indexed by name
+		 * @param mark				Journal mark
+		 */
+		private Compaction(SnapshotRepository repository, Map<String, byte[]> snapshots, long mark) {
+			this.repository = repository;
+			this.snapshots = snapshots;
+			this.mark = mark;
+		}
+
+		/**
+		 * Executes this compaction.
+		 * <p>
+		 * This method does not access any tracked player and can therefore be invoked from any thread.
+		 * Restoring a player blocks until the compaction has completed, see {@link PlayerJournal#restore(String, SnapshotRepository)}.
+		 * <p>
+		 * @throws IOException if a snapshot cannot be written or the journal cannot be discarded
+		 */
+		public void execute() throws IOException {
+			try {
+				synchronized(lock) {
+					// Write snapshots of tracked players
+					for(Map.Entry<String, byte[]> entry : snapshots.entrySet()) {
+						repository.store(snapshot(entry.getKey()), entry.getValue());
+					}
+
+					// Group the journalled records of untracked players (e.g. recorded before a restart) in a single pass
+					final Map<String, List<ByteBuffer>> untracked = new LinkedHashMap<>();
+					journal.replay(record -> {
+						final String name = string(record);
+						if(!snapshots.containsKey(name)) {
+							final ByteBuffer copy = ByteBuffer.allocate(record.remaining()).put(record).flip();
+							untracked.computeIfAbsent(name, ignored -> new ArrayList<>()).add(copy);
+						}
+					}, mark);
+
+					// Update snapshots of untracked players
+					for(Map.Entry<String, List<ByteBuffer>> entry : untracked.entrySet()) {
+						final Optional<Restored> restored = read(entry.getKey(), repository);
+						if(restored.isPresent()) {
+							final PlayerModel model = restored.get().model;
+							final List<String> location = new ArrayList<>(1);
+							entry.getValue().forEach(record -> apply(record, model, location));
+							store(repository, restored.get().descriptor, model);
+						}
+					}
+
+					// Discard journalled records before the mark
+					journal.discard(mark);
+				}
+			}
+			finally {
+				compacting.set(false);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringBuilder(this)
+				.append("players", snapshots.size())
+				.append("mark", mark)
+				.toString();
+		}
+	}
+
+	private final Journal journal;
+	private final Function<String, Skill> skills;
+	private final Function<String, ObjectDescriptor> descriptors;
+	private final Function<String, Race> races;
+	private final Function<String, Faction> factions;
+	private final Map<String, Entry> players = new HashMap<>();
+	private final Object lock = new Object();
+	private final AtomicBoolean compacting = new AtomicBoolean();
+
+	/**
+	 * Constructor.
+	 * @param journal			Journal
+	 * @param skills			Skills look-up
+	 * @param descriptors		Object descriptors look-up
+	 * @param races				Races look-up
+	 * @param factions			Factions look-up
+	 */
+	public PlayerJournal(Journal journal, Function<String, Skill> skills, Function<String, ObjectDescriptor> descriptors, Function<String, Race> races, Function<String, Faction> factions) {
+		this.journal = notNull(journal);
+		this.skills = notNull(skills);
+		this.descriptors = notNull(descriptors);
+		this.races = notNull(races);
+		this.factions = notNull(factions);
+	}
+
+	/**
+	 * Starts tracking the given player, e.g. on login.
+	 * <p>
+	 * The current state of the player becomes the baseline for subsequent modifications.
+	 * If the player is already tracked any outstanding modifications are recorded and the player is no longer marked as removed.
+	 * <p>
+	 * @param player Player
+	 * @throws UncheckedIOException if the journal cannot be written
+	 */
+	public void track(PlayerCharacter player) {
+		final Entry entry = players.get(player.name());
+		if((entry == null) || (entry.player != player)) {
+			players.put(player.name(), new Entry(player));
+		}
+		else {
+			record(player);
+			entry.removed = false;
+		}
+	}
+
+	/**
+	 * Records modifications to the state of the given player.
+	 * Note that a player that is not tracked is implicitly tracked by this method, see {@link #track(PlayerCharacter)}.
+	 * @param player Player
+	 * @throws UncheckedIOException if the journal cannot be written
+	 */
+	public void record(PlayerCharacter player) {
+		// Start tracking new players
+		final Entry entry = players.get(player.name());
+		if((entry == null) || (entry.player != player)) {
+			players.put(player.name(), new Entry(player));
+			return;
+		}
+
+		// Determine modifications
+		final State prev = entry.state;
+		final State next = new State(player);
+		final byte[] record;
+		try {
+			record = delta(player.name(), prev, next);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		entry.state = next;
+
+		// Ignore if unchanged
+		if(record == null) {
+			return;
+		}
+
+		// Append modifications
+		try {
+			journal.append(record);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException("Error writing player journal: " + player.name(), e);
+		}
+	}
+
+	/**
+	 * Records the final modifications to the given player and stops tracking it, e.g. on logout.
+	 * The player is snapshotted and discarded on the next compaction.
+	 * @param player Player
+	 * @throws UncheckedIOException if the journal cannot be written
+	 */
+	public void remove(PlayerCharacter player) {
+		// Ignore if not tracked
+		final Entry entry = players.get(player.name());
+		if((entry == null) || (entry.player != player)) {
+			return;
+		}
+
+		// Record final modifications
+		record(player);
+		entry.removed = true;
+	}
+
+	/**
+	 * Builds a journal record for the modifications between the given states.
+	 * @param name		Player name
+	 * @param prev		Previous state
+	 * @param next		Current state
+	 * @return Journal record or <tt>null</tt> if unchanged
+	 * @throws IOException if the record cannot be written
+	 */
+	private static byte[] delta(String name, State prev, State next) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeUTF(name);
+		final int header = bytes.size();
+
+		// Record new skills
+		for(String skill : next.skills) {
+			if(!prev.skills.contains(skill)) {
+				out.writeByte(Type.SKILL.ordinal());
+				out.writeUTF(skill);
+			}
+		}
+
+		// Record gained objects
+		for(Map.Entry<String, Integer> e : next.objects.entrySet()) {
+			final int diff = e.getValue() - prev.objects.getOrDefault(e.getKey(), 0);
+			if(diff > 0) {
+				out.writeByte(Type.GAINED.ordinal());
+				out.writeUTF(e.getKey());
+				out.writeInt(diff);
+			}
+		}
+
+		// Record lost objects
+		for(Map.Entry<String, Integer> e : prev.objects.entrySet()) {
+			final int diff = e.getValue() - next.objects.getOrDefault(e.getKey(), 0);
+			if(diff > 0) {
+				out.writeByte(Type.LOST.ordinal());
+				out.writeUTF(e.getKey());
+				out.writeInt(diff);
+			}
+		}
+
+		// Record experience
+		if(next.xp != prev.xp) {
+			out.writeByte(Type.EXPERIENCE.ordinal());
+			out.writeInt(next.xp - prev.xp);
+		}
+
+		// Record location
+		if((next.location != null) && !next.location.equals(prev.location)) {
+			out.writeByte(Type.LOCATION.ordinal());
+			out.writeUTF(next.location);
+		}
+
+		// Ignore if unchanged
+		if(bytes.size() == header) {
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Restores a player from its snapshot and replays the journalled modifications.
+	 * Note that this method blocks while a compaction is being executed, i.e. until the snapshot and the journal are consistent.
+	 * @param name				Player name
+	 * @param repository		Snapshot repository
+	 * @return Restored player or empty if the player has not been snapshotted
+	 * @throws IOException if the snapshot cannot be read or the journal cannot be replayed
+	 * @see #snapshot(String)
+	 */
+	public Optional<Restored> restore(String name, SnapshotRepository repository) throws IOException {
+		synchronized(lock) {
+			// Read snapshot
+			final Optional<Restored> restored = read(name, repository);
+			if(restored.isEmpty()) {
+				return Optional.empty();
+			}
+
+			// Replay journal
+			final PlayerModel model = restored.get().model;
+			final Optional<String> location = replay(name, model);
+			return Optional.of(new Restored(restored.get().descriptor, model, location));
+		}
+	}
+
+	/**
+	 * Reads a player snapshot.
+	 * @param name				Player name
+	 * @param repository		Snapshot repository
+	 * @return Snapshotted player (with no location) or empty if the player has not been snapshotted
+	 * @throws IOException if the snapshot cannot be read
+	 */
+	private Optional<Restored> read(String name, SnapshotRepository repository) throws IOException {
+		// Ignore if not snapshotted
+		final String snapshot = snapshot(name);
+		if(!repository.exists(snapshot)) {
+			return Optional.empty();
+		}
+
+		// Read snapshot
+		try(final SnapshotReader in = repository.open(snapshot)) {
+			in.resolver(Race.class, races);
+			in.resolver(Faction.class, factions);
+			in.resolver(Skill.class, skills);
+			in.resolver(ObjectDescriptor.class, descriptors);
+			final PlayerEntityDescriptor descriptor = PlayerEntityDescriptor.read(in);
+			final PlayerModel model = PlayerModel.read(in);
+			return Optional.of(new Restored(descriptor, model, Optional.empty()));
+		}
+	}
+
+	/**
+	 * Replays the journalled modifications for the given player onto a model restored from a snapshot.
+	 * The model must not have been attached to a {@link PlayerCharacter}.
+	 * @param name		Player name
+	 * @param model		Restored model
+	 * @return Last recorded location of the player
+	 * @throws IOException if the journal cannot be replayed
+	 */
+	public Optional<String> replay(String name, PlayerModel model) throws IOException {
+		notEmpty(name);
+		final byte[] key = name.getBytes(StandardCharsets.UTF_8);
+		final List<String> location = new ArrayList<>(1);
+		journal.replay(record -> {
+			// Skip records for other players
+			final int len = Short.toUnsignedInt(record.getShort());
+			if((len != key.length) || !ByteBuffer.wrap(key).equals(record.slice().limit(len))) {
+				return;
+			}
+			record.position(record.position() + len);
+
+			// Apply deltas
+			apply(record, model, location);
+		});
+		return location.isEmpty() ? Optional.empty() : Optional.of(location.get(0));
+	}
+
+	/**
+	 * Applies the deltas of a journal record.
+	 * @param record		Record positioned after the player name
+	 * @param model			Model
+	 * @param location		Last location
+	 */
+	private void apply(ByteBuffer record, PlayerModel model, List<String> location) {
+		while(record.hasRemaining()) {
+			apply(TYPES[record.get()], record, model, location);
+		}
+	}
+
+	/**
+	 * Applies a journalled delta.
+	 * @param type			Delta type
+	 * @param record		Record
+	 * @param model			Model
+	 * @param location		Last location
+	 */
+	private void apply(Type type, ByteBuffer record, PlayerModel model, List<String> location) {
+		switch(type) {
+		case SKILL:
+			final Skill skill = skills.apply(string(record));
+			if(!model.skills().contains(skill)) {
+				model.skills().add(skill);
+			}
+			break;
+
+		case GAINED:
+			final ObjectDescriptor descriptor = descriptors.apply(string(record));
+			for(int n = record.getInt(); n > 0; --n) {
+				model.restore(descriptor.create());
+			}
+			break;
+
+		case LOST:
+			final String name = string(record);
+			for(int n = record.getInt(); n > 0; --n) {
+				model.discard(name);
+			}
+			break;
+
+		case EXPERIENCE:
+			model.settings().modify(Setting.EXPERIENCE, record.getInt());
+			break;
+
+		case LOCATION:
+			location.clear();
+			location.add(string(record));
+			break;
+		}
+	}
+
+	/**
+	 * Reads a string written by {@link DataOutputStream#writeUTF(String)}.
+	 * Note that this implementation assumes standard UTF-8 which is equivalent for the names used by the journal.
+	 * @param record Record
+	 * @return String
+	 */
+	private static String string(ByteBuffer record) {
+		final int len = Short.toUnsignedInt(record.getShort());
+		final byte[] bytes = new byte[len];
+		record.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Prepares to compact the journal.
+	 * <p>
+	 * This method is intended to be invoked on the world thread and does not perform any snapshot I/O:
+	 * <ul>
+	 * <li>the snapshot of each tracked player is serialised in memory</li>
+	 * <li>players that have logged out or been destroyed are discarded</li>
+	 * <li>the journal is marked such that subsequent records are retained by the compaction</li>
+	 * </ul>
+	 * The returned compaction should then be executed on a background thread, see {@link Compaction#execute()}.
+	 * <p>
+	 * @param repository Snapshot repository
+	 * @return Compaction or empty if the previous compaction has not completed
+	 * @throws IOException if a snapshot cannot be serialised or the journal cannot be marked
+	 * @see #snapshot(String)
+	 */
+	public Optional<Compaction> prepare(SnapshotRepository repository) throws IOException {
+		// Ignore if the previous compaction is still in progress
+		if(!compacting.compareAndSet(false, true)) {
+			return Optional.empty();
+		}
+
+		try {
+			// Serialise tracked players
+			final Map<String, byte[]> snapshots = new HashMap<>();
+			for(Entry entry : players.values()) {
+				final PlayerCharacter player = entry.player;
+				final PlayerEntityDescriptor descriptor = (PlayerEntityDescriptor) player.descriptor();
+				final PlayerModel model = player.player();
+				snapshots.put(player.name(), SnapshotRepository.serialise(out -> {
+					out.write(descriptor);
+					out.write(model);
+				}));
+				entry.state = new State(player);
+			}
+
+			// Discard logged out or destroyed players
+			players.values().removeIf(entry -> entry.removed || !entry.player.isAlive());
+
+			// Mark journal
+			final long mark = journal.mark();
+			return Optional.of(new Compaction(repository, snapshots, mark));
+		}
+		catch(IOException | RuntimeException e) {
+			compacting.set(false);
+			throw e;
+		}
+	}
+
+	/**
+	 * Compacts the journal on the calling thread.
+	 * @param repository Snapshot repository
+	 * @throws IOException if a snapshot cannot be written or the journal cannot be compacted
+	 * @throws IllegalStateException if a compaction is already in progress
+	 * @see #prepare(SnapshotRepository)
+	 */
+	public void compact(SnapshotRepository repository) throws IOException {
+		prepare(repository).orElseThrow(() -> new IllegalStateException("Compaction already in progress")).execute();
+	}
+
+	/**
+	 * Writes a player snapshot.
+	 * @param repository		Snapshot repository
+	 * @param descriptor		Player descriptor
+	 * @param model				Player model
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	private static void store(SnapshotRepository repository, PlayerEntityDescriptor descriptor, PlayerModel model) throws IOException {
+		repository.store(snapshot(descriptor.name()), out -> {
+			out.write(descriptor);
+			out.write(model);
+		});
+	}
+
+	/**
+	 * @param name Player name
+	 * @return Snapshot name for the given player
+	 */
+	public static String snapshot(String name) {
+		return "player." + name;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("journal", journal)
+			.append("players", players.size())
+			.toString();
+	}
+}
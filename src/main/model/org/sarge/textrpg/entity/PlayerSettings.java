@@ -1,11 +1,18 @@
 package org.sarge.textrpg.entity;
 
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.util.List;
+
 import org.sarge.lib.util.AbstractEqualsObject;
 import org.sarge.lib.util.Check;
 import org.sarge.textrpg.common.CommandArgument;
 import org.sarge.textrpg.util.MutableIntegerMap;
 import org.sarge.textrpg.util.MutableIntegerMap.MutableEntry;
 import org.sarge.textrpg.util.Persistent;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 
 /**
  * Player settings and preferences.
@@ -173,4 +180,30 @@ public class PlayerSettings extends AbstractEqualsObject implements Persistent {
 		if(setting.isPreference()) throw new IllegalArgumentException("Invalid setting for transaction: " + setting);
 		return new Transaction(entry, amount, message);
 	}
+
+	@Override
+	public void write(SnapshotWriter out) throws IOException {
+		final List<Setting> keys = settings.keys().collect(toList());
+		out.writeSize(keys.size());
+		for(Setting key : keys) {
+			out.writeEnum(key);
+			out.writeInt(settings.get(key).get());
+		}
+	}
+
+	/**
+	 * Restores player settings from a snapshot.
+	 * @param in Snapshot reader
+	 * @return Player settings
+	 * @throws IOException if the settings cannot be read
+	 */
+	public static PlayerSettings read(SnapshotReader in) throws IOException {
+		final PlayerSettings restored = new PlayerSettings();
+		final int size = in.readSize();
+		for(int n = 0; n < size; ++n) {
+			final Setting key = in.readEnum(Setting.class);
+			restored.settings.get(key).set(in.readInt());
+		}
+		return restored;
+	}
 }
@@ -635,7 +635,7 @@ public final class Race extends AbstractEqualsObject implements CommandArgument
 		 */
 		public Race build() {
 			final Characteristics chars = new Characteristics(gender, alignment, size, weight, attrs, body, cats);
-			final Gear gear = new Gear(weapon, equipment, noise, vocation, skills, lang, tracks);
+			final Gear gear = new Gear(weapon, equipment, noise, vocation, new MutableSkillSet(skills), lang, tracks);
 			final Behaviour behaviour = new Behaviour(movement, period, aggression, flee, flags);
 			final Kill kill = new Kill(corpse, butcher);
 			return new Race(name, chars, gear, behaviour, kill);
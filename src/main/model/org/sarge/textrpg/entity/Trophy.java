@@ -2,17 +2,21 @@ package org.sarge.textrpg.entity;
 
 import static java.util.stream.Collectors.toList;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.sarge.lib.util.AbstractEqualsObject;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.MutableIntegerMap;
+import org.sarge.textrpg.util.Persistent;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 
 /**
  * Record of killed enemies.
  * @author Sarge
  */
-public class Trophy extends AbstractEqualsObject {
+public class Trophy extends AbstractEqualsObject implements Persistent {
 	private final MutableIntegerMap<Race> trophy = new MutableIntegerMap<>();
 
 	/**
@@ -48,4 +52,30 @@ public class Trophy extends AbstractEqualsObject {
 	protected void add(Race race) {
 		trophy.get(race).modify(1);
 	}
+
+	@Override
+	public void write(SnapshotWriter out) throws IOException {
+		final List<Race> races = trophy.keys().collect(toList());
+		out.writeSize(races.size());
+		for(Race race : races) {
+			out.writeString(race.name());
+			out.writeInt(count(race));
+		}
+	}
+
+	/**
+	 * Restores a trophy from a snapshot.
+	 * @param in Snapshot reader
+	 * @return Trophy
+	 * @throws IOException if the trophy cannot be read
+	 */
+	public static Trophy read(SnapshotReader in) throws IOException {
+		final Trophy restored = new Trophy();
+		final int size = in.readSize();
+		for(int n = 0; n < size; ++n) {
+			final Race race = in.readReference(Race.class);
+			restored.trophy.get(race).set(in.readInt());
+		}
+		return restored;
+	}
 }
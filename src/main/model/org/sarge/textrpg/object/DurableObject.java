@@ -2,9 +2,13 @@ package org.sarge.textrpg.object;
 
 import static org.sarge.lib.util.Check.oneOrMore;
 
+import java.io.IOException;
+
 import org.sarge.textrpg.util.ArgumentFormatter;
 import org.sarge.textrpg.util.Description.Builder;
 import org.sarge.textrpg.util.Percentile;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 
 /**
  * A <i>durable</i> object sustains wear during use and can be damaged in combat, e.g. armour, tools, etc.
@@ -97,6 +101,16 @@ public class DurableObject extends WorldObject {
 		super.describe(carried, builder, formatters);
 	}
 
+	@Override
+	protected void writeState(SnapshotWriter out) throws IOException {
+		out.writeSize(wear);
+	}
+
+	@Override
+	protected void readState(SnapshotReader in) throws IOException {
+		wear = Math.min(in.readSize(), this.descriptor().max);
+	}
+
 	/**
 	 * Repairs this durable object.
 	 * @throws IllegalStateException if this object is not damaged
@@ -2,6 +2,7 @@ package org.sarge.textrpg.object;
 
 import static org.sarge.lib.util.Check.notNull;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Optional;
 
@@ -12,6 +13,8 @@ import org.sarge.textrpg.util.ActionException;
 import org.sarge.textrpg.util.Description.Builder;
 import org.sarge.textrpg.util.Event;
 import org.sarge.textrpg.util.Percentile;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 
 /**
  * A <i>light</i> is a source of illumination such as a torch, lantern or camp-fire.
@@ -287,6 +290,22 @@ public class Light extends WorldObject {
 		covered = false;
 	}
 
+	/**
+	 * Writes the remaining lifetime of this light and whether it is covered.
+	 * Note that a lit light is restored extinguished since its expiry events are not persisted.
+	 */
+	@Override
+	protected void writeState(SnapshotWriter out) throws IOException {
+		out.writeLong(lifetime);
+		out.writeBoolean(covered);
+	}
+
+	@Override
+	protected void readState(SnapshotReader in) throws IOException {
+		lifetime = in.readLong();
+		covered = in.readBoolean();
+	}
+
 	/**
 	 * Expires this light.
 	 * @throws IllegalStateException if this light cannot be expired
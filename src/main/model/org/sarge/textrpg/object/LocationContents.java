@@ -0,0 +1,137 @@
+package org.sarge.textrpg.object;
+
+import static java.util.stream.Collectors.toList;
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.sarge.textrpg.util.Persistent;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
+import org.sarge.textrpg.world.Location;
+
+/**
+ * The <i>location contents</i> is a snapshot of the objects in the named locations of the world.
+ * <p>
+ * Locations are identified by their connector name, see {@link Location.Linker#connector(String)}.
+ * Each object is written recursively, see {@link WorldObject#write(WorldObject, SnapshotWriter)}.
+ * <p>
+ * Notes:
+ * <ul>
+ * <li>fixtures are part of the world definition and are neither written nor replaced</li>
+ * <li>empty locations are also written so that objects removed since the world was loaded are not restored</li>
+ * <li>locations that are not in the snapshot (e.g. added to the world since the snapshot was taken) keep their initial contents</li>
+ * <li>locations that are no longer defined by the world are ignored</li>
+ * </ul>
+ * <p>
+ * @see #restore(Location.Linker)
+ * @author Sarge
+ */
+public class LocationContents implements Persistent {
+	/**
+	 * Takes a snapshot of the contents of the given locations.
+	 * @param locations Locations
+	 * @return Location contents
+	 */
+	public static LocationContents of(Stream<Location> locations) {
+		final Map<String, List<WorldObject>> contents = new LinkedHashMap<>();
+		locations.forEach(loc -> contents.put(loc.name(), objects(loc).collect(toList())));
+		return new LocationContents(contents);
+	}
+
+	/**
+	 * @param loc Location
+	 * @return Non-fixture objects in the given location
+	 */
+	private static Stream<WorldObject> objects(Location loc) {
+		return loc.contents().select(WorldObject.class).filter(obj -> !obj.descriptor().isFixture());
+	}
+
+	/**
+	 * Restores location contents from a snapshot.
+	 * Note that the restored objects are in limbo until added to the world, see {@link #restore(Location.Linker)}.
+	 * @param in Snapshot reader
+	 * @return Location contents
+	 * @throws IOException if the snapshot cannot be read
+	 * @see #write(SnapshotWriter)
+	 */
+	public static LocationContents read(SnapshotReader in) throws IOException {
+		final Map<String, List<WorldObject>> contents = new LinkedHashMap<>();
+		final int size = in.readSize();
+		for(int n = 0; n < size; ++n) {
+			final String name = in.readString();
+			final int count = in.readSize();
+			final WorldObject[] objects = new WorldObject[count];
+			for(int c = 0; c < count; ++c) {
+				objects[c] = WorldObject.read(in);
+			}
+			contents.put(name, List.of(objects));
+		}
+		return new LocationContents(contents);
+	}
+
+	private final Map<String, List<WorldObject>> contents;
+
+	/**
+	 * Constructor.
+	 * @param contents Objects indexed by location name
+	 */
+	private LocationContents(Map<String, List<WorldObject>> contents) {
+		this.contents = notNull(contents);
+	}
+
+	/**
+	 * @return Number of locations in this snapshot
+	 */
+	public int size() {
+		return contents.size();
+	}
+
+	@Override
+	public void write(SnapshotWriter out) throws IOException {
+		out.writeSize(contents.size());
+		for(Map.Entry<String, List<WorldObject>> entry : contents.entrySet()) {
+			final List<WorldObject> objects = entry.getValue();
+			out.writeString(entry.getKey());
+			out.writeSize(objects.size());
+			for(WorldObject obj : objects) {
+				WorldObject.write(obj, out);
+			}
+		}
+	}
+
+	/**
+	 * Restores this snapshot to the world.
+	 * The non-fixture objects in each location in this snapshot are replaced by the restored objects.
+	 * @param linker Location linker
+	 * @return Number of restored locations
+	 */
+	public int restore(Location.Linker linker) {
+		final Map<String, Location> locations = new LinkedHashMap<>();
+		linker.connectors().forEach(loc -> locations.put(loc.name(), loc));
+		int count = 0;
+		for(Map.Entry<String, List<WorldObject>> entry : contents.entrySet()) {
+			// Ignore removed locations
+			final Location loc = locations.get(entry.getKey());
+			if(loc == null) {
+				continue;
+			}
+
+			// Replace initial contents
+			objects(loc).collect(toList()).forEach(WorldObject::destroy);
+			entry.getValue().forEach(obj -> obj.parent(loc));
+			++count;
+		}
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).append("locations", contents.size()).toString();
+	}
+}
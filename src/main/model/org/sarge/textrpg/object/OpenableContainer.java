@@ -2,9 +2,13 @@ package org.sarge.textrpg.object;
 
 import static org.sarge.lib.util.Check.notNull;
 
+import java.io.IOException;
+
 import org.sarge.textrpg.common.Openable;
 import org.sarge.textrpg.contents.ContentStateChange;
 import org.sarge.textrpg.contents.LimitedContents.LimitsMap;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 
 /**
  * Container that can be closed such as a chest.
@@ -66,6 +70,23 @@ public class OpenableContainer extends Container implements Openable {
 		return model.isOpen();
 	}
 
+	@Override
+	protected void writeState(SnapshotWriter out) throws IOException {
+		out.writeEnum(model.state());
+		out.writeBoolean(model.isTrapped());
+	}
+
+	@Override
+	protected void readState(SnapshotReader in) throws IOException {
+		final State state = in.readEnum(State.class);
+		if(state != model.state()) {
+			model.set(state);
+		}
+		if(!in.readBoolean() && model.isTrapped()) {
+			model.disarm();
+		}
+	}
+
 	@Override
 	public boolean notify(ContentStateChange notification) {
 		return model.isOpen();
@@ -3,11 +3,15 @@ package org.sarge.textrpg.object;
 import static org.sarge.lib.util.Check.notNull;
 import static org.sarge.lib.util.Check.oneOrMore;
 
+import java.io.IOException;
+
 import org.sarge.textrpg.common.Liquid;
 import org.sarge.textrpg.util.ActionException;
 import org.sarge.textrpg.util.ArgumentFormatter;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.Percentile;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 
 /**
  * A <i>receptacle</i> is a container for a {@link Liquid}.
@@ -79,6 +83,16 @@ public class Receptacle extends WorldObject {
 		return level;
 	}
 
+	@Override
+	protected void writeState(SnapshotWriter out) throws IOException {
+		out.writeInt(level);
+	}
+
+	@Override
+	protected void readState(SnapshotReader in) throws IOException {
+		level = in.readInt();
+	}
+
 	/**
 	 * @return Whether this receptacle is empty
 	 */
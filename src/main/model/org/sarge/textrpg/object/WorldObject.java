@@ -1,8 +1,11 @@
 package org.sarge.textrpg.object;
 
+import static java.util.stream.Collectors.toList;
 import static org.sarge.lib.util.Check.notNull;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
 import java.util.function.Predicate;
 
 import org.apache.commons.lang3.StringUtils;
@@ -14,6 +17,8 @@ import org.sarge.textrpg.contents.Parent;
 import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.Percentile;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
 import org.sarge.textrpg.util.TextHelper;
 
 /**
@@ -303,4 +308,91 @@ public class WorldObject extends Thing {
 		assert !descriptor.isFixture() || (descriptor.properties().reset() != Duration.ZERO) : "Cannot destroy a non-resetable fixture";
 		super.destroy();
 	}
+
+	/**
+	 * Over-ridden in sub-classes to write the instance state of this object, e.g. wear or the fuel of a light.
+	 * @param out Snapshot writer
+	 * @throws IOException if the state cannot be written
+	 * @see #readState(SnapshotReader)
+	 */
+	protected void writeState(SnapshotWriter out) throws IOException {
+		// Does nowt
+	}
+
+	/**
+	 * Over-ridden in sub-classes to restore the instance state of this object.
+	 * @param in Snapshot reader
+	 * @throws IOException if the state cannot be read
+	 * @see #writeState(SnapshotWriter)
+	 */
+	protected void readState(SnapshotReader in) throws IOException {
+		// Does nowt
+	}
+
+	/**
+	 * Writes an object to a snapshot.
+	 * <p>
+	 * The object is written as:
+	 * <ol>
+	 * <li>a reference to its descriptor</li>
+	 * <li>the size of the stack (if any)</li>
+	 * <li>its instance state, see {@link #writeState(SnapshotWriter)}</li>
+	 * <li>the contents of a {@link Parent} object (recursively)</li>
+	 * </ol>
+	 * @param obj		Object
+	 * @param out		Snapshot writer
+	 * @throws IOException if the object cannot be written
+	 * @see #read(SnapshotReader)
+	 */
+	public static void write(WorldObject obj, SnapshotWriter out) throws IOException {
+		// Write descriptor
+		out.writeString(obj.descriptor().name());
+
+		// Write stack size
+		final boolean stack = obj instanceof ObjectStack;
+		out.writeBoolean(stack);
+		if(stack) {
+			out.writeSize(obj.count());
+		}
+
+		// Write state
+		obj.writeState(out);
+
+		// Write contents
+		if(obj instanceof Parent) {
+			final List<WorldObject> contents = ((Parent) obj).contents().select(WorldObject.class).collect(toList());
+			out.writeSize(contents.size());
+			for(WorldObject child : contents) {
+				write(child, out);
+			}
+		}
+	}
+
+	/**
+	 * Restores an object from a snapshot.
+	 * Note that the restored object is in limbo, i.e. it must be added to the world by the caller.
+	 * @param in Snapshot reader
+	 * @return Object
+	 * @throws IOException if the object cannot be read
+	 * @see #write(WorldObject, SnapshotWriter)
+	 */
+	public static WorldObject read(SnapshotReader in) throws IOException {
+		// Create object
+		final ObjectDescriptor descriptor = in.readReference(ObjectDescriptor.class);
+		final WorldObject obj = in.readBoolean() ? new ObjectStack(descriptor, in.readSize()) : descriptor.create();
+
+		// Restore state
+		obj.readState(in);
+
+		// Restore contents
+		if(obj instanceof Parent) {
+			final Parent parent = (Parent) obj;
+			final int size = in.readSize();
+			for(int n = 0; n < size; ++n) {
+				read(in).parent(parent);
+			}
+		}
+
+		return obj;
+	}
 }
@@ -7,6 +7,9 @@ import java.util.function.DoubleBinaryOperator;
 
 /**
  * A <i>calculation</i> is a floating-point value evaluated with respect to a given entity.
+ * <p>
+ * Calculations created by the factory methods retain the structure of the calculation tree and can be <i>compiled</i> to a flattened representation, see {@link #compile(Calculation)}.
+ * <p>
  * @author Sarge
  * @see ValueModifier
  */
@@ -30,7 +33,7 @@ public interface Calculation {
 	 * @return Literal value
 	 */
 	static Calculation literal(int value) {
-		return ignore -> value;
+		return new CalculationNode.Literal(value);
 	}
 
 	/**
@@ -42,7 +45,17 @@ public interface Calculation {
 	 */
 	static Calculation random(int base, int range) {
 		if((base == 0) && (range < 1)) throw new IllegalArgumentException("Invalid range");
-		return ignore -> base + Randomiser.range(range);
+		return new CalculationNode.Randomised(base, range);
+	}
+
+	/**
+	 * Creates a value-modifier value.
+	 * @param key Value-modifier key
+	 * @return Modifier value
+	 * @see ValueModifier.Source#modifier(ValueModifier.Key)
+	 */
+	static Calculation modifier(ValueModifier.Key key) {
+		return new CalculationNode.Modifier(key);
 	}
 
 	/**
@@ -52,7 +65,7 @@ public interface Calculation {
 	 * @return Scaled value
 	 */
 	static Calculation scaled(Calculation delegate, float scale) {
-		return src -> delegate.evaluate(src) * scale;
+		return new CalculationNode.Scaled(delegate, scale);
 	}
 
 	/**
@@ -62,7 +75,7 @@ public interface Calculation {
 	 */
 	static Calculation percentile(Calculation delegate) {
 		// TODO - verify is percentile
-		return src -> (Percentile.MAX - delegate.evaluate(src)) / Percentile.MAX;
+		return new CalculationNode.Inverted(delegate);
 	}
 
 	/**
@@ -79,6 +92,23 @@ public interface Calculation {
 			this.identity = identity;
 			this.op = notNull(op);
 		}
+
+		/**
+		 * @return Identity value of this operator
+		 */
+		double identity() {
+			return identity;
+		}
+
+		/**
+		 * Applies this operator.
+		 * @param left		Accumulated value
+		 * @param right		Operand
+		 * @return Result
+		 */
+		double apply(double left, double right) {
+			return op.applyAsDouble(left, right);
+		}
 	}
 
 	/**
@@ -88,6 +118,22 @@ public interface Calculation {
 	 * @return Compound value
 	 */
 	static Calculation compound(List<Calculation> values, Operator op) {
-		return src -> values.stream().mapToDouble(value -> value.evaluate(src)).reduce(op.identity, op.op);
+		return new CalculationNode.Compound(values, op);
+	}
+
+	/**
+	 * Compiles the given calculation.
+	 * <p>
+	 * The calculation tree is flattened to an instruction array and constant sub-expressions are folded, e.g. compound literals.
+	 * A calculation that folds to a constant is compiled to a literal.
+	 * <p>
+	 * Note that arbitrary calculations (i.e. not created by the factory methods of this interface) are invoked as opaque delegates.
+	 * <p>
+	 * @param calc Calculation
+	 * @return Compiled calculation
+	 * @see CompiledCalculation
+	 */
+	static Calculation compile(Calculation calc) {
+		return CompiledCalculation.compile(calc);
 	}
 }
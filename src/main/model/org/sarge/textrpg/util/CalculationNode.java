@@ -0,0 +1,131 @@
+package org.sarge.textrpg.util;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.util.List;
+
+import org.sarge.lib.util.AbstractEqualsObject;
+
+/**
+ * A <i>calculation node</i> is an element of a calculation tree created by the {@link Calculation} factory methods.
+ * <p>
+ * Nodes retain the structure of the calculation such that it can be compiled, see {@link CompiledCalculation}.
+ * <p>
+ * @author Sarge
+ */
+abstract class CalculationNode extends AbstractEqualsObject implements Calculation {
+	/**
+	 * Literal value.
+	 */
+	static final class Literal extends CalculationNode {
+		final double value;
+
+		Literal(double value) {
+			this.value = value;
+		}
+
+		@Override
+		public double evaluate(ValueModifier.Source src) {
+			return value;
+		}
+	}
+
+	/**
+	 * Randomised value.
+	 */
+	static final class Randomised extends CalculationNode {
+		final int base;
+		final int range;
+
+		Randomised(int base, int range) {
+			this.base = base;
+			this.range = range;
+		}
+
+		@Override
+		public double evaluate(ValueModifier.Source src) {
+			return base + Randomiser.range(range);
+		}
+	}
+
+	/**
+	 * Value-modifier.
+	 */
+	static final class Modifier extends CalculationNode {
+		final ValueModifier.Key key;
+
+		Modifier(ValueModifier.Key key) {
+			this.key = notNull(key);
+		}
+
+		@Override
+		public double evaluate(ValueModifier.Source src) {
+			return src.modifier(key).get();
+		}
+	}
+
+	/**
+	 * Scaled value.
+	 */
+	static final class Scaled extends CalculationNode {
+		final Calculation delegate;
+		final float scale;
+
+		Scaled(Calculation delegate, float scale) {
+			this.delegate = notNull(delegate);
+			this.scale = scale;
+		}
+
+		@Override
+		public double evaluate(ValueModifier.Source src) {
+			return delegate.evaluate(src) * scale;
+		}
+	}
+
+	/**
+	 * Inverted percentile value.
+	 */
+	static final class Inverted extends CalculationNode {
+		final Calculation delegate;
+
+		Inverted(Calculation delegate) {
+			this.delegate = notNull(delegate);
+		}
+
+		@Override
+		public double evaluate(ValueModifier.Source src) {
+			return invert(delegate.evaluate(src));
+		}
+
+		/**
+		 * Inverts the given percentile value.
+		 * @param value Value
+		 * @return Inverted percentile
+		 */
+		static double invert(double value) {
+			return (Percentile.MAX - value) / Percentile.MAX;
+		}
+	}
+
+	/**
+	 * Compound value.
+	 */
+	static final class Compound extends CalculationNode {
+		final Calculation[] values;
+		final Operator op;
+
+		Compound(List<Calculation> values, Operator op) {
+			this.values = values.toArray(Calculation[]::new);
+			this.op = notNull(op);
+		}
+
+		@Override
+		public double evaluate(ValueModifier.Source src) {
+			double result = op.identity();
+			for(Calculation value : values) {
+				result = op.apply(result, value.evaluate(src));
+			}
+			return result;
+		}
+	}
+}
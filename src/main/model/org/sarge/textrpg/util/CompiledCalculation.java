@@ -0,0 +1,333 @@
+package org.sarge.textrpg.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.sarge.textrpg.util.Calculation.Operator;
+import org.sarge.textrpg.util.CalculationNode.Compound;
+import org.sarge.textrpg.util.CalculationNode.Inverted;
+import org.sarge.textrpg.util.CalculationNode.Literal;
+import org.sarge.textrpg.util.CalculationNode.Modifier;
+import org.sarge.textrpg.util.CalculationNode.Randomised;
+import org.sarge.textrpg.util.CalculationNode.Scaled;
+
+/**
+ * A <i>compiled calculation</i> evaluates a flattened calculation tree.
+ * <p>
+ * The calculation is compiled to an array of instructions for a simple stack machine, i.e. evaluation does not recurse through the tree, use streams or box values.
+ * Each instruction is an op-code in the low byte with an optional operand (an index or a count) in the remaining bits.
+ * <p>
+ * The compiler <i>folds</i> constant sub-expressions:
+ * <ul>
+ * <li>scaled and inverted percentile constants are evaluated at compile-time</li>
+ * <li>constant operands of a compound value are reduced to a single operand</li>
+ * <li>a compound with a single operand is replaced by that operand</li>
+ * </ul>
+ * Note that folding can change the order in which compound operands are accumulated, i.e. results may differ from the tree by floating-point rounding.
+ * <p>
+ * @author Sarge
+ */
+final class CompiledCalculation implements Calculation {
+	// Op-codes
+	private static final int CONSTANT = 0;
+	private static final int MODIFIER = 1;
+	private static final int RANDOM = 2;
+	private static final int DELEGATE = 3;
+	private static final int SCALE = 4;
+	private static final int INVERT = 5;
+	private static final int SUM = 6;
+	private static final int MULTIPLY = 7;
+
+	private static final int SHIFT = 8;
+	private static final int MASK = (1 << SHIFT) - 1;
+
+	/**
+	 * Compiles a calculation.
+	 * @param calc Calculation
+	 * @return Compiled calculation or a literal if the calculation folds to a constant
+	 */
+	static Calculation compile(Calculation calc) {
+		// Ignore compiled calculations
+		if(calc instanceof CompiledCalculation) {
+			return calc;
+		}
+
+		// Fold constants
+		final Calculation folded = fold(calc);
+		if(folded instanceof Literal) {
+			return folded;
+		}
+
+		// Compile calculation
+		final Compiler compiler = new Compiler();
+		compiler.compile(folded);
+		return compiler.build();
+	}
+
+	/**
+	 * Folds constant sub-expressions of the given calculation.
+	 * @param calc Calculation
+	 * @return Folded calculation
+	 */
+	private static Calculation fold(Calculation calc) {
+		if(calc instanceof Scaled) {
+			// Fold scaled constant
+			final Scaled scaled = (Scaled) calc;
+			final Calculation delegate = fold(scaled.delegate);
+			if(delegate instanceof Literal) {
+				return new Literal(((Literal) delegate).value * scaled.scale);
+			}
+			return delegate == scaled.delegate ? calc : new Scaled(delegate, scaled.scale);
+		}
+		else
+		if(calc instanceof Inverted) {
+			// Fold inverted constant
+			final Inverted inverted = (Inverted) calc;
+			final Calculation delegate = fold(inverted.delegate);
+			if(delegate instanceof Literal) {
+				return new Literal(Inverted.invert(((Literal) delegate).value));
+			}
+			return delegate == inverted.delegate ? calc : new Inverted(delegate);
+		}
+		else
+		if(calc instanceof Compound) {
+			return fold((Compound) calc);
+		}
+		else {
+			return calc;
+		}
+	}
+
+	/**
+	 * Folds the constant operands of a compound value.
+	 * @param compound Compound value
+	 * @return Folded calculation
+	 */
+	private static Calculation fold(Compound compound) {
+		// Fold operands
+		final Operator op = compound.op;
+		final List<Calculation> operands = new ArrayList<>();
+		double constant = op.identity();
+		boolean folded = false;
+		for(Calculation value : compound.values) {
+			final Calculation result = fold(value);
+			if(result instanceof Literal) {
+				constant = op.apply(constant, ((Literal) result).value);
+				folded = true;
+			}
+			else {
+				operands.add(result);
+			}
+		}
+
+		// Check for constant result
+		if(operands.isEmpty()) {
+			return new Literal(constant);
+		}
+
+		// Add folded constant
+		if(folded && (constant != op.identity())) {
+			operands.add(new Literal(constant));
+		}
+
+		// Replace single operand
+		if(operands.size() == 1) {
+			return operands.get(0);
+		}
+
+		return new Compound(operands, op);
+	}
+
+	/**
+	 * Calculation compiler.
+	 */
+	private static class Compiler {
+		private final List<Integer> code = new ArrayList<>();
+		private final List<Double> constants = new ArrayList<>();
+		private final List<Object> refs = new ArrayList<>();
+		private int depth;
+		private int max;
+
+		/**
+		 * Emits an instruction.
+		 * @param op		Op-code
+		 * @param arg		Operand
+		 */
+		private void emit(int op, int arg) {
+			code.add(op | (arg << SHIFT));
+		}
+
+		/**
+		 * Emits an instruction that pushes a value.
+		 */
+		private void push(int op, int arg) {
+			emit(op, arg);
+			++depth;
+			max = Math.max(max, depth);
+		}
+
+		/**
+		 * Compiles a calculation.
+		 * @param calc Calculation
+		 */
+		private void compile(Calculation calc) {
+			if(calc instanceof Literal) {
+				push(CONSTANT, constant(((Literal) calc).value));
+			}
+			else
+			if(calc instanceof Modifier) {
+				push(MODIFIER, ref(((Modifier) calc).key));
+			}
+			else
+			if(calc instanceof Randomised) {
+				final Randomised random = (Randomised) calc;
+				final int index = constant(random.base);
+				constant(random.range);
+				push(RANDOM, index);
+			}
+			else
+			if(calc instanceof Scaled) {
+				final Scaled scaled = (Scaled) calc;
+				compile(scaled.delegate);
+				emit(SCALE, constant(scaled.scale));
+			}
+			else
+			if(calc instanceof Inverted) {
+				compile(((Inverted) calc).delegate);
+				emit(INVERT, 0);
+			}
+			else
+			if(calc instanceof Compound) {
+				final Compound compound = (Compound) calc;
+				for(Calculation value : compound.values) {
+					compile(value);
+				}
+				emit(compound.op == Operator.SUM ? SUM : MULTIPLY, compound.values.length);
+				depth -= compound.values.length - 1;
+			}
+			else {
+				push(DELEGATE, ref(calc));
+			}
+		}
+
+		/**
+		 * Allocates a constant.
+		 * @param value Constant value
+		 * @return Index
+		 */
+		private int constant(double value) {
+			constants.add(value);
+			return constants.size() - 1;
+		}
+
+		/**
+		 * Allocates a reference.
+		 * @param ref Reference
+		 * @return Index
+		 */
+		private int ref(Object ref) {
+			refs.add(ref);
+			return refs.size() - 1;
+		}
+
+		/**
+		 * @return Compiled calculation
+		 */
+		private CompiledCalculation build() {
+			assert depth == 1;
+			final int[] array = code.stream().mapToInt(Integer::intValue).toArray();
+			final double[] values = constants.stream().mapToDouble(Double::doubleValue).toArray();
+			return new CompiledCalculation(array, values, refs.toArray(), max);
+		}
+	}
+
+	private final int[] code;
+	private final double[] constants;
+	private final Object[] refs;
+	private final int depth;
+
+	/**
+	 * Constructor.
+	 * @param code			Instructions
+	 * @param constants		Constants
+	 * @param refs			References
+	 * @param depth			Maximum stack depth
+	 */
+	private CompiledCalculation(int[] code, double[] constants, Object[] refs, int depth) {
+		this.code = code;
+		this.constants = constants;
+		this.refs = refs;
+		this.depth = depth;
+	}
+
+	@Override
+	public double evaluate(ValueModifier.Source src) {
+		final double[] stack = new double[depth];
+		int top = -1;
+		for(int inst : code) {
+			final int arg = inst >>> SHIFT;
+			switch(inst & MASK) {
+			case CONSTANT:
+				stack[++top] = constants[arg];
+				break;
+
+			case MODIFIER:
+				stack[++top] = src.modifier((ValueModifier.Key) refs[arg]).get();
+				break;
+
+			case RANDOM:
+				stack[++top] = (int) constants[arg] + Randomiser.range((int) constants[arg + 1]);
+				break;
+
+			case DELEGATE:
+				stack[++top] = ((Calculation) refs[arg]).evaluate(src);
+				break;
+
+			case SCALE:
+				stack[top] = stack[top] * (float) constants[arg];
+				break;
+
+			case INVERT:
+				stack[top] = Inverted.invert(stack[top]);
+				break;
+
+			case SUM: {
+				final int start = top - arg + 1;
+				double result = Operator.SUM.identity();
+				for(int n = start; n <= top; ++n) {
+					result += stack[n];
+				}
+				top = start;
+				stack[top] = result;
+				break;
+			}
+
+			case MULTIPLY: {
+				final int start = top - arg + 1;
+				double result = Operator.MULTIPLY.identity();
+				for(int n = start; n <= top; ++n) {
+					result *= stack[n];
+				}
+				top = start;
+				stack[top] = result;
+				break;
+			}
+
+			default:
+				throw new IllegalStateException("Invalid instruction: " + inst);
+			}
+		}
+		return stack[top];
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("code", Arrays.toString(code))
+			.append("constants", Arrays.toString(constants))
+			.append("refs", refs.length)
+			.toString();
+	}
+}
@@ -5,11 +5,8 @@ import static org.sarge.lib.util.Check.notNull;
 import static org.sarge.lib.util.Check.oneOrMore;
 
 import java.time.Duration;
-import java.util.AbstractQueue;
-import java.util.Collections;
-import java.util.PriorityQueue;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.sarge.lib.util.AbstractEqualsObject;
@@ -25,7 +22,7 @@ import org.springframework.stereotype.Component;
  * <p>
  * Events are registered on an {@link Event.Queue} which is managed by an {@link Event.Manager}.
  * <p>
- * An {@link Event.Holder} is used as a handle to a pending event.
+ * An {@link Event.Holder} is used as a handle to a pending event and an {@link Event.Group} as a handle to a set of pending events.
  * <p>
  * Usage:
  * <pre>
@@ -80,15 +77,21 @@ public interface Event {
 
 		/**
 		 * Manager for a group of event queues.
+		 * <p>
+		 * The events for all queues are scheduled on a single {@link TimingWheel} such that advancing the manager only visits events that are actually due.
+		 * <p>
+		 * Note that the manager retains pending events until they are executed or their queue is explicitly removed.
 		 */
 		@Component
 		public static class Manager implements Clock {
-			private final Set<Queue> queues = Collections.newSetFromMap(new WeakHashMap<Queue, Boolean>());
+			private final List<Entry> pending = new ArrayList<>();
 
 			@Autowired //(required=false)
 			@Qualifier(Clock.START_TIME)
 			private long time;
 
+			private TimingWheel<Entry> wheel;
+
 			@Override
 			public long now() {
 				return time;
@@ -99,7 +102,7 @@ public interface Event {
 			 * @param name Queue name
 			 * @return New queue
 			 */
-			public synchronized Queue queue(String name) {
+			public Queue queue(String name) {
 				return queue(name, false);
 			}
 
@@ -110,46 +113,83 @@ public interface Event {
 			 * @return New queue
 			 * @see Event.Queue#isTransient()
 			 */
-			public synchronized Queue queue(String name, boolean trans) {
-				final Queue queue = new Queue(this, name, trans);
-				queues.add(queue);
-				return queue;
+			public Queue queue(String name, boolean trans) {
+				return new Queue(this, name, trans);
+			}
+
+			/**
+			 * @return Timing wheel initialised to the start time
+			 */
+			private TimingWheel<Entry> wheel() {
+				if(wheel == null) {
+					wheel = new TimingWheel<>(time);
+				}
+				return wheel;
+			}
+
+			/**
+			 * Schedules an event-queue entry.
+			 * Note that events added to a removed queue are ignored.
+			 * @param entry Entry
+			 */
+			private synchronized void schedule(Entry entry) {
+				if(entry.queue.removed) {
+					return;
+				}
+				entry.schedule(time);
+				wheel().add(entry, entry.when);
+				++entry.queue.size;
 			}
 
 			/**
 			 * Advances time by the given increment.
+			 * <p>
+			 * Due events are executed after the clock has been updated, i.e. repeating events are re-scheduled relative to the new time.
+			 * Note that this method is intended to be invoked by a single thread.
+			 * <p>
 			 * @param inc Time increment (ms)
+			 * @return Number of executed events
 			 */
-			public void advance(long inc) {
+			public int advance(long inc) {
 				Check.oneOrMore(inc);
-				time += inc;
-				update();
+				synchronized(this) {
+					time += inc;
+					wheel().advance(time, pending::add);
+				}
+				return update();
 			}
 
 			/**
 			 * Executes pending events.
+			 * @return Number of executed events
 			 */
-			private void update() {
-				for(Queue queue : queues) {
-					queue.execute();
+			private int update() {
+				int count = 0;
+				for(Entry entry : pending) {
+					if(entry.execute()) {
+						++count;
+					}
 				}
+				pending.clear();
+				return count;
 			}
 
 			/**
-			 * Explicitly removes a queue managed by this manager.
-			 * @param queue
-			 * @throws IllegalArgumentException if the queue is not present
+			 * Removes an entry that has been executed or discarded.
+			 * @param entry Entry
 			 */
-			private synchronized void remove(Queue queue) {
-				if(!queues.contains(queue)) throw new IllegalArgumentException("Queue not present");
-				queues.remove(queue);
+			private synchronized void release(Entry entry) {
+				if(!entry.queue.removed) {
+					--entry.queue.size;
+				}
 			}
 		}
 
 		/**
 		 * Event-queue entry.
 		 */
-		private static class Entry extends AbstractEqualsObject implements Comparable<Entry>, Reference {
+		private static class Entry extends AbstractEqualsObject implements Reference {
+			private final Queue queue;
 			private final Event event;
 			private final long duration;
 
@@ -158,10 +198,12 @@ public interface Event {
 
 			/**
 			 * Constructor.
+			 * @param queue			Queue
 			 * @param event			Event call-back
 			 * @param duration		Duration (ms)
 			 */
-			private Entry(Event event, long duration) {
+			private Entry(Queue queue, Event event, long duration) {
+				this.queue = notNull(queue);
 				this.event = notNull(event);
 				this.duration = oneOrMore(duration);
 			}
@@ -185,17 +227,51 @@ public interface Event {
 				this.when = time + duration;
 			}
 
-			@Override
-			public int compareTo(Entry that) {
-				return (int) (this.when - that.when);
+			/**
+			 * Executes this event.
+			 * @return Whether this event was executed, i.e. was not cancelled
+			 */
+			private boolean execute() {
+				// Skip cancelled events or events for removed queues
+				if(cancelled || queue.removed) {
+					queue.manager.release(this);
+					return false;
+				}
+
+				// Complete event
+				final boolean repeat;
+				try {
+					repeat = event.execute();
+				}
+				catch(Exception e) {
+					LOG.error("Exception during event execution", e);
+					cancelled = true;
+					queue.manager.release(this);
+					return true;
+				}
+
+				if(repeat && !cancelled) {
+					// Re-schedule repeating events
+					queue.manager.release(this);
+					queue.manager.schedule(this);
+				}
+				else {
+					// Otherwise mark as executed
+					cancelled = true;
+					queue.manager.release(this);
+				}
+
+				return true;
 			}
 		}
 
-		private final AbstractQueue<Entry> queue = new PriorityQueue<>();
 		private final Manager manager;
 		private final String name;
 		private final boolean trans;
 
+		private volatile int size;
+		private volatile boolean removed;
+
 		/**
 		 * Constructor.
 		 * @param manager 	Manager for this queue
@@ -226,7 +302,7 @@ public interface Event {
 		 * @return Size of this queue
 		 */
 		public int size() {
-			return queue.size();
+			return size;
 		}
 
 		/**
@@ -243,61 +319,28 @@ public interface Event {
 		 * @param duration		Expiry duration
 		 * @throws IllegalArgumentException if the duration is zero
 		 */
-		public synchronized Reference add(Event event, Duration duration) {
+		public Reference add(Event event, Duration duration) {
 			DurationConverter.oneOrMore(duration);
-			final Entry entry = new Entry(event, duration.toMillis());
-			entry.schedule(manager.time);
-			queue.add(entry);
+			final Entry entry = new Entry(this, event, duration.toMillis());
+			manager.schedule(entry);
 			return entry;
 		}
 
 		/**
 		 * Removes this queue.
+		 * <p>
+		 * Pending events for this queue are discarded.
+		 * <p>
 		 * @throws IllegalStateException if this queue is not transient
+		 * @throws IllegalArgumentException if this queue has already been removed
 		 * @see #isTransient()
 		 */
-		public synchronized void remove() {
+		public void remove() {
 			if(!trans) throw new IllegalStateException("Cannot remove a permanent queue: " + this);
-			queue.clear();
-			manager.remove(this);
-		}
-
-		/**
-		 * Executes pending events up to the given time.
-		 */
-		private synchronized void execute() {
-			while(!queue.isEmpty()) {
-				// Stop when reach future events
-				if(queue.peek().when > manager.time) {
-					break;
-				}
-
-				// Skip cancelled events
-				final Entry entry = queue.poll();
-				if(entry.cancelled) {
-					continue;
-				}
-
-				// Complete event
-				final boolean repeat;
-				try {
-					repeat = entry.event.execute();
-				}
-				catch(Exception e) {
-					LOG.error("Exception during event execution", e);
-					entry.cancelled = true;
-					continue;
-				}
-
-				if(repeat) {
-					// Re-schedule repeating events
-					entry.schedule(manager.time);
-					queue.add(entry);
-				}
-				else {
-					// Otherwise mark as executed
-					entry.cancelled = true;
-				}
+			synchronized(manager) {
+				if(removed) throw new IllegalArgumentException("Queue not present");
+				removed = true;
+				size = 0;
 			}
 		}
 
@@ -307,7 +350,6 @@ public interface Event {
 				.append("name", name)
 				.append("size", size())
 				.append("trans", trans)
-				.append("manager", manager)
 				.toString();
 		}
 	}
@@ -358,4 +400,67 @@ public interface Event {
 			}
 		}
 	}
+
+	/**
+	 * An event <i>group</i> is a handle to a set of pending events on a shared queue that can be cancelled in bulk.
+	 * <p>
+	 * Groups are used for short-lived activities that schedule several events, e.g. the discovery events of a search, rather than creating and removing a transient queue per activity.
+	 * <p>
+	 * Usage:
+	 * <pre>
+	 *   // Create group on a shared queue
+	 *   final Event.Group group = new Event.Group(queue);
+	 *
+	 *   // Register events
+	 *   group.add(event, duration);
+	 *   ...
+	 *
+	 *   // Activity is interrupted or completed
+	 *   group.cancel();
+	 * </pre>
+	 */
+	class Group extends AbstractEqualsObject {
+		private final Queue queue;
+		private final List<Reference> refs = new ArrayList<>();
+
+		/**
+		 * Constructor.
+		 * @param queue Shared queue
+		 */
+		public Group(Queue queue) {
+			this.queue = notNull(queue);
+		}
+
+		/**
+		 * @return Number of pending events in this group
+		 */
+		public synchronized int size() {
+			return (int) refs.stream().filter(ref -> !ref.isCancelled()).count();
+		}
+
+		/**
+		 * Registers an event in this group.
+		 * @param event			Event call-back
+		 * @param duration		Expiry duration
+		 * @return Event reference
+		 * @see Queue#add(Event, Duration)
+		 */
+		public synchronized Reference add(Event event, Duration duration) {
+			final Reference ref = queue.add(event, duration);
+			refs.add(ref);
+			return ref;
+		}
+
+		/**
+		 * Cancels <b>all</b> pending events in this group.
+		 */
+		public synchronized void cancel() {
+			for(Reference ref : refs) {
+				if(!ref.isCancelled()) {
+					ref.cancel();
+				}
+			}
+			refs.clear();
+		}
+	}
 }
@@ -0,0 +1,471 @@
+package org.sarge.textrpg.util;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.oneOrMore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A <i>journal</i> is an append-only log of records stored in a sequence of memory-mapped segment files.
+ * <p>
+ * Records are appended by copying into the mapped segment, i.e. appending a record never blocks on I/O.
+ * Appended records are made durable by {@link #commit()} which is intended to be invoked periodically by a separate thread.
+ * All records appended since the previous commit are therefore forced to storage as a group.
+ * <p>
+ * When the current segment is full the journal <i>rolls</i> to a new segment.
+ * The next segment can be created in advance by {@link #preallocate()} so that rolling does not block the appending thread on I/O.
+ * <p>
+ * The journal is <i>compacted</i> by {@link #compact()} which discards <b>all</b> previous segments, e.g. after the journalled state has been written to a snapshot.
+ * Alternatively the journal can be compacted in two steps: {@link #mark()} rolls to a new segment and {@link #discard(long)} later discards the segments before the mark.
+ * <p>
+ * Each record is stored as a length prefix and a CRC32 checksum followed by the record data, the end of a segment is marked by a zero length (or the end of the file).
+ * A record with an invalid length or checksum (e.g. a torn write) is treated as the end of the journal.
+ * When a journal is re-opened the records in the existing segments are retained and new records are appended to the last segment.
+ * <p>
+ * Usage:
+ * <pre>
+ *   final Journal journal = new Journal(dir, 1 << 20);
+ *   journal.append(record);
+ *   ...
+ *   journal.commit();
+ *   ...
+ *   journal.replay(buffer -> ...);
+ * </pre>
+ * <p>
+ * @author Sarge
+ */
+public class Journal implements AutoCloseable {
+	private static final String PREFIX = "journal.";
+	private static final String EXTENSION = ".log";
+	private static final int HEADER_LENGTH = 2 * Integer.BYTES;
+
+	/**
+	 * Journal segment.
+	 */
+	private static final class Segment {
+		private final long index;
+		private final Path path;
+		private final FileChannel channel;
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * Constructor.
+		 * @param index		Segment index
+		 * @param path		File-path
+		 * @param size		Segment size
+		 * @throws IOException if the segment cannot be opened
+		 */
+		private Segment(long index, Path path, int size) throws IOException {
+			this.index = index;
+			this.path = path;
+			this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+			this.buffer = channel.map(MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+		}
+
+		/**
+		 * Forces this segment to storage.
+		 */
+		private void force() {
+			buffer.force();
+		}
+
+		/**
+		 * Closes this segment.
+		 * @throws IOException if the segment cannot be closed
+		 */
+		private void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	private final Path dir;
+	private final int size;
+	private final List<Segment> retired = new ArrayList<>();
+
+	private Segment segment;
+	private Segment next;
+	private long appended;
+	private volatile long committed;
+
+	/**
+	 * Constructor.
+	 * @param dir		Journal folder
+	 * @param size		Segment size (bytes)
+	 * @throws IOException if the journal cannot be opened
+	 */
+	public Journal(Path dir, int size) throws IOException {
+		this.dir = notNull(dir);
+		this.size = oneOrMore(size);
+		Files.createDirectories(dir);
+
+		// Open last segment or create the initial segment
+		final List<Path> segments = segments();
+		if(segments.isEmpty()) {
+			segment = new Segment(0, path(0), size);
+		}
+		else {
+			final Path last = segments.get(segments.size() - 1);
+			segment = new Segment(index(last), last, size);
+		}
+
+		// Recover end of journal
+		final MappedByteBuffer buffer = segment.buffer;
+		while(next(buffer.duplicate()) != null) {
+			buffer.position(buffer.position() + HEADER_LENGTH + buffer.getInt(buffer.position()));
+		}
+	}
+
+	/**
+	 * Reads the next record from the given buffer.
+	 * @param buffer Buffer positioned at the next record
+	 * @return Record or <tt>null</tt> at the end of the segment or if the record is invalid
+	 */
+	private static ByteBuffer next(ByteBuffer buffer) {
+		// Check for end of segment
+		if(buffer.remaining() < HEADER_LENGTH) {
+			return null;
+		}
+
+		// Read header
+		final int len = buffer.getInt();
+		final int crc = buffer.getInt();
+		if((len <= 0) || (len > buffer.remaining())) {
+			return null;
+		}
+
+		// Verify record
+		final ByteBuffer record = buffer.slice().limit(len);
+		if(checksum(record.duplicate()) != crc) {
+			return null;
+		}
+		buffer.position(buffer.position() + len);
+
+		return record;
+	}
+
+	/**
+	 * Calculates the checksum of a record.
+	 * @param record Record
+	 * @return Checksum
+	 */
+	private static int checksum(ByteBuffer record) {
+		final CRC32 crc = new CRC32();
+		crc.update(record);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * @return Segment file-paths in order
+	 * @throws IOException if the journal folder cannot be read
+	 */
+	private List<Path> segments() throws IOException {
+		try(final Stream<Path> files = Files.list(dir)) {
+			return files
+				.filter(Journal::isSegment)
+				.sorted((a, b) -> Long.compare(index(a), index(b)))
+				.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * @param path File-path
+	 * @return Whether the given file is a journal segment
+	 */
+	private static boolean isSegment(Path path) {
+		final String name = path.getFileName().toString();
+		return name.startsWith(PREFIX) && name.endsWith(EXTENSION);
+	}
+
+	/**
+	 * @param path Segment file-path
+	 * @return Segment index
+	 */
+	private static long index(Path path) {
+		final String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - EXTENSION.length()));
+	}
+
+	/**
+	 * @param index Segment index
+	 * @return Segment file-path
+	 */
+	private Path path(long index) {
+		return dir.resolve(String.format("%s%08d%s", PREFIX, index, EXTENSION));
+	}
+
+	/**
+	 * @return Number of records appended to this journal since it was opened
+	 */
+	public synchronized long appended() {
+		return appended;
+	}
+
+	/**
+	 * @return Number of appended records that have been committed
+	 */
+	public long committed() {
+		return committed;
+	}
+
+	/**
+	 * Appends a record to this journal.
+	 * Note that the record is not durable until the next {@link #commit()}.
+	 * @param record Record
+	 * @throws IllegalArgumentException if the record is empty or is larger than a segment
+	 * @throws IOException if a new segment cannot be created
+	 */
+	public synchronized void append(byte[] record) throws IOException {
+		// Validate record
+		final int required = HEADER_LENGTH + record.length;
+		if(record.length == 0) throw new IllegalArgumentException("Empty journal record");
+		if(required > size) throw new IllegalArgumentException("Journal record is larger than a segment: " + record.length);
+
+		// Roll to next segment as required
+		if(segment.buffer.remaining() < required) {
+			retired.add(segment);
+			roll();
+		}
+
+		// Append record
+		segment.buffer.putInt(record.length);
+		segment.buffer.putInt(checksum(ByteBuffer.wrap(record)));
+		segment.buffer.put(record);
+		++appended;
+	}
+
+	/**
+	 * Rolls to the next segment, using the pre-allocated segment if available.
+	 * @throws IOException if a new segment cannot be created
+	 */
+	private void roll() throws IOException {
+		if(next == null) {
+			segment = new Segment(segment.index + 1, path(segment.index + 1), size);
+		}
+		else {
+			segment = next;
+			next = null;
+		}
+	}
+
+	/**
+	 * Pre-allocates the next segment such that rolling to a new segment does not block the appending thread.
+	 * Note that the segment is created outside of the lock so appends are not blocked.
+	 * @throws IOException if the segment cannot be created
+	 */
+	public void preallocate() throws IOException {
+		// Determine next segment
+		final long index;
+		synchronized(this) {
+			if(next != null) {
+				return;
+			}
+			index = segment.index + 1;
+		}
+
+		// Create segment
+		final Segment created = new Segment(index, path(index), size);
+
+		// Register segment or discard if the journal has rolled in the meantime
+		synchronized(this) {
+			if((next == null) && (segment.index + 1 == index)) {
+				next = created;
+				return;
+			}
+		}
+		created.close();
+	}
+
+	/**
+	 * Commits all appended records to storage.
+	 * @throws IOException if the journal cannot be committed
+	 */
+	public void commit() throws IOException {
+		// Determine segments to commit
+		final List<Segment> segments;
+		final long target;
+		synchronized(this) {
+			target = appended;
+			if(target == committed) {
+				return;
+			}
+			segments = new ArrayList<>(retired);
+			segments.add(segment);
+			retired.clear();
+		}
+
+		// Force segments (outside of the lock so appends are not blocked)
+		for(Segment s : segments) {
+			s.force();
+			if(s != segments.get(segments.size() - 1)) {
+				s.close();
+			}
+		}
+
+		// Mark committed
+		synchronized(this) {
+			committed = Math.max(committed, target);
+		}
+	}
+
+	/**
+	 * Replays <b>all</b> records in this journal.
+	 * Each record is presented as a read-only buffer.
+	 * Replay stops at the first invalid record.
+	 * @param consumer Record consumer
+	 * @throws IOException if the journal cannot be read
+	 */
+	public void replay(Consumer<ByteBuffer> consumer) throws IOException {
+		replay(consumer, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Replays the records in the segments before the given mark.
+	 * <p>
+	 * Records are only ever appended to the current segment, i.e. previous segments are immutable.
+	 * The lock is therefore only held to determine the records in the current segment, so replaying the segments before a mark from another thread does not block appends.
+	 * <p>
+	 * @param consumer		Record consumer
+	 * @param mark			Mark
+	 * @throws IOException if the journal cannot be read
+	 * @see #mark()
+	 */
+	public void replay(Consumer<ByteBuffer> consumer, long mark) throws IOException {
+		// Determine records in the current segment
+		final Path current;
+		final ByteBuffer tail;
+		synchronized(this) {
+			current = segment.path;
+			tail = segment.buffer.duplicate().flip();
+		}
+
+		for(Path path : segments()) {
+			// Stop at mark
+			if(index(path) >= mark) {
+				break;
+			}
+
+			// Map segment
+			final ByteBuffer buffer;
+			if(path.equals(current)) {
+				buffer = tail;
+			}
+			else {
+				try(final FileChannel channel = FileChannel.open(path, READ)) {
+					buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+				}
+			}
+
+			// Replay records
+			while(true) {
+				// Stop at end of segment
+				final int pos = buffer.position();
+				final ByteBuffer record = next(buffer);
+				if(record == null) {
+					// Stop replay at an invalid record
+					if(!isEnd(buffer.position(pos))) {
+						return;
+					}
+					break;
+				}
+
+				// Replay record
+				consumer.accept(record.asReadOnlyBuffer());
+			}
+		}
+	}
+
+	/**
+	 * @param buffer Segment buffer
+	 * @return Whether the given buffer is positioned at the end of a segment, i.e. the remaining space is smaller than a record header or is marked by a zero length
+	 */
+	private static boolean isEnd(ByteBuffer buffer) {
+		return (buffer.remaining() < HEADER_LENGTH) || (buffer.getInt(buffer.position()) == 0);
+	}
+
+	/**
+	 * Compacts this journal by rolling to a new segment and deleting <b>all</b> previous segments.
+	 * @throws IOException if the journal cannot be compacted
+	 */
+	public synchronized void compact() throws IOException {
+		discard(mark());
+	}
+
+	/**
+	 * Marks this journal by rolling to a new segment.
+	 * Records appended after the mark are stored in the new segment (or later segments).
+	 * @return Mark
+	 * @throws IOException if a new segment cannot be created
+	 * @see #discard(long)
+	 */
+	public synchronized long mark() throws IOException {
+		retired.add(segment);
+		roll();
+		return segment.index;
+	}
+
+	/**
+	 * Discards the segments before the given mark.
+	 * Note that the segment files are deleted outside of the lock so appends are not blocked.
+	 * @param mark Mark
+	 * @throws IOException if the segments cannot be discarded
+	 * @see #mark()
+	 */
+	public void discard(long mark) throws IOException {
+		// Close retired segments
+		synchronized(this) {
+			final var itr = retired.iterator();
+			while(itr.hasNext()) {
+				final Segment s = itr.next();
+				if(s.index < mark) {
+					s.close();
+					itr.remove();
+				}
+			}
+		}
+
+		// Delete segment files
+		for(Path path : segments()) {
+			if(index(path) < mark) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		commit();
+		synchronized(this) {
+			segment.close();
+			if(next != null) {
+				next.close();
+			}
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return new ToStringBuilder(this)
+			.append("dir", dir)
+			.append("segment", segment.index)
+			.append("appended", appended)
+			.append("committed", committed)
+			.toString();
+	}
+}
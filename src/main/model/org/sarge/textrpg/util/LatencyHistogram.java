@@ -0,0 +1,130 @@
+package org.sarge.textrpg.util;
+
+import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.zeroOrMore;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A <i>latency histogram</i> records a distribution of durations with bounded relative error.
+ * <p>
+ * Values are allocated to logarithmic buckets: each power-of-two range is divided into eight sub-buckets, i.e. the relative error of a percentile is at most 12.5%.
+ * Values less than eight are recorded exactly.
+ * <p>
+ * Recording a value is allocation-free and lock-free, the histogram can be safely updated and queried by multiple threads.
+ * Note that percentiles are not an atomic snapshot of concurrent updates.
+ * <p>
+ * Usage:
+ * <pre>
+ *   final LatencyHistogram histogram = new LatencyHistogram();
+ *   histogram.record(System.nanoTime() - start);
+ *   final long p99 = histogram.percentile(Percentile.of(99));
+ * </pre>
+ * @author Sarge
+ */
+public class LatencyHistogram {
+	private static final int PRECISION = 3;
+	private static final int SUB = 1 << PRECISION;
+	private static final int SIZE = (Long.SIZE - PRECISION) * SUB;
+
+	private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+
+	/**
+	 * Determines the bucket index of the given value.
+	 * @param value Value
+	 * @return Bucket index
+	 */
+	static int index(long value) {
+		if(value < SUB) {
+			return (int) value;
+		}
+		final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - PRECISION;
+		final int sub = (int) (value >>> shift) & (SUB - 1);
+		return (shift + 1) * SUB + sub;
+	}
+
+	/**
+	 * Determines the upper bound of the given bucket.
+	 * @param index Bucket index
+	 * @return Largest value allocated to the given bucket
+	 */
+	static long upper(int index) {
+		if(index < SUB) {
+			return index;
+		}
+		final int shift = index / SUB - 1;
+		final long lower = (long) (SUB + index % SUB) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+	/**
+	 * Records a value.
+	 * @param value Value
+	 * @throws IllegalArgumentException if the value is negative
+	 */
+	public void record(long value) {
+		zeroOrMore(value);
+		counts.incrementAndGet(index(value));
+	}
+
+	/**
+	 * @return Number of recorded values
+	 */
+	public long count() {
+		long total = 0;
+		for(int n = 0; n < SIZE; ++n) {
+			total += counts.get(n);
+		}
+		return total;
+	}
+
+	/**
+	 * Determines the value at the given percentile.
+	 * @param p Percentile
+	 * @return Upper bound of the bucket containing the given percentile or zero if no values have been recorded
+	 */
+	public long percentile(Percentile p) {
+		notNull(p);
+
+		// Determine rank
+		final long total = count();
+		if(total == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(p.doubleValue() * total));
+
+		// Find bucket
+		long cumulative = 0;
+		for(int n = 0; n < SIZE; ++n) {
+			cumulative += counts.get(n);
+			if(cumulative >= rank) {
+				return upper(n);
+			}
+		}
+
+		// Rank overtaken by concurrent updates
+		return upper(SIZE - 1);
+	}
+
+	/**
+	 * Resets this histogram.
+	 */
+	public void reset() {
+		for(int n = 0; n < SIZE; ++n) {
+			counts.set(n, 0);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("count", count())
+			.append("p50", percentile(Percentile.HALF))
+			.append("p90", percentile(Percentile.of(90)))
+			.append("p99", percentile(Percentile.of(99)))
+			.append("max", percentile(Percentile.ONE))
+			.toString();
+	}
+}
@@ -2,6 +2,7 @@ package org.sarge.textrpg.util;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * A <i>name store</i> maps language-neutral keys to a piece of text such as object name(s), location descriptions, etc.
@@ -23,6 +24,13 @@ public interface NameStore {
 	 */
 	boolean matches(String key, String name);
 
+	/**
+	 * Enumerates <b>all</b> the names corresponding to the given key.
+	 * @param key Key
+	 * @return Names
+	 */
+	Stream<String> names(String key);
+
 	/**
 	 * @return Whether this store is empty
 	 */
@@ -46,6 +54,11 @@ public interface NameStore {
 		public boolean matches(String key, String name) {
 			return false;
 		}
+
+		@Override
+		public Stream<String> names(String key) {
+			return Stream.empty();
+		}
 	};
 
 	/**
@@ -82,6 +95,17 @@ public interface NameStore {
 				return entry.equals(name);
 			}
 		}
+
+		@Override
+		public Stream<String> names(String key) {
+			final String entry = names.get(key);
+			if(entry == null) {
+				return Stream.empty();
+			}
+			else {
+				return Stream.of(entry);
+			}
+		}
 	}
 
 	/**
@@ -124,6 +148,17 @@ public interface NameStore {
 				return Arrays.stream(array).anyMatch(name::equals);
 			}
 		}
+
+		@Override
+		public Stream<String> names(String key) {
+			final String[] array = names.get(key);
+			if(array == null) {
+				return Stream.empty();
+			}
+			else {
+				return Arrays.stream(array);
+			}
+		}
 	}
 
 	/**
@@ -169,6 +204,11 @@ public interface NameStore {
 				public boolean matches(String key, String name) {
 					return left.matches(key, name) || right.matches(key, name);
 				}
+
+				@Override
+				public Stream<String> names(String key) {
+					return Stream.concat(left.names(key), right.names(key));
+				}
 			};
 		}
 	}
@@ -1,10 +1,21 @@
 package org.sarge.textrpg.util;
 
+import java.io.IOException;
+
 /**
- * Marker interface for persistent data.
+ * A <i>persistent</i> object is part of the world state that is saved in a snapshot.
+ * <p>
+ * Persistent classes provide a complementary static <tt>read</tt> factory that restores the object from a {@link SnapshotReader}.
+ * References to shared data such as races or skills are written by name and resolved when the snapshot is read.
+ * <p>
+ * @see SnapshotWriter
  * @author Sarge
  */
 public interface Persistent {
-	// TODO
-	// Marker interface
+	/**
+	 * Writes the state of this object to the given snapshot.
+	 * @param out Snapshot writer
+	 * @throws IOException if this object cannot be written
+	 */
+	void write(SnapshotWriter out) throws IOException;
 }
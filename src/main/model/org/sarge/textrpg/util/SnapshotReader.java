@@ -0,0 +1,217 @@
+package org.sarge.textrpg.util;
+
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A <i>snapshot reader</i> restores the state of {@link Persistent} objects written by a {@link SnapshotWriter}.
+ * <p>
+ * Data is read from the channel into a re-usable buffer as required.
+ * <p>
+ * References to shared data are written by name and are resolved using a look-up function registered for each type of reference:
+ * <pre>
+ *   try(final SnapshotReader in = new SnapshotReader(channel)) {
+ *       in.resolver(Race.class, races::get);
+ *       final Race race = in.readReference(Race.class);
+ *       ...
+ *   }
+ * </pre>
+ * <p>
+ * @see SnapshotWriter
+ * @author Sarge
+ */
+public class SnapshotReader implements AutoCloseable {
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(SnapshotWriter.CAPACITY);
+	private final List<String> strings = new ArrayList<>();
+	private final Map<Class<?>, Function<String, ?>> resolvers = new HashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param channel Input channel
+	 * @throws IOException if the snapshot header cannot be read or is invalid
+	 */
+	public SnapshotReader(ReadableByteChannel channel) throws IOException {
+		this.channel = notNull(channel);
+		buffer.flip();
+		ensure(Integer.BYTES + Short.BYTES);
+		final int magic = buffer.getInt();
+		final short version = buffer.getShort();
+		if(magic != SnapshotWriter.MAGIC) throw new IOException("Invalid snapshot");
+		if(version != SnapshotWriter.VERSION) throw new IOException("Unsupported snapshot version: " + version);
+	}
+
+	/**
+	 * Registers a resolver for references of the given type.
+	 * @param type			Reference type
+	 * @param resolver		Look-up function
+	 * @param <T> Reference type
+	 * @return This reader
+	 */
+	public <T> SnapshotReader resolver(Class<T> type, Function<String, ? extends T> resolver) {
+		resolvers.put(notNull(type), notNull(resolver));
+		return this;
+	}
+
+	/**
+	 * Reads a boolean.
+	 * @return Boolean
+	 * @throws IOException if the value cannot be read
+	 */
+	public boolean readBoolean() throws IOException {
+		ensure(1);
+		return buffer.get() != 0;
+	}
+
+	/**
+	 * Reads an integer.
+	 * @return Integer
+	 * @throws IOException if the value cannot be read
+	 */
+	public int readInt() throws IOException {
+		return (int) readLong();
+	}
+
+	/**
+	 * Reads a size.
+	 * @return Size
+	 * @throws IOException if the value cannot be read or is not a valid size
+	 */
+	public int readSize() throws IOException {
+		final int size = readInt();
+		if(size < 0) throw new IOException("Invalid size: " + size);
+		return size;
+	}
+
+	/**
+	 * Reads a long integer.
+	 * @return Long
+	 * @throws IOException if the value cannot be read
+	 */
+	public long readLong() throws IOException {
+		long zigzag = 0;
+		for(int shift = 0; shift < Long.SIZE; shift += 7) {
+			ensure(1);
+			final byte b = buffer.get();
+			zigzag |= (long) (b & 0x7F) << shift;
+			if(b >= 0) {
+				return (zigzag >>> 1) ^ -(zigzag & 1);
+			}
+		}
+		throw new IOException("Malformed integer");
+	}
+
+	/**
+	 * Reads a string.
+	 * @return String
+	 * @throws IOException if the string cannot be read
+	 */
+	public String readString() throws IOException {
+		// Lookup previously read string
+		final int index = readSize();
+		if(index > 0) {
+			if(index > strings.size()) throw new IOException("Invalid string index: " + index);
+			return strings.get(index - 1);
+		}
+
+		// Otherwise read and intern string
+		final byte[] bytes = new byte[readSize()];
+		int offset = 0;
+		while(offset < bytes.length) {
+			ensure(1);
+			final int len = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.get(bytes, offset, len);
+			offset += len;
+		}
+		final String str = new String(bytes, StandardCharsets.UTF_8);
+		strings.add(str);
+		return str;
+	}
+
+	/**
+	 * Reads an enumeration constant.
+	 * @param clazz Enumeration class
+	 * @param <E> Enumeration
+	 * @return Constant
+	 * @throws IOException if the constant cannot be read or is not a member of the given enumeration
+	 */
+	public <E extends Enum<E>> E readEnum(Class<E> clazz) throws IOException {
+		final String name = readString();
+		try {
+			return Enum.valueOf(clazz, name);
+		}
+		catch(IllegalArgumentException e) {
+			throw new IOException(String.format("Unknown enumeration constant: class=%s name=%s", clazz.getSimpleName(), name), e);
+		}
+	}
+
+	/**
+	 * Reads a reference to shared data.
+	 * @param type Reference type
+	 * @param <T> Reference type
+	 * @return Referenced object
+	 * @throws IOException if the reference cannot be read or resolved
+	 * @throws IllegalStateException if no resolver has been registered for the given type
+	 * @see #resolver(Class, Function)
+	 */
+	public <T> T readReference(Class<T> type) throws IOException {
+		// Lookup resolver
+		final Function<String, ?> resolver = resolvers.get(type);
+		if(resolver == null) throw new IllegalStateException("No resolver for reference type: " + type.getSimpleName());
+
+		// Resolve reference
+		final String name = readString();
+		final Object ref;
+		try {
+			ref = resolver.apply(name);
+		}
+		catch(IllegalArgumentException e) {
+			throw new IOException(String.format("Cannot resolve reference: type=%s name=%s", type.getSimpleName(), name), e);
+		}
+		if(ref == null) throw new IOException(String.format("Unknown reference: type=%s name=%s", type.getSimpleName(), name));
+		return type.cast(ref);
+	}
+
+	/**
+	 * Reads more data from the channel if the given number of bytes are not available.
+	 * @param len Number of bytes
+	 * @throws EOFException if the end of the snapshot has been reached
+	 * @throws IOException if the data cannot be read
+	 */
+	private void ensure(int len) throws IOException {
+		if(buffer.remaining() >= len) {
+			return;
+		}
+		buffer.compact();
+		try {
+			while(buffer.position() < len) {
+				if(channel.read(buffer) == -1) throw new EOFException("Unexpected end of snapshot");
+			}
+		}
+		finally {
+			buffer.flip();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).append("strings", strings.size()).toString();
+	}
+}
@@ -0,0 +1,152 @@
+package org.sarge.textrpg.util;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.sarge.lib.util.Check.notEmpty;
+import static org.sarge.lib.util.Check.notNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for snapshots of {@link Persistent} state.
+ * <p>
+ * Each snapshot is stored as a separate file in the database folder.
+ * A snapshot is written to a temporary file that replaces the previous snapshot on completion, i.e. a failed write does not corrupt the existing snapshot.
+ * <p>
+ * A snapshot can also be serialised in memory and stored later, e.g. to take a consistent copy of the state on the world thread and write it from another thread, see {@link #serialise(Persistent)}.
+ * <p>
+ * @author Sarge
+ */
+@Repository
+public class SnapshotRepository {
+	private static final String EXTENSION = ".snapshot";
+
+	private final Path dir;
+
+	/**
+	 * Constructor.
+	 * @param dir Database folder
+	 */
+	public SnapshotRepository(@Value("${database.location}") Path dir) {
+		this.dir = notNull(dir);
+	}
+
+	/**
+	 * @param name Snapshot name
+	 * @return Path of the given snapshot
+	 */
+	private Path path(String name) {
+		return dir.resolve(notEmpty(name) + EXTENSION);
+	}
+
+	/**
+	 * @param name Snapshot name
+	 * @return Whether the given snapshot exists
+	 */
+	public boolean exists(String name) {
+		return Files.exists(path(name));
+	}
+
+	/**
+	 * Stores a snapshot.
+	 * @param name		Snapshot name
+	 * @param obj		Persistent object
+	 * @return Snapshot size (bytes)
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public long store(String name, Persistent obj) throws IOException {
+		// Write snapshot to temporary file
+		final Path path = path(name);
+		final Path tmp = temporary(path);
+		final long size;
+		try(final SnapshotWriter out = new SnapshotWriter(FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING))) {
+			out.write(obj);
+			out.flush();
+			size = out.size();
+		}
+
+		// Replace previous snapshot
+		replace(tmp, path);
+		return size;
+	}
+
+	/**
+	 * Stores a snapshot that has been serialised in memory.
+	 * @param name			Snapshot name
+	 * @param snapshot		Serialised snapshot
+	 * @return Snapshot size (bytes)
+	 * @throws IOException if the snapshot cannot be written
+	 * @see #serialise(Persistent)
+	 */
+	public long store(String name, byte[] snapshot) throws IOException {
+		// Write snapshot to temporary file
+		final Path path = path(name);
+		final Path tmp = temporary(path);
+		try(final FileChannel channel = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+			final ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		}
+
+		// Replace previous snapshot
+		replace(tmp, path);
+		return snapshot.length;
+	}
+
+	/**
+	 * @param path Snapshot path
+	 * @return Temporary file-path for the given snapshot
+	 */
+	private static Path temporary(Path path) {
+		return path.resolveSibling(path.getFileName() + ".tmp");
+	}
+
+	/**
+	 * Replaces a snapshot with a completed temporary file.
+	 * @param tmp		Temporary file
+	 * @param path		Snapshot path
+	 * @throws IOException if the snapshot cannot be replaced
+	 */
+	private static void replace(Path tmp, Path path) throws IOException {
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Serialises a snapshot in memory.
+	 * @param obj Persistent object
+	 * @return Serialised snapshot
+	 * @throws IOException if the snapshot cannot be serialised
+	 * @see #store(String, byte[])
+	 */
+	public static byte[] serialise(Persistent obj) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(final SnapshotWriter out = new SnapshotWriter(Channels.newChannel(bytes))) {
+			out.write(obj);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Opens a snapshot.
+	 * @param name Snapshot name
+	 * @return Snapshot reader
+	 * @throws IOException if the snapshot cannot be opened
+	 */
+	public SnapshotReader open(String name) throws IOException {
+		return new SnapshotReader(FileChannel.open(path(name), READ));
+	}
+}
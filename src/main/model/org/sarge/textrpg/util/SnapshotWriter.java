@@ -0,0 +1,225 @@
+package org.sarge.textrpg.util;
+
+import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.zeroOrMore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A <i>snapshot writer</i> streams the state of {@link Persistent} objects to a channel in a compact binary format.
+ * <p>
+ * Values are written directly to a re-usable buffer that is flushed to the channel when full, i.e. no intermediate copy of the object graph is constructed.
+ * <p>
+ * Encoding:
+ * <ul>
+ * <li>a snapshot starts with a header comprising a magic number and the format version</li>
+ * <li>integers are written as zig-zag variable-length quantities, i.e. small values (of either sign) occupy a single byte</li>
+ * <li>strings are UTF-8 encoded and <i>interned</i>, each distinct string is written once and subsequently referred to by index</li>
+ * <li>enumeration constants and references to shared data (e.g. races, skills) are written as interned names</li>
+ * </ul>
+ * <p>
+ * Usage:
+ * <pre>
+ *   try(final SnapshotWriter out = new SnapshotWriter(channel)) {
+ *       out.write(player);
+ *   }
+ * </pre>
+ * <p>
+ * @see SnapshotReader
+ * @author Sarge
+ */
+public class SnapshotWriter implements AutoCloseable {
+	/**
+	 * Snapshot header magic number.
+	 */
+	static final int MAGIC = 0x54525047;
+
+	/**
+	 * Snapshot format version.
+	 */
+	static final short VERSION = 2;
+
+	/**
+	 * Size of the write buffer.
+	 */
+	static final int CAPACITY = 64 * 1024;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(CAPACITY);
+	private final Map<String, Integer> strings = new HashMap<>();
+
+	private long size;
+
+	/**
+	 * Constructor.
+	 * @param channel Output channel
+	 */
+	public SnapshotWriter(WritableByteChannel channel) {
+		this.channel = notNull(channel);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+	}
+
+	/**
+	 * @return Number of bytes written to this snapshot (including pending bytes)
+	 */
+	public long size() {
+		return size + buffer.position();
+	}
+
+	/**
+	 * Writes a persistent object.
+	 * @param obj Object to write
+	 * @throws IOException if the object cannot be written
+	 */
+	public void write(Persistent obj) throws IOException {
+		obj.write(this);
+	}
+
+	/**
+	 * Writes a boolean.
+	 * @param b Boolean
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeBoolean(boolean b) throws IOException {
+		ensure(1);
+		buffer.put(b ? (byte) 1 : (byte) 0);
+	}
+
+	/**
+	 * Writes an integer.
+	 * @param value Integer
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeInt(int value) throws IOException {
+		writeLong(value);
+	}
+
+	/**
+	 * Writes a size, e.g. the number of elements in a collection.
+	 * @param size Size
+	 * @throws IllegalArgumentException if the size is negative
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeSize(int size) throws IOException {
+		zeroOrMore(size);
+		writeLong(size);
+	}
+
+	/**
+	 * Writes a long integer.
+	 * @param value Long
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeLong(long value) throws IOException {
+		ensure(10);
+		long zigzag = (value << 1) ^ (value >> 63);
+		while((zigzag & ~0x7FL) != 0) {
+			buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+			zigzag >>>= 7;
+		}
+		buffer.put((byte) zigzag);
+	}
+
+	/**
+	 * Writes a string.
+	 * @param str String
+	 * @throws IOException if the string cannot be written
+	 */
+	public void writeString(String str) throws IOException {
+		// Write index of previously written string
+		final Integer index = strings.get(str);
+		if(index != null) {
+			writeLong(index + 1);
+			return;
+		}
+
+		// Otherwise write and intern string
+		final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		writeLong(0);
+		writeSize(bytes.length);
+		write(bytes);
+		strings.put(str, strings.size());
+	}
+
+	/**
+	 * Writes an enumeration constant.
+	 * @param e Constant
+	 * @throws IOException if the constant cannot be written
+	 */
+	public void writeEnum(Enum<?> e) throws IOException {
+		writeString(e.name());
+	}
+
+	/**
+	 * Writes an array of bytes.
+	 * @param bytes Bytes
+	 * @throws IOException if the bytes cannot be written
+	 */
+	private void write(byte[] bytes) throws IOException {
+		int offset = 0;
+		while(offset < bytes.length) {
+			ensure(1);
+			final int len = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.put(bytes, offset, len);
+			offset += len;
+		}
+	}
+
+	/**
+	 * Flushes the buffer if the given number of bytes are not available.
+	 * @param len Number of bytes
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void ensure(int len) throws IOException {
+		if(buffer.remaining() < len) {
+			flush();
+		}
+	}
+
+	/**
+	 * Flushes pending data to the channel.
+	 * @throws IOException if the data cannot be written
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			size += channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Flushes pending data and closes the channel.
+	 * If the channel is a file the data is also forced to the storage device.
+	 * @throws IOException if the snapshot cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+			if(channel instanceof FileChannel) {
+				((FileChannel) channel).force(false);
+			}
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("size", size())
+			.append("strings", strings.size())
+			.toString();
+	}
+}
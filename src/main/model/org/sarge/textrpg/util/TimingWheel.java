@@ -0,0 +1,280 @@
+package org.sarge.textrpg.util;
+
+import static org.sarge.lib.util.Check.notNull;
+import static org.sarge.lib.util.Check.zeroOrMore;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A <i>timing wheel</i> is a hierarchical scheduler for time-ordered entries.
+ * <p>
+ * Entries are allocated to the slots of a hierarchy of wheels with millisecond, second, minute and hour resolution.
+ * As time advances the entries in each slot <i>cascade</i> down to the finer-grained wheels until they are due.
+ * Entries beyond the range of the hour wheel are held in an overflow queue until the day in which they become due.
+ * <p>
+ * Advancing the wheel only visits occupied slots, i.e. the cost of an advance is independent of the elapsed time and of the number of entries that are not yet due.
+ * <p>
+ * Entries that are due at the same time are returned in insertion order.
+ * <p>
+ * Note that this implementation is not thread-safe.
+ * <p>
+ * @param <T> Entry type
+ * @author Sarge
+ */
+public class TimingWheel<T> {
+	/**
+	 * Slot resolution of each wheel (ms).
+	 */
+	private static final long[] RESOLUTION = {1, 1000, 60 * 1000, 60 * 60 * 1000};
+
+	/**
+	 * Number of slots in each wheel.
+	 */
+	private static final int[] SIZE = {1000, 60, 60, 24};
+
+	/**
+	 * Range of the hour wheel.
+	 */
+	private static final long DAY = RESOLUTION[3] * SIZE[3];
+
+	/**
+	 * Scheduled entry.
+	 */
+	private static class Node<T> {
+		private final T value;
+		private final long when;
+		private final long seq;
+		private Node<T> next;
+
+		private Node(T value, long when, long seq) {
+			this.value = value;
+			this.when = when;
+			this.seq = seq;
+		}
+	}
+
+	/**
+	 * Wheel of slots.
+	 */
+	private static class Wheel<T> {
+		private final Node<T>[] head;
+		private final Node<T>[] tail;
+		private final BitSet occupied;
+
+		@SuppressWarnings("unchecked")
+		private Wheel(int size) {
+			this.head = new Node[size];
+			this.tail = new Node[size];
+			this.occupied = new BitSet(size);
+		}
+
+		/**
+		 * Appends an entry to the given slot.
+		 */
+		private void add(int slot, Node<T> node) {
+			if(head[slot] == null) {
+				head[slot] = node;
+				occupied.set(slot);
+			}
+			else {
+				tail[slot].next = node;
+			}
+			tail[slot] = node;
+		}
+
+		/**
+		 * Removes all entries from the given slot.
+		 * @return Head entry or <tt>null</tt> if empty
+		 */
+		private Node<T> clear(int slot) {
+			final Node<T> node = head[slot];
+			head[slot] = null;
+			tail[slot] = null;
+			occupied.clear(slot);
+			return node;
+		}
+	}
+
+	private static final Comparator<Node<?>> ORDER = Comparator.<Node<?>>comparingLong(node -> node.when).thenComparingLong(node -> node.seq);
+
+	private final Wheel<T>[] wheels;
+	private final PriorityQueue<Node<T>> overflow = new PriorityQueue<>(ORDER);
+	private final Wheel<T> due = new Wheel<>(1);
+
+	private long now;
+	private long seq;
+	private int size;
+
+	/**
+	 * Constructor.
+	 * @param now Start time
+	 */
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long now) {
+		this.now = zeroOrMore(now);
+		this.wheels = new Wheel[SIZE.length];
+		for(int n = 0; n < SIZE.length; ++n) {
+			wheels[n] = new Wheel<>(SIZE[n]);
+		}
+	}
+
+	/**
+	 * @return Current time of this wheel
+	 */
+	public long now() {
+		return now;
+	}
+
+	/**
+	 * @return Number of scheduled entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Schedules an entry.
+	 * <p>
+	 * Note that an entry scheduled at or before the current time is returned by the next call to {@link #advance(long, Consumer)}.
+	 * <p>
+	 * @param value		Entry
+	 * @param when		Time at which this entry is due
+	 */
+	public void add(T value, long when) {
+		notNull(value);
+		final Node<T> node = new Node<>(value, when, seq++);
+		if(when <= now) {
+			due.add(0, node);
+		}
+		else {
+			insert(node);
+		}
+		++size;
+	}
+
+	/**
+	 * Allocates an entry to the appropriate wheel relative to the current time.
+	 * @param node Entry
+	 */
+	private void insert(Node<T> node) {
+		// Find wheel with the same parent period
+		for(int n = 0; n < SIZE.length; ++n) {
+			final long span = RESOLUTION[n] * SIZE[n];
+			if(node.when / span == now / span) {
+				final int slot = (int) ((node.when / RESOLUTION[n]) % SIZE[n]);
+				wheels[n].add(slot, node);
+				return;
+			}
+		}
+
+		// Otherwise defer to overflow
+		overflow.add(node);
+	}
+
+	/**
+	 * Advances this wheel and consumes all entries that are due up to and including the given time.
+	 * <p>
+	 * Entries are consumed in time order.
+	 * The consumer must not modify this wheel.
+	 * <p>
+	 * @param time			New time
+	 * @param consumer		Due entries consumer
+	 * @throws IllegalArgumentException if the given time is earlier than the current time
+	 */
+	public void advance(long time, Consumer<? super T> consumer) {
+		if(time < now) throw new IllegalArgumentException(String.format("Cannot advance backwards: now=%d time=%d", now, time));
+		notNull(consumer);
+
+		// Consume overdue entries
+		consume(due.clear(0), consumer);
+
+		// Walk occupied slots
+		while(true) {
+			final long next = next();
+			if(next > time) {
+				break;
+			}
+			now = next;
+			cascade();
+			consume(wheels[0].clear((int) (now % SIZE[0])), consumer);
+		}
+
+		// Update time
+		now = time;
+	}
+
+	/**
+	 * Determines the time of the next occupied slot.
+	 * Note that all entries in a given wheel are later than any entry in a finer-grained wheel.
+	 * @return Next slot time or {@link Long#MAX_VALUE} if this wheel is empty
+	 */
+	private long next() {
+		for(int n = 0; n < SIZE.length; ++n) {
+			final int current = (int) ((now / RESOLUTION[n]) % SIZE[n]);
+			final int slot = wheels[n].occupied.nextSetBit(current + 1);
+			if(slot >= 0) {
+				final long span = RESOLUTION[n] * SIZE[n];
+				return (now / span) * span + slot * RESOLUTION[n];
+			}
+		}
+
+		if(overflow.isEmpty()) {
+			return Long.MAX_VALUE;
+		}
+		else {
+			return (overflow.peek().when / DAY) * DAY;
+		}
+	}
+
+	/**
+	 * Cascades the entries of any slots that start at the current time down to finer-grained wheels.
+	 */
+	private void cascade() {
+		// Migrate overflow entries for the current day
+		if(now % DAY == 0) {
+			while(!overflow.isEmpty() && (overflow.peek().when < now + DAY)) {
+				insert(overflow.poll());
+			}
+		}
+
+		// Cascade from the coarsest wheel
+		for(int n = SIZE.length - 1; n > 0; --n) {
+			if(now % RESOLUTION[n] != 0) {
+				continue;
+			}
+			final int slot = (int) ((now / RESOLUTION[n]) % SIZE[n]);
+			Node<T> node = wheels[n].clear(slot);
+			while(node != null) {
+				final Node<T> next = node.next;
+				node.next = null;
+				insert(node);
+				node = next;
+			}
+		}
+	}
+
+	/**
+	 * Consumes a list of due entries.
+	 */
+	private void consume(Node<T> node, Consumer<? super T> consumer) {
+		while(node != null) {
+			--size;
+			consumer.accept(node.value);
+			node = node.next;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("now", now)
+			.append("size", size)
+			.append("overflow", overflow.size())
+			.toString();
+	}
+}
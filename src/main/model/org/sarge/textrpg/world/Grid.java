@@ -3,15 +3,20 @@ package org.sarge.textrpg.world;
 import static java.util.stream.Collectors.toList;
 import static org.sarge.lib.util.Check.notNull;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.sarge.lib.collection.SoftMap;
 import org.sarge.lib.collection.StrictMap;
 import org.sarge.textrpg.contents.Contents;
+import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.util.Matrix;
 import org.sarge.textrpg.util.Matrix.Coordinates;
 import org.sarge.textrpg.world.ExitMap.MutableExitMap;
@@ -26,6 +31,17 @@ import org.sarge.textrpg.world.Grid.Builder.Cursor;
  * In general grids are intended for large wilderness areas where most locations have exits in every direction and the number of points-of-interest is relatively low.
  * Grid locations are relatively lightweight in terms of memory usage at the expense of the runtime overhead of on-demand generation of the exits for each visited location.
  * <p>
+ * Storage:
+ * <ul>
+ * <li>The location descriptors are stored as a <i>palette</i> of the distinct descriptors and an array of palette indices</li>
+ * <li>Grid locations are only created when visited and are weakly cached, i.e. an unreferenced location is discarded and recreated on demand</li>
+ * <li>A location that carries <i>state</i> (contents or tracks) is <i>pinned</i> by the grid and is unpinned when that state is removed</li>
+ * <li>Exits are generated from the coordinates of the location on each invocation of {@link Location#exits()}, i.e. locations do not retain references to their neighbours</li>
+ * <li>Neighbourhoods that include a grid location are not cached for the same reason, see {@link Neighbourhood}</li>
+ * </ul>
+ * <p>
+ * Note that other state associated with a grid location (such as modified snow levels) is retained by the owner of that state, which therefore also retains the location.
+ * <p>
  * The {@link Builder#cursor(int, int)} method is used to get a <i>cursor</i> to a location in the grid which can be used to modify the grid:
  * <ul>
  * <li>{@link Cursor#block(Direction)} blocks a location exit in the given direction</li>
@@ -53,22 +69,29 @@ public class Grid {
 	 */
 	private static final Map<Direction, Exit> EMPTY = Map.of();
 
+	/**
+	 * Maximum number of distinct location descriptors in a grid.
+	 */
+	public static final int MAX_PALETTE = (1 << Short.SIZE) - 1;
+
 	/**
 	 * Grid location instance.
 	 */
 	private class GridLocation extends Location {
 		private final Coordinates coords;
-		private final Contents contents = new Contents();
-		private ExitMap exits;
+		private final int index;
+		private final Contents contents = new GridContents(this);
 
 		/**
 		 * Constructor.
 		 * @param descriptor		Location descriptor
 		 * @param coords			Coordinates
+		 * @param index				Cell index
 		 */
-		private GridLocation(Location.Descriptor descriptor, Coordinates coords) {
+		private GridLocation(Location.Descriptor descriptor, Coordinates coords, int index) {
 			super(descriptor);
 			this.coords = notNull(coords);
+			this.index = index;
 		}
 
 		@Override
@@ -83,10 +106,77 @@ public class Grid {
 
 		@Override
 		public ExitMap exits() {
-			if(exits == null) {
-				exits = build(coords);
-			}
-			return exits;
+			return build(coords);
+		}
+
+		@Override
+		boolean isCacheable() {
+			// Neighbourhoods would retain the surrounding grid locations
+			return false;
+		}
+
+		@Override
+		void add(Tracks t) {
+			super.add(t);
+			pin(this);
+		}
+
+		@Override
+		int expire(long expiry) {
+			final int count = super.expire(expiry);
+			unpin(this);
+			return count;
+		}
+
+		/**
+		 * @return Whether this location carries state
+		 */
+		private boolean isStateful() {
+			return !contents.isEmpty() || tracks().findAny().isPresent();
+		}
+	}
+
+	/**
+	 * Contents of a grid location that pins the location when not empty.
+	 */
+	private class GridContents extends Contents {
+		private final GridLocation loc;
+
+		/**
+		 * Constructor.
+		 * @param loc Grid location
+		 */
+		private GridContents(GridLocation loc) {
+			this.loc = loc;
+		}
+
+		@Override
+		protected <T extends Thing> void add(T thing) {
+			super.add(thing);
+			pin(loc);
+		}
+
+		@Override
+		protected void remove(Thing thing) {
+			super.remove(thing);
+			unpin(loc);
+		}
+	}
+
+	/**
+	 * Weak reference to a grid location.
+	 */
+	private static class Entry extends WeakReference<GridLocation> {
+		private final int index;
+
+		/**
+		 * Constructor.
+		 * @param loc		Grid location
+		 * @param queue		Reference queue
+		 */
+		private Entry(GridLocation loc, ReferenceQueue<GridLocation> queue) {
+			super(loc, queue);
+			this.index = loc.index;
 		}
 	}
 
@@ -118,7 +208,7 @@ public class Grid {
 			final Coordinates dest = coordinates(side, coords);
 
 			// Ignore if out-of-bounds
-			if(grid.matrix.isOutOfBounds(dest)) {
+			if(grid.isOutOfBounds(dest)) {
 				return null;
 			}
 
@@ -135,18 +225,23 @@ public class Grid {
 		Coordinates coordinates(Direction side, Coordinates coords) {
 			final int offset = (isHorizontal(side) ? coords.x : coords.y) - this.offset;
 			switch(side) {
-			case NORTH:		return new Coordinates(offset, grid.matrix.height() - 1);
+			case NORTH:		return new Coordinates(offset, grid.h - 1);
 			case SOUTH:		return new Coordinates(offset, 0);
 			case EAST:		return new Coordinates(0, offset);
-			case WEST:		return new Coordinates(grid.matrix.width() - 1, offset);
+			case WEST:		return new Coordinates(grid.w - 1, offset);
 			default:		throw new RuntimeException();
 			}
 		}
 	}
 
 	private final Area area;
-	private final Matrix<Location.Descriptor> matrix;
-	private final Map<Coordinates, GridLocation> cache = new SoftMap<>();
+	private final int w;
+	private final int h;
+	private final Location.Descriptor[] palette;
+	private final short[] cells;
+	private final Map<Integer, Entry> cache = new HashMap<>();
+	private final ReferenceQueue<GridLocation> queue = new ReferenceQueue<>();
+	private final Map<Integer, GridLocation> pinned = new HashMap<>();
 	private final Map<Coordinates, Map<Direction, Exit>> custom = new StrictMap<>();
 	private final Map<Direction, Neighbour> neighbours = new StrictMap<>();
 
@@ -154,38 +249,142 @@ public class Grid {
 	 * Constructor.
 	 * @param area			Area
 	 * @param matrix		Location descriptor matrix
+	 * @throws IllegalArgumentException if the matrix contains more than {@link #MAX_PALETTE} distinct descriptors
 	 */
 	private Grid(Area area, Matrix<Location.Descriptor> matrix) {
 		this.area = notNull(area);
-		this.matrix = notNull(matrix);
+		this.w = matrix.width();
+		this.h = matrix.height();
+		this.cells = new short[w * h];
+
+		// Build descriptor palette
+		final Map<Location.Descriptor, Integer> ids = new IdentityHashMap<>();
+		final List<Location.Descriptor> list = new ArrayList<>();
+		for(int x = 0; x < w; ++x) {
+			for(int y = 0; y < h; ++y) {
+				// Skip empty locations
+				final Location.Descriptor descriptor = matrix.get(x, y);
+				if(descriptor == null) {
+					continue;
+				}
+
+				// Lookup or allocate palette index
+				final int id = ids.computeIfAbsent(descriptor, ignored -> {
+					list.add(descriptor);
+					return list.size();
+				});
+				if(id > MAX_PALETTE) throw new IllegalArgumentException("Too many distinct location descriptors in grid: " + area.name());
+
+				// Store palette index
+				cells[x * h + y] = (short) id;
+			}
+		}
+		this.palette = list.toArray(Location.Descriptor[]::new);
 	}
 
 	/**
-	 * Looks up a grid location.
-	 * @param coords Grid coordinates
-	 * @return Grid location or <tt>null</tt> if empty
+	 * @param coords Coordinates
+	 * @return Whether the given coordinates are out-of-bounds for this grid
+	 */
+	private boolean isOutOfBounds(Coordinates coords) {
+		return (coords.x < 0) || (coords.x >= w) || (coords.y < 0) || (coords.y >= h);
+	}
+
+	/**
+	 * Determines the cell index of the given coordinates.
+	 * @param coords Coordinates
+	 * @return Cell index
 	 * @throws ArrayIndexOutOfBoundsException if the given coordinates are out-of-bounds
 	 */
-	public Location get(Coordinates coords) {
-		return cache.computeIfAbsent(coords, this::create);
+	private int index(Coordinates coords) {
+		if(isOutOfBounds(coords)) throw new ArrayIndexOutOfBoundsException("Coordinates out-of-bounds: " + coords);
+		return coords.x * h + coords.y;
+	}
+
+	/**
+	 * Looks up the descriptor of a grid location.
+	 * @param index Cell index
+	 * @return Location descriptor or <tt>null</tt> if empty
+	 */
+	private Location.Descriptor descriptor(int index) {
+		final int id = Short.toUnsignedInt(cells[index]);
+		if(id == 0) {
+			return null;
+		}
+		else {
+			return palette[id - 1];
+		}
 	}
 
 	/**
-	 * Creates a grid location.
+	 * Looks up a grid location.
 	 * @param coords Grid coordinates
 	 * @return Grid location or <tt>null</tt> if empty
 	 * @throws ArrayIndexOutOfBoundsException if the given coordinates are out-of-bounds
 	 */
-	private GridLocation create(Coordinates coords) {
-		final Location.Descriptor descriptor = matrix.get(coords);
+	public Location get(Coordinates coords) {
+		// Ignore empty locations
+		final int index = index(coords);
+		final Location.Descriptor descriptor = descriptor(index);
 		if(descriptor == null) {
 			return null;
 		}
-		else {
-			return new GridLocation(descriptor, coords);
+
+		// Lookup cached location
+		expunge();
+		final Entry entry = cache.get(index);
+		if(entry != null) {
+			final GridLocation loc = entry.get();
+			if(loc != null) {
+				return loc;
+			}
+		}
+
+		// Otherwise create new location
+		final GridLocation loc = new GridLocation(descriptor, new Coordinates(coords.x, coords.y), index);
+		cache.put(index, new Entry(loc, queue));
+		return loc;
+	}
+
+	/**
+	 * Removes cache entries for discarded locations.
+	 */
+	private void expunge() {
+		while(true) {
+			final Reference<? extends GridLocation> ref = queue.poll();
+			if(ref == null) {
+				break;
+			}
+			final Entry entry = (Entry) ref;
+			cache.remove(entry.index, entry);
 		}
 	}
 
+	/**
+	 * Pins a location that carries state.
+	 * @param loc Location
+	 */
+	private void pin(GridLocation loc) {
+		pinned.putIfAbsent(loc.index, loc);
+	}
+
+	/**
+	 * Unpins a location that no longer carries state.
+	 * @param loc Location
+	 */
+	private void unpin(GridLocation loc) {
+		if(!loc.isStateful()) {
+			pinned.remove(loc.index);
+		}
+	}
+
+	/**
+	 * @return Number of pinned locations
+	 */
+	int pinned() {
+		return pinned.size();
+	}
+
 	/**
 	 * Adds a custom exit in the given direction.
 	 * @param coords		Exit coordinates
@@ -231,10 +430,10 @@ public class Grid {
 	 */
 	private int max(Direction side) {
 		if(isHorizontal(side)) {
-			return matrix.width();
+			return w;
 		}
 		else {
-			return matrix.height();
+			return h;
 		}
 	}
 
@@ -265,7 +464,7 @@ public class Grid {
 			}
 			else {
 				// Handle out-of-bounds locations
-				if(matrix.isOutOfBounds(dest)) {
+				if(isOutOfBounds(dest)) {
 					// Lookup neighbouring grid on this side
 					final Neighbour neighbour = neighbours.get(dir);
 					if(neighbour == null) {
@@ -306,8 +505,10 @@ public class Grid {
 	public String toString() {
 		return new ToStringBuilder(this)
 			.append("area", area.name())
-			.append("w", matrix.width())
-			.append("h", matrix.height())
+			.append("w", w)
+			.append("h", h)
+			.append("palette", palette.length)
+			.append("pinned", pinned.size())
 			.build();
 	}
 
@@ -335,7 +536,7 @@ public class Grid {
 		 */
 		public Cursor cursor(int x, int y) {
 			final Coordinates coords = new Coordinates(x, y);
-			if(grid.matrix.get(coords) == null) throw new IllegalArgumentException("Empty location: " + coords);
+			if(grid.descriptor(grid.index(coords)) == null) throw new IllegalArgumentException("Empty location: " + coords);
 			return new Cursor(coords);
 		}
 
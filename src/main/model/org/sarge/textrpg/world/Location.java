@@ -16,8 +16,8 @@ import org.sarge.textrpg.common.Actor;
 import org.sarge.textrpg.common.Emission;
 import org.sarge.textrpg.contents.ContentStateChange;
 import org.sarge.textrpg.contents.Contents;
+import org.sarge.textrpg.contents.EmissionContents;
 import org.sarge.textrpg.contents.Parent;
-import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.Percentile;
 import org.springframework.stereotype.Component;
@@ -124,12 +124,14 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 
 	// Properties
 	private final Descriptor descriptor;
-	private transient Percentile light;
 //	protected ExitMap exits;
 
 	// Contents
-	private final Contents contents = new Contents();
-	private final ArrayList<Tracks> tracks = new ArrayList<>();
+	private final EmissionContents contents = new EmissionContents();
+	private TracksRing tracks;
+
+	// Cached neighbourhood
+	transient Neighbourhood neighbourhood;
 
 	/**
 	 * Constructor.
@@ -173,6 +175,15 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 	 */
 	public abstract Area area();
 
+	/**
+	 * Whether the neighbourhood of this location can be cached, see {@link Neighbourhood}.
+	 * A location that is created on demand and is intended to be discarded when unreferenced should override this method, since a cached neighbourhood retains the surrounding locations.
+	 * @return Whether neighbourhoods can be cached
+	 */
+	boolean isCacheable() {
+		return true;
+	}
+
 	/**
 	 * @param p Property
 	 * @return Whether this location has the given property
@@ -263,27 +274,58 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 	}
 
 	/**
-	 * @return Tracks in this location
+	 * @return Tracks in this location ordered by creation time
 	 */
 	public Stream<Tracks> tracks() {
+		if(tracks == null) {
+			return Stream.empty();
+		}
 		return tracks.stream();
 	}
 
 	/**
 	 * Adds a set of tracks to this location.
+	 * Note that the oldest tracks are discarded if this location already contains the maximum number of tracks.
 	 * @param t Tracks to add
+	 * @see TracksRing
 	 */
 	void add(Tracks t) {
+		if(tracks == null) {
+			tracks = new TracksRing(TracksRing.CAPACITY);
+		}
 		tracks.add(t);
 	}
 
 	/**
-	 * Removes a set of tracks from this location.
-	 * @param t Tracks to remove
+	 * Removes tracks created before the given expiry time.
+	 * @param expiry Expiry time
+	 * @return Number of expired tracks
+	 */
+	int expire(long expiry) {
+		// Ignore if no tracks
+		if(tracks == null) {
+			return 0;
+		}
+
+		// Expire tracks
+		final int count = tracks.expire(expiry);
+
+		// Release empty tracks
+		if(tracks.isEmpty()) {
+			tracks = null;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Conceals <b>all</b> tracks in this location.
+	 * @param mod Visibility modifier
 	 */
-	void remove(Tracks t) {
-		assert tracks.contains(t);
-		tracks.remove(t);
+	void conceal(Percentile mod) {
+		if(tracks != null) {
+			tracks.conceal(mod);
+		}
 	}
 
 	/**
@@ -292,15 +334,7 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 	 * @return Intensity
 	 */
 	public Percentile emission(Emission emission) {
-		if(emission == Emission.LIGHT) {
-			if(light == null) {
-				light = Thing.max(emission, contents.stream());
-			}
-			return light;
-		}
-		else {
-			return Thing.max(emission, contents.stream());
-		}
+		return contents.emission(emission);
 	}
 
 	/**
@@ -317,8 +351,9 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 	public boolean notify(ContentStateChange notification) {
 		switch(notification.type()) {
 		case LIGHT:
-			// Flag light-level as dirty
-			light = null;
+		case EMISSION:
+			// Flag emissions as dirty
+			contents.update();
 			break;
 
 		case OTHER:
@@ -384,6 +419,13 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 			return connector;
 		}
 
+		/**
+		 * @return Connectors
+		 */
+		public Stream<Location> connectors() {
+			return connectors.values().stream();
+		}
+
 		/**
 		 * Adds an exit to be patched.
 		 * @param exit Exit wrapper
@@ -408,6 +450,7 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 		 * <ul>
 		 * <li>Constructs bi-directional exits according to the {@link LinkedExit.ReversePolicy} of the exit</li>
 		 * <li>Invokes {@link Location#complete()} on all connectors <b>after</b> the completion of the linking phase</li>
+		 * <li>Invalidates any cached {@link Neighbourhood}</li>
 		 * </ul>
 		 * @throws IllegalArgumentException for an exit-wrapper with an unknown destination (i.e. no matching connector)
 		 * @see Location#complete()
@@ -438,6 +481,7 @@ public abstract class Location extends AbstractEqualsObject implements Parent {
 
 			// Complete linking
 			connectors.values().forEach(Location::complete);
+			Neighbourhood.invalidate();
 		}
 	}
 }
@@ -0,0 +1,171 @@
+package org.sarge.textrpg.world;
+
+import static org.sarge.lib.util.Check.oneOrMore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * The <i>neighbourhood</i> of a location is the set of exits to surrounding locations up to a given link traversal depth.
+ * <p>
+ * Neighbouring locations are discovered by a breadth-first traversal, i.e. each neighbour is reached by the exit on the shortest route from the start location.
+ * The exits are ordered by depth.
+ * <p>
+ * A neighbourhood is computed on demand and cached by the start location.
+ * Cached neighbourhoods are discarded when the link topology of the world is modified, see {@link #invalidate()}.
+ * A neighbourhood that includes a location that cannot be cached (e.g. a grid location) is rebuilt on each look-up, since it would otherwise keep those locations reachable, see {@link Location#isCacheable()}.
+ * <p>
+ * @see LocationBroadcaster
+ * @author Sarge
+ */
+public final class Neighbourhood {
+	private static final AtomicInteger VERSION = new AtomicInteger();
+
+	/**
+	 * Invalidates <b>all</b> cached neighbourhoods, e.g. after exits have been added to or removed from a location.
+	 */
+	public static void invalidate() {
+		VERSION.incrementAndGet();
+	}
+
+	/**
+	 * Looks up the neighbourhood of the given location, building and caching the neighbourhood as required.
+	 * @param start		Start location
+	 * @param max		Maximum traversal depth
+	 * @return Neighbourhood
+	 */
+	static Neighbourhood of(Location start, int max) {
+		// Check for cached neighbourhood
+		final Neighbourhood prev = start.neighbourhood;
+		if((prev != null) && (prev.version == VERSION.get()) && (prev.max >= max)) {
+			return prev;
+		}
+
+		// Otherwise build and cache
+		final Neighbourhood next = build(start, max);
+		if(next.cacheable) {
+			start.neighbourhood = next;
+		}
+		return next;
+	}
+
+	/**
+	 * Builds the neighbourhood of the given location.
+	 * @param start		Start location
+	 * @param max		Maximum traversal depth
+	 * @return Neighbourhood
+	 */
+	static Neighbourhood build(Location start, int max) {
+		oneOrMore(max);
+		final int version = VERSION.get();
+		final Set<Location> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		final List<Exit> exits = new ArrayList<>();
+		final int[] ends = new int[max];
+
+		// Traverse neighbours breadth-first
+		visited.add(start);
+		add(start, visited, exits);
+		ends[0] = exits.size();
+		int depth = 1;
+		while((depth < max) && (ends[depth - 1] > 0)) {
+			// Expand previous level
+			final int from = depth == 1 ? 0 : ends[depth - 2];
+			for(int n = from; n < ends[depth - 1]; ++n) {
+				add(exits.get(n).destination(), visited, exits);
+			}
+			ends[depth] = exits.size();
+
+			// Stop if no more neighbours
+			if(ends[depth] == ends[depth - 1]) {
+				break;
+			}
+			++depth;
+		}
+
+		// Note that an exhausted neighbourhood is valid for any depth
+		final boolean exhausted = depth < max;
+		final int[] levels = exhausted ? Arrays.copyOf(ends, depth) : ends;
+		final boolean cacheable = visited.stream().allMatch(Location::isCacheable);
+		return new Neighbourhood(exits.toArray(new Exit[exits.size()]), levels, exhausted ? Integer.MAX_VALUE : max, version, cacheable);
+	}
+
+	/**
+	 * Adds the exits to unvisited neighbours of the given location.
+	 * @param loc			Location
+	 * @param visited		Visited locations
+	 * @param exits			Exits
+	 */
+	private static void add(Location loc, Set<Location> visited, List<Exit> exits) {
+		loc.exits().stream()
+			.filter(exit -> visited.add(exit.destination()))
+			.forEach(exits::add);
+	}
+
+	private final Exit[] exits;
+	private final int[] ends;
+	private final int max;
+	private final int version;
+	private final boolean cacheable;
+
+	/**
+	 * Constructor.
+	 * @param exits			Exits ordered by depth
+	 * @param ends			End index of the exits at each depth
+	 * @param max			Maximum depth covered by this neighbourhood
+	 * @param version		Topology version
+	 * @param cacheable		Whether this neighbourhood can be cached by the start location
+	 */
+	private Neighbourhood(Exit[] exits, int[] ends, int max, int version, boolean cacheable) {
+		this.exits = exits;
+		this.ends = ends;
+		this.max = max;
+		this.version = version;
+		this.cacheable = cacheable;
+	}
+
+	/**
+	 * @return Number of exits in this neighbourhood
+	 */
+	int size() {
+		return exits.length;
+	}
+
+	/**
+	 * @return Number of depth levels in this neighbourhood
+	 */
+	int levels() {
+		return ends.length;
+	}
+
+	/**
+	 * @param depth Depth (one-based)
+	 * @return End index (exclusive) of the exits at the given depth
+	 */
+	int end(int depth) {
+		return ends[depth - 1];
+	}
+
+	/**
+	 * @param index Index
+	 * @return Exit
+	 */
+	Exit exit(int index) {
+		return exits[index];
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+			.append("exits", exits.length)
+			.append("levels", ends.length)
+			.append("version", version)
+			.toString();
+	}
+}
@@ -9,45 +9,28 @@ import org.sarge.textrpg.util.Percentile;
 
 /**
  * Set of tracks in a location.
+ * <p>
+ * Note that tracks are stored by the location in a bounded ring, i.e. an instance of this class is a snapshot of an entry in that ring.
+ * @see Location#tracks()
  */
 public final class Tracks extends AbstractEqualsObject {
-	private final Location loc;
 	private final String creator;
 	private final Direction dir;
+	private final Percentile vis;
 	private final long created;
 
-	private transient Tracks next;
-	private transient Tracks prev;
-
-	private Percentile vis;
-
 	/**
 	 * Constructor.
-	 * @param location		Location
 	 * @param creator		Creator of these tracks
 	 * @param dir			Direction
-	 * @param vis			Initial visibility
+	 * @param vis			Visibility
 	 * @param created		Creation time
-	 * @param prev			Optional previous set of tracks
 	 */
-	public Tracks(Location location, String creator, Direction dir, Percentile vis, long created, Tracks prev) {
-		this.loc = location;
+	public Tracks(String creator, Direction dir, Percentile vis, long created) {
 		this.creator = notEmpty(creator);
 		this.dir = notNull(dir);
 		this.vis = notNull(vis);
 		this.created = zeroOrMore(created);
-		link(prev);
-	}
-
-	/**
-	 * Links this set of tracks to the previous instance.
-	 * @param prev Previous tracks
-	 */
-	private void link(Tracks prev) {
-		if(prev != null) {
-			this.prev = prev;
-			prev.next = this;
-		}
 	}
 
 	/**
@@ -65,7 +48,7 @@ public final class Tracks extends AbstractEqualsObject {
 	}
 
 	/**
-	 * @return Initial visibility of this set of tracks
+	 * @return Visibility of this set of tracks
 	 */
 	public Percentile visibility() {
 		return vis;
@@ -77,46 +60,4 @@ public final class Tracks extends AbstractEqualsObject {
 	public long created() {
 		return created;
 	}
-
-	/**
-	 * @return Next set of tracks in this trail or <tt>null</tt> if none
-	 */
-	Tracks next() {
-		return next;
-	}
-
-	/**
-	 * @return Previous set of tracks or <tt>null</tt> if none
-	 */
-	Tracks previous() {
-		return prev;
-	}
-
-	/**
-	 * Conceals these tracks.
-	 * @param mod Visibility modifier
-	 */
-	void conceal(Percentile mod) {
-		vis = vis.scale(mod);
-	}
-
-	/**
-	 * Removes this set of tracks.
-	 */
-	void remove() {
-		// Remove next link
-		if(next != null) {
-			next.prev = null;
-			next = null;
-		}
-
-		// Remove previous link
-		if(prev != null) {
-			prev.next = null;
-			prev = null;
-		}
-
-		// Remove tracks
-		loc.remove(this);
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package org.sarge.textrpg.world;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.sarge.lib.util.Check;
+
+/**
+ * Expires the tracks in <b>all</b> locations in bulk.
+ * <p>
+ * Locations are recorded in coarse time <i>buckets</i> as tracks are added.
+ * A bucket is swept once all the tracks added within that bucket have expired, i.e. expiry is amortised across the tracks added in each bucket rather than requiring an event per set of tracks.
+ * <p>
+ * Usage:
+ * <pre>
+ *   final TracksExpiry expiry = new TracksExpiry(width);
+ *   ...
+ *   loc.add(tracks);
+ *   expiry.add(loc, tracks.created());
+ *   ...
+ *   expiry.sweep(now - lifetime);
+ * </pre>
+ * @author Sarge
+ */
+class TracksExpiry {
+	/**
+	 * Bucket of locations.
+	 */
+	private static final class Bucket {
+		private final long index;
+		private final Set<Location> locations = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private Bucket(long index) {
+			this.index = index;
+		}
+	}
+
+	private final long width;
+	private final Deque<Bucket> buckets = new ArrayDeque<>();
+
+	/**
+	 * Constructor.
+	 * @param width Bucket width (ms)
+	 */
+	TracksExpiry(long width) {
+		this.width = Check.oneOrMore(width);
+	}
+
+	/**
+	 * @return Number of buckets
+	 */
+	int size() {
+		return buckets.size();
+	}
+
+	/**
+	 * Records a location to which tracks have been added.
+	 * @param loc		Location
+	 * @param time		Creation time of the tracks
+	 */
+	void add(Location loc, long time) {
+		// Allocate bucket
+		final long index = time / width;
+		Bucket bucket = buckets.peekLast();
+		if((bucket == null) || (bucket.index < index)) {
+			bucket = new Bucket(index);
+			buckets.addLast(bucket);
+		}
+
+		// Record location
+		bucket.locations.add(loc);
+	}
+
+	/**
+	 * Sweeps expired buckets.
+	 * @param expiry Expiry time
+	 * @return Number of expired tracks
+	 */
+	int sweep(long expiry) {
+		int count = 0;
+		while(!buckets.isEmpty()) {
+			// Stop at first bucket that has not completely expired
+			final Bucket bucket = buckets.peekFirst();
+			if((bucket.index + 1) * width > expiry) {
+				break;
+			}
+
+			// Expire tracks
+			for(Location loc : bucket.locations) {
+				count += loc.expire(expiry);
+			}
+			buckets.removeFirst();
+		}
+		return count;
+	}
+}
@@ -0,0 +1,137 @@
+package org.sarge.textrpg.world;
+
+import static org.sarge.lib.util.Check.oneOrMore;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.sarge.textrpg.util.Percentile;
+
+/**
+ * A <i>tracks ring</i> is a fixed-capacity buffer of the tracks in a location.
+ * <p>
+ * Tracks are stored as parallel arrays of primitive fields ordered by creation time.
+ * When the ring is full the oldest tracks are overwritten, i.e. the memory used by the tracks in a busy location is bounded.
+ * <p>
+ * Notes:
+ * <ul>
+ * <li>Creator names are shared references to the name of the entity or vehicle</li>
+ * <li>Tracks are assumed to be added in order of creation time, see {@link #expire(long)}</li>
+ * </ul>
+ * @author Sarge
+ */
+final class TracksRing {
+	/**
+	 * Default capacity.
+	 */
+	static final int CAPACITY = 8;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final String[] creators;
+	private final byte[] dirs;
+	private final float[] vis;
+	private final long[] created;
+
+	private int head;
+	private int size;
+
+	/**
+	 * Constructor.
+	 * @param capacity Ring capacity
+	 */
+	TracksRing(int capacity) {
+		oneOrMore(capacity);
+		this.creators = new String[capacity];
+		this.dirs = new byte[capacity];
+		this.vis = new float[capacity];
+		this.created = new long[capacity];
+	}
+
+	/**
+	 * @return Number of tracks in this ring
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return Whether this ring is empty
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param n Index relative to the oldest tracks
+	 * @return Array index
+	 */
+	private int index(int n) {
+		return (head + n) % creators.length;
+	}
+
+	/**
+	 * Adds a set of tracks to this ring overwriting the oldest tracks if the ring is full.
+	 * @param tracks Tracks to add
+	 */
+	void add(Tracks tracks) {
+		// Allocate entry
+		final int index;
+		if(size == creators.length) {
+			index = head;
+			head = index(1);
+		}
+		else {
+			index = index(size);
+			++size;
+		}
+
+		// Store tracks
+		creators[index] = tracks.creator();
+		dirs[index] = (byte) tracks.direction().ordinal();
+		vis[index] = tracks.visibility().floatValue();
+		created[index] = tracks.created();
+	}
+
+	/**
+	 * Removes tracks created before the given expiry time.
+	 * @param expiry Expiry time
+	 * @return Number of expired tracks
+	 */
+	int expire(long expiry) {
+		int count = 0;
+		while((size > 0) && (created[head] < expiry)) {
+			creators[head] = null;
+			head = index(1);
+			--size;
+			++count;
+		}
+		return count;
+	}
+
+	/**
+	 * Conceals <b>all</b> tracks in this ring.
+	 * @param mod Visibility modifier
+	 */
+	void conceal(Percentile mod) {
+		final float scale = mod.floatValue();
+		for(int n = 0; n < size; ++n) {
+			vis[index(n)] *= scale;
+		}
+	}
+
+	/**
+	 * @return Tracks in this ring ordered by creation time
+	 */
+	Stream<Tracks> stream() {
+		return IntStream.range(0, size).map(this::index).mapToObj(this::get);
+	}
+
+	/**
+	 * @param index Array index
+	 * @return Tracks
+	 */
+	private Tracks get(int index) {
+		return new Tracks(creators[index], DIRECTIONS[dirs[index]], new Percentile(vis[index]), created[index]);
+	}
+}
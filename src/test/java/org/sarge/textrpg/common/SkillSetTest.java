@@ -1,11 +1,16 @@
 package org.sarge.textrpg.common;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -89,4 +94,42 @@ public class SkillSetTest {
 	public void addMissingRequiredSkill() {
 		assertThrows(IllegalStateException.class, () -> set.add(one));
 	}
+
+	@Test
+	public void stream() {
+		set.add(req);
+		set.add(one);
+		set.add(two);
+		assertEquals(List.of(req, one, two), set.stream().collect(toList()));
+	}
+
+	@Test
+	public void copy() {
+		set.add(req);
+		final MutableSkillSet copy = new MutableSkillSet(set);
+		assertEquals(set, copy);
+		assertEquals(true, copy.contains(req));
+	}
+
+	@Test
+	public void copyOnWrite() {
+		set.add(req);
+		final MutableSkillSet copy = new MutableSkillSet(set);
+		copy.add(one);
+		assertEquals(true, copy.contains(one));
+		assertEquals(false, set.contains(one));
+		set.add(one);
+		set.add(two);
+		assertEquals(false, copy.contains(two));
+		assertEquals(one, copy.find(one));
+	}
+
+	@Test
+	public void findOutsideGroup() {
+		final SkillSet skills = mock(SkillSet.class);
+		when(skills.stream()).thenReturn(Stream.of(two));
+		final MutableSkillSet copy = new MutableSkillSet(skills);
+		assertEquals(two, copy.find(two));
+		assertThrows(IllegalArgumentException.class, () -> copy.find(one));
+	}
 }
@@ -86,4 +86,18 @@ public class SkillTest {
 	public void invalidRequiredSkill() {
 		assertThrows(IllegalArgumentException.class, () -> new Skill.Builder().name("invalid").previous(advanced).required(advanced).build());
 	}
+
+	@Test
+	public void ordinal() {
+		assertEquals(skill.ordinal() + 1, required.ordinal());
+		assertEquals(required.ordinal() + 1, advanced.ordinal());
+		assertEquals(skill, Skill.skill(skill.ordinal()));
+	}
+
+	@Test
+	public void level() {
+		assertEquals(0, skill.level());
+		assertEquals(1, advanced.level());
+		assertEquals(0, skill.defaultSkill().level());
+	}
 }
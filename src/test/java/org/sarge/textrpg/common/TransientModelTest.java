@@ -16,12 +16,14 @@ public class TransientModelTest {
 
 	private TransientModel model;
 	private Event.Queue.Manager manager;
+	private Event.Queue queue;
 	private Object item;
 
 	@BeforeEach
 	public void before() {
 		manager = new Event.Queue.Manager();
-		model = new TransientModel(manager.queue("queue"));
+		queue = manager.queue("queue");
+		model = new TransientModel(queue, Duration.ofMinutes(5));
 		item = new Object();
 	}
 
@@ -51,4 +53,45 @@ public class TransientModelTest {
 		assertEquals(false, model.contains(item));
 		assertEquals(0, model.stream().count());
 	}
+
+	@Test
+	public void addInvalidDuration() {
+		assertThrows(IllegalArgumentException.class, () -> model.add(item, Duration.ZERO));
+	}
+
+	@Test
+	public void addForgotten() {
+		model.add(item, DURATION);
+		manager.advance(DURATION.toMillis());
+		model.add(item, DURATION);
+		assertEquals(true, model.contains(item));
+	}
+
+	@Test
+	public void sweep() {
+		model.add(item, DURATION);
+		model.add(new Object(), DURATION);
+		assertEquals(1, queue.size());
+		manager.advance(Duration.ofMinutes(5).toMillis());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void sweepActive() {
+		model.add(item, Duration.ofMinutes(10));
+		manager.advance(Duration.ofMinutes(5).toMillis());
+		assertEquals(true, model.contains(item));
+		assertEquals(1, queue.size());
+		manager.advance(Duration.ofMinutes(5).toMillis());
+		assertEquals(false, model.contains(item));
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void sweepRestarted() {
+		model.add(item, DURATION);
+		manager.advance(Duration.ofMinutes(5).toMillis());
+		model.add(new Object(), DURATION);
+		assertEquals(1, queue.size());
+	}
 }
@@ -39,4 +39,15 @@ public class ContentStateChangeTest {
 	public void constructorInvalidLightLevel() {
 		assertThrows(IllegalArgumentException.class, () -> ContentStateChange.of(Type.LIGHT, new Description("key")));
 	}
+
+	@Test
+	public void constructorInvalidEmission() {
+		assertThrows(IllegalArgumentException.class, () -> ContentStateChange.of(Type.EMISSION, new Description("key")));
+	}
+
+	@Test
+	public void emission() {
+		assertEquals(Type.EMISSION, ContentStateChange.EMISSION_MODIFIED.type());
+		assertThrows(UnsupportedOperationException.class, () -> ContentStateChange.EMISSION_MODIFIED.describe());
+	}
 }
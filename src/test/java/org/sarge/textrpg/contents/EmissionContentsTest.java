@@ -0,0 +1,83 @@
+package org.sarge.textrpg.contents;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.common.Emission;
+import org.sarge.textrpg.util.Percentile;
+
+public class EmissionContentsTest {
+	private EmissionContents contents;
+	private Thing thing;
+
+	@BeforeEach
+	public void before() {
+		contents = new EmissionContents();
+		thing = thing(Percentile.HALF);
+	}
+
+	/**
+	 * Creates an object that emits light.
+	 */
+	private static Thing thing(Percentile light) {
+		final Thing thing = mock(Thing.class);
+		when(thing.parent()).thenReturn(Parent.LIMBO);
+		when(thing.emission(Emission.LIGHT)).thenReturn(light);
+		when(thing.emission(Emission.SMOKE)).thenReturn(Percentile.ZERO);
+		when(thing.emission(Emission.SOUND)).thenReturn(Percentile.ZERO);
+		return thing;
+	}
+
+	@Test
+	public void constructor() {
+		for(Emission e : Emission.values()) {
+			assertEquals(Percentile.ZERO, contents.emission(e));
+		}
+	}
+
+	@Test
+	public void add() {
+		contents.add(thing);
+		assertEquals(Percentile.HALF, contents.emission(Emission.LIGHT));
+		assertEquals(Percentile.ZERO, contents.emission(Emission.SMOKE));
+	}
+
+	@Test
+	public void addMaximum() {
+		final Thing bright = thing(Percentile.ONE);
+		contents.add(thing);
+		contents.add(bright);
+		assertEquals(Percentile.ONE, contents.emission(Emission.LIGHT));
+		contents.remove(bright);
+		assertEquals(Percentile.HALF, contents.emission(Emission.LIGHT));
+	}
+
+	@Test
+	public void addDuplicateIntensity() {
+		final Thing other = thing(Percentile.HALF);
+		contents.add(thing);
+		contents.add(other);
+		contents.remove(thing);
+		assertEquals(Percentile.HALF, contents.emission(Emission.LIGHT));
+	}
+
+	@Test
+	public void remove() {
+		contents.add(thing);
+		contents.remove(thing);
+		assertEquals(Percentile.ZERO, contents.emission(Emission.LIGHT));
+	}
+
+	@Test
+	public void update() {
+		contents.add(thing);
+		when(thing.emission(Emission.LIGHT)).thenReturn(Percentile.ONE);
+		contents.update();
+		assertEquals(Percentile.ONE, contents.emission(Emission.LIGHT));
+		contents.remove(thing);
+		assertEquals(Percentile.ZERO, contents.emission(Emission.LIGHT));
+	}
+}
@@ -2,25 +2,24 @@ package org.sarge.textrpg.entity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
-import java.util.stream.Stream;
-
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.common.ActionTestBase;
-import org.sarge.textrpg.runner.SessionManager;
 import org.sarge.textrpg.util.Calculation;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.Event;
+import org.sarge.textrpg.util.MutableIntegerMap.MutableEntry;
+import org.sarge.textrpg.util.Percentile;
 
 public class EntityValueControllerTest extends ActionTestBase {
 	private EntityValueController controller;
 	private Event.Queue queue;
-	private SessionManager manager;
 	private EntityValueCalculator update;
 
 	@BeforeEach
@@ -32,13 +31,9 @@ public class EntityValueControllerTest extends ActionTestBase {
 			.add(EntityValue.POWER, Calculation.literal(3))
 			.build();
 
-		// Init session manager
-		manager = mock(SessionManager.class);
-		when(manager.players()).thenReturn(Stream.of(actor));
-
 		// Create controller
 		queue = new Event.Queue.Manager().queue("entity");
-		controller = new EntityValueController(queue, manager, update, update);
+		controller = new EntityValueController(queue, update, update);
 		controller.setPeriod(DURATION);
 
 		// Init actor
@@ -49,7 +44,7 @@ public class EntityValueControllerTest extends ActionTestBase {
 
 	@Test
 	public void start() {
-		assertEquals(1, queue.size());
+		assertEquals(0, queue.size());
 	}
 
 	@Test
@@ -68,25 +63,69 @@ public class EntityValueControllerTest extends ActionTestBase {
 			.add(EntityValue.STAMINA, Calculation.literal(0))
 			.add(EntityValue.POWER, Calculation.literal(3))
 			.build();
-		controller = new EntityValueController(queue, manager, update, update);
+		controller = new EntityValueController(queue, update, update);
 		assertThrows(IllegalStateException.class, () -> controller.init(actor));
 	}
 
 	@Test
-	public void increment() {
-		controller.increment();
-		final EntityValueIntegerMap map = actor.model().values();
-		assertEquals(1, map.get(EntityValue.THIRST.key()).get());
-		assertEquals(1, map.get(EntityValue.HUNGER.key()).get());
+	public void accumulate() {
+		controller.init(actor);
+		final Event.Queue.Manager clock = actor.manager().queue().manager();
+		final MutableEntry thirst = actor.model().values().get(EntityValue.THIRST.key());
+		assertEquals(0, thirst.get());
+		clock.advance(DURATION.toMillis());
+		assertEquals(1, thirst.get());
+		assertEquals(1, actor.model().values().get(EntityValue.HUNGER.key()).get());
 	}
 
 	@Test
-	public void incrementAlert() {
-		final EntityValueIntegerMap map = actor.model().values();
-		map.get(EntityValue.THIRST.key()).modify(1);
+	public void accumulateModified() {
+		controller.init(actor);
+		final Event.Queue.Manager clock = actor.manager().queue().manager();
+		final MutableEntry thirst = actor.model().values().get(EntityValue.THIRST.key());
+		clock.advance(DURATION.toMillis() * 3 / 2);
+		assertEquals(0, thirst.modify(-1));
+		clock.advance(DURATION.toMillis() / 2);
+		assertEquals(1, thirst.get());
+	}
+
+	@Test
+	public void alert() {
 		controller.setThreshold(1);
-		controller.increment();
+		controller.init(actor);
+		final Event.Queue.Manager clock = actor.manager().queue().manager();
+		assertEquals(2, actor.manager().queue().size());
+		clock.advance(DURATION.toMillis());
+		verify(actor, never()).alert(any());
+		clock.advance(DURATION.toMillis());
 		verify(actor).alert(new Description("entity.alert.thirst"));
+		verify(actor).alert(new Description("entity.alert.hunger"));
+		assertEquals(2, actor.manager().queue().size());
+	}
+
+	@Test
+	public void alertCritical() {
+		controller.setThreshold(1);
+		controller.init(actor);
+		final Event.Queue.Manager clock = actor.manager().queue().manager();
+		actor.model().values().get(EntityValue.THIRST.key()).set(Percentile.MAX - 1);
+		clock.advance(DURATION.toMillis());
+		verify(actor).alert(new Description("entity.critical.thirst"));
+		assertEquals(1, actor.manager().queue().size());
+	}
+
+	@Test
+	public void alertRescheduled() {
+		controller.setThreshold(1);
+		controller.init(actor);
+		final Event.Queue.Manager clock = actor.manager().queue().manager();
+		final MutableEntry hunger = actor.model().values().get(EntityValue.HUNGER.key());
+		clock.advance(DURATION.toMillis());
+		hunger.modify(-1);
+		clock.advance(DURATION.toMillis());
+		verify(actor, never()).alert(new Description("entity.alert.hunger"));
+		clock.advance(DURATION.toMillis());
+		verify(actor).alert(new Description("entity.alert.hunger"));
 	}
 
 	@Test
@@ -125,4 +164,33 @@ public class EntityValueControllerTest extends ActionTestBase {
 		controller.update(actor);
 		assertEquals(0, actor.model().values().get(EntityValue.POWER.key()).get());
 	}
+
+	@Test
+	public void store() {
+		final EntityValueStore store = new EntityValueStore(1);
+		controller.setStore(store, DURATION);
+		controller.init(actor);
+		assertEquals(1, store.size());
+		assertEquals(true, actor.model().values().isAttached());
+		assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void storeRegenerate() {
+		final EntityValueStore store = new EntityValueStore(1);
+		controller.setStore(store, DURATION);
+		controller.init(actor);
+		actor.model().values().get(EntityValue.POWER.key()).modify(-3);
+		queue.manager().advance(1000L);
+		controller.regenerate();
+		assertEquals(3, actor.model().values().get(EntityValue.POWER.key()).get());
+	}
+
+	@Test
+	public void storeUpdateIgnored() {
+		controller.setStore(new EntityValueStore(1), DURATION);
+		controller.init(actor);
+		controller.update(actor);
+		verifyNoMoreInteractions(actor.manager());
+	}
 }
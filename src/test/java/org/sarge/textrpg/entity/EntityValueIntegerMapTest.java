@@ -3,12 +3,18 @@ package org.sarge.textrpg.entity;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.sarge.textrpg.entity.EntityValue.Key;
+import org.sarge.textrpg.entity.EntityValueIntegerMap.CumulativeEntry;
+import org.sarge.textrpg.util.Event;
 import org.sarge.textrpg.util.IntegerMap.Entry;
 import org.sarge.textrpg.util.MutableIntegerMap.MutableEntry;
 import org.sarge.textrpg.util.Percentile;
@@ -137,4 +143,97 @@ public class EntityValueIntegerMapTest {
 	public void transactionInvalid() {
 		assertThrows(IllegalArgumentException.class, () -> map.transaction(EntityValue.ARMOUR, 42, "doh"));
 	}
+
+	@Nested
+	class CumulativeEntryTests {
+		private Event.Queue.Manager clock;
+		private CumulativeEntry entry;
+
+		@BeforeEach
+		public void before() {
+			map.get(EntityValue.THIRST.key()).set(2);
+			clock = new Event.Queue.Manager();
+			entry = map.accumulate(EntityValue.THIRST, clock, 10);
+		}
+
+		@Test
+		public void constructor() {
+			assertEquals(entry, map.get(EntityValue.THIRST.key()));
+			assertEquals(2, entry.get());
+		}
+
+		@Test
+		public void accumulateExisting() {
+			assertEquals(entry, map.accumulate(EntityValue.THIRST, clock, 10));
+		}
+
+		@Test
+		public void accumulateInvalid() {
+			assertThrows(IllegalArgumentException.class, () -> map.accumulate(EntityValue.ARMOUR, clock, 10));
+		}
+
+		@Test
+		public void get() {
+			clock.advance(25);
+			assertEquals(4, entry.get());
+		}
+
+		@Test
+		public void getClamped() {
+			clock.advance(10 * Percentile.MAX);
+			assertEquals(Percentile.MAX, entry.get());
+		}
+
+		@Test
+		public void set() {
+			clock.advance(25);
+			entry.set(1);
+			assertEquals(1, entry.get());
+			clock.advance(9);
+			assertEquals(1, entry.get());
+			clock.advance(1);
+			assertEquals(2, entry.get());
+		}
+
+		@Test
+		public void setInvalid() {
+			assertThrows(IllegalArgumentException.class, () -> entry.set(-1));
+		}
+
+		@Test
+		public void modify() {
+			clock.advance(25);
+			assertEquals(1, entry.modify(-3));
+			clock.advance(5);
+			assertEquals(2, entry.get());
+		}
+
+		@Test
+		public void modifyInvalid() {
+			assertThrows(IllegalArgumentException.class, () -> entry.modify(-3));
+		}
+
+		@Test
+		public void listener() {
+			final Runnable listener = mock(Runnable.class);
+			entry.listener(listener);
+			entry.set(1);
+			entry.modify(1);
+			verify(listener, times(2)).run();
+		}
+
+		@Test
+		public void time() {
+			assertEquals(30, entry.time(5));
+			assertEquals(0, entry.time(1));
+			clock.advance(25);
+			assertEquals(30, entry.time(5));
+			assertEquals(25, entry.time(3));
+		}
+
+		@Test
+		public void timeInvalid() {
+			assertThrows(IllegalArgumentException.class, () -> entry.time(Percentile.MAX + 1));
+		}
+	}
 }
@@ -0,0 +1,127 @@
+package org.sarge.textrpg.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.entity.EntityValue.Key;
+import org.sarge.textrpg.util.MutableIntegerMap.MutableEntry;
+
+public class EntityValueStoreTest {
+	private EntityValueStore store;
+	private Entity entity;
+	private EntityValueIntegerMap values;
+
+	@BeforeEach
+	public void before() {
+		store = new EntityValueStore(1);
+		entity = entity();
+		values = entity.model().values();
+	}
+
+	private static Entity entity() {
+		final Entity entity = mock(Entity.class);
+		final EntityModel model = mock(EntityModel.class);
+		when(entity.model()).thenReturn(model);
+		when(model.values()).thenReturn(new EntityValueIntegerMap());
+		return entity;
+	}
+
+	@Test
+	public void constructor() {
+		assertEquals(0, store.size());
+		assertEquals(0, store.limit());
+	}
+
+	@Test
+	public void add() {
+		store.add(entity);
+		assertEquals(1, store.size());
+		assertEquals(1, store.limit());
+		assertEquals(true, values.isAttached());
+	}
+
+	@Test
+	public void addCopiesValues() {
+		values.get(EntityValue.HEALTH.key()).set(5);
+		values.get(EntityValue.HEALTH.key()).modify(-2);
+		values.get(EntityValue.HEALTH.key(Key.Type.REGENERATION)).set(1);
+		store.add(entity);
+		assertEquals(3, values.get(EntityValue.HEALTH.key()).get());
+		assertEquals(5, values.get(EntityValue.HEALTH.key(Key.Type.MAXIMUM)).get());
+		assertEquals(1, values.get(EntityValue.HEALTH.key(Key.Type.REGENERATION)).get());
+	}
+
+	@Test
+	public void addAlreadyAttached() {
+		store.add(entity);
+		assertThrows(IllegalStateException.class, () -> store.add(entity));
+	}
+
+	@Test
+	public void grow() {
+		store.add(entity);
+		store.add(entity());
+		assertEquals(2, store.size());
+		assertEquals(2, store.limit());
+	}
+
+	@Test
+	public void primary() {
+		store.add(entity);
+		final MutableEntry entry = values.get(EntityValue.STAMINA.key());
+		entry.set(10);
+		assertEquals(10, entry.get());
+		assertEquals(10, values.get(EntityValue.STAMINA.key(Key.Type.MAXIMUM)).get());
+		assertEquals(4, entry.modify(-6));
+		assertEquals(10, entry.modify(20));
+		assertEquals(0, entry.modify(-20));
+	}
+
+	@Test
+	public void regenerate() {
+		store.add(entity);
+		values.get(EntityValue.POWER.key()).set(10);
+		values.get(EntityValue.POWER.key()).modify(-10);
+		store.regenerate(EntityValue.POWER, new float[]{2.5f});
+		assertEquals(2, values.get(EntityValue.POWER.key()).get());
+		store.regenerate(EntityValue.POWER, new float[]{20});
+		assertEquals(10, values.get(EntityValue.POWER.key()).get());
+	}
+
+	@Test
+	public void regenerateInvalidValue() {
+		assertThrows(IllegalArgumentException.class, () -> store.regenerate(EntityValue.THIRST, new float[1]));
+	}
+
+	@Test
+	public void regenerateInvalidAmounts() {
+		store.add(entity);
+		assertThrows(IllegalArgumentException.class, () -> store.regenerate(EntityValue.POWER, new float[0]));
+	}
+
+	@Test
+	public void detach() {
+		store.add(entity);
+		values.get(EntityValue.HEALTH.key()).set(5);
+		values.detach();
+		assertEquals(false, values.isAttached());
+		assertEquals(0, store.size());
+		assertEquals(5, values.get(EntityValue.HEALTH.key()).get());
+		assertEquals(5, values.get(EntityValue.HEALTH.key(Key.Type.MAXIMUM)).get());
+	}
+
+	@Test
+	public void recycle() {
+		store.add(entity);
+		values.detach();
+		final Entity other = entity();
+		store.add(other);
+		assertEquals(1, store.size());
+		assertEquals(1, store.limit());
+		assertEquals(0, other.model().values().get(EntityValue.HEALTH.key()).get());
+	}
+}
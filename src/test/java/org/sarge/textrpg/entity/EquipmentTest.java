@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
@@ -81,6 +83,15 @@ public class EquipmentTest {
 		assertEquals(Percentile.ZERO, equipment.emission(Emission.SOUND));
 	}
 
+	@Test
+	public void listener() {
+		final Runnable listener = mock(Runnable.class);
+		equipment.listener(listener);
+		equipment.equip(obj, Slot.BACK);
+		equipment.remove(Slot.BACK);
+		verify(listener, times(2)).run();
+	}
+
 	@Test
 	public void weapon() {
 		// Create weapon
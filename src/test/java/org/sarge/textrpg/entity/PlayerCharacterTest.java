@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.function.Consumer;
 
@@ -20,19 +21,27 @@ import org.sarge.textrpg.contents.ContentStateChange;
 import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.entity.PlayerCharacter.PlayerEntityDescriptor;
 import org.sarge.textrpg.entity.PlayerCharacter.PlayerModel;
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.object.WorldObject;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.Event;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.TestHelper;
 import org.sarge.textrpg.world.Faction;
 
 public class PlayerCharacterTest {
 	private PlayerCharacter player;
 	private Consumer<Response> listener;
+	private Race race;
+	private Faction faction;
 
 	@SuppressWarnings("unchecked")
 	@BeforeEach
 	public void before() {
-		final Race race = new Race.Builder("race").build();
-		final Faction.Association association = new Faction.Association(mock(Faction.class), Relationship.FRIENDLY);
+		race = new Race.Builder("race").build();
+		faction = mock(Faction.class);
+		when(faction.name()).thenReturn("faction");
+		final Faction.Association association = new Faction.Association(faction, Relationship.FRIENDLY);
 		final PlayerEntityDescriptor descriptor = new PlayerEntityDescriptor.Builder().name("name").race(race).gender(Gender.FEMALE).alignment(Alignment.EVIL).faction(association.faction()).build();
 		final PlayerModel model = new PlayerModel(association);
 		listener = mock(Consumer.class);
@@ -99,7 +108,12 @@ public class PlayerCharacterTest {
 
 	@Test
 	public void stateChangeNotificationLight() {
-		assertEquals(false, player.notify(ContentStateChange.LIGHT_MODIFIED));
+		assertEquals(true, player.notify(ContentStateChange.LIGHT_MODIFIED));
+	}
+
+	@Test
+	public void stateChangeNotificationEmission() {
+		assertEquals(true, player.notify(ContentStateChange.EMISSION_MODIFIED));
 	}
 
 	@Test
@@ -107,4 +121,50 @@ public class PlayerCharacterTest {
 		final ContentStateChange notification = ContentStateChange.of(ContentStateChange.Type.OTHER, new Description("key"));
 		assertEquals(false, player.notify(notification));
 	}
+
+	/**
+	 * Registers snapshot reference resolvers.
+	 */
+	private SnapshotReader resolve(SnapshotReader in, ObjectDescriptor descriptor) {
+		return in
+			.resolver(Race.class, name -> race)
+			.resolver(Faction.class, name -> faction)
+			.resolver(Skill.class, name -> Skill.NONE)
+			.resolver(ObjectDescriptor.class, name -> descriptor);
+	}
+
+	@Test
+	public void snapshotDescriptor() throws IOException {
+		final PlayerEntityDescriptor descriptor = (PlayerEntityDescriptor) player.descriptor();
+		final SnapshotReader in = resolve(TestHelper.snapshot(descriptor), null);
+		final PlayerEntityDescriptor restored = PlayerEntityDescriptor.read(in);
+		assertEquals("name", restored.name());
+		assertEquals(race, restored.race());
+		assertEquals(Gender.FEMALE, restored.gender());
+		assertEquals(Alignment.EVIL, restored.alignment());
+		assertEquals(faction, restored.faction().get());
+	}
+
+	@Test
+	public void snapshotModel() throws IOException {
+		// Init player model
+		final ObjectDescriptor descriptor = ObjectDescriptor.of("object");
+		descriptor.create().parent(player);
+		player.player().skills().add(Skill.NONE);
+		player.player().trophy().add(race);
+
+		// Restore model
+		final SnapshotReader in = resolve(TestHelper.snapshot(player.player()), descriptor);
+		final PlayerModel model = PlayerModel.read(in);
+		assertEquals(true, model.skills().contains(Skill.NONE));
+		assertEquals(1, model.associations().count());
+		assertEquals(1, model.trophy().count(race));
+
+		// Check inventory is restored when attached to a player
+		final PlayerCharacter restored = new PlayerCharacter((PlayerEntityDescriptor) player.descriptor(), mock(Event.Queue.class), listener, model);
+		assertEquals(1, restored.contents().size());
+		final WorldObject obj = restored.contents().select(WorldObject.class).findAny().get();
+		assertEquals(descriptor, obj.descriptor());
+		assertEquals(restored, obj.parent());
+	}
 }
@@ -0,0 +1,288 @@
+package org.sarge.textrpg.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.common.Gender;
+import org.sarge.textrpg.common.Relationship;
+import org.sarge.textrpg.common.Skill;
+import org.sarge.textrpg.entity.PlayerCharacter.PlayerEntityDescriptor;
+import org.sarge.textrpg.entity.PlayerCharacter.PlayerModel;
+import org.sarge.textrpg.entity.PlayerSettings.Setting;
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.object.WorldObject;
+import org.sarge.textrpg.util.Event;
+import org.sarge.textrpg.util.Journal;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotRepository;
+import org.sarge.textrpg.util.TestHelper;
+import org.sarge.textrpg.world.Faction;
+
+public class PlayerJournalTest {
+	private PlayerJournal journal;
+	private Journal delegate;
+	private PlayerCharacter player;
+	private ObjectDescriptor descriptor;
+	private Skill skill;
+	private Faction.Association association;
+	private Path dir;
+	private SnapshotRepository repository;
+
+	@BeforeEach
+	public void before() throws IOException {
+		// Create player
+		final Faction faction = mock(Faction.class);
+		when(faction.name()).thenReturn("faction");
+		association = new Faction.Association(faction, Relationship.FRIENDLY);
+		final Race race = new Race.Builder("race").build();
+		final PlayerEntityDescriptor entity = new PlayerEntityDescriptor.Builder().name("name").race(race).gender(Gender.FEMALE).build();
+		player = new PlayerCharacter(entity, mock(Event.Queue.class), response -> { /* Ignored */ }, new PlayerModel(association));
+		player.parent(TestHelper.parent());
+
+		// Create journal
+		dir = Files.createTempDirectory("player.journal.test");
+		delegate = new Journal(dir.resolve("journal"), 1024);
+		repository = new SnapshotRepository(dir);
+		descriptor = ObjectDescriptor.of("object");
+		skill = new Skill.Builder().name("skill").build();
+		journal = new PlayerJournal(delegate, Map.of("skill", skill)::get, Map.of("object", descriptor)::get, Map.of("race", race)::get, Map.of("faction", faction)::get);
+	}
+
+	@AfterEach
+	public void after() throws IOException {
+		delegate.close();
+	}
+
+	/**
+	 * Replays the journal into a new model.
+	 * @param location Expected location
+	 * @return Restored model
+	 */
+	private PlayerModel replay(Optional<String> location) throws IOException {
+		final PlayerModel model = new PlayerModel(association);
+		assertEquals(location, journal.replay("name", model));
+		return model;
+	}
+
+	@Test
+	public void recordBaseline() throws IOException {
+		player.player().skills().add(skill);
+		journal.record(player);
+		assertEquals(0, delegate.appended());
+		assertNotNull(journal.toString());
+	}
+
+	@Test
+	public void track() throws IOException {
+		// Check first command after login is journalled
+		journal.track(player);
+		player.settings().modify(Setting.EXPERIENCE, 1);
+		journal.record(player);
+		assertEquals(1, delegate.appended());
+		assertEquals(1, replay(Optional.empty()).settings().toInteger(Setting.EXPERIENCE));
+	}
+
+	@Test
+	public void trackRemoved() throws IOException {
+		// Log out and back in before compaction
+		journal.track(player);
+		journal.remove(player);
+		player.settings().modify(Setting.EXPERIENCE, 2);
+		journal.track(player);
+		assertEquals(1, delegate.appended());
+
+		// Check player is still tracked after compaction
+		journal.compact(repository);
+		player.settings().modify(Setting.EXPERIENCE, 3);
+		journal.record(player);
+		assertEquals(2, delegate.appended());
+	}
+
+	@Test
+	public void recordUnchanged() throws IOException {
+		journal.record(player);
+		journal.record(player);
+		assertEquals(0, delegate.appended());
+	}
+
+	@Test
+	public void record() throws IOException {
+		// Modify player
+		journal.record(player);
+		player.player().skills().add(skill);
+		descriptor.create().parent(player);
+		descriptor.create().parent(player);
+		player.settings().modify(Setting.EXPERIENCE, 42);
+		journal.record(player);
+		assertEquals(1, delegate.appended());
+
+		// Replay and check model
+		final PlayerModel model = replay(Optional.empty());
+		assertEquals(true, model.skills().contains(skill));
+		assertEquals(42, model.settings().toInteger(Setting.EXPERIENCE));
+
+		// Check restored objects
+		final PlayerCharacter restored = new PlayerCharacter((PlayerEntityDescriptor) player.descriptor(), mock(Event.Queue.class), response -> { /* Ignored */ }, model);
+		assertEquals(2, restored.contents().select(WorldObject.class).count());
+	}
+
+	@Test
+	public void recordLost() throws IOException {
+		// Gain and then lose an object
+		journal.record(player);
+		final WorldObject obj = descriptor.create();
+		obj.parent(player);
+		journal.record(player);
+		obj.parent(TestHelper.parent());
+		journal.record(player);
+		assertEquals(2, delegate.appended());
+
+		// Check net result is empty
+		final PlayerModel model = replay(Optional.empty());
+		final PlayerCharacter restored = new PlayerCharacter((PlayerEntityDescriptor) player.descriptor(), mock(Event.Queue.class), response -> { /* Ignored */ }, model);
+		assertEquals(0, restored.contents().size());
+	}
+
+	@Test
+	public void replayOtherPlayer() throws IOException {
+		journal.record(player);
+		player.settings().modify(Setting.EXPERIENCE, 1);
+		journal.record(player);
+		final PlayerModel model = new PlayerModel(association);
+		assertEquals(Optional.empty(), journal.replay("other", model));
+		assertEquals(0, model.settings().toInteger(Setting.EXPERIENCE));
+	}
+
+	@Test
+	public void compact() throws IOException {
+		// Journal modifications
+		journal.record(player);
+		player.settings().modify(Setting.EXPERIENCE, 3);
+		journal.record(player);
+
+		// Compact and check snapshot
+		journal.compact(repository);
+		assertEquals(true, repository.exists(PlayerJournal.snapshot("name")));
+		try(final SnapshotReader in = repository.open(PlayerJournal.snapshot("name"))) {
+			in.resolver(Race.class, name -> player.descriptor().race());
+			in.resolver(Faction.class, name -> association.faction());
+			in.resolver(Skill.class, name -> skill);
+			in.resolver(ObjectDescriptor.class, name -> descriptor);
+			assertEquals("name", PlayerEntityDescriptor.read(in).name());
+			assertEquals(3, PlayerModel.read(in).settings().toInteger(Setting.EXPERIENCE));
+		}
+
+		// Check journal is empty
+		assertEquals(0, replay(Optional.empty()).settings().toInteger(Setting.EXPERIENCE));
+	}
+
+	@Test
+	public void prepare() throws IOException {
+		// Prepare compaction and journal further modifications before it is executed
+		journal.record(player);
+		player.settings().modify(Setting.EXPERIENCE, 1);
+		final PlayerJournal.Compaction compaction = journal.prepare(repository).orElseThrow();
+		assertEquals(false, repository.exists(PlayerJournal.snapshot("name")));
+		player.settings().modify(Setting.EXPERIENCE, 2);
+		journal.record(player);
+
+		// Check compaction cannot overlap
+		assertEquals(Optional.empty(), journal.prepare(repository));
+
+		// Execute compaction and check modifications after the mark are retained
+		compaction.execute();
+		assertNotNull(compaction.toString());
+		assertEquals(3, journal.restore("name", repository).orElseThrow().model().settings().toInteger(Setting.EXPERIENCE));
+		assertEquals(true, journal.prepare(repository).isPresent());
+	}
+
+	@Test
+	public void restore() throws IOException {
+		// Snapshot player and journal further modifications
+		journal.record(player);
+		player.settings().modify(Setting.EXPERIENCE, 1);
+		journal.compact(repository);
+		player.settings().modify(Setting.EXPERIENCE, 2);
+		descriptor.create().parent(player);
+		journal.record(player);
+
+		// Restore player
+		final PlayerJournal.Restored restored = journal.restore("name", repository).orElseThrow();
+		assertEquals("name", restored.descriptor().name());
+		assertEquals(3, restored.model().settings().toInteger(Setting.EXPERIENCE));
+		assertEquals(Optional.empty(), restored.location());
+
+		// Check restored objects
+		final PlayerCharacter pc = new PlayerCharacter(restored.descriptor(), mock(Event.Queue.class), response -> { /* Ignored */ }, restored.model());
+		assertEquals(1, pc.contents().select(WorldObject.class).count());
+	}
+
+	@Test
+	public void restoreNotSnapshotted() throws IOException {
+		assertEquals(Optional.empty(), journal.restore("name", repository));
+	}
+
+	@Test
+	public void remove() throws IOException {
+		// Record final modifications on logout
+		journal.record(player);
+		journal.compact(repository);
+		player.settings().modify(Setting.EXPERIENCE, 4);
+		journal.remove(player);
+		assertEquals(1, delegate.appended());
+
+		// Check player is snapshotted and discarded on compaction
+		journal.compact(repository);
+		assertEquals(4, journal.restore("name", repository).orElseThrow().model().settings().toInteger(Setting.EXPERIENCE));
+		assertEquals(0, replay(Optional.empty()).settings().toInteger(Setting.EXPERIENCE));
+
+		// Check no longer tracked
+		player.settings().modify(Setting.EXPERIENCE, 1);
+		journal.record(player);
+		journal.record(player);
+		assertEquals(1, delegate.appended());
+	}
+
+	@Test
+	public void removeNotTracked() throws IOException {
+		journal.remove(player);
+		assertEquals(0, delegate.appended());
+	}
+
+	@Test
+	public void compactDestroyed() throws IOException {
+		journal.record(player);
+		player.settings().modify(Setting.EXPERIENCE, 5);
+		journal.record(player);
+		player.destroy();
+		journal.compact(repository);
+		assertEquals(5, journal.restore("name", repository).orElseThrow().model().settings().toInteger(Setting.EXPERIENCE));
+	}
+
+	@Test
+	public void compactUntracked() throws IOException {
+		// Snapshot player and journal modifications
+		journal.record(player);
+		journal.compact(repository);
+		player.settings().modify(Setting.EXPERIENCE, 6);
+		journal.record(player);
+
+		// Compact from a new player journal, e.g. after a restart
+		final PlayerJournal restarted = new PlayerJournal(delegate, Map.of("skill", skill)::get, Map.of("object", descriptor)::get, Map.of("race", player.descriptor().race())::get, Map.of("faction", association.faction())::get);
+		restarted.compact(repository);
+
+		// Check journalled modifications are written to the snapshot
+		assertEquals(6, restarted.restore("name", repository).orElseThrow().model().settings().toInteger(Setting.EXPERIENCE));
+	}
+}
@@ -3,12 +3,15 @@ package org.sarge.textrpg.entity;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.sarge.textrpg.entity.PlayerSettings.Setting;
 import org.sarge.textrpg.util.ActionException;
+import org.sarge.textrpg.util.TestHelper;
 
 public class PlayerSettingsTest {
 	private PlayerSettings settings;
@@ -92,4 +95,14 @@ public class PlayerSettingsTest {
 	public void transactionInvalid() throws ActionException {
 		assertThrows(IllegalArgumentException.class, () -> settings.transaction(Setting.AUTO_FLEE, 1, "message"));
 	}
+
+	@Test
+	public void snapshot() throws IOException {
+		settings.set(Setting.SWIM, true);
+		settings.set(Setting.AUTO_FLEE, 42);
+		final PlayerSettings restored = PlayerSettings.read(TestHelper.snapshot(settings));
+		assertEquals(settings, restored);
+		assertEquals(true, restored.toBoolean(Setting.SWIM));
+		assertEquals(42, restored.toInteger(Setting.AUTO_FLEE));
+	}
 }
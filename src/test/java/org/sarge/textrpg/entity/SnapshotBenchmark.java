@@ -0,0 +1,149 @@
+package org.sarge.textrpg.entity;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sarge.textrpg.common.Gender;
+import org.sarge.textrpg.common.Relationship;
+import org.sarge.textrpg.entity.PlayerCharacter.PlayerEntityDescriptor;
+import org.sarge.textrpg.entity.PlayerCharacter.PlayerModel;
+import org.sarge.textrpg.entity.PlayerSettings.Setting;
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.util.Event;
+import org.sarge.textrpg.util.Registry;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.SnapshotWriter;
+import org.sarge.textrpg.world.Faction;
+
+/**
+ * Measures the time to write and restore a snapshot of a world comprising a number of players carrying a total of 10k objects.
+ * <p>
+ * The size of the snapshot is reported as the <tt>bytes</tt> secondary result of the write benchmark.
+ * <p>
+ * Run with <tt>java -cp target/test-classes:... org.openjdk.jmh.Main SnapshotBenchmark</tt>
+ * @author Sarge
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+	private static final int DESCRIPTORS = 100;
+
+	@Param({"10000"})
+	private int objects;
+
+	@Param({"10", "100"})
+	private int players;
+
+	private final List<PlayerCharacter> world = new ArrayList<>();
+	private Registry<ObjectDescriptor> descriptors;
+	private Race race;
+	private Faction faction;
+	private Path path;
+
+	/**
+	 * Snapshot size counter.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Size {
+		public long bytes;
+	}
+
+	@Setup
+	public void setup() throws IOException {
+		// Create shared data
+		race = new Race.Builder("race").build();
+		faction = mock(Faction.class);
+		when(faction.name()).thenReturn("faction");
+		final Registry.Builder<ObjectDescriptor> builder = new Registry.Builder<>(ObjectDescriptor::name);
+		final List<ObjectDescriptor> list = new ArrayList<>();
+		for(int n = 0; n < DESCRIPTORS; ++n) {
+			final ObjectDescriptor descriptor = ObjectDescriptor.of("object." + n);
+			builder.add(descriptor);
+			list.add(descriptor);
+		}
+		descriptors = builder.build();
+
+		// Create players
+		for(int n = 0; n < players; ++n) {
+			final PlayerEntityDescriptor descriptor = new PlayerEntityDescriptor.Builder().name("player." + n).race(race).gender(Gender.FEMALE).attribute(Attribute.STRENGTH, n).build();
+			final PlayerModel model = new PlayerModel(new Faction.Association(faction, Relationship.FRIENDLY));
+			model.trophy().add(race);
+			final PlayerCharacter player = new PlayerCharacter(descriptor, mock(Event.Queue.class), response -> { /* Ignored */ }, model);
+			player.settings().set(Setting.CASH, 1 + n);
+			world.add(player);
+		}
+
+		// Distribute objects
+		for(int n = 0; n < objects; ++n) {
+			list.get(n % DESCRIPTORS).create().parent(world.get(n % players));
+		}
+
+		// Create snapshot file
+		path = Files.createTempFile("snapshot", ".benchmark");
+		write(new Size());
+	}
+
+	@TearDown
+	public void teardown() throws IOException {
+		Files.deleteIfExists(path);
+	}
+
+	@Benchmark
+	public void write(Size size) throws IOException {
+		try(final SnapshotWriter out = new SnapshotWriter(FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING))) {
+			out.writeSize(world.size());
+			for(PlayerCharacter player : world) {
+				out.write((PlayerEntityDescriptor) player.descriptor());
+				out.write(player.player());
+			}
+			out.flush();
+			size.bytes = out.size();
+		}
+	}
+
+	@Benchmark
+	public List<Object> read() throws IOException {
+		try(final SnapshotReader in = new SnapshotReader(FileChannel.open(path, READ))) {
+			in.resolver(Race.class, name -> race);
+			in.resolver(Faction.class, name -> faction);
+			in.resolver(ObjectDescriptor.class, descriptors::get);
+			final int size = in.readSize();
+			final List<Object> restored = new ArrayList<>();
+			for(int n = 0; n < size; ++n) {
+				restored.add(PlayerEntityDescriptor.read(in));
+				restored.add(PlayerModel.read(in));
+			}
+			return restored;
+		}
+	}
+}
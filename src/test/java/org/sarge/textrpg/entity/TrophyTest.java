@@ -2,11 +2,14 @@ package org.sarge.textrpg.entity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.util.Description;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.TestHelper;
 
 public class TrophyTest {
 	private Trophy trophy;
@@ -32,4 +35,13 @@ public class TrophyTest {
 		final var expected = new Description.Builder("trophy.entry").name("race").add("count", 1).build();
 		assertEquals(List.of(expected), description);
 	}
+
+	@Test
+	public void snapshot() throws IOException {
+		trophy.add(race);
+		final SnapshotReader in = TestHelper.snapshot(trophy);
+		in.resolver(Race.class, name -> race);
+		final Trophy restored = Trophy.read(in);
+		assertEquals(1, restored.count(race));
+	}
 }
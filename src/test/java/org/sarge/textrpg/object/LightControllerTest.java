@@ -13,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.common.ActionTestBase;
 import org.sarge.textrpg.common.Emission;
+import org.sarge.textrpg.contents.ContentStateChange;
 import org.sarge.textrpg.entity.EmissionNotification;
 import org.sarge.textrpg.util.ActionException;
 import org.sarge.textrpg.util.Event;
@@ -75,6 +76,18 @@ public class LightControllerTest extends ActionTestBase {
 		verify(decay).decay(light);
 	}
 
+	@Test
+	public void expire() {
+		final Event.Queue.Manager manager = new Event.Queue.Manager();
+		controller = new LightController(manager, decay, broadcaster);
+		when(light.name()).thenReturn("light");
+		controller.register(light);
+		manager.advance(42);
+		verify(light).expire();
+		verify(light).raise(ContentStateChange.LIGHT_MODIFIED);
+		verify(decay).decay(light);
+	}
+
 	@Test
 	public void register() {
 		final Event.Holder holder = mock(Event.Holder.class);
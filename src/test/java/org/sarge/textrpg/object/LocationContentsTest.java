@@ -0,0 +1,103 @@
+package org.sarge.textrpg.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.common.Openable;
+import org.sarge.textrpg.contents.LimitedContents.LimitsMap;
+import org.sarge.textrpg.util.SnapshotReader;
+import org.sarge.textrpg.util.TestHelper;
+import org.sarge.textrpg.world.Area;
+import org.sarge.textrpg.world.DefaultLocation;
+import org.sarge.textrpg.world.Location;
+
+public class LocationContentsTest {
+	private Location loc, empty;
+	private ObjectDescriptor object, fixture;
+	private OpenableContainer container;
+	private Map<String, ObjectDescriptor> descriptors;
+
+	@BeforeEach
+	public void before() {
+		// Create locations
+		loc = create("loc");
+		empty = create("empty");
+
+		// Add a fixture and a container
+		object = ObjectDescriptor.of("object");
+		fixture = ObjectDescriptor.fixture("fixture");
+		fixture.create().parent(loc);
+		container = new OpenableContainer(new OpenableContainer.Descriptor(new ObjectDescriptor.Builder("container").reset(Duration.ofMinutes(1)).build(), "in", LimitsMap.EMPTY, Openable.Lock.DEFAULT));
+		container.model().set(Openable.State.OPEN);
+		container.parent(loc);
+		object.create().parent(container);
+
+		// Create descriptor look-up
+		descriptors = Map.of("object", object, "fixture", fixture, "container", container.descriptor());
+	}
+
+	private static Location create(String name) {
+		return new DefaultLocation(new Location.Descriptor(name), Area.ROOT);
+	}
+
+	private SnapshotReader snapshot() throws IOException {
+		return TestHelper.snapshot(LocationContents.of(Stream.of(loc, empty))).resolver(ObjectDescriptor.class, descriptors::get);
+	}
+
+	@Test
+	public void of() {
+		final LocationContents contents = LocationContents.of(Stream.of(loc, empty));
+		assertEquals(2, contents.size());
+	}
+
+	@Test
+	public void restore() throws IOException {
+		// Take snapshot and remove the container
+		final SnapshotReader in = snapshot();
+		container.destroy();
+
+		// Reload world with initial contents
+		final Location.Linker linker = new Location.Linker();
+		final Location reloaded = create("loc");
+		final Location other = create("empty");
+		fixture.create().parent(reloaded);
+		object.create().parent(reloaded);
+		object.create().parent(other);
+		linker.add(reloaded);
+		linker.add(other);
+
+		// Restore snapshot
+		final LocationContents contents = LocationContents.read(in);
+		assertEquals(2, contents.restore(linker));
+
+		// Check initial objects are replaced by the restored container and the fixture is retained
+		assertEquals(2, reloaded.contents().size());
+		assertEquals(1, reloaded.contents().select(WorldObject.class).filter(obj -> obj.descriptor() == fixture).count());
+		final OpenableContainer restored = reloaded.contents().select(OpenableContainer.class).findAny().get();
+		assertEquals(true, restored.model().isOpen());
+		assertEquals(1, restored.contents().size());
+
+		// Check emptied location
+		assertEquals(0, other.contents().size());
+	}
+
+	@Test
+	public void restoreUnknownLocation() throws IOException {
+		// Reload world with a new location and without the snapshot locations
+		final Location.Linker linker = new Location.Linker();
+		final Location added = create("added");
+		object.create().parent(added);
+		linker.add(added);
+
+		// Check only known locations are restored
+		final LocationContents contents = LocationContents.read(snapshot());
+		assertEquals(0, contents.restore(linker));
+		assertEquals(1, added.contents().size());
+	}
+}
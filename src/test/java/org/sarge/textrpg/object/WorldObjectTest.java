@@ -9,7 +9,9 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,14 +20,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.sarge.textrpg.common.Damage;
 import org.sarge.textrpg.common.Emission;
+import org.sarge.textrpg.common.Openable;
 import org.sarge.textrpg.common.Size;
 import org.sarge.textrpg.contents.ContentStateChange;
 import org.sarge.textrpg.contents.Contents;
+import org.sarge.textrpg.contents.LimitedContents.LimitsMap;
 import org.sarge.textrpg.contents.Parent;
 import org.sarge.textrpg.contents.TrackedContents;
 import org.sarge.textrpg.object.WorldObject.Interaction;
 import org.sarge.textrpg.util.Description;
 import org.sarge.textrpg.util.Percentile;
+import org.sarge.textrpg.util.SnapshotReader;
 import org.sarge.textrpg.util.TestHelper;
 import org.sarge.textrpg.util.TextHelper;
 
@@ -194,4 +199,37 @@ public class WorldObjectTest {
 		obj.parent(TestHelper.parent());
 		assertThrows(AssertionError.class, () -> obj.destroy());
 	}
+
+	@Test
+	public void snapshot() throws IOException {
+		// Create an open container
+		final OpenableContainer container = new OpenableContainer(new OpenableContainer.Descriptor(new ObjectDescriptor.Builder("container").reset(Duration.ofMinutes(1)).build(), "in", LimitsMap.EMPTY, Openable.Lock.DEFAULT));
+		container.model().set(Openable.State.OPEN);
+
+		// Add a worn object and a stack
+		final DurableObject durable = new DurableObject.Descriptor(ObjectDescriptor.of("tool"), 2).create();
+		durable.use();
+		durable.parent(container);
+		new ObjectStack(ObjectDescriptor.of("arrow"), 3).parent(container);
+
+		// Write and restore container
+		final Map<String, ObjectDescriptor> descriptors = Map.of(
+			"container", container.descriptor(),
+			"tool", durable.descriptor(),
+			"arrow", ObjectDescriptor.of("arrow")
+		);
+		final SnapshotReader in = TestHelper.snapshot(out -> WorldObject.write(container, out)).resolver(ObjectDescriptor.class, descriptors::get);
+		final OpenableContainer restored = (OpenableContainer) WorldObject.read(in);
+
+		// Check container state
+		assertEquals(true, restored.model().isOpen());
+		assertEquals(2, restored.contents().size());
+
+		// Check contents
+		final DurableObject tool = restored.contents().select(DurableObject.class).findAny().get();
+		assertEquals(1, tool.wear());
+		assertEquals(restored, tool.parent());
+		final ObjectStack stack = restored.contents().select(ObjectStack.class).findAny().get();
+		assertEquals(3, stack.count());
+	}
 }
@@ -55,4 +55,24 @@ public class ArgumentParserGroupTest {
 		assertEquals(parser, iterator.next());
 		assertEquals(false, iterator.hasNext());
 	}
+
+	@Test
+	public void with() {
+		// Create group with an additional registry
+		final ArgumentParser.Registry registry = type -> List.of(parser);
+		group.add(() -> registry);
+		final ArgumentParserGroup copy = group.with(() -> registry);
+		assertNotNull(copy);
+
+		// Check copy contains both registries
+		final Iterator<ArgumentParser<?>> iterator = copy.iterator(Object.class);
+		assertEquals(parser, iterator.next());
+		assertEquals(parser, iterator.next());
+		assertEquals(false, iterator.hasNext());
+
+		// Check original group is unchanged
+		final Iterator<ArgumentParser<?>> original = group.iterator(Object.class);
+		assertEquals(parser, original.next());
+		assertEquals(false, original.hasNext());
+	}
 }
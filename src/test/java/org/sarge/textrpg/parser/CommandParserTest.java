@@ -1,18 +1,22 @@
 package org.sarge.textrpg.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.common.ArgumentParser;
+import org.sarge.textrpg.contents.Thing;
 import org.sarge.textrpg.entity.PlayerCharacter;
 import org.sarge.textrpg.runner.ActionDescriptor;
 import org.sarge.textrpg.runner.ActionDescriptor.ActionParameter;
@@ -24,6 +28,7 @@ public class CommandParserTest {
 	private NameStore store;
 	private PlayerCharacter actor;
 	private ArgumentParser<?> def;
+	private ArgumentParserGroup group;
 	private ActionDescriptor descriptor;
 
 	@BeforeEach
@@ -32,33 +37,67 @@ public class CommandParserTest {
 		def = mock(ArgumentParser.class);
 		action = mock(ActionParser.class);
 		store = mock(NameStore.class);
+		when(store.names("verb")).thenAnswer(ignore -> Stream.of("verb", "v"));
 		parser = new CommandParser(action, mock(ArgumentParser.Registry.class), store, Set.of());
 		descriptor = mock(ActionDescriptor.class);
 		when(descriptor.name()).thenReturn("verb");
 		parser.add(descriptor);
+		group = parser.group(actor, def);
+	}
+
+	@Test
+	public void group() {
+		assertNotNull(group);
+		final Iterator<ArgumentParser<?>> itr = group.iterator(Thing.class);
+		assertEquals(def, itr.next());
+		assertEquals(PreviousObjectArgumentParser.class, itr.next().getClass());
+		assertEquals(false, itr.hasNext());
 	}
 
 	@Test
 	public void parseEmptyCommand() {
-		assertThrows(IllegalArgumentException.class, () -> parser.parse(actor, "", store, def));
+		assertThrows(IllegalArgumentException.class, () -> parser.parse(actor, "", store, group));
 	}
 
 	@Test
 	public void parseAction() {
-		when(store.matches("verb", "verb")).thenReturn(true);
-		when(action.parse(eq(actor), eq(descriptor), any(), any(), any())).thenReturn(new ParserResult(mock(Command.class)));
-		final ParserResult result = parser.parse(actor, "verb", store, def);
+		when(action.parse(eq(actor), eq(descriptor), eq(group), any(), any())).thenReturn(new ParserResult(mock(Command.class)));
+		final ParserResult result = parser.parse(actor, "verb", store, group);
+		assertEquals(true, result.isParsed());
+	}
+
+	@Test
+	public void parseSynonym() {
+		when(action.parse(eq(actor), eq(descriptor), eq(group), any(), any())).thenReturn(new ParserResult(mock(Command.class)));
+		final ParserResult result = parser.parse(actor, "v", store, group);
 		assertEquals(true, result.isParsed());
 	}
 
 	@Test
 	public void parseUnknownAction() {
-		assertEquals(ParserResult.FAILED, parser.parse(actor, "cobblers", store, def));
+		assertEquals(ParserResult.FAILED, parser.parse(actor, "cobblers", store, group));
+		assertEquals(ParserResult.FAILED, parser.parse(actor, "ver", store, group));
 	}
 
 	@Test
 	public void parseInsufficientWords() {
 		when(descriptor.parameters()).thenReturn(List.of(new ActionParameter(Object.class, null)));
-		assertEquals(ParserResult.FAILED, parser.parse(actor, "verb", store, def));
+		assertEquals(ParserResult.FAILED, parser.parse(actor, "verb", store, group));
+	}
+
+	@Test
+	public void setActions() {
+		final ActionDescriptor other = mock(ActionDescriptor.class);
+		when(other.name()).thenReturn("other");
+		when(store.names("other")).thenAnswer(ignore -> Stream.of("other"));
+		when(action.parse(eq(actor), eq(other), eq(group), any(), any())).thenReturn(new ParserResult(mock(Command.class)));
+		parser.setActions(List.of(other));
+		assertEquals(true, parser.parse(actor, "other", store, group).isParsed());
+	}
+
+	@Test
+	public void latency() {
+		parser.parse(actor, "cobblers", store, group);
+		assertEquals(1, parser.latency().count());
 	}
 }
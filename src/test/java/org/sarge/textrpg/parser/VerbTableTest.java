@@ -0,0 +1,66 @@
+package org.sarge.textrpg.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.runner.ActionDescriptor;
+import org.sarge.textrpg.util.NameStore;
+
+public class VerbTableTest {
+	private VerbTable table;
+	private ActionDescriptor look, examine;
+
+	@BeforeEach
+	public void before() {
+		// Create actions
+		look = mock(ActionDescriptor.class);
+		examine = mock(ActionDescriptor.class);
+		when(look.name()).thenReturn("action.look");
+		when(examine.name()).thenReturn("action.examine");
+
+		// Create name-store
+		final NameStore store = mock(NameStore.class);
+		when(store.names("action.look")).thenAnswer(ignore -> Stream.of("look", "l"));
+		when(store.names("action.examine")).thenAnswer(ignore -> Stream.of("examine", "x", "look"));
+
+		// Build table
+		table = VerbTable.build(List.of(look, examine), store);
+	}
+
+	@Test
+	public void size() {
+		assertEquals(4, table.size());
+	}
+
+	@Test
+	public void actions() {
+		assertEquals(List.of(look, examine), table.actions("look"));
+		assertEquals(List.of(look), table.actions("l"));
+		assertEquals(List.of(examine), table.actions("examine"));
+		assertEquals(List.of(examine), table.actions("x"));
+	}
+
+	@Test
+	public void actionsPrefix() {
+		assertEquals(List.of(), table.actions("lo"));
+		assertEquals(List.of(), table.actions("looks"));
+	}
+
+	@Test
+	public void actionsUnknown() {
+		assertEquals(List.of(), table.actions("cobblers"));
+		assertEquals(List.of(), table.actions(""));
+	}
+
+	@Test
+	public void empty() {
+		assertEquals(0, VerbTable.EMPTY.size());
+		assertEquals(List.of(), VerbTable.EMPTY.actions("look"));
+	}
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
@@ -84,4 +85,18 @@ public class AbstractConnectionTest {
 		con.start(listener);
 		listener.closed();
 	}
+
+	@Test
+	public void endOfStream() {
+		con = new AbstractConnection(() -> null) {
+			@Override
+			public void write(String str) {
+				throw new UnsupportedOperationException();
+			}
+		};
+		con.start(listener);
+		assertTimeout(Duration.ofSeconds(5), () -> {
+			verify(listener, timeout(1000)).closed();
+		});
+	}
 }
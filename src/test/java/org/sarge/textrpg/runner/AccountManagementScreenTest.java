@@ -2,10 +2,14 @@ package org.sarge.textrpg.runner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.entity.PlayerCharacter;
@@ -46,15 +50,44 @@ public class AccountManagementScreenTest {
 
 	@Test
 	public void play() {
-		final Screen play = mock(Screen.class);
+		final PlayScreen play = mock(PlayScreen.class);
 		screen.setPlay(play);
 		final PlayerCharacter pc = mock(PlayerCharacter.class);
 		when(repository.load("name")).thenReturn(pc);
 		account.add("name");
+		assertEquals(play, screen.handle(session, "play name"));
+		verify(session).set(pc);
+	}
+
+	@Test
+	public void playRestore() throws IOException {
+		final PlayerLoader loader = mock(PlayerLoader.class);
+		final PlayerCharacter pc = mock(PlayerCharacter.class);
+		when(loader.load(eq("name"), any())).thenReturn(pc);
+		screen.setPlayerLoader(loader);
+		account.add("name");
 		screen.handle(session, "play name");
 		verify(session).set(pc);
 	}
 
+	@Test
+	public void playRestoreFailed() throws IOException {
+		final PlayerLoader loader = mock(PlayerLoader.class);
+		when(loader.load(eq("name"), any())).thenThrow(IOException.class);
+		screen.setPlayerLoader(loader);
+		account.add("name");
+		assertThrows(ScreenException.class, () -> screen.handle(session, "play name"));
+	}
+
+	@Test
+	public void playRestoreUnknown() throws IOException {
+		final PlayerLoader loader = mock(PlayerLoader.class);
+		when(loader.load(eq("name"), any())).thenThrow(new IllegalStateException("Unknown player: name"));
+		screen.setPlayerLoader(loader);
+		account.add("name");
+		assertThrows(ScreenException.class, () -> screen.handle(session, "play name"));
+	}
+
 	@Test
 	public void playUnknownPlayer() {
 		assertThrows(ScreenException.class, () -> screen.handle(session, "player cobblers"));
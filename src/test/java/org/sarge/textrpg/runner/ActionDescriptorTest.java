@@ -58,6 +58,7 @@ public class ActionDescriptorTest {
 		assertEquals(true, descriptor.isActorRequired());
 		assertEquals(true, descriptor.isEffortAction());
 		assertEquals(42, descriptor.order());
+		assertEquals(4, descriptor.arity());
 	}
 
 	@Test
@@ -0,0 +1,109 @@
+package org.sarge.textrpg.runner;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sarge.textrpg.common.Response;
+import org.sarge.textrpg.entity.Entity;
+import org.sarge.textrpg.object.WorldObject;
+import org.sarge.textrpg.world.Direction;
+
+/**
+ * Compares reflective invocation of action methods against compiled {@link ActionInvoker}s.
+ * <p>
+ * The benchmark action mirrors the signatures of the common <tt>look</tt>, <tt>take</tt> and <tt>move</tt> verbs.
+ * The reflective variants include the argument list and array copy performed by the previous implementation.
+ * <p>
+ * @author Sarge
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActionInvokerBenchmark {
+	private static final Response RESPONSE = Response.of("response");
+
+	/**
+	 * Action with representative method signatures.
+	 */
+	public static class BenchmarkAction {
+		public Response look() {
+			return RESPONSE;
+		}
+
+		public Response take(Entity actor, WorldObject obj) {
+			return RESPONSE;
+		}
+
+		public Response move(Entity actor, Direction dir) {
+			return RESPONSE;
+		}
+	}
+
+	private final BenchmarkAction action = new BenchmarkAction();
+
+	private Method look, take, move;
+	private ActionInvoker lookInvoker, takeInvoker, moveInvoker;
+
+	@Setup
+	public void setup() throws Exception {
+		look = BenchmarkAction.class.getMethod("look");
+		take = BenchmarkAction.class.getMethod("take", Entity.class, WorldObject.class);
+		move = BenchmarkAction.class.getMethod("move", Entity.class, Direction.class);
+		lookInvoker = ActionInvoker.of(action, look);
+		takeInvoker = ActionInvoker.of(action, take);
+		moveInvoker = ActionInvoker.of(action, move);
+	}
+
+	private Object reflect(Method method, Object... args) throws Exception {
+		final List<Object> list = new ArrayList<>();
+		for(Object arg : args) {
+			list.add(arg);
+		}
+		return method.invoke(action, list.toArray());
+	}
+
+	@Benchmark
+	public Object lookReflective() throws Exception {
+		return reflect(look);
+	}
+
+	@Benchmark
+	public Object lookCompiled() throws Exception {
+		return lookInvoker.invoke(new Object[0]);
+	}
+
+	@Benchmark
+	public Object takeReflective() throws Exception {
+		return reflect(take, null, null);
+	}
+
+	@Benchmark
+	public Object takeCompiled() throws Exception {
+		return takeInvoker.invoke(new Object[2]);
+	}
+
+	@Benchmark
+	public Object moveReflective() throws Exception {
+		return reflect(move, null, Direction.NORTH);
+	}
+
+	@Benchmark
+	public Object moveCompiled() throws Exception {
+		return moveInvoker.invoke(new Object[]{null, Direction.NORTH});
+	}
+}
@@ -0,0 +1,76 @@
+package org.sarge.textrpg.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.common.Response;
+import org.sarge.textrpg.util.ActionException;
+import org.sarge.textrpg.util.TestHelper;
+
+public class ActionInvokerTest {
+	private static final Response RESPONSE = Response.of("response");
+
+	@SuppressWarnings("unused")
+	private static class MockAction {
+		private Object[] args;
+
+		public Response method(String str, int num) {
+			args = new Object[]{str, num};
+			return RESPONSE;
+		}
+
+		public Response fail() throws ActionException {
+			throw ActionException.of("doh");
+		}
+
+		public Response error() {
+			throw new IllegalStateException();
+		}
+
+		public String invalid() {
+			return null;
+		}
+	}
+
+	private MockAction action;
+
+	@BeforeEach
+	public void before() {
+		action = new MockAction();
+	}
+
+	@Test
+	public void invoke() throws Exception {
+		final ActionInvoker invoker = ActionInvoker.of(action, MockAction.class.getMethod("method", String.class, int.class));
+		assertNotNull(invoker);
+		assertEquals(RESPONSE, invoker.invoke(new Object[]{"string", 42}));
+		assertEquals("string", action.args[0]);
+		assertEquals(42, action.args[1]);
+	}
+
+	@Test
+	public void invokeActionException() throws Exception {
+		final ActionInvoker invoker = ActionInvoker.of(action, MockAction.class.getMethod("fail"));
+		TestHelper.expect("doh", () -> invoker.invoke(new Object[0]));
+	}
+
+	@Test
+	public void invokeRuntimeException() throws Exception {
+		final ActionInvoker invoker = ActionInvoker.of(action, MockAction.class.getMethod("error"));
+		assertThrows(IllegalStateException.class, () -> invoker.invoke(new Object[0]));
+	}
+
+	@Test
+	public void invokeInvalidArgumentCount() throws Exception {
+		final ActionInvoker invoker = ActionInvoker.of(action, MockAction.class.getMethod("method", String.class, int.class));
+		assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Object[0]));
+	}
+
+	@Test
+	public void invalidReturnType() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> ActionInvoker.of(action, MockAction.class.getMethod("invalid")));
+	}
+}
@@ -6,7 +6,6 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -77,6 +76,7 @@ public class CommandExecutorTest extends ActionTestBase {
 	private void addRequiredObject(boolean inject) {
 		final RequiredDescriptor descriptor = new RequiredDescriptor("cat", inject);
 		when(action.required()).thenReturn(List.of(descriptor));
+		when(action.arity()).thenReturn(inject ? 1 : 0);
 	}
 
 	/**
@@ -91,16 +91,17 @@ public class CommandExecutorTest extends ActionTestBase {
 	@Test
 	public void execute() throws Exception {
 		executor.execute(command, light);
-		verify(action).invoke(List.of());
+		verify(action).invoke(new Object[0]);
 	}
 
 	@Test
 	public void executeArguments() throws Exception {
 		final Object arg = new Object();
 		when(action.parameters()).thenReturn(List.of(new ActionParameter(Object.class, null)));
+		when(action.arity()).thenReturn(1);
 		command = new Command(actor, action, List.of(arg), AbstractAction.Effort.NORMAL);
 		executor.execute(command, light);
-		verify(action).invoke(List.of(arg));
+		verify(action).invoke(new Object[]{arg});
 	}
 
 	@Test
@@ -116,15 +117,17 @@ public class CommandExecutorTest extends ActionTestBase {
 	@Test
 	public void executeRequiresActor() throws Exception {
 		when(action.isActorRequired()).thenReturn(true);
+		when(action.arity()).thenReturn(1);
 		executor.execute(command, light);
-		verify(action).invoke(List.of(actor));
+		verify(action).invoke(new Object[]{actor});
 	}
 
 	@Test
 	public void executeEffortAction() throws Exception {
 		when(action.isEffortAction()).thenReturn(true);
+		when(action.arity()).thenReturn(1);
 		executor.execute(command, light);
-		verify(action).invoke(List.of(AbstractAction.Effort.NORMAL));
+		verify(action).invoke(new Object[]{AbstractAction.Effort.NORMAL});
 	}
 
 	@Test
@@ -165,7 +168,7 @@ public class CommandExecutorTest extends ActionTestBase {
 		addObject();
 		addRequiredObject(false);
 		executor.execute(command, light);
-		verify(action).invoke(List.of());
+		verify(action).invoke(new Object[0]);
 	}
 
 	@Test
@@ -173,7 +176,7 @@ public class CommandExecutorTest extends ActionTestBase {
 		final WorldObject obj = addObject();
 		addRequiredObject(true);
 		executor.execute(command, light);
-		verify(action).invoke(List.of(obj));
+		verify(action).invoke(new Object[]{obj});
 	}
 
 	@Test
@@ -204,8 +207,7 @@ public class CommandExecutorTest extends ActionTestBase {
 
 	@Test
 	public void executeThrowsActionException() throws Exception {
-		final InvocationTargetException e = new InvocationTargetException(ActionException.of("doh"));
-		when(action.invoke(List.of())).thenThrow(e);
+		when(action.invoke(new Object[0])).thenThrow(ActionException.of("doh"));
 		TestHelper.expect("doh", () -> executor.execute(command, light));
 	}
 }
@@ -0,0 +1,92 @@
+package org.sarge.textrpg.runner;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.sarge.textrpg.util.ThreadMode;
+
+/**
+ * Load-test harness that opens a number of idle local clients against a blocking {@link ConnectionServer} and reports the memory and thread overhead per connection.
+ * <p>
+ * Usage: <tt>ConnectionLoadHarness [connections] [PLATFORM|VIRTUAL] [port]</tt>
+ * <p>
+ * Note that virtual threads are not reported by the thread MX bean, i.e. the thread count for the virtual mode should be approximately zero per connection.
+ * <p>
+ * @author Sarge
+ */
+public class ConnectionLoadHarness {
+	public static void main(String[] args) throws Exception {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		final ThreadMode mode = args.length > 1 ? ThreadMode.valueOf(args[1]) : ThreadMode.PLATFORM;
+		final int port = args.length > 2 ? Integer.parseInt(args[2]) : 1236;
+
+		// Create server
+		final CountDownLatch latch = new CountDownLatch(count);
+		final ConnectionServer.Handler handler = con -> {
+			latch.countDown();
+			return new Connection.Listener() {
+				@Override
+				public void handle(String command) {
+					// Ignored
+				}
+
+				@Override
+				public void closed() {
+					// Ignored
+				}
+			};
+		};
+		final ConnectionServer server = new ConnectionServer(port, handler);
+		server.setThreadMode(mode);
+		server.start();
+
+		// Measure baseline
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		System.gc();
+		final int threadsBefore = threads.getThreadCount();
+		final long heapBefore = memory.getHeapMemoryUsage().getUsed();
+		final long nonHeapBefore = memory.getNonHeapMemoryUsage().getUsed();
+
+		// Open clients
+		final List<Socket> clients = new ArrayList<>(count);
+		try {
+			for(int n = 0; n < count; ++n) {
+				clients.add(new Socket("localhost", port));
+			}
+			if(!latch.await(1, TimeUnit.MINUTES)) {
+				System.out.println("Timeout waiting for connections: pending=" + latch.getCount());
+			}
+
+			// Measure overhead
+			System.gc();
+			final int threadsAfter = threads.getThreadCount();
+			final long heapAfter = memory.getHeapMemoryUsage().getUsed();
+			final long nonHeapAfter = memory.getNonHeapMemoryUsage().getUsed();
+
+			// Report
+			System.out.println(String.format("mode=%s connections=%d", mode, count));
+			System.out.println(String.format("threads: before=%d after=%d per-connection=%.2f", threadsBefore, threadsAfter, (threadsAfter - threadsBefore) / (float) count));
+			System.out.println(String.format("heap: delta=%dKB per-connection=%.2fKB", (heapAfter - heapBefore) / 1024, (heapAfter - heapBefore) / 1024f / count));
+			System.out.println(String.format("non-heap: delta=%dKB per-connection=%.2fKB", (nonHeapAfter - nonHeapBefore) / 1024, (nonHeapAfter - nonHeapBefore) / 1024f / count));
+		}
+		finally {
+			for(Socket client : clients) {
+				try {
+					client.close();
+				}
+				catch(IOException e) {
+					// Ignored
+				}
+			}
+			server.stop();
+		}
+	}
+}
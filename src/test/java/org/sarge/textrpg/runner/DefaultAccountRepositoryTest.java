@@ -28,6 +28,11 @@ public class DefaultAccountRepositoryTest {
 		assertEquals(Optional.of(account), repository.find("name"));
 	}
 
+	@Test
+	public void exists() {
+		assertEquals(false, repository.exists("name"));
+	}
+
 	@Test
 	public void createDuplicate() {
 		final Account account = new Account("name");
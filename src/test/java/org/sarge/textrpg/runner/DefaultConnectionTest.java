@@ -1,22 +1,32 @@
 package org.sarge.textrpg.runner;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.InflaterInputStream;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 public class DefaultConnectionTest {
-	private Connection con;
+	private static final byte[] EOL = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+	private DefaultConnection con;
 	private Socket socket;
 	private InputStream in;
-	private OutputStream out;
+	private ByteArrayOutputStream out;
 
 	@BeforeEach
 	public void before() throws IOException {
@@ -25,20 +35,98 @@ public class DefaultConnectionTest {
 		in = mock(InputStream.class);
 		when(socket.getInputStream()).thenReturn(in);
 
-		out = mock(OutputStream.class);
+		out = new ByteArrayOutputStream();
 		when(socket.getOutputStream()).thenReturn(out);
 
 		con = new DefaultConnection(socket);
 	}
 
+	@AfterEach
+	public void after() {
+		con.close();
+	}
+
+	/**
+	 * Helper - Builds the expected output for the given message.
+	 */
+	private static byte[] line(String message) {
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.writeBytes(message.getBytes(StandardCharsets.UTF_8));
+		expected.writeBytes(EOL);
+		return expected.toByteArray();
+	}
+
 	@Test
-	public void write() throws IOException {
+	public void constructor() {
+		assertEquals(false, con.isCompressed());
+		assertEquals(0, con.statistics().messages());
+		assertEquals(0, con.statistics().writes());
+	}
+
+	@Test
+	public void write() {
 		con.write("command");
+		assertEquals(0, out.size());
+		assertEquals(1, con.statistics().messages());
+		assertEquals(0, con.statistics().writes());
+	}
+
+	@Test
+	public void flush() {
+		con.write("one");
+		con.write("two");
+		con.flush();
+		final byte[] expected = line("one");
+		assertArrayEquals(expected, Arrays.copyOf(out.toByteArray(), expected.length));
+		assertEquals(2, con.statistics().messages());
+		assertEquals(1, con.statistics().writes());
+		assertEquals(out.size(), con.statistics().bytes());
+		assertEquals(out.size(), con.statistics().raw());
+	}
+
+	@Test
+	public void flushEmpty() {
+		con.flush();
+		assertEquals(0, out.size());
+		assertEquals(0, con.statistics().writes());
 	}
 
 	@Test
 	public void close() throws IOException {
+		con.write("command");
 		con.close();
 		verify(socket).close();
+		assertArrayEquals(line("command"), out.toByteArray());
+	}
+
+	@Test
+	public void compression() throws IOException {
+		// Create a client that accepts compression
+		final byte[] accept = {(byte) TelnetInputStream.IAC, (byte) TelnetInputStream.DO, TelnetInputStream.COMPRESS2, 'c', '\n'};
+		when(socket.getInputStream()).thenReturn(new ByteArrayInputStream(accept));
+		con = new DefaultConnection(socket, true);
+
+		// Check compression offered
+		final byte[] offer = {(byte) TelnetInputStream.IAC, (byte) TelnetInputStream.WILL, TelnetInputStream.COMPRESS2};
+		assertArrayEquals(offer, out.toByteArray());
+
+		// Negotiate compression
+		final Connection.Listener listener = mock(Connection.Listener.class);
+		con.start(listener);
+		verify(listener, timeout(1000)).handle("c");
+		assertEquals(true, con.isCompressed());
+
+		// Check compressed stream started
+		final byte[] start = {(byte) TelnetInputStream.IAC, (byte) TelnetInputStream.SB, TelnetInputStream.COMPRESS2, (byte) TelnetInputStream.IAC, (byte) TelnetInputStream.SE};
+		final int header = offer.length + start.length;
+		assertArrayEquals(start, Arrays.copyOfRange(out.toByteArray(), offer.length, header));
+
+		// Write compressed message
+		con.write("message");
+		con.flush();
+		final byte[] compressed = Arrays.copyOfRange(out.toByteArray(), header, out.size());
+		final byte[] expected = line("message");
+		final byte[] actual = new InflaterInputStream(new ByteArrayInputStream(compressed)).readNBytes(expected.length);
+		assertArrayEquals(expected, actual);
 	}
 }
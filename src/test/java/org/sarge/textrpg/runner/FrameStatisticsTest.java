@@ -0,0 +1,74 @@
+package org.sarge.textrpg.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FrameStatisticsTest {
+	private FrameStatistics stats;
+
+	@BeforeEach
+	public void before() {
+		stats = new FrameStatistics();
+	}
+
+	@Test
+	public void constructor() {
+		assertEquals(0, stats.getFrames());
+		assertEquals(0, stats.getOverruns());
+		assertEquals(0, stats.getDropped());
+		assertEquals(0, stats.getDurationMax());
+		assertEquals(0, stats.getEventsMax());
+	}
+
+	@Test
+	public void record() {
+		stats.record(TimeUnit.MILLISECONDS.toNanos(2), 3);
+		assertEquals(1, stats.getFrames());
+		assertTrue(stats.getDurationMax() >= 2);
+		assertEquals(3, stats.getEventsMedian());
+		assertEquals(3, stats.getEvents99());
+		assertEquals(3, stats.getEventsMax());
+	}
+
+	@Test
+	public void overrun() {
+		stats.overrun();
+		stats.drop(2);
+		assertEquals(1, stats.getOverruns());
+		assertEquals(2, stats.getDropped());
+	}
+
+	@Test
+	public void reset() {
+		stats.record(1, 1);
+		stats.overrun();
+		stats.drop(1);
+		stats.reset();
+		assertEquals(0, stats.getFrames());
+		assertEquals(0, stats.getOverruns());
+		assertEquals(0, stats.getDropped());
+	}
+
+	@Test
+	public void register() throws JMException {
+		final ObjectName name = new ObjectName(FrameStatistics.NAME);
+		stats.register();
+		try {
+			stats.overrun();
+			assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Overruns"));
+		}
+		finally {
+			stats.unregister();
+		}
+		assertEquals(false, ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+	}
+}
@@ -11,6 +11,7 @@ import org.sarge.textrpg.common.Response;
 import org.sarge.textrpg.common.ResponseFormatter;
 import org.sarge.textrpg.entity.EntityValueController;
 import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.parser.ArgumentParserGroup;
 import org.sarge.textrpg.runner.PlayScreen.CommandProcessor;
 import org.sarge.textrpg.util.ActionException;
 import org.sarge.textrpg.util.Description;
@@ -27,6 +28,7 @@ public class PlayScreenTest {
 	private EntityValueController update;
 	private ResponseFormatter formatter;
 	private NameStore store;
+	private ArgumentParserGroup parsers;
 
 	@BeforeEach
 	public void before() {
@@ -48,17 +50,24 @@ public class PlayScreenTest {
 		session = mock(Session.class);
 		when(session.player()).thenReturn(player);
 		when(session.store()).thenReturn(store);
+
+		// Init parsers
+		parsers = new ArgumentParserGroup();
+		when(session.parsers()).thenReturn(parsers);
 	}
 
 	@Test
 	public void init() {
+		when(proc.group(player)).thenReturn(parsers);
 		screen.init(session);
 		verify(formatter).format(player, null, Response.DISPLAY_LOCATION);
+		verify(session).set(parsers);
+		verify(proc).track(player);
 	}
 
 	@Test
 	public void handle() throws ActionException {
-		when(proc.process("command", player, store)).thenReturn(Response.OK);
+		when(proc.process("command", player, store, parsers)).thenReturn(Response.OK);
 		assertEquals(screen, screen.handle(session, "command"));
 		verify(formatter).format(player, store, Response.OK);
 		verify(session).write(null);
@@ -68,7 +77,7 @@ public class PlayScreenTest {
 	public void handleActionException() throws ActionException {
 		final DescriptionFormatter delegate = mock(DescriptionFormatter.class);
 		when(formatter.formatter()).thenReturn(delegate);
-		when(proc.process("command", player, store)).thenThrow(ActionException.of("doh"));
+		when(proc.process("command", player, store, parsers)).thenThrow(ActionException.of("doh"));
 		assertEquals(screen, screen.handle(session, "command"));
 		verify(delegate).format(new Description("doh"), store);
 		verify(session).write(null);
@@ -76,7 +85,7 @@ public class PlayScreenTest {
 
 	@Test
 	public void handleException() throws ActionException {
-		when(proc.process("command", player, store)).thenThrow(new RuntimeException("doh"));
+		when(proc.process("command", player, store, parsers)).thenThrow(new RuntimeException("doh"));
 		assertEquals(screen, screen.handle(session, "command"));
 	}
 
@@ -88,4 +97,12 @@ public class PlayScreenTest {
 		final Screen result = screen.handle(session, "command");
 		assertEquals(killed, result);
 	}
+
+	@Test
+	public void display() {
+		screen.display(session, Response.OK);
+		verify(proc).record(player);
+		verify(formatter).format(player, store, Response.OK);
+		verify(session).write(null);
+	}
 }
@@ -0,0 +1,51 @@
+package org.sarge.textrpg.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.entity.PlayerJournal;
+import org.sarge.textrpg.util.Event;
+import org.sarge.textrpg.util.SnapshotRepository;
+import org.sarge.textrpg.world.Location;
+
+public class PlayerLoaderTest {
+	private PlayerLoader loader;
+	private AccountRepository repository;
+	private PlayerJournal journal;
+	private SnapshotRepository snapshots;
+
+	@BeforeEach
+	public void before() {
+		repository = mock(AccountRepository.class);
+		journal = mock(PlayerJournal.class);
+		snapshots = mock(SnapshotRepository.class);
+		final Event.Queue.Manager manager = mock(Event.Queue.Manager.class);
+		when(manager.queue("player")).thenReturn(mock(Event.Queue.class));
+		loader = new PlayerLoader(repository, journal, snapshots, manager, new Location.Linker(), Set.of());
+	}
+
+	@Test
+	public void load() throws IOException {
+		final PlayerCharacter pc = mock(PlayerCharacter.class);
+		when(repository.exists("name")).thenReturn(true);
+		when(repository.load("name")).thenReturn(pc);
+		assertEquals(pc, loader.load("name", response -> { /* Ignored */ }));
+		verifyZeroInteractions(journal);
+	}
+
+	@Test
+	public void loadUnknownPlayer() throws IOException {
+		when(journal.restore("name", snapshots)).thenReturn(Optional.empty());
+		assertThrows(IllegalStateException.class, () -> loader.load("name", response -> { /* Ignored */ }));
+	}
+}
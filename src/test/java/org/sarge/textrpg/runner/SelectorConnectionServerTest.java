@@ -0,0 +1,68 @@
+package org.sarge.textrpg.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SelectorConnectionServerTest {
+	private static final int PORT = 1235;
+
+	private SelectorConnectionServer server;
+	private BlockingQueue<String> commands;
+
+	@BeforeEach
+	public void before() throws IOException {
+		commands = new ArrayBlockingQueue<>(1);
+		final ConnectionServer.Handler handler = con -> {
+			assertNotNull(con);
+			return new Connection.Listener() {
+				@Override
+				public void handle(String command) {
+					con.write("response:" + command);
+					con.flush();
+					commands.add(command);
+				}
+
+				@Override
+				public void closed() {
+					// Ignored
+				}
+			};
+		};
+		server = new SelectorConnectionServer(PORT, handler);
+	}
+
+	@AfterEach
+	public void after() {
+		server.stop();
+	}
+
+	@Test
+	public void connect() throws Exception {
+		server.start();
+		try(final Socket client = new Socket("localhost", PORT)) {
+			// Send command
+			final PrintWriter out = new PrintWriter(client.getOutputStream(), true);
+			out.print("command\r\n");
+			out.flush();
+			assertTimeout(Duration.ofSeconds(1), () -> assertEquals("command", commands.take()));
+
+			// Check response
+			final BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+			assertTimeout(Duration.ofSeconds(1), () -> assertEquals("response:command", in.readLine()));
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package org.sarge.textrpg.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SelectorConnectionTest {
+	private ByteBuffer buffer;
+	private List<String> commands;
+	private boolean discard;
+
+	@BeforeEach
+	public void before() {
+		buffer = ByteBuffer.allocate(8);
+		commands = new ArrayList<>();
+	}
+
+	private void frame(String str) {
+		buffer.put(str.getBytes(StandardCharsets.UTF_8));
+		discard = SelectorConnection.frame(buffer, discard, commands::add);
+	}
+
+	@Test
+	public void frame() {
+		frame("one\ntwo\n");
+		assertEquals(List.of("one", "two"), commands);
+		assertEquals(0, buffer.position());
+	}
+
+	@DisplayName("Carriage-returns preceding the line terminator are stripped")
+	@Test
+	public void frameCarriageReturn() {
+		frame("one\r\n");
+		assertEquals(List.of("one"), commands);
+	}
+
+	@DisplayName("Partial lines are retained until the terminator is received")
+	@Test
+	public void framePartial() {
+		frame("one\ntw");
+		assertEquals(List.of("one"), commands);
+		assertEquals(2, buffer.position());
+		frame("o\n");
+		assertEquals(List.of("one", "two"), commands);
+	}
+
+	@DisplayName("A full buffer without a line terminator is discarded up to the next terminator")
+	@Test
+	public void frameOverflow() {
+		frame("12345678");
+		assertEquals(List.of(), commands);
+		assertEquals(0, buffer.position());
+		assertEquals(true, discard);
+		frame("90");
+		assertEquals(List.of(), commands);
+		frame("1\none\n");
+		assertEquals(List.of("one"), commands);
+		assertEquals(false, discard);
+	}
+
+	@DisplayName("An over-long line is not split mid-way through a multi-byte character")
+	@Test
+	public void frameOverflowMultiByte() {
+		for(byte b : "1234567\u00e9\n\u00e9\n".getBytes(StandardCharsets.UTF_8)) {
+			buffer.put(b);
+			discard = SelectorConnection.frame(buffer, discard, commands::add);
+		}
+		assertEquals(List.of("\u00e9"), commands);
+	}
+
+	@Test
+	public void frameEmpty() {
+		frame("\n");
+		assertEquals(List.of(""), commands);
+	}
+
+	@Test
+	public void writeOverflow() throws IOException {
+		// Create connection with a small outbound limit
+		final SocketChannel channel = mock(SocketChannel.class);
+		final SelectionKey key = mock(SelectionKey.class);
+		when(key.isValid()).thenReturn(true);
+		when(key.selector()).thenReturn(mock(Selector.class));
+		final SelectorConnection con = new SelectorConnection(channel, key, 16);
+		final Connection.Listener listener = mock(Connection.Listener.class);
+		con.start(listener);
+
+		// Exceed limit and check output is discarded
+		con.write("0123456789");
+		con.write("0123456789");
+		con.write("more");
+		con.flush();
+		verify(key).interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+
+		// Check disconnected on next send
+		con.send();
+		verify(channel, never()).write(any(ByteBuffer.class));
+		verify(key).cancel();
+		verify(listener).closed();
+	}
+}
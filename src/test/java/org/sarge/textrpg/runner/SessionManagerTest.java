@@ -4,21 +4,25 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.entity.PlayerJournal;
 
 public class SessionManagerTest {
 	private SessionManager manager;
 	private Session session;
 	private Screen start;
+	private WorldExecutor executor;
 
 	@BeforeEach
 	public void before() {
 		start = mock(Screen.class);
-		manager = new SessionManager(start);
+		executor = new WorldExecutor();
+		manager = new SessionManager(start, executor);
 		session = mock(Session.class);
 	}
 
@@ -44,13 +48,19 @@ public class SessionManagerTest {
 		assertNotNull(listener);
 		assertEquals(1, manager.size());
 
-		// Check listener
+		// Check listener submits command to the executor
 		final String command = "command";
 		listener.handle(command);
+		verifyZeroInteractions(session);
+		assertEquals(1, executor.size());
+
+		// Execute command
+		executor.execute();
 		verify(session).handle(command);
 
 		// Close session remotely
 		listener.closed();
+		executor.execute();
 		verify(session).close();
 		assertEquals(0, manager.size());
 	}
@@ -71,6 +81,17 @@ public class SessionManagerTest {
 		assertEquals(0, manager.size());
 	}
 
+	@Test
+	public void closeJournal() {
+		final PlayerJournal journal = mock(PlayerJournal.class);
+		final PlayerCharacter pc = mock(PlayerCharacter.class);
+		when(session.player()).thenReturn(pc);
+		manager.setPlayerJournal(journal);
+		manager.add(session);
+		manager.close(session);
+		verify(journal).remove(pc);
+	}
+
 	@Test
 	public void closeAll() {
 		manager.add(session);
@@ -78,4 +99,11 @@ public class SessionManagerTest {
 		verify(session).close();
 		assertEquals(0, manager.size());
 	}
+
+	@Test
+	public void flush() {
+		manager.add(session);
+		manager.flush();
+		verify(session).flush();
+	}
 }
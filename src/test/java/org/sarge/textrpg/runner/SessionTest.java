@@ -11,6 +11,7 @@ import java.io.IOException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.entity.PlayerCharacter;
+import org.sarge.textrpg.parser.ArgumentParserGroup;
 import org.sarge.textrpg.runner.Screen.ScreenException;
 import org.sarge.textrpg.util.NameStore;
 import org.sarge.textrpg.world.Area;
@@ -92,6 +93,13 @@ public class SessionTest {
 		assertEquals(player, session.player());
 	}
 
+	@Test
+	public void setParsers() {
+		final ArgumentParserGroup parsers = new ArgumentParserGroup();
+		session.set(parsers);
+		assertEquals(parsers, session.parsers());
+	}
+
 	@Test
 	public void setAccount() {
 		final Account account = new Account("name");
@@ -107,4 +115,17 @@ public class SessionTest {
 		session.init(area, store);
 		assertEquals(store, session.store());
 	}
+
+	@Test
+	public void flush() {
+		session.flush();
+		verify(connection).flush();
+	}
+
+	@Test
+	public void statistics() {
+		final ConnectionStatistics stats = new ConnectionStatistics();
+		when(connection.statistics()).thenReturn(stats);
+		assertEquals(stats, session.statistics());
+	}
 }
@@ -0,0 +1,74 @@
+package org.sarge.textrpg.runner;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.sarge.textrpg.runner.TelnetInputStream.COMPRESS2;
+import static org.sarge.textrpg.runner.TelnetInputStream.DO;
+import static org.sarge.textrpg.runner.TelnetInputStream.IAC;
+import static org.sarge.textrpg.runner.TelnetInputStream.SB;
+import static org.sarge.textrpg.runner.TelnetInputStream.SE;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TelnetInputStreamTest {
+	private TelnetInputStream.Listener listener;
+
+	@BeforeEach
+	public void before() {
+		listener = mock(TelnetInputStream.Listener.class);
+	}
+
+	/**
+	 * Helper - Reads all data from a telnet stream.
+	 */
+	private byte[] read(int... data) throws IOException {
+		final byte[] bytes = new byte[data.length];
+		for(int n = 0; n < data.length; ++n) {
+			bytes[n] = (byte) data[n];
+		}
+		try(final TelnetInputStream in = new TelnetInputStream(new ByteArrayInputStream(bytes))) {
+			in.listener(listener);
+			return in.readAllBytes();
+		}
+	}
+
+	@Test
+	public void data() throws IOException {
+		assertArrayEquals(new byte[]{'a', 'b'}, read('a', 'b'));
+		verifyZeroInteractions(listener);
+	}
+
+	@Test
+	public void escaped() throws IOException {
+		assertArrayEquals(new byte[]{'a', (byte) IAC, 'b'}, read('a', IAC, IAC, 'b'));
+	}
+
+	@Test
+	public void option() throws IOException {
+		assertArrayEquals(new byte[]{'a', 'b'}, read('a', IAC, DO, COMPRESS2, 'b'));
+		verify(listener).option(DO, COMPRESS2);
+	}
+
+	@Test
+	public void subnegotiation() throws IOException {
+		assertArrayEquals(new byte[]{'a', 'b'}, read('a', IAC, SB, 24, 1, IAC, SE, 'b'));
+		verifyZeroInteractions(listener);
+	}
+
+	@Test
+	public void command() throws IOException {
+		assertArrayEquals(new byte[]{'a', 'b'}, read('a', IAC, 241, 'b'));
+	}
+
+	@Test
+	public void truncated() throws IOException {
+		assertEquals(1, read('a', IAC, DO).length);
+	}
+}
@@ -0,0 +1,77 @@
+package org.sarge.textrpg.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.LongSummaryStatistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class WorldExecutorTest {
+	private WorldExecutor executor;
+	private Runnable task;
+
+	@BeforeEach
+	public void before() {
+		executor = new WorldExecutor();
+		task = mock(Runnable.class);
+	}
+
+	@Test
+	public void constructor() {
+		assertEquals(0, executor.size());
+		assertEquals(0, executor.latency().getCount());
+		assertEquals(0, executor.duration().getCount());
+	}
+
+	@Test
+	public void submit() {
+		executor.submit(task);
+		assertEquals(1, executor.size());
+		verifyZeroInteractions(task);
+	}
+
+	@Test
+	public void execute() {
+		executor.submit(task);
+		assertEquals(1, executor.execute());
+		verify(task).run();
+		assertEquals(0, executor.size());
+	}
+
+	@DisplayName("Executor records latency and duration statistics")
+	@Test
+	public void statistics() {
+		executor.submit(task);
+		executor.execute();
+		final LongSummaryStatistics latency = executor.latency();
+		assertEquals(1, latency.getCount());
+		assertEquals(1, executor.duration().getCount());
+	}
+
+	@DisplayName("Tasks are executed in batches")
+	@Test
+	public void executeBatch() {
+		executor.setBatchSize(1);
+		executor.submit(task);
+		executor.submit(task);
+		assertEquals(1, executor.execute());
+		assertEquals(1, executor.size());
+	}
+
+	@DisplayName("Exceptions thrown by a task do not prevent subsequent tasks")
+	@Test
+	public void executeException() {
+		final Runnable other = mock(Runnable.class);
+		doThrow(RuntimeException.class).when(task).run();
+		executor.submit(task);
+		executor.submit(other);
+		assertEquals(2, executor.execute());
+		verify(other).run();
+	}
+}
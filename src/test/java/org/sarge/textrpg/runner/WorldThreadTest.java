@@ -1,7 +1,11 @@
 package org.sarge.textrpg.runner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,11 +14,13 @@ import org.sarge.textrpg.util.Event;
 public class WorldThreadTest {
 	private WorldThread thread;
 	private Event.Queue.Manager manager;
+	private WorldExecutor executor;
 
 	@BeforeEach
 	public void before() {
 		manager = mock(Event.Queue.Manager.class);
-		thread = new WorldThread(manager);
+		executor = mock(WorldExecutor.class);
+		thread = new WorldThread(manager, executor);
 		thread.setFrameDuration(50);
 		thread.setFrameScale(5);
 	}
@@ -22,6 +28,39 @@ public class WorldThreadTest {
 	@Test
 	public void execute() {
 		thread.execute();
+		verify(executor).execute();
 		verify(manager).advance(1000 / 50 * 5);
 	}
+
+	@Test
+	public void flush() {
+		final SessionManager sessions = mock(SessionManager.class);
+		thread.setSessionManager(sessions);
+		thread.execute();
+		verify(sessions).flush();
+	}
+
+	@Test
+	public void statistics() {
+		when(manager.advance(1000 / 50 * 5)).thenReturn(3);
+		thread.execute();
+		final FrameStatistics stats = thread.statistics();
+		assertEquals(1, stats.getFrames());
+		assertEquals(3, stats.getEventsMax());
+		assertEquals(0, stats.getOverruns());
+	}
+
+	@Test
+	public void overrun() {
+		thread.setFrameDuration(1);
+		thread.setCatchUpLimit(1);
+		doAnswer(ignored -> {
+			Thread.sleep(10);
+			return 0;
+		}).when(executor).execute();
+		thread.execute();
+		final FrameStatistics stats = thread.statistics();
+		assertEquals(1, stats.getOverruns());
+		assertTrue(stats.getDropped() > 0);
+	}
 }
@@ -0,0 +1,121 @@
+package org.sarge.textrpg.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sarge.textrpg.util.Calculation.Operator;
+
+/**
+ * Compares evaluation of a compiled calculation against the calculation tree and the previous implementation of nested lambdas.
+ * <p>
+ * The calculation models a typical entity value update, i.e. the sum of several scaled attributes and constant terms.
+ * <p>
+ * Run with <tt>java -cp target/test-classes:... org.openjdk.jmh.Main CalculationBenchmark</tt>
+ * @author Sarge
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculationBenchmark {
+	private enum Key implements ValueModifier.Key {
+		STRENGTH,
+		ENDURANCE,
+		AGILITY
+	}
+
+	/**
+	 * Constant value-modifier.
+	 */
+	private static class Constant implements ValueModifier {
+		private final int value;
+
+		private Constant(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int get() {
+			return value;
+		}
+
+		@Override
+		public int modify(float amount) {
+			return value;
+		}
+	}
+
+	/**
+	 * Previous implementation: nested lambdas and a stream per compound value.
+	 */
+	private static Calculation lambdas() {
+		final Calculation str = src -> src.modifier(Key.STRENGTH).get();
+		final Calculation end = src -> src.modifier(Key.ENDURANCE).get();
+		final Calculation agi = src -> src.modifier(Key.AGILITY).get();
+		final List<Calculation> values = List.of(
+			src -> str.evaluate(src) * 0.5f,
+			src -> end.evaluate(src) * 1.5f,
+			src -> agi.evaluate(src) * 0.25f,
+			ignore -> 2,
+			src -> ((Calculation) ignore -> 4).evaluate(src) * 0.5f
+		);
+		return src -> values.stream().mapToDouble(value -> value.evaluate(src)).reduce(0, Double::sum);
+	}
+
+	/**
+	 * @return Calculation tree
+	 */
+	private static Calculation nodes() {
+		return Calculation.compound(
+			List.of(
+				Calculation.scaled(Calculation.modifier(Key.STRENGTH), 0.5f),
+				Calculation.scaled(Calculation.modifier(Key.ENDURANCE), 1.5f),
+				Calculation.scaled(Calculation.modifier(Key.AGILITY), 0.25f),
+				Calculation.literal(2),
+				Calculation.scaled(Calculation.literal(4), 0.5f)
+			),
+			Operator.SUM
+		);
+	}
+
+	private ValueModifier.Source src;
+	private Calculation previous;
+	private Calculation tree;
+	private Calculation compiled;
+
+	@Setup
+	public void setup() {
+		final ValueModifier[] modifiers = {new Constant(12), new Constant(14), new Constant(9)};
+		src = key -> modifiers[((Key) key).ordinal()];
+		previous = lambdas();
+		tree = nodes();
+		compiled = Calculation.compile(tree);
+	}
+
+	@Benchmark
+	public double previous() {
+		return previous.evaluate(src);
+	}
+
+	@Benchmark
+	public double tree() {
+		return tree.evaluate(src);
+	}
+
+	@Benchmark
+	public double compiled() {
+		return compiled.evaluate(src);
+	}
+}
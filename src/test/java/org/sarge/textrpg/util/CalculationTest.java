@@ -1,6 +1,8 @@
 package org.sarge.textrpg.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.util.List;
 
@@ -57,4 +59,14 @@ public class CalculationTest {
 		final Calculation value = Calculation.percentile(src -> 25);
 		assertEquals(0.75f, value.evaluate(null), 0.001f);
 	}
+
+	@Test
+	public void modifier() {
+		final ValueModifier.Key key = mock(ValueModifier.Key.class);
+		final ValueModifier mod = mock(ValueModifier.class);
+		final ValueModifier.Source src = mock(ValueModifier.Source.class);
+		when(src.modifier(key)).thenReturn(mod);
+		when(mod.get()).thenReturn(42);
+		assertEquals(42, Calculation.modifier(key).evaluate(src));
+	}
 }
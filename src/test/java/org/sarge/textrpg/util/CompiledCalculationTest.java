@@ -0,0 +1,114 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.util.Calculation.Operator;
+
+public class CompiledCalculationTest {
+	private ValueModifier.Source src;
+	private ValueModifier.Key key;
+	private Calculation mod;
+
+	@BeforeEach
+	public void before() {
+		key = mock(ValueModifier.Key.class);
+		final ValueModifier value = mock(ValueModifier.class);
+		when(value.get()).thenReturn(4);
+		src = mock(ValueModifier.Source.class);
+		when(src.modifier(key)).thenReturn(value);
+		mod = Calculation.modifier(key);
+	}
+
+	@Test
+	public void literal() {
+		final Calculation literal = Calculation.literal(42);
+		assertSame(literal, Calculation.compile(literal));
+	}
+
+	@Test
+	public void foldScaled() {
+		final Calculation compiled = Calculation.compile(Calculation.scaled(Calculation.literal(2), 3));
+		assertEquals(new CalculationNode.Literal(6), compiled);
+	}
+
+	@Test
+	public void foldInverted() {
+		final Calculation compiled = Calculation.compile(Calculation.percentile(Calculation.literal(25)));
+		assertEquals(new CalculationNode.Literal(0.75), compiled);
+	}
+
+	@Test
+	public void foldCompound() {
+		final Calculation sum = Calculation.compound(List.of(Calculation.literal(2), Calculation.scaled(Calculation.literal(3), 2)), Operator.SUM);
+		assertEquals(new CalculationNode.Literal(8), Calculation.compile(sum));
+	}
+
+	@Test
+	public void modifier() {
+		final Calculation compiled = Calculation.compile(mod);
+		assertTrue(compiled instanceof CompiledCalculation);
+		assertEquals(4, compiled.evaluate(src));
+	}
+
+	@Test
+	public void scaled() {
+		final Calculation compiled = Calculation.compile(Calculation.scaled(mod, 0.5f));
+		assertEquals(2, compiled.evaluate(src));
+	}
+
+	@Test
+	public void inverted() {
+		final Calculation compiled = Calculation.compile(Calculation.percentile(mod));
+		assertEquals(0.96, compiled.evaluate(src), 0.0001);
+	}
+
+	@Test
+	public void compound() {
+		final Calculation product = Calculation.compound(List.of(mod, Calculation.literal(2), Calculation.literal(3)), Operator.MULTIPLY);
+		final Calculation sum = Calculation.compound(List.of(Calculation.scaled(mod, 2), Calculation.literal(1), product, Calculation.literal(2)), Operator.SUM);
+		final Calculation compiled = Calculation.compile(sum);
+		assertTrue(compiled instanceof CompiledCalculation);
+		assertEquals(sum.evaluate(src), compiled.evaluate(src));
+		assertEquals(4 * 2 + 1 + 4 * 2 * 3 + 2, compiled.evaluate(src));
+	}
+
+	@Test
+	public void compoundSingleOperand() {
+		final Calculation sum = Calculation.compound(List.of(mod, Calculation.literal(0)), Operator.SUM);
+		final Calculation compiled = Calculation.compile(sum);
+		assertEquals(4, compiled.evaluate(src));
+	}
+
+	@Test
+	public void random() {
+		final Calculation compiled = Calculation.compile(Calculation.compound(List.of(mod, Calculation.random(1, 1)), Operator.SUM));
+		assertEquals(4 + 1, compiled.evaluate(src));
+	}
+
+	@Test
+	public void delegate() {
+		final Calculation delegate = ignore -> 3;
+		final Calculation compiled = Calculation.compile(Calculation.compound(List.of(mod, delegate), Operator.MULTIPLY));
+		assertEquals(4 * 3, compiled.evaluate(src));
+	}
+
+	@Test
+	public void compileCompiled() {
+		final Calculation compiled = Calculation.compile(mod);
+		assertSame(compiled, Calculation.compile(compiled));
+	}
+
+	@Test
+	public void string() {
+		assertNotNull(Calculation.compile(mod).toString());
+	}
+}
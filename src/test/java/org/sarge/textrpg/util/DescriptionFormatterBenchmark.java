@@ -0,0 +1,161 @@
+package org.sarge.textrpg.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sarge.textrpg.util.ArgumentFormatter.PlainArgument;
+
+/**
+ * Compares the compiled description formatter against the previous regular-expression implementation.
+ * <p>
+ * Each invocation formats a description for every single-valued entry in the shipped <tt>stores/*.properties</tt> files.
+ * Every argument token in a template is populated with a plain argument.
+ * <p>
+ * Run with <tt>java -cp target/test-classes:... org.openjdk.jmh.Main DescriptionFormatterBenchmark</tt>
+ * @author Sarge
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DescriptionFormatterBenchmark {
+	private static final Path STORES = Paths.get("src/main/resources/stores");
+	private static final Pattern PATTERN = Pattern.compile("\\{[\\w\\.]+\\}");
+
+	private final Map<Class<?>, ArgumentFormatter> formatters = new HashMap<>();
+	private final List<Description> descriptions = new ArrayList<>();
+
+	private DescriptionFormatter formatter;
+	private NameStore store;
+
+	@Setup
+	public void setup() throws IOException {
+		// Load name-store and enumerate templates
+		final NameStoreLoader loader = new NameStoreLoader();
+		final Map<String, String> templates = new HashMap<>();
+		try(final Stream<Path> files = Files.list(STORES)) {
+			for(Path file : (Iterable<Path>) files::iterator) {
+				loader.load(Files.newBufferedReader(file));
+				templates.putAll(templates(file));
+			}
+		}
+		store = loader.build();
+
+		// Create a description for each template
+		final PlainArgument arg = new PlainArgument("argument");
+		for(Map.Entry<String, String> entry : templates.entrySet()) {
+			final Description.Builder builder = new Description.Builder(entry.getKey());
+			final Matcher matcher = PATTERN.matcher(entry.getValue());
+			while(matcher.find()) {
+				final String token = matcher.group().substring(1, matcher.group().length() - 1);
+				if(builder.get(token) == null) {
+					builder.add(token, arg);
+				}
+			}
+			descriptions.add(builder.build());
+		}
+
+		// Init formatters
+		final ArgumentFormatter plain = new PlainArgument.PlainArgumentFormatter();
+		formatter = new DescriptionFormatter();
+		formatter.add(PlainArgument.class, plain);
+		formatters.put(PlainArgument.class, plain);
+	}
+
+	/**
+	 * Enumerates the single-valued entries of the given name-store file.
+	 * @see NameStoreLoader
+	 */
+	private static Map<String, String> templates(Path file) throws IOException {
+		final Map<String, String> templates = new HashMap<>();
+		String prev = null;
+		for(String line : Files.readAllLines(file)) {
+			if(line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			final boolean indented = line.charAt(0) == '\t';
+			final String trimmed = indented ? prev + "." + line.trim() : line.trim();
+			final int index = trimmed.indexOf(':');
+			final String key = trimmed.substring(0, index).trim();
+			final String value = trimmed.substring(index + 1).trim();
+			if(value.indexOf('|') == -1) {
+				templates.put(key, value);
+			}
+			if(!indented) {
+				prev = key;
+			}
+		}
+		return templates;
+	}
+
+	/**
+	 * Previous implementation: regular-expression token replacement restarted after each replacement.
+	 */
+	private String baseline(Description description) {
+		final String template = store.get(description.key());
+		final StringBuilder text = new StringBuilder(template == null ? "" : template);
+		final Matcher matcher = PATTERN.matcher(text);
+		int current = 0;
+		while(matcher.find(current)) {
+			final int start = matcher.start();
+			final int end = matcher.end();
+			final String token = text.substring(start + 1, end - 1);
+			final Object arg = description.get(token);
+			if(arg == null) {
+				current = end;
+				continue;
+			}
+			final ArgumentFormatter formatter = formatters.getOrDefault(arg.getClass(), ArgumentFormatter.DEFAULT);
+			final String value = formatter.format(arg, store);
+			if(value == null) {
+				current = end;
+				continue;
+			}
+			if(value.isEmpty()) {
+				text.delete(start, end);
+				current = start;
+				continue;
+			}
+			text.replace(start, end, value);
+			current = start;
+		}
+		return text.toString().replace("  ", " ");
+	}
+
+	@Benchmark
+	public void compiled(Blackhole bh) {
+		for(Description description : descriptions) {
+			bh.consume(formatter.format(description, store));
+		}
+	}
+
+	@Benchmark
+	public void regex(Blackhole bh) {
+		for(Description description : descriptions) {
+			bh.consume(baseline(description));
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.sarge.textrpg.util;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.Map;
@@ -7,6 +8,8 @@ import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.util.ArgumentFormatter.PlainArgument;
+import org.sarge.textrpg.util.DescriptionFormatter.Template;
 
 public class DescriptionFormatterTest {
 	private DescriptionFormatter formatter;
@@ -58,4 +61,29 @@ public class DescriptionFormatterTest {
 		final Description description = new Description.Builder("key").name(StringUtils.EMPTY).build();
 		assertEquals("start end", formatter.format(description, store));
 	}
+
+	@Test
+	public void formatUnknownArgument() {
+		assertEquals("start {name} end", formatter.format(Description.of("key"), store));
+	}
+
+	@Test
+	public void formatCollapseSpaces() {
+		final var description = new Description.Builder("key").add("name", new PlainArgument(" middle ")).build();
+		formatter.add(PlainArgument.class, (arg, store) -> arg.toString());
+		assertEquals("start middle end", formatter.format(description, store));
+	}
+
+	@Test
+	public void formatRecursiveArgument() {
+		final var description = new Description.Builder("key").add("name", new PlainArgument("{name}")).build();
+		formatter.add(PlainArgument.class, (arg, store) -> arg.toString());
+		assertEquals("start {name} end", formatter.format(description, store));
+	}
+
+	@Test
+	public void compile() {
+		final Template template = Template.compile("{a} text {b.c} {} {d e} {f");
+		assertArrayEquals(new String[]{"a", "b.c"}, template.slots());
+	}
 }
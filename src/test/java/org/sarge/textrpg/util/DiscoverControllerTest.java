@@ -12,22 +12,24 @@ import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.common.Hidden;
 import org.sarge.textrpg.common.Response;
 
-@Disabled
 public class DiscoverControllerTest {
 	private static final Duration DURATION = Duration.ofMinutes(1);
 
 	private DiscoverController<Hidden> controller;
 	private Consumer<Hidden> listener;
+	private Event.Queue.Manager manager;
+	private Event.Queue queue;
 
 	@SuppressWarnings("unchecked")
 	@BeforeEach
 	public void before() {
-		controller = new DiscoverController<>("discover", Hidden::visibility, null); // TODO
+		manager = new Event.Queue.Manager();
+		queue = manager.queue("queue");
+		controller = new DiscoverController<>("discover", Hidden::visibility, queue);
 		listener = mock(Consumer.class);
 	}
 
@@ -41,9 +43,12 @@ public class DiscoverControllerTest {
 
 	@Test
 	public void inductionInterrupt() throws ActionException {
-		final var induction = controller.induction(DURATION, Stream.empty(), listener);
+		final Hidden found = () -> Percentile.ONE;
+		final var induction = controller.induction(DURATION, Stream.of(found), listener);
 		induction.interrupt();
+		manager.advance(DURATION.toMillis());
 		verifyZeroInteractions(listener);
+		assertEquals(0, queue.size());
 	}
 
 	@Test
@@ -52,10 +57,10 @@ public class DiscoverControllerTest {
 		final Hidden found = () -> Percentile.ONE;
 		final Hidden hidden = () -> Percentile.ZERO;
 		final var induction = controller.induction(DURATION, Stream.of(found, hidden), listener);
+		assertEquals(1, queue.size());
 
 		// Check discovered
-// TODO
-//		Event.Queue.advance(DURATION.toMillis());
+		manager.advance(DURATION.toMillis());
 		verify(listener).accept(found);
 		verifyNoMoreInteractions(listener);
 
@@ -10,5 +10,6 @@ public class EmptyNameStoreTest {
 		assertEquals(true, NameStore.EMPTY.isEmpty());
 		assertEquals(null, NameStore.EMPTY.get("key"));
 		assertEquals(false, NameStore.EMPTY.matches("key", "name"));
+		assertEquals(0, NameStore.EMPTY.names("key").count());
 	}
 }
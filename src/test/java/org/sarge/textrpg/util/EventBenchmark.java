@@ -0,0 +1,128 @@
+package org.sarge.textrpg.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the timing-wheel event manager against the previous implementation of a priority-queue per event-queue.
+ * <p>
+ * Each queue models an entity with a repeating event (e.g. regeneration) and a number of long-running events (e.g. decay, effects) that are not due during the benchmark.
+ * Each invocation advances the clock by a single world frame.
+ * <p>
+ * Run with <tt>java -cp target/test-classes:... org.openjdk.jmh.Main EventBenchmark</tt>
+ * @author Sarge
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBenchmark {
+	private static final long FRAME = 100;
+	private static final int EVENTS = 4;
+
+	/**
+	 * Previous implementation: a priority-queue per event-queue walked on every frame.
+	 */
+	private static class PriorityQueueManager {
+		private static class Entry implements Comparable<Entry> {
+			private final Event event;
+			private final long duration;
+			private long when;
+
+			private Entry(Event event, long duration, long now) {
+				this.event = event;
+				this.duration = duration;
+				this.when = now + duration;
+			}
+
+			@Override
+			public int compareTo(Entry that) {
+				return Long.compare(this.when, that.when);
+			}
+		}
+
+		private final Collection<PriorityQueue<Entry>> queues = new ArrayList<>();
+		private long time;
+
+		private PriorityQueue<Entry> queue() {
+			final PriorityQueue<Entry> queue = new PriorityQueue<>();
+			queues.add(queue);
+			return queue;
+		}
+
+		private void advance(long inc) {
+			time += inc;
+			for(PriorityQueue<Entry> queue : queues) {
+				synchronized(queue) {
+					while(!queue.isEmpty() && (queue.peek().when <= time)) {
+						final Entry entry = queue.poll();
+						if(entry.event.execute()) {
+							entry.when = time + entry.duration;
+							queue.add(entry);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Param({"100", "1000", "10000"})
+	private int queues;
+
+	private Event.Queue.Manager manager;
+	private PriorityQueueManager baseline;
+
+	@Setup
+	public void setup() {
+		manager = new Event.Queue.Manager();
+		baseline = new PriorityQueueManager();
+
+		final Random random = new Random(1);
+		final Event repeat = () -> true;
+		for(int n = 0; n < queues; ++n) {
+			// Create queues
+			final Event.Queue queue = manager.queue("entity");
+			final PriorityQueue<PriorityQueueManager.Entry> pq = baseline.queue();
+
+			// Add a repeating event
+			final long period = 1000 + random.nextInt(60 * 1000);
+			queue.add(repeat, Duration.ofMillis(period));
+			pq.add(new PriorityQueueManager.Entry(repeat, period, 0));
+
+			// Add long-running events
+			for(int e = 0; e < EVENTS; ++e) {
+				final long duration = Duration.ofHours(1).toMillis() + random.nextInt(Integer.MAX_VALUE);
+				queue.add(Event.NONE, Duration.ofMillis(duration));
+				pq.add(new PriorityQueueManager.Entry(Event.NONE, duration, 0));
+			}
+		}
+	}
+
+	@Benchmark
+	public void wheel() {
+		manager.advance(FRAME);
+	}
+
+	@Benchmark
+	public void priorityQueue() {
+		baseline.advance(FRAME);
+	}
+}
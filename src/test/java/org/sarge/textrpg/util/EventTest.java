@@ -41,8 +41,24 @@ public class EventTest {
 	public void remove() {
 		queue.add(event, DURATION);
 		queue.remove();
+		assertEquals(0, manager.advance(DURATION.toMillis()));
+		verifyZeroInteractions(event);
+	}
+
+	@Test
+	public void removeAlreadyRemoved() {
+		queue.remove();
+		assertThrows(IllegalArgumentException.class, () -> queue.remove());
+	}
+
+	@DisplayName("Events added to a removed queue are ignored")
+	@Test
+	public void removeAdd() {
+		queue.remove();
+		queue.add(event, DURATION);
 		manager.advance(DURATION.toMillis());
 		verifyZeroInteractions(event);
+		assertEquals(0, queue.size());
 	}
 
 	@Test
@@ -63,7 +79,7 @@ public class EventTest {
 	@Test
 	public void addExecute() {
 		final Event.Reference ref = queue.add(event, DURATION);
-		manager.advance(DURATION.toMillis());
+		assertEquals(1, manager.advance(DURATION.toMillis()));
 		verify(event).execute();
 		assertEquals(true, ref.isCancelled());
 		assertEquals(0, queue.size());
@@ -90,6 +106,24 @@ public class EventTest {
 		assertEquals(0, queue.size());
 	}
 
+	@DisplayName("Executes events scheduled across multiple queues in time order")
+	@Test
+	public void addMultipleQueues() {
+		final Event other = mock(Event.class);
+		final Event.Queue permanent = manager.queue("permanent");
+		permanent.add(event, Duration.ofHours(2));
+		queue.add(other, Duration.ofMinutes(1));
+
+		manager.advance(Duration.ofMinutes(1).toMillis());
+		verify(other).execute();
+		verifyZeroInteractions(event);
+
+		manager.advance(Duration.ofHours(2).toMillis());
+		verify(event).execute();
+		assertEquals(0, queue.size());
+		assertEquals(0, permanent.size());
+	}
+
 	@DisplayName("Execute a repeating event")
 	@Test
 	public void addRepeating() {
@@ -138,4 +172,28 @@ public class EventTest {
 		ref.cancel();
 		holder.cancel();
 	}
+
+	@Test
+	public void group() {
+		final Event.Group group = new Event.Group(queue);
+		assertNotNull(group.add(event, DURATION));
+		group.add(event, DURATION.multipliedBy(2));
+		assertEquals(2, group.size());
+		manager.advance(DURATION.toMillis());
+		verify(event).execute();
+		assertEquals(1, group.size());
+	}
+
+	@DisplayName("Cancel all pending events in a group")
+	@Test
+	public void groupCancel() {
+		final Event.Group group = new Event.Group(queue);
+		group.add(event, DURATION);
+		group.add(event, DURATION);
+		group.cancel();
+		assertEquals(0, group.size());
+		manager.advance(DURATION.toMillis());
+		verifyZeroInteractions(event);
+		assertEquals(0, queue.size());
+	}
 }
@@ -0,0 +1,217 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JournalTest {
+	private static final int SIZE = 64;
+
+	private Journal journal;
+	private Path dir;
+
+	@BeforeEach
+	public void before() throws IOException {
+		dir = Files.createTempDirectory("journal.test");
+		journal = new Journal(dir, SIZE);
+	}
+
+	@AfterEach
+	public void after() throws IOException {
+		journal.close();
+	}
+
+	/**
+	 * @return Replayed records
+	 */
+	private List<String> replay() throws IOException {
+		final List<String> records = new ArrayList<>();
+		journal.replay(buffer -> {
+			final byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			records.add(new String(bytes));
+		});
+		return records;
+	}
+
+	/**
+	 * @return Number of segment files
+	 */
+	private long count() throws IOException {
+		try(final Stream<Path> files = Files.list(dir)) {
+			return files.count();
+		}
+	}
+
+	@Test
+	public void constructor() throws IOException {
+		assertEquals(0, journal.appended());
+		assertEquals(0, journal.committed());
+		assertEquals(List.of(), replay());
+		assertNotNull(journal.toString());
+		assertEquals(1, count());
+	}
+
+	@Test
+	public void append() throws IOException {
+		journal.append("one".getBytes());
+		journal.append("two".getBytes());
+		assertEquals(2, journal.appended());
+		assertEquals(0, journal.committed());
+		assertEquals(List.of("one", "two"), replay());
+	}
+
+	@Test
+	public void appendRoll() throws IOException {
+		final String record = "x".repeat(SIZE / 2);
+		journal.append(record.getBytes());
+		journal.append(record.getBytes());
+		assertEquals(2, count());
+		assertEquals(List.of(record, record), replay());
+	}
+
+	@Test
+	public void appendEmpty() {
+		assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[0]));
+	}
+
+	@Test
+	public void appendTooLarge() {
+		assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[SIZE]));
+	}
+
+	@Test
+	public void replayReadOnly() throws IOException {
+		journal.append("one".getBytes());
+		journal.replay(buffer -> assertThrows(Exception.class, () -> buffer.put((byte) 0)));
+	}
+
+	@Test
+	public void commit() throws IOException {
+		journal.append("one".getBytes());
+		journal.append("two".getBytes());
+		journal.commit();
+		assertEquals(2, journal.committed());
+		journal.commit();
+		assertEquals(2, journal.committed());
+	}
+
+	@Test
+	public void commitRoll() throws IOException {
+		final byte[] record = new byte[SIZE / 2];
+		record[0] = 1;
+		journal.append(record);
+		journal.append(record);
+		journal.commit();
+		assertEquals(2, journal.committed());
+		assertEquals(2, count());
+	}
+
+	@Test
+	public void reopen() throws IOException {
+		// Append and close
+		journal.append("one".getBytes());
+		journal.close();
+
+		// Re-open and check records are retained
+		journal = new Journal(dir, SIZE);
+		assertEquals(0, journal.appended());
+		assertEquals(List.of("one"), replay());
+
+		// Check appends follow existing records
+		journal.append("two".getBytes());
+		assertEquals(List.of("one", "two"), replay());
+	}
+
+	@Test
+	public void compact() throws IOException {
+		final String record = "x".repeat(SIZE / 2);
+		journal.append(record.getBytes());
+		journal.append(record.getBytes());
+		journal.compact();
+		assertEquals(1, count());
+		assertEquals(List.of(), replay());
+		journal.append("after".getBytes());
+		assertEquals(List.of("after"), replay());
+	}
+
+	@Test
+	public void replayBuffer() throws IOException {
+		journal.append(new byte[]{1, 2, 3});
+		final List<ByteBuffer> buffers = new ArrayList<>();
+		journal.replay(buffers::add);
+		assertEquals(1, buffers.size());
+		assertEquals(ByteBuffer.wrap(new byte[]{1, 2, 3}), buffers.get(0));
+	}
+
+	@Test
+	public void preallocate() throws IOException {
+		// Pre-allocate next segment
+		journal.preallocate();
+		assertEquals(2, count());
+		journal.preallocate();
+		assertEquals(2, count());
+
+		// Check roll uses the pre-allocated segment
+		final String record = "x".repeat(SIZE / 2);
+		journal.append(record.getBytes());
+		journal.append(record.getBytes());
+		assertEquals(2, count());
+		assertEquals(List.of(record, record), replay());
+	}
+
+	@Test
+	public void replayTornRecord() throws IOException {
+		// Append records
+		journal.append("one".getBytes());
+		journal.append("two".getBytes());
+		journal.close();
+
+		// Corrupt the payload of the second record
+		try(final FileChannel channel = FileChannel.open(dir.resolve("journal.00000000.log"), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap("xyz".getBytes()), 2 * 8 + 3);
+		}
+
+		// Check replay stops at the corrupt record
+		journal = new Journal(dir, SIZE);
+		assertEquals(List.of("one"), replay());
+
+		// Check appends overwrite the corrupt record
+		journal.append("three".getBytes());
+		assertEquals(List.of("one", "three"), replay());
+	}
+
+	@Test
+	public void markDiscard() throws IOException {
+		// Mark journal
+		journal.append("one".getBytes());
+		final long mark = journal.mark();
+		journal.append("two".getBytes());
+		assertEquals(2, count());
+
+		// Replay records before mark
+		final List<String> before = new ArrayList<>();
+		journal.replay(buffer -> before.add(StandardCharsets.UTF_8.decode(buffer).toString()), mark);
+		assertEquals(List.of("one"), before);
+
+		// Discard records before mark
+		journal.discard(mark);
+		assertEquals(1, count());
+		assertEquals(List.of("two"), replay());
+	}
+}
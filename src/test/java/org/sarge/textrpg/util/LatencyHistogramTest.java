@@ -0,0 +1,63 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+	private LatencyHistogram histogram;
+
+	@BeforeEach
+	public void before() {
+		histogram = new LatencyHistogram();
+	}
+
+	@Test
+	public void constructor() {
+		assertEquals(0, histogram.count());
+		assertEquals(0, histogram.percentile(Percentile.HALF));
+	}
+
+	@Test
+	public void record() {
+		histogram.record(3);
+		assertEquals(1, histogram.count());
+		assertEquals(3, histogram.percentile(Percentile.ONE));
+	}
+
+	@Test
+	public void recordNegative() {
+		assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+	}
+
+	@Test
+	public void percentile() {
+		for(int n = 1; n <= 100; ++n) {
+			histogram.record(n * 1000);
+		}
+		final long p50 = histogram.percentile(Percentile.HALF);
+		final long p99 = histogram.percentile(Percentile.of(99));
+		assertTrue(p50 >= 50 * 1000 && p50 <= 50 * 1000 * 1.125, "p50=" + p50);
+		assertTrue(p99 >= 99 * 1000 && p99 <= 99 * 1000 * 1.125, "p99=" + p99);
+		assertEquals(histogram.percentile(Percentile.ONE), histogram.percentile(Percentile.of(100)));
+	}
+
+	@Test
+	public void bucketBounds() {
+		for(long value : new long[]{0, 7, 8, 15, 16, 17, 1000, 123456789L, Long.MAX_VALUE}) {
+			final int index = LatencyHistogram.index(value);
+			assertTrue(LatencyHistogram.upper(index) >= value);
+			assertTrue((index == 0) || (LatencyHistogram.upper(index - 1) < value));
+		}
+	}
+
+	@Test
+	public void reset() {
+		histogram.record(42);
+		histogram.reset();
+		assertEquals(0, histogram.count());
+	}
+}
@@ -1,5 +1,6 @@
 package org.sarge.textrpg.util;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -8,7 +9,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -58,6 +61,12 @@ public class NameStoreTest {
 		public void matchesNotMatched() {
 			assertFalse(store.matches("key", "cobblers"));
 		}
+
+		@Test
+		public void names() {
+			assertEquals(List.of("name"), store.names("key").collect(toList()));
+			assertEquals(0, store.names("cobblers").count());
+		}
 	}
 
 	@Nested
@@ -94,6 +103,12 @@ public class NameStoreTest {
 		public void matchesNotMatched() {
 			assertFalse(store.matches("key", "cobblers"));
 		}
+
+		@Test
+		public void names() {
+			assertEquals(List.of("one", "two"), store.names("key").collect(toList()));
+			assertEquals(0, store.names("cobblers").count());
+		}
 	}
 
 	@Nested
@@ -141,6 +156,11 @@ public class NameStoreTest {
 			result.matches(key, key);
 			verify(store).matches(key, key);
 			verify(other).matches(key, key);
+
+			// Check names are concatenated
+			when(store.names(key)).thenReturn(Stream.of("one"));
+			when(other.names(key)).thenReturn(Stream.of("two"));
+			assertEquals(List.of("one", "two"), result.names(key).collect(toList()));
 		}
 	}
 }
@@ -0,0 +1,60 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class SnapshotReaderTest {
+	private static SnapshotReader reader(byte... bytes) throws IOException {
+		return new SnapshotReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+	}
+
+	@Test
+	public void invalidHeader() {
+		assertThrows(IOException.class, () -> reader(new byte[6]));
+	}
+
+	@Test
+	public void empty() {
+		assertThrows(EOFException.class, () -> reader());
+	}
+
+	@Test
+	public void readReference() throws IOException {
+		final SnapshotReader in = TestHelper.snapshot(out -> out.writeString("name"));
+		in.resolver(Integer.class, Map.of("name", 42)::get);
+		assertEquals(42, in.readReference(Integer.class));
+	}
+
+	@Test
+	public void readReferenceUnknown() throws IOException {
+		final SnapshotReader in = TestHelper.snapshot(out -> out.writeString("name"));
+		in.resolver(Integer.class, Map.of()::get);
+		assertThrows(IOException.class, () -> in.readReference(Integer.class));
+	}
+
+	@Test
+	public void readReferenceNoResolver() throws IOException {
+		final SnapshotReader in = TestHelper.snapshot(out -> out.writeString("name"));
+		assertThrows(IllegalStateException.class, () -> in.readReference(Integer.class));
+	}
+
+	@Test
+	public void readEnumUnknown() throws IOException {
+		final SnapshotReader in = TestHelper.snapshot(out -> out.writeString("cobblers"));
+		assertThrows(IOException.class, () -> in.readEnum(Thread.State.class));
+	}
+
+	@Test
+	public void readStringInvalidIndex() throws IOException {
+		final SnapshotReader in = TestHelper.snapshot(out -> out.writeLong(2));
+		assertThrows(IOException.class, () -> in.readString());
+	}
+}
@@ -0,0 +1,61 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotRepositoryTest {
+	private SnapshotRepository repository;
+	private Path dir;
+
+	@BeforeEach
+	public void before() throws IOException {
+		dir = Files.createTempDirectory("snapshot.repository.test");
+		repository = new SnapshotRepository(dir);
+	}
+
+	@Test
+	public void store() throws IOException {
+		// Store snapshot
+		assertEquals(false, repository.exists("test"));
+		final long size = repository.store("test", out -> out.writeString("string"));
+		assertEquals(true, repository.exists("test"));
+		assertEquals(size, Files.size(dir.resolve("test.snapshot")));
+
+		// Restore snapshot
+		try(final SnapshotReader in = repository.open("test")) {
+			assertEquals("string", in.readString());
+		}
+	}
+
+	@Test
+	public void storeReplace() throws IOException {
+		repository.store("test", out -> out.writeInt(1));
+		repository.store("test", out -> out.writeInt(2));
+		try(final SnapshotReader in = repository.open("test")) {
+			assertEquals(2, in.readInt());
+		}
+	}
+
+	@Test
+	public void storeSerialised() throws IOException {
+		final byte[] snapshot = SnapshotRepository.serialise(out -> out.writeString("string"));
+		assertEquals(snapshot.length, repository.store("test", snapshot));
+		assertEquals(snapshot.length, Files.size(dir.resolve("test.snapshot")));
+		try(final SnapshotReader in = repository.open("test")) {
+			assertEquals("string", in.readString());
+		}
+	}
+
+	@Test
+	public void openNotPresent() {
+		assertThrows(NoSuchFileException.class, () -> repository.open("cobblers"));
+	}
+}
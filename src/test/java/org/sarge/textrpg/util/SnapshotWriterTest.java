@@ -0,0 +1,134 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SnapshotWriterTest {
+	private ByteArrayOutputStream bytes;
+	private SnapshotWriter out;
+
+	@BeforeEach
+	public void before() {
+		bytes = new ByteArrayOutputStream();
+		out = new SnapshotWriter(Channels.newChannel(bytes));
+	}
+
+	private SnapshotReader reader() throws IOException {
+		out.close();
+		return new SnapshotReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+
+	@Test
+	public void header() throws IOException {
+		assertEquals(6, out.size());
+		out.close();
+		assertEquals(6, bytes.size());
+	}
+
+	@Test
+	public void writeBoolean() throws IOException {
+		out.writeBoolean(true);
+		out.writeBoolean(false);
+		final SnapshotReader in = reader();
+		assertEquals(true, in.readBoolean());
+		assertEquals(false, in.readBoolean());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints={0, 1, -1, 63, -64, 64, 127, 128, 42000, Integer.MAX_VALUE, Integer.MIN_VALUE})
+	public void writeInt(int value) throws IOException {
+		out.writeInt(value);
+		assertEquals(value, reader().readInt());
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs={0, -1, Long.MAX_VALUE, Long.MIN_VALUE})
+	public void writeLong(long value) throws IOException {
+		out.writeLong(value);
+		assertEquals(value, reader().readLong());
+	}
+
+	@Test
+	public void writeSmallInteger() throws IOException {
+		out.writeInt(-64);
+		out.writeInt(63);
+		assertEquals(6 + 2, out.size());
+	}
+
+	@Test
+	public void writeSize() throws IOException {
+		out.writeSize(42);
+		assertEquals(42, reader().readSize());
+	}
+
+	@Test
+	public void writeSizeNegative() {
+		assertThrows(IllegalArgumentException.class, () -> out.writeSize(-1));
+	}
+
+	@Test
+	public void writeString() throws IOException {
+		out.writeString("string");
+		out.writeString("élément");
+		final SnapshotReader in = reader();
+		assertEquals("string", in.readString());
+		assertEquals("élément", in.readString());
+	}
+
+	@Test
+	public void writeStringInterned() throws IOException {
+		out.writeString("string");
+		final long size = out.size();
+		out.writeString("string");
+		assertEquals(size + 1, out.size());
+		final SnapshotReader in = reader();
+		assertEquals("string", in.readString());
+		assertEquals("string", in.readString());
+	}
+
+	@Test
+	public void writeStringLarge() throws IOException {
+		final String str = "x".repeat(3 * SnapshotWriter.CAPACITY);
+		out.writeString(str);
+		out.writeInt(42);
+		final SnapshotReader in = reader();
+		assertEquals(str, in.readString());
+		assertEquals(42, in.readInt());
+	}
+
+	@Test
+	public void writeEnum() throws IOException {
+		out.writeEnum(Thread.State.RUNNABLE);
+		assertEquals(Thread.State.RUNNABLE, reader().readEnum(Thread.State.class));
+	}
+
+	@Test
+	public void writePersistent() throws IOException {
+		final Persistent obj = writer -> writer.writeInt(42);
+		out.write(obj);
+		assertEquals(42, reader().readInt());
+	}
+
+	@Test
+	public void writeMany() throws IOException {
+		for(int n = 0; n < 100000; ++n) {
+			out.writeInt(n);
+		}
+		final SnapshotReader in = reader();
+		for(int n = 0; n < 100000; ++n) {
+			assertEquals(n, in.readInt());
+		}
+		assertThrows(EOFException.class, () -> in.readInt());
+	}
+}
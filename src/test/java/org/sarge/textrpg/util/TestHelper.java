@@ -4,6 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
 import org.junit.jupiter.api.function.Executable;
 import org.sarge.lib.util.Check;
 import org.sarge.textrpg.common.Damage;
@@ -97,4 +102,18 @@ public final class TestHelper {
 		final Event.Queue.Manager manager = new Event.Queue.Manager();
 		return manager.queue("queue");
 	}
+
+	/**
+	 * Writes the given object to an in-memory snapshot.
+	 * @param obj Persistent object
+	 * @return Snapshot reader
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public static SnapshotReader snapshot(Persistent obj) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(final SnapshotWriter out = new SnapshotWriter(Channels.newChannel(bytes))) {
+			out.write(obj);
+		}
+		return new SnapshotReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+	}
 }
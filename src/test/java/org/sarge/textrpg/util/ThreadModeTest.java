@@ -0,0 +1,28 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.jupiter.api.Test;
+
+public class ThreadModeTest {
+	@Test
+	public void platform() {
+		final ThreadFactory factory = ThreadMode.PLATFORM.factory();
+		assertNotNull(factory);
+		assertNotNull(factory.newThread(() -> {}));
+	}
+
+	@Test
+	public void virtual() {
+		if(Runtime.version().feature() >= 21) {
+			final ThreadFactory factory = ThreadMode.VIRTUAL.factory();
+			assertNotNull(factory.newThread(() -> {}));
+		}
+		else {
+			assertThrows(UnsupportedOperationException.class, () -> ThreadMode.VIRTUAL.factory());
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package org.sarge.textrpg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+	private static final long SECOND = 1000;
+	private static final long MINUTE = 60 * SECOND;
+	private static final long HOUR = 60 * MINUTE;
+	private static final long DAY = 24 * HOUR;
+
+	private TimingWheel<String> wheel;
+	private List<String> results;
+
+	@BeforeEach
+	public void before() {
+		wheel = new TimingWheel<>(0);
+		results = new ArrayList<>();
+	}
+
+	@Test
+	public void constructor() {
+		assertEquals(0, wheel.now());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void add() {
+		wheel.add("entry", 1);
+		assertEquals(1, wheel.size());
+	}
+
+	@Test
+	public void advance() {
+		wheel.add("entry", 1);
+		wheel.advance(1, results::add);
+		assertEquals(List.of("entry"), results);
+		assertEquals(1, wheel.now());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void advanceNotDue() {
+		wheel.add("entry", 2);
+		wheel.advance(1, results::add);
+		assertEquals(List.of(), results);
+		assertEquals(1, wheel.size());
+	}
+
+	@DisplayName("Entries are consumed in time order and then insertion order")
+	@Test
+	public void advanceOrder() {
+		wheel.add("hour", HOUR + 1);
+		wheel.add("second", SECOND + 1);
+		wheel.add("one", 5);
+		wheel.add("minute", MINUTE + 1);
+		wheel.add("two", 5);
+		wheel.advance(DAY - 1, results::add);
+		assertEquals(List.of("one", "two", "second", "minute", "hour"), results);
+	}
+
+	@DisplayName("Entries cascade down the wheels as time advances")
+	@Test
+	public void advanceCascade() {
+		final long when = 2 * HOUR + 3 * MINUTE + 4 * SECOND + 5;
+		wheel.add("entry", when);
+		wheel.advance(when - 1, results::add);
+		assertEquals(List.of(), results);
+		wheel.advance(when, results::add);
+		assertEquals(List.of("entry"), results);
+	}
+
+	@DisplayName("Entries beyond the range of the wheels are held in the overflow queue")
+	@Test
+	public void advanceOverflow() {
+		final long when = 3 * DAY + HOUR + 1;
+		wheel.add("entry", when);
+		wheel.advance(3 * DAY, results::add);
+		assertEquals(List.of(), results);
+		wheel.advance(when, results::add);
+		assertEquals(List.of("entry"), results);
+	}
+
+	@DisplayName("An entry scheduled at or before the current time is consumed by the next advance")
+	@Test
+	public void advanceOverdue() {
+		wheel.advance(10, results::add);
+		wheel.add("entry", 5);
+		wheel.advance(10, results::add);
+		assertEquals(List.of("entry"), results);
+	}
+
+	@DisplayName("Entries can be added relative to an arbitrary current time")
+	@Test
+	public void advanceUnaligned() {
+		wheel = new TimingWheel<>(DAY - 1);
+		wheel.add("entry", DAY + 1);
+		wheel.advance(DAY, results::add);
+		assertEquals(List.of(), results);
+		wheel.advance(DAY + 1, results::add);
+		assertEquals(List.of("entry"), results);
+	}
+
+	@Test
+	public void advanceBackwards() {
+		wheel.advance(2, results::add);
+		assertThrows(IllegalArgumentException.class, () -> wheel.advance(1, results::add));
+	}
+}
@@ -1,6 +1,7 @@
 package org.sarge.textrpg.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -9,7 +10,9 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.util.WordCursor.StopWords;
 
 public class WordCursorTest {
 	private WordCursor cursor;
@@ -101,4 +104,69 @@ public class WordCursorTest {
 		cursor.reset();
 		assertEquals("put", cursor.next());
 	}
+
+	@Test
+	public void nextWord() {
+		final CharSequence word = cursor.nextWord();
+		assertEquals("put", word.toString());
+		assertEquals(3, word.length());
+		assertEquals('u', word.charAt(1));
+		assertEquals("ut", word.subSequence(1, 3).toString());
+	}
+
+	@Test
+	public void resetReusesWords() {
+		final String word = cursor.next();
+		cursor.reset();
+		assertSame(word, cursor.next());
+	}
+
+	@Test
+	public void separators() {
+		cursor = new WordCursor("  get  sword,shield - can't  3.5 n. ", store, Set.of());
+		assertEquals("get", cursor.next());
+		assertEquals("sword", cursor.next());
+		assertEquals("shield", cursor.next());
+		assertEquals("can't", cursor.next());
+		assertEquals("3.5", cursor.next());
+		assertEquals("n", cursor.next());
+		assertEquals(true, cursor.isExhausted());
+	}
+
+	@Test
+	public void capacityStopWords() {
+		cursor = new WordCursor("the the", store, Set.of("the"));
+		assertEquals(true, cursor.capacity(0));
+		assertEquals(false, cursor.capacity(1));
+		assertEquals(true, cursor.isExhausted());
+	}
+
+	@Nested
+	class StopWordsTests {
+		private StopWords stop;
+
+		@BeforeEach
+		public void before() {
+			stop = new StopWords(Set.of("the", "into", "a"));
+		}
+
+		@Test
+		public void contains() {
+			assertEquals(true, stop.contains("put the", 4, 7));
+			assertEquals(true, stop.contains("a", 0, 1));
+			assertEquals(true, stop.contains("into", 0, 4));
+		}
+
+		@Test
+		public void notContains() {
+			assertEquals(false, stop.contains("put the", 0, 3));
+			assertEquals(false, stop.contains("then", 0, 4));
+			assertEquals(false, stop.contains("the", 0, 2));
+		}
+
+		@Test
+		public void empty() {
+			assertEquals(false, new StopWords(Set.of()).contains("the", 0, 3));
+		}
+	}
 }
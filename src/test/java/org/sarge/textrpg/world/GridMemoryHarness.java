@@ -0,0 +1,99 @@
+package org.sarge.textrpg.world;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.util.Matrix;
+import org.sarge.textrpg.util.Matrix.Coordinates;
+
+/**
+ * Harness that reports the heap usage of a large wilderness {@link Grid}.
+ * <p>
+ * The harness measures:
+ * <ul>
+ * <li>the descriptor storage of the grid</li>
+ * <li>the retained heap after <b>every</b> location in the grid has been visited</li>
+ * <li>the retained heap after an object has been dropped in a percentage of the locations (which are therefore pinned)</li>
+ * <li>the retained heap after the neighbourhood of every location has been broadcast to, i.e. whether neighbourhoods keep unpinned locations reachable</li>
+ * </ul>
+ * <p>
+ * Usage: <tt>GridMemoryHarness [size] [dropped%] [depth]</tt>
+ * <p>
+ * @author Sarge
+ */
+public class GridMemoryHarness {
+	private static final Terrain[] TERRAIN = {Terrain.GRASSLAND, Terrain.FARMLAND, Terrain.HILL, Terrain.WOODLAND, Terrain.FOREST, Terrain.DESERT};
+
+	private static long used(MemoryMXBean memory) {
+		System.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	public static void main(String[] args) {
+		final int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		final int dropped = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		final int depth = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+		// Create descriptor matrix
+		final long start = used(memory);
+		final Location.Descriptor def = new Location.Descriptor("wilderness");
+		final Location.Descriptor[] descriptors = new Location.Descriptor[TERRAIN.length];
+		for(int n = 0; n < TERRAIN.length; ++n) {
+			descriptors[n] = new Location.Descriptor(def, TERRAIN[n]);
+		}
+		Matrix<Location.Descriptor> matrix = new Matrix<>(size, size);
+		for(int x = 0; x < size; ++x) {
+			for(int y = 0; y < size; ++y) {
+				matrix.set(x, y, descriptors[(x / 7 + y / 11) % descriptors.length]);
+			}
+		}
+		final long loaded = used(memory);
+
+		// Measure descriptor storage (after the matrix is released)
+		final Grid grid = new Grid.Builder(Area.ROOT, matrix).build();
+		matrix = null;
+		final long storage = used(memory);
+
+		// Visit every location
+		long exits = 0;
+		for(int x = 0; x < size; ++x) {
+			for(int y = 0; y < size; ++y) {
+				exits += grid.get(new Coordinates(x, y)).exits().stream().count();
+			}
+		}
+		final long visited = used(memory);
+
+		// Drop objects in a percentage of locations
+		final ObjectDescriptor object = ObjectDescriptor.of("object");
+		final List<Coordinates> pinned = new ArrayList<>();
+		final int step = 100 / Math.max(1, dropped);
+		for(int n = 0; n < size * size; n += step) {
+			final Coordinates coords = new Coordinates(n / size, n % size);
+			object.create().parent(grid.get(coords));
+			pinned.add(coords);
+		}
+		final long state = used(memory);
+
+		// Broadcast to the neighbourhood of every location
+		long neighbours = 0;
+		for(int x = 0; x < size; ++x) {
+			for(int y = 0; y < size; ++y) {
+				neighbours += Neighbourhood.of(grid.get(new Coordinates(x, y)), depth).size();
+			}
+		}
+		final long broadcast = used(memory);
+
+		// Report
+		System.out.println(String.format("grid=%dx%d locations=%d exits=%d pinned=%d neighbours=%d depth=%d", size, size, size * size, exits, grid.pinned(), neighbours, depth));
+		System.out.println(String.format("matrix: %dKB (not retained by the grid)", (loaded - start) / 1024));
+		System.out.println(String.format("storage: %dKB", (storage - start) / 1024));
+		System.out.println(String.format("visited: %dKB retained", (visited - storage) / 1024));
+		System.out.println(String.format("pinned: %dKB retained, per-location=%.2fKB", (state - visited) / 1024, (state - visited) / 1024f / pinned.size()));
+		System.out.println(String.format("broadcast: %dKB retained", (broadcast - state) / 1024));
+		System.out.println(grid);
+	}
+}
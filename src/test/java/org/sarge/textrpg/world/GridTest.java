@@ -2,6 +2,7 @@ package org.sarge.textrpg.world;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.List;
@@ -12,8 +13,12 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.object.WorldObject;
 import org.sarge.textrpg.util.Matrix;
 import org.sarge.textrpg.util.Matrix.Coordinates;
+import org.sarge.textrpg.util.Percentile;
+import org.sarge.textrpg.util.TestHelper;
 import org.sarge.textrpg.world.Grid.Builder.Cursor;
 import org.sarge.textrpg.world.Grid.Neighbour;
 
@@ -52,6 +57,86 @@ public class GridTest {
 		assertThrows(IllegalArgumentException.class, () -> builder.cursor(2, 3));
 	}
 
+	@Test
+	public void get() {
+		final Grid grid = builder.build();
+		final Location loc = grid.get(new Coordinates(1, 2));
+		assertNotNull(loc);
+		assertEquals("loc", loc.name());
+		assertEquals(Terrain.HILL, loc.terrain());
+		assertEquals(Area.ROOT, loc.area());
+		assertSame(loc, grid.get(new Coordinates(1, 2)));
+	}
+
+	@Test
+	public void getEmpty() {
+		assertEquals(null, builder.build().get(new Coordinates(2, 3)));
+	}
+
+	@Test
+	public void getOutOfBounds() {
+		final Grid grid = builder.build();
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> grid.get(new Coordinates(0, 4)));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> grid.get(new Coordinates(3, 0)));
+	}
+
+	@Test
+	public void exits() {
+		final Grid grid = builder.build();
+		final Location loc = grid.get(new Coordinates(1, 3));
+		assertEquals(2, loc.exits().stream().count());
+		assertEquals(Optional.of(new Exit(Direction.NORTH, Link.DEFAULT, grid.get(new Coordinates(1, 2)))), loc.exits().find(Direction.NORTH));
+		assertEquals(Optional.empty(), loc.exits().find(Direction.EAST));
+	}
+
+	@Test
+	public void neighbourhoodNotCached() {
+		final Grid grid = builder.build();
+		final Location loc = grid.get(new Coordinates(1, 2));
+		assertEquals(false, loc.isCacheable());
+		assertEquals(4, Neighbourhood.of(loc, 1).size());
+		assertEquals(null, loc.neighbourhood);
+	}
+
+	@Test
+	public void pinContents() {
+		// Add an object to a grid location
+		final Grid grid = builder.build();
+		final Location loc = grid.get(new Coordinates(0, 0));
+		final WorldObject obj = ObjectDescriptor.of("object").create();
+		assertEquals(0, grid.pinned());
+		obj.parent(loc);
+		assertEquals(1, grid.pinned());
+
+		// Remove object and check location is unpinned
+		obj.parent(TestHelper.parent());
+		assertEquals(0, grid.pinned());
+	}
+
+	@Test
+	public void pinTracks() {
+		final Grid grid = builder.build();
+		final Location loc = grid.get(new Coordinates(0, 0));
+		loc.add(new Tracks("creator", Direction.EAST, Percentile.ONE, 0));
+		assertEquals(1, grid.pinned());
+		loc.expire(1);
+		assertEquals(0, grid.pinned());
+	}
+
+	@Test
+	public void palette() {
+		final Matrix<Location.Descriptor> matrix = new Matrix<>(256, 257);
+		for(int x = 0; x < 256; ++x) {
+			for(int y = (x == 0) ? 1 : 0; y < 256; ++y) {
+				matrix.set(x, y, new Location.Descriptor("loc" + x + "." + y));
+			}
+		}
+		final Grid grid = new Grid.Builder(Area.ROOT, matrix).build();
+		assertEquals("loc255.255", grid.get(new Coordinates(255, 255)).name());
+		matrix.set(0, 256, new Location.Descriptor("overflow"));
+		assertThrows(IllegalArgumentException.class, () -> new Grid.Builder(Area.ROOT, matrix));
+	}
+
 	@Nested
 	class BlockedExits {
 		@Test
@@ -1,33 +1,71 @@
 package org.sarge.textrpg.world;
 
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 public class LocationBroadcasterTest {
 	private LocationBroadcaster broadcaster;
+	private Location start, dest;
+	private LocationBroadcaster.Visitor vis;
 
 	@BeforeEach
 	public void before() {
+		// Create a linked location
+		start = mock(Location.class);
+		dest = mock(Location.class);
+		when(start.exits()).thenReturn(ExitMap.of(new Exit(Direction.EAST, Link.DEFAULT, dest)));
+		when(dest.exits()).thenReturn(ExitMap.of(new Exit(Direction.WEST, Link.DEFAULT, start)));
+
+		// Create broadcaster
 		broadcaster = new LocationBroadcaster(1);
+		vis = mock(LocationBroadcaster.Visitor.class);
 	}
 
 	@Test
 	public void visit() {
-		// Create a linked location
-		final Location start = mock(Location.class);
-		final Location dest = mock(Location.class);
-		when(start.exits()).thenReturn(ExitMap.of(new Exit(Direction.EAST, Link.DEFAULT, dest)));
-		when(dest.exits()).thenReturn(ExitMap.of(new Exit(Direction.WEST, Link.DEFAULT, start)));
-
-		// Invoke and check only neighbour visited
-		final LocationBroadcaster.Visitor vis = mock(LocationBroadcaster.Visitor.class);
 		broadcaster.visit(start, vis);
 		verify(vis).visit(new Exit(Direction.EAST, Link.DEFAULT, dest), 1);
 		verifyNoMoreInteractions(vis);
 	}
+
+	@Test
+	public void visitDepth() {
+		// Add a further location
+		final Location other = mock(Location.class);
+		final Exit exit = new Exit(Direction.NORTH, Link.DEFAULT, other);
+		when(dest.exits()).thenReturn(ExitMap.of(exit));
+		when(other.exits()).thenReturn(ExitMap.EMPTY);
+
+		// Visit and check neighbours visited in order of depth
+		broadcaster = new LocationBroadcaster(2);
+		broadcaster.visit(start, vis);
+		final InOrder order = inOrder(vis);
+		order.verify(vis).visit(new Exit(Direction.EAST, Link.DEFAULT, dest), 1);
+		order.verify(vis).visit(exit, 2);
+		verifyNoMoreInteractions(vis);
+	}
+
+	@Test
+	public void visitCached() {
+		broadcaster.visit(start, vis);
+		broadcaster.visit(start, vis);
+		verify(vis, times(2)).visit(new Exit(Direction.EAST, Link.DEFAULT, dest), 1);
+		verify(start, times(1)).exits();
+	}
+
+	@Test
+	public void visitInvalidated() {
+		broadcaster.visit(start, vis);
+		Neighbourhood.invalidate();
+		broadcaster.visit(start, vis);
+		verify(start, times(2)).exits();
+	}
 }
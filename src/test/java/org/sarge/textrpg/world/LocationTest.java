@@ -3,11 +3,18 @@ package org.sarge.textrpg.world;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.common.Emission;
 import org.sarge.textrpg.contents.ContentStateChange;
+import org.sarge.textrpg.contents.Contents;
+import org.sarge.textrpg.contents.Parent;
+import org.sarge.textrpg.contents.Thing;
+import org.sarge.textrpg.object.ObjectDescriptor;
+import org.sarge.textrpg.object.WorldObject;
 import org.sarge.textrpg.util.Percentile;
 import org.sarge.textrpg.util.TestHelper;
 import org.sarge.textrpg.world.ExitMap.MutableExitMap;
@@ -61,24 +68,68 @@ public class LocationTest {
 
 	@Test
 	public void addTracks() {
-		final Tracks tracks = new Tracks(loc, "creator", Direction.EAST, Percentile.ONE, 0, null);
+		final Tracks tracks = new Tracks("creator", Direction.EAST, Percentile.ONE, 0);
 		loc.add(tracks);
 		assertArrayEquals(new Tracks[]{tracks}, loc.tracks().toArray());
 	}
 
+	@Test
+	public void addTracksCapacity() {
+		for(int n = 0; n <= TracksRing.CAPACITY; ++n) {
+			loc.add(new Tracks("creator", Direction.EAST, Percentile.ONE, n));
+		}
+		assertEquals(TracksRing.CAPACITY, loc.tracks().count());
+		assertEquals(1L, loc.tracks().findFirst().get().created());
+	}
 
 	@Test
-	public void removeTracks() {
-		final Tracks tracks = new Tracks(loc, "creator", Direction.EAST, Percentile.ONE, 0, null);
-		loc.add(tracks);
-		loc.remove(tracks);
+	public void expireTracks() {
+		loc.add(new Tracks("creator", Direction.EAST, Percentile.ONE, 0));
+		assertEquals(0, loc.expire(0));
+		assertEquals(1, loc.expire(1));
 		assertEquals(0, loc.tracks().count());
 	}
 
+	@Test
+	public void concealTracks() {
+		loc.add(new Tracks("creator", Direction.EAST, Percentile.ONE, 0));
+		loc.conceal(Percentile.HALF);
+		assertEquals(Percentile.HALF, loc.tracks().findAny().get().visibility());
+	}
+
 	@Test
 	public void lightLevelChange() {
 		TestHelper.light(loc);
 		loc.notify(ContentStateChange.LIGHT_MODIFIED);
 		assertEquals(Percentile.ONE, loc.emission(Emission.LIGHT));
 	}
+
+	@Test
+	public void emissionChange() {
+		// Add an object with a mutable emission
+		final Percentile[] smoke = {Percentile.HALF};
+		final Thing thing = new WorldObject(ObjectDescriptor.of("fire")) {
+			@Override
+			public Percentile emission(Emission emission) {
+				return emission == Emission.SMOKE ? smoke[0] : Percentile.ZERO;
+			}
+		};
+		thing.parent(loc);
+		assertEquals(Percentile.HALF, loc.emission(Emission.SMOKE));
+
+		// Check aggregate is re-calculated after an emission notification
+		smoke[0] = Percentile.ZERO;
+		thing.raise(ContentStateChange.EMISSION_MODIFIED);
+		assertEquals(Percentile.ZERO, loc.emission(Emission.SMOKE));
+	}
+
+	@Test
+	public void emissionAddRemove() {
+		final Thing light = TestHelper.light(loc);
+		assertEquals(Percentile.ONE, loc.emission(Emission.LIGHT));
+		final Parent parent = mock(Parent.class);
+		when(parent.contents()).thenReturn(new Contents());
+		light.parent(parent);
+		assertEquals(Percentile.ZERO, loc.emission(Emission.LIGHT));
+	}
 }
@@ -0,0 +1,125 @@
+package org.sarge.textrpg.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class NeighbourhoodTest {
+	private Location start, near, far;
+	private Exit exit, next;
+
+	@BeforeEach
+	public void before() {
+		// Create locations
+		start = mock(Location.class);
+		near = mock(Location.class);
+		far = mock(Location.class);
+		when(start.isCacheable()).thenReturn(true);
+		when(near.isCacheable()).thenReturn(true);
+		when(far.isCacheable()).thenReturn(true);
+
+		// Link start -> near -> far with a short-cut from start -> far
+		exit = new Exit(Direction.EAST, Link.DEFAULT, near);
+		next = new Exit(Direction.EAST, Link.DEFAULT, far);
+		when(start.exits()).thenReturn(ExitMap.of(exit));
+		when(near.exits()).thenReturn(exits(next, new Exit(Direction.WEST, Link.DEFAULT, start)));
+		when(far.exits()).thenReturn(ExitMap.of(new Exit(Direction.WEST, Link.DEFAULT, near)));
+	}
+
+	private static ExitMap exits(Exit... exits) {
+		final ExitMap map = new ExitMap.MutableExitMap();
+		for(Exit e : exits) {
+			map.add(e);
+		}
+		return map;
+	}
+
+	@Test
+	public void build() {
+		final Neighbourhood neighbourhood = Neighbourhood.build(start, 1);
+		assertEquals(1, neighbourhood.size());
+		assertEquals(1, neighbourhood.levels());
+		assertEquals(1, neighbourhood.end(1));
+		assertEquals(exit, neighbourhood.exit(0));
+	}
+
+	@Test
+	public void buildDepth() {
+		final Neighbourhood neighbourhood = Neighbourhood.build(start, 2);
+		assertEquals(2, neighbourhood.size());
+		assertEquals(2, neighbourhood.levels());
+		assertEquals(1, neighbourhood.end(1));
+		assertEquals(2, neighbourhood.end(2));
+		assertEquals(exit, neighbourhood.exit(0));
+		assertEquals(next, neighbourhood.exit(1));
+	}
+
+	@Test
+	public void buildShortestRoute() {
+		// Add short-cut to far location
+		final Exit shortcut = new Exit(Direction.NORTH, Link.DEFAULT, far);
+		when(start.exits()).thenReturn(exits(exit, shortcut));
+
+		// Check far location is visited at the first level
+		final Neighbourhood neighbourhood = Neighbourhood.build(start, 2);
+		assertEquals(2, neighbourhood.size());
+		assertEquals(2, neighbourhood.end(1));
+		assertEquals(Set.of(exit, shortcut), Set.of(neighbourhood.exit(0), neighbourhood.exit(1)));
+	}
+
+	@Test
+	public void buildExhausted() {
+		final Neighbourhood neighbourhood = Neighbourhood.build(start, 5);
+		assertEquals(2, neighbourhood.size());
+		assertEquals(2, neighbourhood.levels());
+	}
+
+	@Test
+	public void buildInvalidDepth() {
+		assertThrows(IllegalArgumentException.class, () -> Neighbourhood.build(start, 0));
+	}
+
+	@Test
+	public void of() {
+		final Neighbourhood neighbourhood = Neighbourhood.of(start, 1);
+		assertSame(neighbourhood, Neighbourhood.of(start, 1));
+	}
+
+	@Test
+	public void ofExhausted() {
+		final Neighbourhood neighbourhood = Neighbourhood.of(start, 3);
+		assertSame(neighbourhood, Neighbourhood.of(start, 42));
+	}
+
+	@Test
+	public void ofLargerDepth() {
+		final Neighbourhood neighbourhood = Neighbourhood.of(start, 1);
+		final Neighbourhood larger = Neighbourhood.of(start, 2);
+		assertNotSame(neighbourhood, larger);
+		assertEquals(2, larger.levels());
+		assertSame(larger, Neighbourhood.of(start, 1));
+	}
+
+	@Test
+	public void ofNotCacheable() {
+		when(far.isCacheable()).thenReturn(false);
+		final Neighbourhood neighbourhood = Neighbourhood.of(start, 2);
+		assertNotSame(neighbourhood, Neighbourhood.of(start, 2));
+		assertSame(Neighbourhood.of(start, 1), Neighbourhood.of(start, 1));
+	}
+
+	@Test
+	public void invalidate() {
+		final Neighbourhood neighbourhood = Neighbourhood.of(start, 1);
+		Neighbourhood.invalidate();
+		assertNotSame(neighbourhood, Neighbourhood.of(start, 1));
+	}
+}
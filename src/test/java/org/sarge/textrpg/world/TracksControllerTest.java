@@ -5,22 +5,25 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sarge.textrpg.entity.Entity;
 import org.sarge.textrpg.entity.MovementMode;
 import org.sarge.textrpg.object.Rope;
-import org.sarge.textrpg.util.Clock;
+import org.sarge.textrpg.util.Event;
 import org.sarge.textrpg.util.Percentile;
 
 public class TracksControllerTest {
 	private TracksController controller;
-	private Clock clock;
+	private Event.Queue.Manager manager;
 
 	@BeforeEach
 	public void before() {
-		clock = mock(Clock.class);
-		controller = new TracksController(clock);
+		manager = new Event.Queue.Manager();
+		controller = new TracksController(manager, Duration.ofMinutes(1));
+		controller.setLifetime(Duration.ofMinutes(2));
 	}
 
 	@Test
@@ -63,6 +66,12 @@ public class TracksControllerTest {
 		assertEquals(Direction.EAST, tracks.direction());
 		assertEquals(Percentile.HALF, tracks.visibility());
 		assertEquals(0L, tracks.created());
+
+		// Check tracks expired
+		manager.advance(Duration.ofMinutes(2).toMillis());
+		assertEquals(1, loc.tracks().count());
+		manager.advance(Duration.ofMinutes(1).toMillis());
+		assertEquals(0, loc.tracks().count());
 	}
 
 	@Test
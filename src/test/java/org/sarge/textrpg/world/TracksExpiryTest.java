@@ -0,0 +1,57 @@
+package org.sarge.textrpg.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.util.Percentile;
+
+public class TracksExpiryTest {
+	private TracksExpiry expiry;
+	private Location loc;
+
+	@BeforeEach
+	public void before() {
+		expiry = new TracksExpiry(10);
+		loc = new DefaultLocation(new Location.Descriptor("loc"), Area.ROOT);
+	}
+
+	private void add(long created) {
+		loc.add(new Tracks("creator", Direction.EAST, Percentile.ONE, created));
+		expiry.add(loc, created);
+	}
+
+	@Test
+	public void constructor() {
+		assertEquals(0, expiry.size());
+	}
+
+	@Test
+	public void add() {
+		add(1);
+		add(2);
+		assertEquals(1, expiry.size());
+		add(10);
+		assertEquals(2, expiry.size());
+	}
+
+	@Test
+	public void sweep() {
+		add(1);
+		add(15);
+		assertEquals(1, expiry.sweep(10));
+		assertEquals(1, expiry.size());
+		assertEquals(1, loc.tracks().count());
+		assertEquals(1, expiry.sweep(20));
+		assertEquals(0, expiry.size());
+		assertEquals(0, loc.tracks().count());
+	}
+
+	@Test
+	public void sweepPartialBucket() {
+		add(1);
+		assertEquals(0, expiry.sweep(5));
+		assertEquals(1, expiry.size());
+		assertEquals(1, loc.tracks().count());
+	}
+}
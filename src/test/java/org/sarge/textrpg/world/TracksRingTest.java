@@ -0,0 +1,76 @@
+package org.sarge.textrpg.world;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.textrpg.util.Percentile;
+
+public class TracksRingTest {
+	private TracksRing ring;
+
+	@BeforeEach
+	public void before() {
+		ring = new TracksRing(2);
+	}
+
+	private static Tracks tracks(long created) {
+		return new Tracks("creator", Direction.EAST, Percentile.HALF, created);
+	}
+
+	@Test
+	public void constructor() {
+		assertEquals(0, ring.size());
+		assertEquals(true, ring.isEmpty());
+		assertEquals(0, ring.stream().count());
+	}
+
+	@Test
+	public void add() {
+		final Tracks tracks = tracks(1);
+		ring.add(tracks);
+		assertEquals(1, ring.size());
+		assertEquals(false, ring.isEmpty());
+		assertEquals(List.of(tracks), ring.stream().collect(toList()));
+	}
+
+	@Test
+	public void addOverwrite() {
+		ring.add(tracks(1));
+		ring.add(tracks(2));
+		ring.add(tracks(3));
+		assertEquals(2, ring.size());
+		assertEquals(List.of(tracks(2), tracks(3)), ring.stream().collect(toList()));
+	}
+
+	@Test
+	public void expire() {
+		ring.add(tracks(1));
+		ring.add(tracks(2));
+		assertEquals(1, ring.expire(2));
+		assertEquals(List.of(tracks(2)), ring.stream().collect(toList()));
+		assertEquals(1, ring.expire(3));
+		assertEquals(true, ring.isEmpty());
+	}
+
+	@Test
+	public void expireWrapped() {
+		ring.add(tracks(1));
+		ring.add(tracks(2));
+		ring.add(tracks(3));
+		assertEquals(0, ring.expire(2));
+		assertEquals(1, ring.expire(3));
+		ring.add(tracks(4));
+		assertEquals(List.of(tracks(3), tracks(4)), ring.stream().collect(toList()));
+	}
+
+	@Test
+	public void conceal() {
+		ring.add(tracks(1));
+		ring.conceal(Percentile.HALF);
+		assertEquals(Percentile.of(25), ring.stream().findAny().get().visibility());
+	}
+}
@@ -1,9 +1,6 @@
 package org.sarge.textrpg.world;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,12 +8,12 @@ import org.sarge.textrpg.util.Percentile;
 
 public class TrailTest {
 	private Trail trail;
-	private Location loc;
+	private Tracks tracks;
 
 	@BeforeEach
 	public void before() {
 		trail = new Trail();
-		loc = mock(Location.class);
+		tracks = new Tracks("creator", Direction.EAST, Percentile.ONE, 0);
 	}
 
 	@Test
@@ -24,77 +21,23 @@ public class TrailTest {
 		assertEquals(null, trail.previous());
 	}
 
-	/**
-	 * Adds some tracks.
-	 */
-	private Tracks addTracks() {
-		final Tracks tracks = new Tracks(loc, "creator", Direction.EAST, Percentile.ONE, 0, null);
-		trail.add(tracks);
-		return tracks;
-	}
-
 	@Test
-	public Tracks add() {
-		final Tracks tracks = addTracks();
+	public void add() {
+		trail.add(tracks);
 		assertEquals(tracks, trail.previous());
-		assertEquals(1, loc.tracks().count());
-		return tracks;
-	}
-
-	@Test
-	public void addLinkPrevious() {
-		final Tracks prev = addTracks();
-		final Tracks next = new Tracks(loc, "creator", Direction.EAST, Percentile.ONE, 0, prev);
-		trail.add(next);
-		assertEquals(next, trail.previous());
-		assertEquals(next, prev.next());
 	}
 
 	@Test
 	public void stop() {
-		addTracks();
-		trail.stop();
-		assertEquals(null, trail.previous());
-	}
-
-	@Test
-	public void stopEmptyTrail() {
-		trail.stop();
-		assertEquals(null, trail.previous());
-	}
-
-	@Test
-	public void prune() {
-		final Tracks tracks = addTracks();
-		trail.prune(1);
-		assertEquals(null, trail.previous());
-		verify(loc).remove(tracks);
-	}
-
-	@Test
-	public void pruneMultipleSegments() {
-		final Tracks tracks = addTracks();
+		trail.add(tracks);
 		trail.stop();
-		addTracks();
-		trail.prune(1);
 		assertEquals(null, trail.previous());
-		verify(loc, times(2)).remove(tracks);
-	}
-
-	@Test
-	public void pruneExpiry() {
-		final Tracks prev = addTracks();
-		final Tracks later = new Tracks(loc, "creator", Direction.EAST, Percentile.ONE, 1, prev);
-		trail.add(later);
-		trail.prune(1);
-		assertEquals(later, trail.previous());
 	}
 
 	@Test
 	public void clear() {
-		final Tracks tracks = addTracks();
-		trail.stop();
+		trail.add(tracks);
 		trail.clear();
-		verify(loc).remove(tracks);
+		assertEquals(null, trail.previous());
 	}
 }
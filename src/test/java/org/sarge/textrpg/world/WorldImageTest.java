@@ -0,0 +1,150 @@
+package org.sarge.textrpg.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sarge.lib.xml.Element;
+import org.sarge.lib.xml.ElementLoader;
+import org.sarge.textrpg.util.NameStore;
+
+public class WorldImageTest {
+	private Path image;
+	private Path area;
+	private Path other;
+	private List<Path> files;
+	private long[] modified;
+	private List<Element> trees;
+
+	@BeforeEach
+	public void before() throws IOException {
+		final Path dir = Files.createTempDirectory("world.image.test");
+		area = dir.resolve("area.xml");
+		other = dir.resolve("other.xml");
+		Files.writeString(area, "<?xml version='1.0'?><!-- comment --><area name='area'>\n  <location name='loc'><description>  text  </description></location>\n</area>");
+		Files.writeString(dir.resolve("area.properties"), "key=value\n");
+		Files.writeString(other, "<area name='other'/>");
+		files = List.of(area, other);
+		modified = new long[]{WorldImage.modified(area), WorldImage.modified(other)};
+		trees = List.of(parse(area), parse(other));
+		image = dir.resolve("database").resolve("world.image");
+	}
+
+	/**
+	 * Parses an area file.
+	 */
+	private static Element parse(Path file) throws IOException {
+		try(final Reader in = Files.newBufferedReader(file)) {
+			return new ElementLoader().load(in);
+		}
+	}
+
+	@Test
+	public void openNotPresent() throws IOException {
+		assertEquals(Optional.empty(), WorldImage.open(image, files));
+	}
+
+	@Test
+	public void write() throws IOException {
+		// Compile image
+		final long size = WorldImage.write(image, files, modified, trees);
+		assertEquals(size, Files.size(image));
+
+		// Open image
+		final WorldImage compiled = WorldImage.open(image, files).orElseThrow();
+		assertNotNull(compiled.toString());
+		assertEquals(2, compiled.entries().size());
+
+		// Check area with name-store
+		final WorldImage.Entry entry = compiled.entries().get(0);
+		assertEquals(area, entry.file());
+		entry.load((xml, store) -> {
+			assertEquals("area", xml.name());
+			assertEquals("area", xml.attribute("name").toText());
+			final Element loc = xml.child("location");
+			assertEquals("loc", loc.attribute("name").toText());
+			assertEquals(trees.get(0).child("location").child("description").text(), loc.child("description").text());
+			assertEquals("value", store.get("key"));
+			return null;
+		});
+
+		// Check area without name-store
+		compiled.entries().get(1).load((xml, store) -> {
+			assertEquals("other", xml.attribute("name").toText());
+			assertEquals(0, xml.children().count());
+			assertEquals(NameStore.EMPTY, store);
+			return null;
+		});
+	}
+
+	@Test
+	public void openDifferentFiles() throws IOException {
+		WorldImage.write(image, files, modified, trees);
+		assertEquals(Optional.empty(), WorldImage.open(image, List.of(area)));
+		assertEquals(Optional.empty(), WorldImage.open(image, List.of(other, area)));
+	}
+
+	@Test
+	public void openModified() throws IOException {
+		WorldImage.write(image, files, modified, trees);
+		Files.setLastModifiedTime(area.resolveSibling("area.properties"), FileTime.fromMillis(System.currentTimeMillis() + 60000));
+		assertEquals(Optional.empty(), WorldImage.open(image, files));
+	}
+
+	@Test
+	public void openModifiedDuringParse() throws IOException {
+		Files.setLastModifiedTime(area, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+		WorldImage.write(image, files, modified, trees);
+		assertEquals(Optional.empty(), WorldImage.open(image, files));
+	}
+
+	@Test
+	public void openInvalidImage() throws IOException {
+		Files.createDirectories(image.getParent());
+		Files.writeString(image, "cobblers");
+		assertEquals(Optional.empty(), WorldImage.open(image, files));
+	}
+
+	@Test
+	public void openTruncatedIndex() throws IOException {
+		WorldImage.write(image, files, modified, trees);
+		try(final FileChannel channel = FileChannel.open(image, StandardOpenOption.WRITE)) {
+			channel.truncate(3 * Integer.BYTES + 4);
+		}
+		assertEquals(Optional.empty(), WorldImage.open(image, files));
+	}
+
+	@Test
+	public void openCorruptIndex() throws IOException {
+		// Corrupt offset of the first entry
+		WorldImage.write(image, files, modified, trees);
+		final int offset = 3 * Integer.BYTES + Short.BYTES + area.toString().getBytes().length + Long.BYTES;
+		try(final FileChannel channel = FileChannel.open(image, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(Integer.MAX_VALUE).flip(), offset);
+		}
+		assertEquals(Optional.empty(), WorldImage.open(image, files));
+	}
+
+	@Test
+	public void writeInvalidTrees() throws IOException {
+		assertThrows(IllegalArgumentException.class, () -> WorldImage.write(image, files, modified, List.of()));
+	}
+
+	@Test
+	public void writeInvalidModified() throws IOException {
+		assertThrows(IllegalArgumentException.class, () -> WorldImage.write(image, files, new long[0], trees));
+	}
+}